@@ -0,0 +1,392 @@
+package tech.bugger.business.internal;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import tech.bugger.business.util.PriorityExecutor;
+import tech.bugger.business.util.PriorityTask;
+import tech.bugger.global.util.Log;
+import tech.bugger.global.util.Metrics;
+import tech.bugger.persistence.exception.NotFoundException;
+import tech.bugger.persistence.exception.StoreException;
+import tech.bugger.persistence.exception.TransactionException;
+import tech.bugger.persistence.gateway.MailGateway;
+import tech.bugger.persistence.util.Mail;
+import tech.bugger.persistence.util.Mailer;
+import tech.bugger.persistence.util.QueuedMail;
+import tech.bugger.persistence.util.Transaction;
+import tech.bugger.persistence.util.TransactionManager;
+
+/**
+ * Scheduler delivering the e-mails of the durable mail queue.
+ * <p>
+ * E-mails are stored in the database before they are sent, so they survive a restart of the application. A single
+ * scheduler thread claims due e-mails in batches and hands them over to the mailing executor, but never holds more than
+ * a fixed number of claimed e-mails in memory at once. Claiming ages e-mails like the executor does, so less important
+ * e-mails are not held back forever in the database either. E-mails that could not be sent are retried with
+ * exponentially growing delays and kept as dead letters once they have run out of attempts.
+ * <p>
+ * Rate limits of the executor are applied when claiming: e-mails of a rate limited priority are only claimed as far as
+ * the executor could start them right away. Otherwise, e-mails held back by the executor would occupy the buffer, such
+ * that no more important e-mails could be claimed, and might be held back beyond their lease and sent twice.
+ * <p>
+ * Claimed e-mails are leased for a while only. If the application stops before it has reported back on an e-mail, the
+ * e-mail becomes due again after the lease has expired.
+ * <p>
+ * Delivery is therefore at-least-once: if an e-mail has been sent but marking it as sent fails, e.g. because the
+ * database is unavailable for a moment, the e-mail is sent again once its lease has expired.
+ */
+public class MailScheduler {
+
+    /**
+     * The {@link Log} instance associated with this class for logging purposes.
+     */
+    private static final Log log = Log.forClass(MailScheduler.class);
+
+    /**
+     * The time after which claimed e-mails are claimed again if their delivery has not been reported.
+     */
+    private static final Duration LEASE = Duration.ofMinutes(15);
+
+    /**
+     * The maximum delay before retrying to send an e-mail.
+     */
+    private static final Duration MAX_RETRY_DELAY = Duration.ofHours(6);
+
+    /**
+     * Transaction manager used for creating transactions.
+     */
+    private final TransactionManager transactionManager;
+
+    /**
+     * The {@link Mailer} instance to use when sending e-mails.
+     */
+    private final Mailer mailer;
+
+    /**
+     * The {@link PriorityExecutor} instance to use when sending e-mails.
+     */
+    private final PriorityExecutor priorityExecutor;
+
+    /**
+     * The maximum number of claimed e-mails held in memory at once.
+     */
+    private final int bufferSize;
+
+    /**
+     * The maximum number of attempts to send an e-mail.
+     */
+    private final int maxTries;
+
+    /**
+     * The delay before the first retry to send an e-mail, doubled with every further attempt.
+     */
+    private final Duration retryDelay;
+
+    /**
+     * The time in ms after which the scheduler checks for due e-mails without having been signalled.
+     */
+    private final long pollIntervalMillis;
+
+    /**
+     * Permits for claiming e-mails, one per free slot of the in-memory buffer.
+     */
+    private final Semaphore slots;
+
+    /**
+     * Permits to wake up the scheduler.
+     */
+    private final Semaphore signals;
+
+    /**
+     * The metrics of this scheduler.
+     */
+    private final Metrics metrics;
+
+    /**
+     * The number of e-mails queued so far.
+     */
+    private final LongAdder queuedCount;
+
+    /**
+     * The number of e-mails sent so far.
+     */
+    private final LongAdder sentCount;
+
+    /**
+     * The number of failed attempts to send e-mails which are retried later.
+     */
+    private final LongAdder retriedCount;
+
+    /**
+     * The number of e-mails given up on so far.
+     */
+    private final LongAdder deadCount;
+
+    /**
+     * The thread claiming due e-mails, or {@code null} if the scheduler has not been started.
+     */
+    private Thread scheduler;
+
+    /**
+     * Whether the scheduler is to keep running.
+     */
+    private volatile boolean running;
+
+    /**
+     * Constructs a new mail scheduler. E-mails are not delivered until {@link #start()} is called.
+     *
+     * @param transactionManager The transaction manager to use for creating transactions.
+     * @param mailer             The mailer to send e-mails with.
+     * @param priorityExecutor   The executor to send e-mails on.
+     * @param bufferSize         The maximum number of claimed e-mails held in memory at once.
+     * @param maxTries           The maximum number of attempts to send an e-mail.
+     * @param retryDelay         The delay before the first retry to send an e-mail, doubled with every further attempt.
+     * @param pollInterval       The time after which the scheduler checks for due e-mails without having been
+     *                           signalled.
+     */
+    public MailScheduler(final TransactionManager transactionManager, final Mailer mailer,
+                         final PriorityExecutor priorityExecutor, final int bufferSize, final int maxTries,
+                         final Duration retryDelay, final Duration pollInterval) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Buffer size must be positive.");
+        } else if (maxTries < 1) {
+            throw new IllegalArgumentException("Maximum number of tries must be positive.");
+        }
+        this.transactionManager = transactionManager;
+        this.mailer = mailer;
+        this.priorityExecutor = priorityExecutor;
+        this.bufferSize = bufferSize;
+        this.maxTries = maxTries;
+        this.retryDelay = retryDelay;
+        this.pollIntervalMillis = pollInterval.toMillis();
+        slots = new Semaphore(bufferSize);
+        signals = new Semaphore(0);
+
+        metrics = new Metrics();
+        queuedCount = metrics.counter("mails_queued_total", "E-mails added to the queue.");
+        sentCount = metrics.counter("mails_sent_total", "E-mails sent.");
+        retriedCount = metrics.counter("mails_retried_total", "Failed attempts to send e-mails which are retried.");
+        deadCount = metrics.counter("mails_dead_total", "E-mails given up on after running out of attempts.");
+        metrics.gauge("buffered", "Claimed e-mails currently held in memory.",
+                () -> bufferSize - slots.availablePermits());
+        metrics.gauge("buffer_size", "Maximum number of claimed e-mails held in memory.", () -> bufferSize);
+    }
+
+    /**
+     * Starts claiming due e-mails, including those left over from previous runs of the application.
+     */
+    public void start() {
+        if (scheduler != null) {
+            throw new IllegalStateException("Mail scheduler has already been started.");
+        }
+        running = true;
+        scheduler = new Thread(this::schedule, "mail-scheduler");
+        scheduler.setDaemon(true);
+        scheduler.start();
+        log.info("Started mail scheduler.");
+    }
+
+    /**
+     * Adds the given e-mail to the durable mail queue in a transaction of its own and wakes up the scheduler.
+     *
+     * @param mail     The e-mail to send.
+     * @param priority The priority of the e-mail.
+     * @return Whether the e-mail has been queued.
+     */
+    public boolean enqueue(final Mail mail, final PriorityTask.Priority priority) {
+        QueuedMail queuedMail = new QueuedMail(mail, priority.ordinal(), null);
+        try (Transaction tx = transactionManager.begin()) {
+            tx.newMailGateway().create(queuedMail);
+            tx.commit();
+        } catch (TransactionException e) {
+            log.error("Could not queue e-mail " + mail + ".", e);
+            return false;
+        }
+        queuedCount.increment();
+        signal();
+        return true;
+    }
+
+    /**
+     * Adds the given e-mail to the durable mail queue as part of the given transaction. The scheduler is to be
+     * {@link #signal()}led once the transaction has been committed.
+     *
+     * @param mail The e-mail to queue.
+     * @param tx   The transaction to queue the e-mail in.
+     */
+    public void enqueue(final QueuedMail mail, final Transaction tx) {
+        tx.newMailGateway().create(mail);
+        queuedCount.increment();
+    }
+
+    /**
+     * Wakes up the scheduler to claim newly queued e-mails.
+     */
+    public void signal() {
+        signals.release();
+    }
+
+    /**
+     * Stops claiming e-mails. E-mails already handed over to the executor are still sent, e-mails left in the queue
+     * are sent after the next start.
+     *
+     * @param timeoutMillis The maximum time in ms to wait for the scheduler thread to finish.
+     * @return {@code true} iff the scheduler thread finished in time.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public boolean shutdown(final long timeoutMillis) throws InterruptedException {
+        if (scheduler == null) {
+            return true;
+        }
+        running = false;
+        scheduler.interrupt();
+        scheduler.join(timeoutMillis);
+        return !scheduler.isAlive();
+    }
+
+    /**
+     * Returns the metrics of this scheduler.
+     *
+     * @return The metrics.
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Claims due e-mails whenever the buffer has room until the scheduler is shut down.
+     */
+    private void schedule() {
+        while (running) {
+            try {
+                slots.acquire();
+                int free = 1 + slots.drainPermits();
+                if (claim(free) < free) {
+                    if (signals.tryAcquire(getWaitMillis(), TimeUnit.MILLISECONDS)) {
+                        signals.drainPermits();
+                    }
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the time to wait for newly queued e-mails after claiming less than the buffer has room for. If a rate
+     * limited priority has used up its permits, due e-mails of that priority may be left in the queue, so the scheduler
+     * checks again once the executor grants the next permit.
+     *
+     * @return The time to wait in ms.
+     */
+    long getWaitMillis() {
+        long waitMillis = pollIntervalMillis;
+        for (PriorityTask.Priority priority : PriorityTask.Priority.values()) {
+            if (priorityExecutor.getPermits(priority) == 0) {
+                waitMillis = Math.min(waitMillis,
+                        Math.max(1, priorityExecutor.getTimeUntilPermit(priority).toMillis()));
+            }
+        }
+        return waitMillis;
+    }
+
+    /**
+     * Claims up to the given number of due e-mails and hands them over to the executor. E-mails of a rate limited
+     * priority are only claimed as far as the executor can start them right away. Slots not filled are released.
+     *
+     * @param free The number of free slots acquired.
+     * @return The number of e-mails claimed.
+     */
+    int claim(final int free) {
+        PriorityTask.Priority[] priorities = PriorityTask.Priority.values();
+        int[] quotas = new int[priorities.length];
+        for (int i = 0; i < priorities.length; i++) {
+            quotas[i] = Math.min(free, priorityExecutor.getPermits(priorities[i]));
+        }
+        List<QueuedMail> mails;
+        try (Transaction tx = transactionManager.begin()) {
+            mails = tx.newMailGateway().claim(free, quotas, LEASE, priorityExecutor.getAgingInterval());
+            tx.commit();
+        } catch (TransactionException | StoreException e) {
+            // The e-mails remain in the queue, so simply try again later.
+            log.error("Could not claim queued e-mails.", e);
+            mails = List.of();
+        }
+        slots.release(free - mails.size());
+
+        for (QueuedMail mail : mails) {
+            try {
+                priorityExecutor.enqueue(new PriorityTask(toPriority(mail.getPriority()), () -> {
+                    try {
+                        deliver(mail);
+                    } finally {
+                        slots.release();
+                    }
+                }));
+            } catch (IllegalStateException e) {
+                // Left for the next start once the lease has expired.
+                log.warning("Could not hand over e-mail " + mail + " since mailing has been shut down.");
+                slots.release();
+            }
+        }
+        return mails.size();
+    }
+
+    /**
+     * Sends a claimed e-mail and reports the outcome to the queue.
+     *
+     * @param mail The e-mail to send.
+     */
+    void deliver(final QueuedMail mail) {
+        log.debug("Sending e-mail " + mail + ".");
+        boolean sent = mailer.send(mail.getMail());
+        try (Transaction tx = transactionManager.begin()) {
+            MailGateway gateway = tx.newMailGateway();
+            if (sent) {
+                gateway.markSent(mail);
+            } else if (mail.getAttempts() >= maxTries) {
+                gateway.markDead(mail);
+            } else {
+                gateway.reschedule(mail, getRetryDelay(mail.getAttempts()));
+            }
+            tx.commit();
+        } catch (NotFoundException e) {
+            log.warning("Could not find e-mail " + mail + " in the queue anymore.", e);
+            return;
+        } catch (TransactionException | StoreException e) {
+            // Retried once the lease has expired.
+            log.error("Could not report delivery of e-mail " + mail + ".", e);
+            return;
+        }
+
+        if (sent) {
+            sentCount.increment();
+        } else if (mail.getAttempts() >= maxTries) {
+            deadCount.increment();
+            log.error("Couldn't send e-mail " + mail + " in " + maxTries + " tries! Please investigate!");
+        } else {
+            retriedCount.increment();
+            log.warning("Could not send e-mail " + mail + " in try #" + mail.getAttempts() + ". Retrying later.");
+        }
+    }
+
+    /**
+     * Returns the delay before retrying to send an e-mail after the given number of attempts.
+     *
+     * @param attempts The number of attempts made so far.
+     * @return The delay before the next attempt.
+     */
+    Duration getRetryDelay(final int attempts) {
+        Duration delay = retryDelay.multipliedBy(1L << Math.min(Math.max(attempts - 1, 0), 30));
+        return delay.compareTo(MAX_RETRY_DELAY) > 0 ? MAX_RETRY_DELAY : delay;
+    }
+
+    private static PriorityTask.Priority toPriority(final int priority) {
+        PriorityTask.Priority[] priorities = PriorityTask.Priority.values();
+        return priorities[Math.min(Math.max(priority, 0), priorities.length - 1)];
+    }
+
+}
@@ -0,0 +1,411 @@
+package tech.bugger.business.internal;
+
+import java.text.MessageFormat;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.ResourceBundle;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import tech.bugger.business.util.PriorityTask;
+import tech.bugger.business.util.Registry;
+import tech.bugger.global.transfer.Notification;
+import tech.bugger.global.util.Log;
+import tech.bugger.global.util.Metrics;
+import tech.bugger.persistence.exception.NotFoundException;
+import tech.bugger.persistence.exception.TransactionException;
+import tech.bugger.persistence.gateway.NotificationGateway;
+import tech.bugger.persistence.util.Mail;
+import tech.bugger.persistence.util.PropertiesReader;
+import tech.bugger.persistence.util.QueuedMail;
+import tech.bugger.persistence.util.Transaction;
+import tech.bugger.persistence.util.TransactionManager;
+
+/**
+ * Background dispatcher expanding recorded notification events into the notifications of all subscribers and queueing
+ * the corresponding e-mails.
+ * <p>
+ * Events are claimed in batches by a fixed number of workers, each in a transaction of its own. Workers never claim the
+ * same event, so throughput grows with the number of workers as far as the database permits. A worker claiming a full
+ * batch wakes up another one, such that idle workers join in when events pile up. Idle workers are woken up by {@link
+ * #signal()} after new events have been committed and otherwise poll for events in regular intervals.
+ * <p>
+ * An event is only removed by the transaction creating its notifications and queueing their e-mails. Events left over
+ * by a crash are thus dispatched as soon as the dispatcher is started again.
+ * <p>
+ * If a batch cannot be expanded, its events are dispatched one by one in transactions of their own, such that a single
+ * failing event does not hold up the rest of its batch. Failed attempts are counted per event, and an event failing too
+ * often is kept as dead letter instead of being claimed over and over again.
+ */
+public class NotificationDispatcher {
+
+    /**
+     * The {@link Log} instance associated with this class for logging purposes.
+     */
+    private static final Log log = Log.forClass(NotificationDispatcher.class);
+
+    /**
+     * Transaction manager used for creating transactions.
+     */
+    private final TransactionManager transactionManager;
+
+    /**
+     * Registry to retrieve resource bundles.
+     */
+    private final Registry registry;
+
+    /**
+     * The {@link MailScheduler} instance to use when sending e-mails.
+     */
+    private final MailScheduler mailScheduler;
+
+    /**
+     * The properties reader for the application configuration.
+     */
+    private final PropertiesReader configReader;
+
+    /**
+     * The maximum number of events claimed by a worker at once.
+     */
+    private final int batchSize;
+
+    /**
+     * The number of failed attempts after which an event is kept as dead letter.
+     */
+    private final int maxAttempts;
+
+    /**
+     * The time in ms after which an idle worker checks for events without having been signalled.
+     */
+    private final long pollIntervalMillis;
+
+    /**
+     * Permits to wake up idle workers.
+     */
+    private final Semaphore signals;
+
+    /**
+     * The metrics of this dispatcher.
+     */
+    private final Metrics metrics;
+
+    /**
+     * The number of events dispatched so far.
+     */
+    private final LongAdder eventCount;
+
+    /**
+     * The number of notifications created so far.
+     */
+    private final LongAdder notificationCount;
+
+    /**
+     * The number of failed attempts to expand single events so far.
+     */
+    private final LongAdder failureCount;
+
+    /**
+     * The number of events given up on so far.
+     */
+    private final LongAdder deadCount;
+
+    /**
+     * The duration of the transactions expanding batches of events.
+     */
+    private final Metrics.Histogram batchDuration;
+
+    /**
+     * The executor running the workers, or {@code null} if the dispatcher has not been started.
+     */
+    private ExecutorService workers;
+
+    /**
+     * The number of workers started.
+     */
+    private int workerCount;
+
+    /**
+     * Whether the workers are to keep running.
+     */
+    private volatile boolean running;
+
+    /**
+     * Constructs a new notification dispatcher. Workers are not started until {@link #start(int)} is called.
+     *
+     * @param transactionManager The transaction manager to use for creating transactions.
+     * @param registry           The registry to retrieve resource bundles and the mail scheduler from.
+     * @param batchSize          The maximum number of events claimed by a worker at once.
+     * @param maxAttempts        The number of failed attempts after which an event is kept as dead letter.
+     * @param pollInterval       The time after which an idle worker checks for events without having been signalled.
+     */
+    public NotificationDispatcher(final TransactionManager transactionManager, final Registry registry,
+                                  final int batchSize, final int maxAttempts, final Duration pollInterval) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive.");
+        } else if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Maximum number of attempts must be positive.");
+        }
+        this.transactionManager = transactionManager;
+        this.registry = registry;
+        this.mailScheduler = registry.getMailScheduler("main");
+        this.configReader = registry.getPropertiesReader("config");
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.pollIntervalMillis = pollInterval.toMillis();
+        signals = new Semaphore(0);
+
+        metrics = new Metrics();
+        eventCount = metrics.counter("events_dispatched_total", "Notification events expanded.");
+        notificationCount = metrics.counter("notifications_created_total", "Notifications created from events.");
+        failureCount = metrics.counter("event_failures_total", "Failed attempts to expand single events.");
+        deadCount = metrics.counter("events_dead_total", "Events kept as dead letters after failing too often.");
+        batchDuration = metrics.histogram("batch_duration_seconds",
+                "Time taken to claim and expand a batch of events.");
+        metrics.gauge("workers", "Workers dispatching events.", () -> running ? workerCount : 0);
+    }
+
+    /**
+     * Queues the e-mails of all notifications neither sent nor queued yet and starts the workers dispatching events.
+     *
+     * @param workerCount The number of workers to start.
+     */
+    public void start(final int workerCount) {
+        if (workerCount < 1) {
+            throw new IllegalArgumentException("Worker count must be positive.");
+        } else if (workers != null) {
+            throw new IllegalStateException("Notification dispatcher has already been started.");
+        }
+
+        resendUnsentNotifications();
+        this.workerCount = workerCount;
+        running = true;
+        AtomicInteger threadCount = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "notification-dispatcher-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workerCount; i++) {
+            workers.execute(this::work);
+        }
+        log.info("Started " + workerCount + " notification dispatch workers.");
+    }
+
+    /**
+     * Wakes up an idle worker to dispatch newly committed events.
+     */
+    public void signal() {
+        signals.release();
+    }
+
+    /**
+     * Stops the workers after they have finished their current batch.
+     *
+     * @param timeoutMillis The maximum time in ms to wait for the workers to finish.
+     * @return {@code true} iff all workers finished in time.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public boolean shutdown(final long timeoutMillis) throws InterruptedException {
+        if (workers == null) {
+            return true;
+        }
+        running = false;
+        signals.release(workerCount);
+        workers.shutdown();
+        return workers.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the metrics of this dispatcher.
+     *
+     * @return The metrics.
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Dispatches batches of events until the dispatcher is shut down.
+     */
+    private void work() {
+        while (running) {
+            int claimed;
+            try {
+                claimed = dispatchBatch();
+            } catch (RuntimeException e) {
+                // The events remain in the outbox, so give the database some rest before trying again.
+                log.error("Could not dispatch notification events.", e);
+                claimed = 0;
+            }
+            if (claimed == batchSize) {
+                signals.release();
+            } else {
+                try {
+                    if (signals.tryAcquire(pollIntervalMillis, TimeUnit.MILLISECONDS)) {
+                        signals.drainPermits();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Claims a batch of events, creates their notifications and queues their e-mails in a single transaction. If the
+     * batch cannot be expanded, its events are dispatched one by one.
+     *
+     * @return The number of events claimed.
+     */
+    int dispatchBatch() {
+        long start = System.nanoTime();
+        List<Notification> events = List.of();
+        List<Notification> notifications = new ArrayList<>();
+        try (Transaction tx = transactionManager.begin()) {
+            NotificationGateway gateway = tx.newNotificationGateway();
+            events = gateway.claimNotificationEvents(batchSize);
+            for (Notification event : events) {
+                notifications.addAll(gateway.createNotificationForSubscribers(event));
+            }
+            queueMails(notifications, tx);
+            tx.commit();
+        } catch (TransactionException e) {
+            log.error("Could not commit the expansion of notification events.", e);
+            return 0;
+        } catch (RuntimeException e) {
+            if (events.isEmpty()) {
+                throw e;
+            }
+            log.error("Could not expand a batch of " + events.size() + " notification events. Dispatching them one "
+                    + "by one.", e);
+            for (Notification event : events) {
+                dispatchEvent(event.getId());
+            }
+            return events.size();
+        }
+        recordDispatch(start, events.size(), notifications.size());
+        return events.size();
+    }
+
+    /**
+     * Claims a single event, creates its notifications and queues their e-mails in a transaction of its own. If this
+     * fails, the failed attempt is recorded for the event.
+     *
+     * @param id The ID of the event.
+     * @return Whether the event was dispatched.
+     */
+    boolean dispatchEvent(final int id) {
+        long start = System.nanoTime();
+        List<Notification> notifications;
+        try (Transaction tx = transactionManager.begin()) {
+            NotificationGateway gateway = tx.newNotificationGateway();
+            notifications = gateway.createNotificationForSubscribers(gateway.claimNotificationEvent(id));
+            queueMails(notifications, tx);
+            tx.commit();
+        } catch (NotFoundException e) {
+            log.debug("Notification event " + id + " has been claimed by another worker.");
+            return false;
+        } catch (TransactionException e) {
+            log.error("Could not commit the expansion of notification event " + id + ".", e);
+            return false;
+        } catch (RuntimeException e) {
+            log.error("Could not expand notification event " + id + ".", e);
+            recordFailure(id);
+            return false;
+        }
+        recordDispatch(start, 1, notifications.size());
+        return true;
+    }
+
+    /**
+     * Records a failed attempt to expand an event, giving up on the event if it has failed too often.
+     *
+     * @param id The ID of the event.
+     */
+    private void recordFailure(final int id) {
+        failureCount.increment();
+        try (Transaction tx = transactionManager.begin()) {
+            boolean dead = tx.newNotificationGateway().recordFailedNotificationEvent(id, maxAttempts);
+            tx.commit();
+            if (dead) {
+                deadCount.increment();
+                log.warning("Notification event " + id + " failed " + maxAttempts + " times and is kept as dead "
+                        + "letter.");
+            }
+        } catch (NotFoundException | TransactionException | RuntimeException e) {
+            log.error("Could not record the failed attempt to expand notification event " + id + ".", e);
+        }
+    }
+
+    /**
+     * Updates the metrics after dispatching events and wakes up the mail scheduler.
+     *
+     * @param start         The time in nanoseconds at which claiming the events started.
+     * @param events        The number of events dispatched.
+     * @param notifications The number of notifications created.
+     */
+    private void recordDispatch(final long start, final int events, final int notifications) {
+        if (events > 0) {
+            batchDuration.record(System.nanoTime() - start);
+            eventCount.add(events);
+            notificationCount.add(notifications);
+            log.debug("Dispatched " + events + " notification events to " + notifications + " recipients.");
+            mailScheduler.signal();
+        }
+    }
+
+    /**
+     * Queues the e-mails of all notifications neither sent nor queued yet, e.g. because they were created before
+     * e-mails were queued durably.
+     */
+    private void resendUnsentNotifications() {
+        try (Transaction tx = transactionManager.begin()) {
+            queueMails(tx.newNotificationGateway().getUnsentNotifications(), tx);
+            tx.commit();
+        } catch (TransactionException e) {
+            log.error("Could not send out notifications at startup.", e);
+            return;
+        }
+        mailScheduler.signal();
+    }
+
+    /**
+     * Queues the e-mails of the given notifications as part of the given transaction. Each notification is marked as
+     * sent once its e-mail has been sent. Notifications whose recipient has no e-mail address are skipped.
+     *
+     * @param notifications The notifications to send.
+     * @param tx            The transaction to queue the e-mails in.
+     */
+    private void queueMails(final List<Notification> notifications, final Transaction tx) {
+        String domain = configReader.getString("SERVER_URL");
+        for (Notification n : notifications) {
+            if (n.getRecipientMail() == null || n.getRecipientMail().isBlank()) {
+                continue;
+            }
+
+            String link = domain + "/report?";
+            if (n.getPostID() != null) {
+                link += "p=" + n.getPostID() + "#post-" + n.getPostID();
+            } else {
+                link += "id=" + n.getReportID();
+            }
+            ResourceBundle interactionsBundle = registry.getBundle("interactions",
+                    Locale.forLanguageTag(n.getEmailLanguage()));
+            Mail mail = new Mail.Builder()
+                    .to(n.getRecipientMail())
+                    .subject(interactionsBundle.getString("email_notification_subject_" + n.getType()))
+                    .content(new MessageFormat(interactionsBundle.getString("email_notification_content_"
+                            + n.getType()))
+                            .format(new String[]{n.getReportTitle(), link}))
+                    .envelop();
+            mailScheduler.enqueue(new QueuedMail(mail, PriorityTask.Priority.LOW.ordinal(), n.getId()), tx);
+        }
+    }
+
+}
@@ -1,6 +1,8 @@
 package tech.bugger.business.internal;
 
 import java.time.Duration;
+import java.util.List;
+import tech.bugger.business.util.NameIndex;
 import tech.bugger.global.util.Log;
 import tech.bugger.persistence.exception.TransactionException;
 import tech.bugger.persistence.util.Transaction;
@@ -26,13 +28,20 @@ public class PeriodicCleaner implements Runnable {
      */
     private final TransactionManager transactionManager;
 
+    /**
+     * The index of usernames to remove deleted users from.
+     */
+    private final NameIndex nameIndex;
+
     /**
      * Creates a new periodic data source cleaner with the given dependencies.
      *
      * @param transactionManager The transaction manager to be used for creating transactions.
+     * @param nameIndex          The index of usernames to remove deleted users from.
      */
-    public PeriodicCleaner(final TransactionManager transactionManager) {
+    public PeriodicCleaner(final TransactionManager transactionManager, final NameIndex nameIndex) {
         this.transactionManager = transactionManager;
+        this.nameIndex = nameIndex;
     }
 
     /**
@@ -45,8 +54,9 @@ public class PeriodicCleaner implements Runnable {
         log.info("Periodic cleaner started.");
         try (Transaction tx = transactionManager.begin()) {
             tx.newTokenGateway().cleanExpiredTokens(EXPIRATION_AGE);
-            tx.newUserGateway().cleanExpiredRegistrations();
+            List<Integer> deletedUserIDs = tx.newUserGateway().cleanExpiredRegistrations();
             tx.commit();
+            deletedUserIDs.forEach(nameIndex::removeUser);
             log.debug("Finished cleaning data source successfully.");
         } catch (TransactionException e) {
             log.error("Transaction commit error when cleaning data source.", e);
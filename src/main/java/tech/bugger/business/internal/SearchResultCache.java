@@ -0,0 +1,386 @@
+package tech.bugger.business.internal;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import javax.enterprise.context.ApplicationScoped;
+import tech.bugger.global.transfer.Report;
+import tech.bugger.global.transfer.ResultPage;
+import tech.bugger.global.transfer.Selection;
+import tech.bugger.global.util.Metrics;
+
+/**
+ * Cache of the pages of report search results.
+ * <p>
+ * Every write to a report, post or topic advances a global generation counter and records it as the last write to the
+ * affected topic. Pages found within a single topic remain valid until the next write to that topic, all other pages
+ * until the next write at all. Generations are read before the results are loaded, so writes racing with a search
+ * invalidate its results as well. Beyond that, pages are discarded after a short time and, when the cache is full, in
+ * least recently used order.
+ * <p>
+ * Besides pages, the cache holds the sorted IDs of all reports found by the search index for a search, so that its
+ * further pages only need to load their own reports.
+ */
+@ApplicationScoped
+public class SearchResultCache {
+
+    /**
+     * The maximum number of cached pages.
+     */
+    static final int MAX_ENTRIES = 1024;
+
+    /**
+     * The time in nanoseconds after which cached pages are discarded.
+     */
+    static final long TIME_TO_LIVE_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    /**
+     * The cached entries by search key in least recently used order.
+     */
+    private final LinkedHashMap<List<?>, Entry> entries;
+
+    /**
+     * The source of the current time in nanoseconds.
+     */
+    private final LongSupplier clock;
+
+    /**
+     * The generation of the most recent write.
+     */
+    private final AtomicLong generation;
+
+    /**
+     * The generation of the most recent write which may have affected all topics.
+     */
+    private final AtomicLong lastGlobalWrite;
+
+    /**
+     * The generation of the most recent write by topic ID.
+     */
+    private final Map<Integer, Long> lastTopicWrites;
+
+    /**
+     * The cache statistics.
+     */
+    private final Metrics metrics;
+
+    /**
+     * The number of pages served from the cache.
+     */
+    private final LongAdder hits;
+
+    /**
+     * The number of pages not found in the cache.
+     */
+    private final LongAdder misses;
+
+    /**
+     * The number of pages discarded because they expired or the cache was full.
+     */
+    private final LongAdder evictions;
+
+    /**
+     * Constructs a new, empty search result cache.
+     */
+    public SearchResultCache() {
+        this(System::nanoTime);
+    }
+
+    /**
+     * Constructs a new, empty search result cache using the given clock.
+     *
+     * @param clock The source of the current time in nanoseconds.
+     */
+    SearchResultCache(final LongSupplier clock) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.clock = clock;
+        this.generation = new AtomicLong();
+        this.lastGlobalWrite = new AtomicLong();
+        this.lastTopicWrites = new ConcurrentHashMap<>();
+        this.metrics = new Metrics();
+        this.hits = metrics.counter("hits_total", "Search result pages served from the cache.");
+        this.misses = metrics.counter("misses_total", "Search result pages not found in the cache.");
+        this.evictions = metrics.counter("evictions_total", "Search result pages discarded by age or capacity.");
+        metrics.gauge("entries", "Search result pages currently cached.", this::size);
+    }
+
+    /**
+     * Returns the current generation, to be passed to {@link #put(List, long, Integer, Selection, ResultPage)} after
+     * loading results with it.
+     *
+     * @return The generation of the most recent write.
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Returns the cached page for the given search and remembers the positions of its first and last item in the
+     * selection.
+     *
+     * @param key       The search key consisting of the query, filters and selected page.
+     * @param selection The selection to remember the positions of the page in.
+     * @return The cached page, or {@code null} if there is none or it is no longer valid.
+     */
+    public ResultPage<Report> get(final List<?> key, final Selection selection) {
+        Entry entry = lookup(key);
+        if (entry == null || entry.page == null) {
+            return null;
+        }
+        selection.setFirstCursor(entry.firstCursor);
+        selection.setLastCursor(entry.lastCursor);
+        List<Report> reports = new ArrayList<>(entry.page.getItems().size());
+        for (Report report : entry.page.getItems()) {
+            reports.add(new Report(report));
+        }
+        return new ResultPage<>(reports, entry.page.getTotalSize());
+    }
+
+    /**
+     * Returns the cached IDs of all results of the given search in the order they are shown in.
+     *
+     * @param key The search key consisting of the query, filters and sort order, but no selected page.
+     * @return The cached result IDs, or {@code null} if there are none or they are no longer valid.
+     */
+    public List<Integer> getIDs(final List<?> key) {
+        Entry entry = lookup(key);
+        return entry == null ? null : entry.ids;
+    }
+
+    /**
+     * Caches the given page for the given search.
+     *
+     * @param key        The search key consisting of the query, filters and selected page.
+     * @param generation The generation obtained from {@link #getGeneration()} before loading the page.
+     * @param topicID    The ID of the only topic the page can contain reports of, or {@code null} if it may contain
+     *                   reports of any topic.
+     * @param selection  The selection holding the positions of the first and last item of the page.
+     * @param page       The page to cache.
+     */
+    public void put(final List<?> key, final long generation, final Integer topicID, final Selection selection,
+                    final ResultPage<Report> page) {
+        List<Report> reports = new ArrayList<>(page.getItems().size());
+        for (Report report : page.getItems()) {
+            reports.add(new Report(report));
+        }
+        store(key, new Entry(new ResultPage<>(reports, page.getTotalSize()), null, selection.getFirstCursor(),
+                selection.getLastCursor(), topicID, generation, clock.getAsLong() + TIME_TO_LIVE_NANOS));
+    }
+
+    /**
+     * Caches the IDs of all results of the given search, so that its pages can be loaded without searching again.
+     *
+     * @param key        The search key consisting of the query, filters and sort order, but no selected page.
+     * @param generation The generation obtained from {@link #getGeneration()} before searching.
+     * @param topicID    The ID of the only topic the results can contain reports of, or {@code null} if they may
+     *                   contain reports of any topic.
+     * @param ids        The IDs of all results in the order they are shown in.
+     */
+    public void putIDs(final List<?> key, final long generation, final Integer topicID, final List<Integer> ids) {
+        store(key, new Entry(null, List.copyOf(ids), null, null, topicID, generation,
+                clock.getAsLong() + TIME_TO_LIVE_NANOS));
+    }
+
+    /**
+     * Invalidates all cached pages which may contain reports of the given topic.
+     *
+     * @param topicID The ID of the topic written to.
+     */
+    public void invalidate(final int topicID) {
+        long written = generation.incrementAndGet();
+        lastTopicWrites.merge(topicID, written, Math::max);
+    }
+
+    /**
+     * Invalidates all cached pages.
+     */
+    public void invalidateAll() {
+        long written = generation.incrementAndGet();
+        lastGlobalWrite.accumulateAndGet(written, Math::max);
+    }
+
+    /**
+     * Returns the statistics of this cache.
+     *
+     * @return The cache metrics.
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns the number of cached pages.
+     *
+     * @return The number of entries.
+     */
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Looks up the entry for the given key, discarding it if it is no longer valid, and records a hit or miss.
+     *
+     * @param key The search key.
+     * @return The valid entry, or {@code null} if there is none.
+     */
+    private Entry lookup(final List<?> key) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && !isValid(entry)) {
+                entries.remove(key);
+                if (entry.isExpired(clock.getAsLong())) {
+                    evictions.increment();
+                }
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return entry;
+    }
+
+    /**
+     * Stores the given entry unless it has already been invalidated by a write.
+     *
+     * @param key   The search key.
+     * @param entry The entry to store.
+     */
+    private void store(final List<?> key, final Entry entry) {
+        if (!isValid(entry)) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(key, entry);
+            evict();
+        }
+    }
+
+    /**
+     * Checks whether the given entry has neither expired nor been invalidated by a write.
+     *
+     * @param entry The entry to check.
+     * @return Whether the entry may be served.
+     */
+    private boolean isValid(final Entry entry) {
+        if (entry.isExpired(clock.getAsLong())) {
+            return false;
+        } else if (entry.topicID == null) {
+            return generation.get() <= entry.generation;
+        }
+        long lastWrite = Math.max(lastGlobalWrite.get(), lastTopicWrites.getOrDefault(entry.topicID, 0L));
+        return lastWrite <= entry.generation;
+    }
+
+    /**
+     * Discards expired entries and then the least recently used entries until the cache is no longer overfull. Must be
+     * called while holding the lock on {@link #entries}.
+     */
+    private void evict() {
+        if (entries.size() <= MAX_ENTRIES) {
+            return;
+        }
+        long now = clock.getAsLong();
+        Iterator<Entry> expired = entries.values().iterator();
+        while (expired.hasNext()) {
+            if (expired.next().isExpired(now)) {
+                expired.remove();
+                evictions.increment();
+            }
+        }
+        Iterator<Entry> leastRecentlyUsed = entries.values().iterator();
+        while (entries.size() > MAX_ENTRIES) {
+            leastRecentlyUsed.next();
+            leastRecentlyUsed.remove();
+            evictions.increment();
+        }
+    }
+
+    /**
+     * A cached page or list of result IDs together with the generation it was loaded at and its expiry time.
+     */
+    private static final class Entry {
+
+        /**
+         * The cached page, if any.
+         */
+        private final ResultPage<Report> page;
+
+        /**
+         * The cached result IDs, if any.
+         */
+        private final List<Integer> ids;
+
+        /**
+         * The position of the first item of the page.
+         */
+        private final Selection.Cursor firstCursor;
+
+        /**
+         * The position of the last item of the page.
+         */
+        private final Selection.Cursor lastCursor;
+
+        /**
+         * The ID of the only topic the page can contain reports of, if any.
+         */
+        private final Integer topicID;
+
+        /**
+         * The generation the page was loaded at.
+         */
+        private final long generation;
+
+        /**
+         * The time in nanoseconds at which the page expires.
+         */
+        private final long expiresAt;
+
+        /**
+         * Constructs a new cache entry.
+         *
+         * @param page        The page to cache, or {@code null} if caching result IDs.
+         * @param ids         The result IDs to cache, or {@code null} if caching a page.
+         * @param firstCursor The position of the first item of the page.
+         * @param lastCursor  The position of the last item of the page.
+         * @param topicID     The ID of the only topic the page can contain reports of, if any.
+         * @param generation  The generation the page was loaded at.
+         * @param expiresAt   The time in nanoseconds at which the page expires.
+         */
+        private Entry(final ResultPage<Report> page, final List<Integer> ids, final Selection.Cursor firstCursor,
+                      final Selection.Cursor lastCursor, final Integer topicID, final long generation,
+                      final long expiresAt) {
+            this.page = page;
+            this.ids = ids;
+            this.firstCursor = firstCursor;
+            this.lastCursor = lastCursor;
+            this.topicID = topicID;
+            this.generation = generation;
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * Checks whether the page has expired.
+         *
+         * @param now The current time in nanoseconds.
+         * @return Whether the page has expired at {@code now}.
+         */
+        private boolean isExpired(final long now) {
+            return now - expiresAt >= 0;
+        }
+
+    }
+
+}
@@ -0,0 +1,174 @@
+package tech.bugger.business.internal;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import javax.enterprise.context.ApplicationScoped;
+import tech.bugger.global.transfer.SearchSuggestions;
+
+/**
+ * Cache of the search suggestions for short search queries.
+ * <p>
+ * Queries shorter than a trigram cannot be answered from the trigram indexes of the data source and are at the same
+ * time typed most often, since every search starts with them. Their suggestions are therefore kept for a short time.
+ * When the cache is full, expired entries and then the least requested entries make room for new ones.
+ */
+@ApplicationScoped
+public class SuggestionCache {
+
+    /**
+     * The maximum length of queries whose suggestions are cached.
+     */
+    static final int MAX_QUERY_LENGTH = 2;
+
+    /**
+     * The maximum number of cached queries.
+     */
+    static final int MAX_ENTRIES = 4096;
+
+    /**
+     * The time in nanoseconds after which cached suggestions are discarded.
+     */
+    static final long TIME_TO_LIVE_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    /**
+     * The cached entries by query.
+     */
+    private final Map<String, Entry> entries;
+
+    /**
+     * The source of the current time in nanoseconds.
+     */
+    private final LongSupplier clock;
+
+    /**
+     * Constructs a new, empty suggestion cache.
+     */
+    public SuggestionCache() {
+        this(System::nanoTime);
+    }
+
+    /**
+     * Constructs a new, empty suggestion cache using the given clock.
+     *
+     * @param clock The source of the current time in nanoseconds.
+     */
+    SuggestionCache(final LongSupplier clock) {
+        this.entries = new ConcurrentHashMap<>();
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the cached suggestions for the given query.
+     *
+     * @param query The normalized search query.
+     * @return The cached suggestions, or {@code null} if there are none or they have expired.
+     */
+    public SearchSuggestions get(final String query) {
+        Entry entry = entries.get(query);
+        if (entry == null) {
+            return null;
+        } else if (entry.isExpired(clock.getAsLong())) {
+            entries.remove(query, entry);
+            return null;
+        }
+        entry.hits.increment();
+        return entry.suggestions;
+    }
+
+    /**
+     * Caches the suggestions for the given query if it is short enough.
+     *
+     * @param query       The normalized search query.
+     * @param suggestions The suggestions for {@code query}.
+     */
+    public void put(final String query, final SearchSuggestions suggestions) {
+        if (query.length() > MAX_QUERY_LENGTH) {
+            return;
+        }
+        long now = clock.getAsLong();
+        if (entries.size() >= MAX_ENTRIES) {
+            evict(now);
+        }
+        entries.put(query, new Entry(suggestions, now + TIME_TO_LIVE_NANOS));
+    }
+
+    /**
+     * Discards all cached suggestions.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Makes room for a new entry by discarding all expired entries or, if none have expired, the least requested
+     * entry.
+     *
+     * @param now The current time in nanoseconds.
+     */
+    private void evict(final long now) {
+        entries.values().removeIf(entry -> entry.isExpired(now));
+        if (entries.size() < MAX_ENTRIES) {
+            return;
+        }
+        String leastRequested = null;
+        long fewestHits = Long.MAX_VALUE;
+        for (Map.Entry<String, Entry> e : entries.entrySet()) {
+            long hits = e.getValue().hits.sum();
+            if (hits < fewestHits) {
+                fewestHits = hits;
+                leastRequested = e.getKey();
+            }
+        }
+        if (leastRequested != null) {
+            entries.remove(leastRequested);
+        }
+    }
+
+    /**
+     * Cached suggestions together with their expiry time and popularity.
+     */
+    private static final class Entry {
+
+        /**
+         * The cached suggestions.
+         */
+        private final SearchSuggestions suggestions;
+
+        /**
+         * The time in nanoseconds at which the suggestions expire.
+         */
+        private final long expiresAt;
+
+        /**
+         * The number of times the suggestions have been served from the cache.
+         */
+        private final LongAdder hits;
+
+        /**
+         * Constructs a new cache entry.
+         *
+         * @param suggestions The suggestions to cache.
+         * @param expiresAt   The time in nanoseconds at which the suggestions expire.
+         */
+        private Entry(final SearchSuggestions suggestions, final long expiresAt) {
+            this.suggestions = suggestions;
+            this.expiresAt = expiresAt;
+            this.hits = new LongAdder();
+        }
+
+        /**
+         * Checks whether the suggestions have expired.
+         *
+         * @param now The current time in nanoseconds.
+         * @return Whether the suggestions have expired at {@code now}.
+         */
+        private boolean isExpired(final long now) {
+            return now - expiresAt >= 0;
+        }
+
+    }
+
+}
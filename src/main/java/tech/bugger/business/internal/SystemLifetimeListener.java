@@ -1,18 +1,24 @@
 package tech.bugger.business.internal;
 
+import tech.bugger.business.util.InvertedIndex;
+import tech.bugger.business.util.NameIndex;
 import tech.bugger.business.util.PriorityExecutor;
 import tech.bugger.business.util.PriorityTask;
+import tech.bugger.business.util.QueryExecutor;
 import tech.bugger.business.util.Registry;
 import tech.bugger.global.transfer.Metadata;
-import tech.bugger.global.transfer.Notification;
+import tech.bugger.global.transfer.Post;
+import tech.bugger.global.transfer.Report;
+import tech.bugger.global.transfer.Topic;
+import tech.bugger.global.transfer.User;
 import tech.bugger.global.util.Log;
-import tech.bugger.persistence.exception.NotFoundException;
 import tech.bugger.persistence.exception.TransactionException;
 import tech.bugger.persistence.gateway.MetadataGateway;
+import tech.bugger.persistence.gateway.SearchGateway;
 import tech.bugger.persistence.util.ConnectionPool;
-import tech.bugger.persistence.util.Mail;
 import tech.bugger.persistence.util.Mailer;
 import tech.bugger.persistence.util.PropertiesReader;
+import tech.bugger.persistence.util.StatementProfiler;
 import tech.bugger.persistence.util.Transaction;
 import tech.bugger.persistence.util.TransactionManager;
 
@@ -23,11 +29,16 @@ import javax.servlet.ServletContextListener;
 import javax.servlet.annotation.WebListener;
 import java.io.IOException;
 import java.io.InputStream;
-import java.text.MessageFormat;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.EnumMap;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
 import java.util.Properties;
-import java.util.ResourceBundle;
+import java.util.Set;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -63,6 +74,41 @@ public class SystemLifetimeListener implements ServletContextListener {
      */
     private static final String DB_SETUP_SCRIPT = "/WEB-INF/setup.sql";
 
+    /**
+     * Path pattern of the database migration scripts relative to the application root, with the placeholder being the
+     * schema version a script migrates to.
+     */
+    private static final String DB_MIGRATION_SCRIPT = "/WEB-INF/migrations/%s.sql";
+
+    /**
+     * The database schema versions in ascending order, starting with the version installed by the setup script. Every
+     * further version is reached from its predecessor by applying its migration script.
+     */
+    private static final List<String> DB_SCHEMA_VERSIONS = List.of("1.0", "1.1", "1.2", "1.3", "1.4", "1.5", "1.6",
+            "1.7", "1.8", "1.9");
+
+    /**
+     * The database schema versions whose migration scripts have to be applied outside of a transaction, e.g. because
+     * they build indexes concurrently.
+     */
+    private static final Set<String> DB_NON_TRANSACTIONAL_MIGRATIONS = Set.of("1.2", "1.3", "1.4", "1.5", "1.6");
+
+    /**
+     * The value of the {@code SEARCH_ENGINE} configuration selecting the in-process search index for reports.
+     */
+    private static final String INDEX_SEARCH_ENGINE = "index";
+
+    /**
+     * The value of the {@code SUGGESTION_ENGINE} configuration selecting the in-process name index for suggestions.
+     */
+    private static final String INDEX_SUGGESTION_ENGINE = "index";
+
+    /**
+     * Time before a search index snapshot was taken from which on changes are indexed again at startup, covering
+     * changes committed but not yet indexed while the snapshot was taken.
+     */
+    private static final Duration SEARCH_INDEX_CATCH_UP_MARGIN = Duration.ofMinutes(5);
+
     /**
      * Maximum time in ms to wait for remaining mailing task execution completion.
      */
@@ -113,11 +159,41 @@ public class SystemLifetimeListener implements ServletContextListener {
      */
     private ConnectionPool mainConnectionPool;
 
+    /**
+     * Main mailer to remember. This is necessary because of a CDI bug.
+     */
+    private Mailer mainMailer;
+
     /**
      * Mail priority executor to remember. This is necessary because of a CDI bug.
      */
     private PriorityExecutor mailPriorityExecutor;
 
+    /**
+     * Executor for concurrent search queries to remember. This is necessary because of a CDI bug.
+     */
+    private QueryExecutor searchQueryExecutor;
+
+    /**
+     * Mail scheduler to remember. This is necessary because of a CDI bug.
+     */
+    private MailScheduler mailScheduler;
+
+    /**
+     * Notification dispatcher to remember. This is necessary because of a CDI bug.
+     */
+    private NotificationDispatcher notificationDispatcher;
+
+    /**
+     * Search index to remember. This is necessary because of a CDI bug.
+     */
+    private InvertedIndex searchIndex;
+
+    /**
+     * File to snapshot the search index to, or {@code null} if the search index is disabled.
+     */
+    private Path searchIndexSnapshot;
+
     /**
      * Initializes necessary resources for the application to run.
      */
@@ -129,11 +205,15 @@ public class SystemLifetimeListener implements ServletContextListener {
         initializeAppConfig(sctx);
         initializeConnectionPool(sctx);
         initializeDatabaseSchema(sctx);
+        initializeSearchIndex();
+        initializeNameIndex();
         initializeMailing(sctx);
         registerPriorityExecutors();
+        registerQueryExecutors();
         registerShutdownHooks();
         scheduleMaintenanceTasks();
-        processUnsentNotifications();
+        startMailScheduling();
+        startNotificationDispatch();
 
         log.info("Application startup completed.");
     }
@@ -146,8 +226,12 @@ public class SystemLifetimeListener implements ServletContextListener {
         deregisterShutdownHooks(); // hooks not needed due to regular shutdown
 
         terminateMaintenanceTasks(false);
+        snapshotSearchIndex();
+        terminateSearchQueries();
+        terminateNotificationDispatch();
+        terminateMailScheduling();
+        terminateMailingTasks(false); // reports deliveries to the database
         cleanUpDatabaseConnections();
-        terminateMailingTasks(false);
 
         log.info("Application shutdown completed.");
     }
@@ -178,13 +262,23 @@ public class SystemLifetimeListener implements ServletContextListener {
             throw new InternalError("Failed to load JDBC properties file.", e);
         }
         PropertiesReader configReader = registry.getPropertiesReader("config");
+        registry.registerStatementProfiler("db", new StatementProfiler(
+                configReader.getInt("DB_SLOW_STATEMENT_THRESHOLD"),
+                configReader.getBoolean("DB_EXPLAIN_SLOW_STATEMENTS"),
+                configReader.getBoolean("DB_LOG_STATEMENT_PARAMETERS")
+        ));
         registry.registerConnectionPool("db", new ConnectionPool(
                 configReader.getString("DB_DRIVER"),
                 configReader.getString("DB_URL"),
                 jdbcProperties,
                 configReader.getInt("DB_MIN_CONNS"),
                 configReader.getInt("DB_MAX_CONNS"),
-                configReader.getInt("DB_TIMEOUT")
+                configReader.getInt("DB_MIN_IDLE_CONNS"),
+                configReader.getInt("DB_TIMEOUT"),
+                configReader.getInt("DB_IDLE_TIMEOUT"),
+                configReader.getInt("DB_VALIDATION_INTERVAL"),
+                configReader.getInt("DB_MAX_LIFETIME"),
+                configReader.getInt("DB_LEAK_THRESHOLD")
         ));
         mainConnectionPool = registry.getConnectionPool("db");
     }
@@ -194,19 +288,18 @@ public class SystemLifetimeListener implements ServletContextListener {
         if (is == null) {
             throw new InternalError("Failed to load database setup script.");
         }
+        String version;
         Transaction tx = transactionManager.begin();
         try (tx) {
             MetadataGateway mg = tx.newMetadataGateway();
             Metadata metadata = mg.retrieveMetadata();
             if (metadata == null) { // no schema present
                 mg.initializeSchema(is);
+                version = DB_SCHEMA_VERSIONS.get(0);
                 log.info("Installed database schema.");
             } else {
-                String version = metadata.getVersion();
+                version = metadata.getVersion();
                 log.info("Found database schema version: " + version);
-                // if (version.equals("1.0")) {
-                //     for future versions: update schema here
-                // }
             }
             tx.commit();
         } catch (TransactionException e) {
@@ -214,16 +307,138 @@ public class SystemLifetimeListener implements ServletContextListener {
             tx.abort();
             throw new InternalError(e);
         }
+        migrateDatabaseSchema(sctx, version);
+    }
+
+    private void migrateDatabaseSchema(final ServletContext sctx, final String version) {
+        int current = version == null ? -1 : DB_SCHEMA_VERSIONS.indexOf(version);
+        if (current < 0) {
+            log.warning("Unknown database schema version " + version + ". Skipping migrations.");
+            return;
+        }
+        for (String target : DB_SCHEMA_VERSIONS.subList(current + 1, DB_SCHEMA_VERSIONS.size())) {
+            InputStream is = sctx.getResourceAsStream(String.format(DB_MIGRATION_SCRIPT, target));
+            if (is == null) {
+                throw new InternalError("Failed to load database migration script for version " + target + ".");
+            }
+            Transaction tx = transactionManager.begin();
+            try (tx) {
+                MetadataGateway mg = tx.newMetadataGateway();
+                if (DB_NON_TRANSACTIONAL_MIGRATIONS.contains(target)) {
+                    mg.applyScriptOutsideTransaction(is);
+                } else {
+                    mg.initializeSchema(is);
+                }
+                tx.commit();
+            } catch (TransactionException e) {
+                log.error("Database migration script for version " + target + " could not be applied.", e);
+                tx.abort();
+                throw new InternalError(e);
+            }
+            log.info("Migrated database schema to version " + target + ".");
+        }
+    }
+
+    private void initializeSearchIndex() {
+        PropertiesReader configReader = registry.getPropertiesReader("config");
+        if (!INDEX_SEARCH_ENGINE.equals(configReader.getString("SEARCH_ENGINE"))) {
+            registry.registerInvertedIndex("reports", InvertedIndex.disabled());
+            searchIndex = registry.getInvertedIndex("reports");
+            return;
+        }
+
+        Path snapshot = Path.of(configReader.getString("SEARCH_INDEX_PATH"));
+        InvertedIndex index = null;
+        OffsetDateTime since = null;
+        if (Files.exists(snapshot)) {
+            try {
+                index = InvertedIndex.readSnapshot(snapshot);
+                since = OffsetDateTime.ofInstant(index.getSnapshotTime().minus(SEARCH_INDEX_CATCH_UP_MARGIN),
+                        ZoneOffset.UTC);
+                log.info("Loaded search index snapshot from " + since + '.');
+            } catch (IOException e) {
+                log.warning("Search index snapshot could not be read. Rebuilding the search index.", e);
+            }
+        }
+        if (index == null) {
+            index = new InvertedIndex();
+        }
+
+        Transaction tx = transactionManager.begin();
+        try (tx) {
+            SearchGateway gateway = tx.newSearchGateway();
+            for (Report report : gateway.getIndexableReports(since)) {
+                index.putReport(report.getId(), report.getTitle());
+            }
+            for (Post post : gateway.getIndexablePosts(since)) {
+                index.putPost(post.getId(), post.getReport(), post.getContent());
+            }
+            tx.commit();
+        } catch (TransactionException e) {
+            log.error("Search index could not be brought up to date.", e);
+            tx.abort();
+            throw new InternalError(e);
+        }
+        log.info("Indexed " + index.getNumberOfReports() + " reports and " + index.getNumberOfPosts() + " posts.");
+
+        registry.registerInvertedIndex("reports", index);
+        searchIndex = registry.getInvertedIndex("reports");
+        searchIndexSnapshot = snapshot;
+    }
+
+    private void initializeNameIndex() {
+        if (!INDEX_SUGGESTION_ENGINE.equals(registry.getPropertiesReader("config").getString("SUGGESTION_ENGINE"))) {
+            registry.registerNameIndex("names", NameIndex.disabled());
+            return;
+        }
+
+        NameIndex index = new NameIndex();
+        Transaction tx = transactionManager.begin();
+        try (tx) {
+            SearchGateway gateway = tx.newSearchGateway();
+            for (User user : gateway.getIndexableUsers()) {
+                index.putUser(user.getId(), user.getUsername(), user.isAdministrator());
+            }
+            for (Topic topic : gateway.getIndexableTopics()) {
+                index.putTopic(topic.getId(), topic.getTitle());
+            }
+            gateway.getBannedUserIDs().forEach((topicID, users) -> users.forEach(user -> index.ban(topicID, user)));
+            gateway.getModeratorIDs().forEach((topicID, users) ->
+                    users.forEach(user -> index.promoteModerator(topicID, user)));
+            tx.commit();
+        } catch (TransactionException e) {
+            log.error("Name index could not be built.", e);
+            tx.abort();
+            throw new InternalError(e);
+        }
+        log.info("Indexed " + index.getNumberOfUsers() + " users and " + index.getNumberOfTopics() + " topics.");
+
+        registry.registerNameIndex("names", index);
+    }
+
+    private void snapshotSearchIndex() {
+        if (searchIndexSnapshot == null) {
+            return;
+        }
+        try {
+            searchIndex.writeSnapshot(searchIndexSnapshot);
+            log.debug("Wrote search index snapshot to " + searchIndexSnapshot + '.');
+        } catch (IOException e) {
+            log.error("Search index snapshot could not be written to " + searchIndexSnapshot + '.', e);
+        }
     }
 
     private void initializeMailing(final ServletContext sctx) {
         try {
             PropertiesReader configReader = registry.getPropertiesReader("config");
-            registry.registerMailer("main", new Mailer(
+            mainMailer = new Mailer(
                     sctx.getResourceAsStream(MAILING_CONFIG),
                     configReader.getString("MAIL_USER"),
-                    configReader.getString("MAIL_PASS")
-            ));
+                    configReader.getString("MAIL_PASS"),
+                    configReader.getInt("MAIL_CONNECTIONS"),
+                    configReader.getInt("MAIL_MESSAGES_PER_CONNECTION")
+            );
+            registry.registerMailer("main", mainMailer);
         } catch (IOException e) {
             throw new InternalError("Failed to load mailing properties file.", e);
         }
@@ -231,21 +446,43 @@ public class SystemLifetimeListener implements ServletContextListener {
 
     private void scheduleMaintenanceTasks() {
         maintenanceExecutor = new ScheduledThreadPoolExecutor(1);
-        maintenanceExecutor.scheduleAtFixedRate(new PeriodicCleaner(transactionManager), 0,
-                MAINTENANCE_PERIODICITY_MINUTES, TimeUnit.MINUTES);
+        PeriodicCleaner periodicCleaner = new PeriodicCleaner(transactionManager, registry.getNameIndex("names"));
+        maintenanceExecutor.scheduleAtFixedRate(periodicCleaner, 0, MAINTENANCE_PERIODICITY_MINUTES, TimeUnit.MINUTES);
+        if (searchIndexSnapshot != null) {
+            maintenanceExecutor.scheduleAtFixedRate(this::snapshotSearchIndex, MAINTENANCE_PERIODICITY_MINUTES,
+                    MAINTENANCE_PERIODICITY_MINUTES, TimeUnit.MINUTES);
+        }
     }
 
     private void registerPriorityExecutors() {
         PropertiesReader configReader = registry.getPropertiesReader("config");
+        Map<PriorityTask.Priority, Double> mailRates = new EnumMap<>(PriorityTask.Priority.class);
+        for (PriorityTask.Priority priority : PriorityTask.Priority.values()) {
+            int perMinute = configReader.getInt("MAIL_RATE_LIMIT_" + priority);
+            if (perMinute > 0) {
+                mailRates.put(priority, perMinute / 60.0);
+            }
+        }
         registry.registerPriorityExecutor("mails", new PriorityExecutor(
                 configReader.getInt("MAIL_INITIAL_CAP"),
-                configReader.getInt("MAIL_CORE_THREADS"),
-                configReader.getInt("MAIL_MAX_THREADS"),
-                configReader.getInt("MAIL_IDLE_TIMEOUT")
+                configReader.getInt("MAIL_THREADS"),
+                configReader.getInt("MAIL_THREADS"),
+                configReader.getInt("MAIL_IDLE_TIMEOUT"),
+                Duration.ofSeconds(configReader.getInt("MAIL_AGING_INTERVAL")),
+                mailRates
         ));
         mailPriorityExecutor = registry.getPriorityExecutor("mails");
     }
 
+    private void registerQueryExecutors() {
+        PropertiesReader configReader = registry.getPropertiesReader("config");
+        searchQueryExecutor = new QueryExecutor(
+                configReader.getInt("SEARCH_MAX_THREADS"),
+                configReader.getInt("SEARCH_IDLE_TIMEOUT")
+        );
+        registry.registerQueryExecutor("search", searchQueryExecutor);
+    }
+
     private void registerShutdownHooks() {
         databaseShutdownHook = new Thread(this::cleanUpDatabaseConnections);
         Runtime.getRuntime().addShutdownHook(databaseShutdownHook);
@@ -257,61 +494,24 @@ public class SystemLifetimeListener implements ServletContextListener {
         Runtime.getRuntime().addShutdownHook(maintenanceShutdownHook);
     }
 
-    private void processUnsentNotifications() {
-        List<Notification> notifications;
-        try (Transaction tx = transactionManager.begin()) {
-            notifications = tx.newNotificationGateway().getUnsentNotifications();
-            tx.commit();
-        } catch (TransactionException e) {
-            log.error("Could not send out notifications at startup.", e);
-            return;
-        }
+    private void startMailScheduling() {
         PropertiesReader configReader = registry.getPropertiesReader("config");
-        String domain = configReader.getString("SERVER_URL");
-        for (Notification n : notifications) {
-            if (n.getRecipientMail() == null || n.getRecipientMail().isBlank()) {
-                continue;
-            }
-
-            String link = domain + "/report?";
-            if (n.getPostID() != null) {
-                link += "p=" + n.getPostID() + "#post-" + n.getPostID();
-            } else {
-                link += "id=" + n.getReportID();
-            }
+        mailScheduler = new MailScheduler(transactionManager, mainMailer, mailPriorityExecutor,
+                configReader.getInt("MAIL_BUFFER_SIZE"),
+                configReader.getInt("MAX_EMAIL_TRIES"),
+                Duration.ofSeconds(configReader.getInt("MAIL_RETRY_DELAY")),
+                Duration.ofSeconds(configReader.getInt("MAIL_POLL_INTERVAL")));
+        registry.registerMailScheduler("main", mailScheduler);
+        mailScheduler.start();
+    }
 
-            Locale locale = Locale.forLanguageTag(n.getEmailLanguage());
-            ResourceBundle interactionsBundle = registry.getBundle("interactions", locale);
-            Mail mail = new Mail.Builder()
-                    .to(n.getRecipientMail())
-                    .subject(interactionsBundle.getString("email_notification_subject_" + n.getType()))
-                    .content(new MessageFormat(interactionsBundle.getString("email_notification_content_"
-                            + n.getType()))
-                            .format(new String[]{n.getReportTitle(), link}))
-                    .envelop();
-            Mailer mailer = registry.getMailer("main");
-            int maxEmailTries = configReader.getInt("MAX_EMAIL_TRIES");
-            mailPriorityExecutor.enqueue(new PriorityTask(PriorityTask.Priority.LOW, () -> {
-                int tries = 1;
-                log.debug("Sending e-mail " + mail + ".");
-                while (tries <= maxEmailTries && !mailer.send(mail)) {
-                    log.warning("Trying to send e-mail again. Try #" + tries++ + '.');
-                }
-                if (tries > maxEmailTries) {
-                    log.error("Couldn't send e-mail for more than " + maxEmailTries + " times! Please investigate!");
-                } else {
-                    try (Transaction tx = transactionManager.begin()) {
-                        n.setSent(true);
-                        tx.newNotificationGateway().update(n);
-                        tx.commit();
-                    } catch (NotFoundException e) {
-                        log.error("Could not find notification " + n + " when trying to mark it as sent.", e);
-                    } catch (TransactionException e) {
-                        log.error("Error when marking notification " + n + " as sent.", e);
-                    }
-                }
-            }));
-        }
+    private void startNotificationDispatch() {
+        PropertiesReader configReader = registry.getPropertiesReader("config");
+        notificationDispatcher = new NotificationDispatcher(transactionManager, registry,
+                configReader.getInt("NOTIFICATION_BATCH_SIZE"), configReader.getInt("NOTIFICATION_MAX_ATTEMPTS"),
+                Duration.ofSeconds(configReader.getInt("NOTIFICATION_POLL_INTERVAL")));
+        registry.registerNotificationDispatcher("notifications", notificationDispatcher);
+        notificationDispatcher.start(configReader.getInt("NOTIFICATION_WORKERS"));
     }
 
     private void deregisterShutdownHooks() {
@@ -341,6 +541,42 @@ public class SystemLifetimeListener implements ServletContextListener {
         }
     }
 
+    private void terminateSearchQueries() {
+        try {
+            if (searchQueryExecutor.shutdown(TASK_TERMINATION_TIMEOUT_MILLIS)) {
+                log.info("Successfully terminated all running search queries.");
+            } else {
+                log.warning("Timeout while terminating search queries.");
+            }
+        } catch (InterruptedException e) {
+            log.error("Interrupted while waiting for search queries to finish.", e);
+        }
+    }
+
+    private void terminateMailScheduling() {
+        try {
+            if (mailScheduler.shutdown(TASK_TERMINATION_TIMEOUT_MILLIS)) {
+                log.info("Successfully terminated the mail scheduler.");
+            } else {
+                log.warning("Timeout while terminating the mail scheduler.");
+            }
+        } catch (InterruptedException e) {
+            log.error("Interrupted while waiting for the mail scheduler to finish.", e);
+        }
+    }
+
+    private void terminateNotificationDispatch() {
+        try {
+            if (notificationDispatcher.shutdown(TASK_TERMINATION_TIMEOUT_MILLIS)) {
+                log.info("Successfully terminated all notification dispatch workers.");
+            } else {
+                log.warning("Timeout while terminating notification dispatch workers.");
+            }
+        } catch (InterruptedException e) {
+            log.error("Interrupted while waiting for notification dispatch workers to finish.", e);
+        }
+    }
+
     private void terminateMailingTasks(final boolean immediately) {
         PriorityExecutor mailingExecutor = mailPriorityExecutor;
         try {
@@ -356,6 +592,7 @@ public class SystemLifetimeListener implements ServletContextListener {
         } catch (InterruptedException e) {
             log.error("Interrupted while waiting for mailing tasks to finish.", e);
         }
+        mainMailer.close();
     }
 
     /**
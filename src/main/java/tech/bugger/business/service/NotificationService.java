@@ -1,37 +1,25 @@
 package tech.bugger.business.service;
 
+import tech.bugger.business.internal.MailScheduler;
+import tech.bugger.business.internal.NotificationDispatcher;
 import tech.bugger.business.util.Feedback;
-import tech.bugger.business.util.PriorityExecutor;
 import tech.bugger.business.util.PriorityTask;
-import tech.bugger.business.util.Registry;
 import tech.bugger.business.util.RegistryKey;
-import tech.bugger.control.util.JFConfig;
 import tech.bugger.global.transfer.Notification;
-import tech.bugger.global.transfer.Report;
 import tech.bugger.global.transfer.Selection;
-import tech.bugger.global.transfer.Topic;
 import tech.bugger.global.transfer.User;
 import tech.bugger.global.util.Log;
 import tech.bugger.persistence.exception.NotFoundException;
 import tech.bugger.persistence.exception.TransactionException;
-import tech.bugger.persistence.gateway.UserGateway;
 import tech.bugger.persistence.util.Mail;
-import tech.bugger.persistence.util.Mailer;
-import tech.bugger.persistence.util.PropertiesReader;
 import tech.bugger.persistence.util.Transaction;
 import tech.bugger.persistence.util.TransactionManager;
 
 import javax.enterprise.context.RequestScoped;
 import javax.enterprise.event.Event;
-import javax.faces.context.FacesContext;
 import javax.inject.Inject;
-import java.text.MessageFormat;
-import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Locale;
 import java.util.ResourceBundle;
-import java.util.Set;
 
 /**
  * Service providing methods related to notifications.
@@ -50,19 +38,9 @@ public class NotificationService {
     private final TransactionManager transactionManager;
 
     /**
-     * The properties reader for the application configuration.
+     * The {@link MailScheduler} instance to use when sending e-mails.
      */
-    private final PropertiesReader configReader;
-
-    /**
-     * The {@link PriorityExecutor} instance to use when sending e-mails.
-     */
-    private final PriorityExecutor priorityExecutor;
-
-    /**
-     * The {@link Mailer} instance to use when sending e-mails.
-     */
-    private final Mailer mailer;
+    private final MailScheduler mailScheduler;
 
     /**
      * Resource bundle for feedback messages.
@@ -75,36 +53,30 @@ public class NotificationService {
     private final Event<Feedback> feedbackEvent;
 
     /**
-     * Registry to retrieve resource bundles.
+     * The dispatcher creating recorded notifications in the background.
      */
-    private final Registry registry;
+    private final NotificationDispatcher notificationDispatcher;
 
     /**
      * Constructs a new notification service with the given dependencies.
      *
-     * @param transactionManager The transaction manager to use for creating transactions.
-     * @param feedbackEvent      The feedback event to use for user feedback.
-     * @param configReader       The configuration reader to use.
-     * @param priorityExecutor   The priority executor to use for sending mails.
-     * @param mailer             The mailer to use.
-     * @param messagesBundle     The resource bundle for feedback messages.
-     * @param registry           The registry to retrieve resource bundles dynamically.
+     * @param transactionManager     The transaction manager to use for creating transactions.
+     * @param feedbackEvent          The feedback event to use for user feedback.
+     * @param mailScheduler          The mail scheduler to use for sending mails.
+     * @param messagesBundle         The resource bundle for feedback messages.
+     * @param notificationDispatcher The dispatcher creating recorded notifications in the background.
      */
     @Inject
     public NotificationService(final TransactionManager transactionManager,
                                final Event<Feedback> feedbackEvent,
-                               final @RegistryKey("config") PropertiesReader configReader,
-                               final @RegistryKey("mails") PriorityExecutor priorityExecutor,
-                               final @RegistryKey("main") Mailer mailer,
+                               final @RegistryKey("main") MailScheduler mailScheduler,
                                final @RegistryKey("messages") ResourceBundle messagesBundle,
-                               final Registry registry) {
+                               final @RegistryKey("notifications") NotificationDispatcher notificationDispatcher) {
         this.transactionManager = transactionManager;
         this.feedbackEvent = feedbackEvent;
-        this.configReader = configReader;
-        this.priorityExecutor = priorityExecutor;
-        this.mailer = mailer;
+        this.mailScheduler = mailScheduler;
         this.messagesBundle = messagesBundle;
-        this.registry = registry;
+        this.notificationDispatcher = notificationDispatcher;
     }
 
     /**
@@ -244,12 +216,15 @@ public class NotificationService {
     }
 
     /**
-     * Creates a new notification in the data storage for every user affected and queues sending the corresponding
-     * e-mails. Which users are affected is inferred from the data in the parameter notification.
+     * Records a notification to be created for every user affected as part of the given transaction. Which users are
+     * affected is inferred from the data in the parameter notification. Once the transaction has been committed, the
+     * notifications are created and their e-mails sent in the background, which {@link #dispatchNotifications()}
+     * triggers right away.
      *
      * @param notification The notification based on which new notifications are to be created.
+     * @param tx           The transaction of the change the notification is about.
      */
-    public void createNotification(final Notification notification) {
+    public void createNotification(final Notification notification, final Transaction tx) {
         if (notification == null) {
             log.error("Cannot create notification null.");
             throw new IllegalArgumentException("Notification cannot be null.");
@@ -261,105 +236,26 @@ public class NotificationService {
             throw new IllegalArgumentException("Topic ID cannot be null.");
         }
 
-        List<Notification> notifications;
-        try (Transaction tx = transactionManager.begin()) {
-            UserGateway gateway = tx.newUserGateway();
-            User causer = new User();
-            causer.setId(notification.getActuatorID());
-            Set<User> affectedUsers = new HashSet<>(gateway.getSubscribersOf(causer));
-            Report report = new Report();
-            report.setId(notification.getReportID());
-            affectedUsers.addAll(gateway.getSubscribersOf(report));
-            Topic topic = new Topic();
-            topic.setId(notification.getTopicID());
-            affectedUsers.addAll(gateway.getSubscribersOf(topic));
-            affectedUsers.remove(causer);
-            affectedUsers.removeAll(gateway.getAllBannedUsers(topic));
-            notifications = new ArrayList<>(affectedUsers.size());
-            for (User user : affectedUsers) {
-                Notification n = new Notification(notification);
-                n.setRecipientID(user.getId());
-                n.setRecipientMail(user.getEmailAddress());
-                n.setEmailLanguage(user.getPreferredLanguage().getLanguage());
-                notifications.add(n);
-            }
-            tx.newNotificationGateway().createNotificationBulk(notifications);
-            tx.commit();
-        } catch (TransactionException e) {
-            log.error("Error when creating notification " + notification + ".", e);
-            return;
-        }
-        sendMails(notifications);
+        tx.newNotificationGateway().createNotificationEvent(notification);
     }
 
-    private void sendMails(final List<Notification> notifications) {
-        String domain = JFConfig.getApplicationPath(FacesContext.getCurrentInstance().getExternalContext());
-        for (Notification n : notifications) {
-            if (n.getRecipientMail() == null || n.getRecipientMail().isBlank()) {
-                continue;
-            }
-
-            String link = domain + "/report?";
-            if (n.getPostID() != null) {
-                link += "p=" + n.getPostID() + "#post-" + n.getPostID();
-            } else {
-                link += "id=" + n.getReportID();
-            }
-            ResourceBundle interactionsBundle = registry.getBundle("interactions",
-                    Locale.forLanguageTag(n.getEmailLanguage()));
-            Mail mail = new Mail.Builder()
-                    .to(n.getRecipientMail())
-                    .subject(interactionsBundle.getString("email_notification_subject_" + n.getType()))
-                    .content(new MessageFormat(interactionsBundle.getString("email_notification_content_"
-                            + n.getType()))
-                            .format(new String[]{n.getReportTitle(), link}))
-                    .envelop();
-            sendNotification(mail, n);
-        }
+    /**
+     * Wakes up the background dispatcher of notifications to create the notifications recorded by committed
+     * transactions.
+     */
+    public void dispatchNotifications() {
+        notificationDispatcher.signal();
     }
 
     /**
-     * Tries to send the given {@link Mail} with the given {@link PriorityTask.Priority}.
+     * Queues the given {@link Mail} with the given {@link PriorityTask.Priority} for sending. The e-mail is retried
+     * later if it cannot be sent right away.
      *
      * @param mail     The e-mail to send.
      * @param priority The priority for this mail.
      */
     public void sendMail(final Mail mail, final PriorityTask.Priority priority) {
-        int maxEmailTries = configReader.getInt("MAX_EMAIL_TRIES");
-        priorityExecutor.enqueue(new PriorityTask(priority, () -> {
-            int tries = 1;
-            log.debug("Sending e-mail " + mail + ".");
-            while (tries <= maxEmailTries && !mailer.send(mail)) {
-                log.warning("Trying to send e-mail again. Try #" + tries++ + '.');
-            }
-            if (tries > maxEmailTries) {
-                log.error("Couldn't send e-mail for more than " + maxEmailTries + " times! Please investigate!");
-            }
-        }));
-    }
-
-    private void sendNotification(final Mail mail, final Notification notification) {
-        int maxEmailTries = configReader.getInt("MAX_EMAIL_TRIES");
-        priorityExecutor.enqueue(new PriorityTask(PriorityTask.Priority.LOW, () -> {
-            int tries = 1;
-            log.debug("Sending e-mail " + mail + ".");
-            while (tries++ <= maxEmailTries && !mailer.send(mail)) {
-                log.warning("Trying to send e-mail again. Try #" + tries++ + '.');
-            }
-            if (tries > maxEmailTries) {
-                log.error("Couldn't send e-mail for more than " + maxEmailTries + " times! Please investigate!");
-            } else {
-                notification.setSent(true);
-                try (Transaction tx = transactionManager.begin()) {
-                    tx.newNotificationGateway().update(notification);
-                    tx.commit();
-                } catch (NotFoundException e) {
-                    log.error("Could not find notification " + notification + " when trying to mark it as sent.", e);
-                } catch (TransactionException e) {
-                    log.error("Error when marking notification " + notification + " as sent.", e);
-                }
-            }
-        }));
+        mailScheduler.enqueue(mail, priority);
     }
 
 }
@@ -1,7 +1,9 @@
 package tech.bugger.business.service;
 
 import tech.bugger.business.internal.ApplicationSettings;
+import tech.bugger.business.internal.SearchResultCache;
 import tech.bugger.business.util.Feedback;
+import tech.bugger.business.util.InvertedIndex;
 import tech.bugger.business.util.RegistryKey;
 import tech.bugger.global.transfer.Attachment;
 import tech.bugger.global.transfer.Notification;
@@ -65,6 +67,16 @@ public class PostService {
      */
     private final ResourceBundle messagesBundle;
 
+    /**
+     * The in-process search index to keep up to date with post contents.
+     */
+    private final InvertedIndex searchIndex;
+
+    /**
+     * The cache of report search results to invalidate on changes.
+     */
+    private final SearchResultCache resultCache;
+
     /**
      * Constructs a new post service with the given dependencies.
      *
@@ -73,18 +85,24 @@ public class PostService {
      * @param transactionManager  The transaction manager to use for creating transactions.
      * @param feedbackEvent       The feedback event to use for user feedback.
      * @param messagesBundle      The resource bundle for feedback messages.
+     * @param searchIndex         The search index to keep up to date.
+     * @param resultCache         The cache of report search results to invalidate on changes.
      */
     @Inject
     public PostService(final NotificationService notificationService,
                        final ApplicationSettings applicationSettings,
                        final TransactionManager transactionManager,
                        final Event<Feedback> feedbackEvent,
-                       final @RegistryKey("messages") ResourceBundle messagesBundle) {
+                       final @RegistryKey("messages") ResourceBundle messagesBundle,
+                       final @RegistryKey("reports") InvertedIndex searchIndex,
+                       final SearchResultCache resultCache) {
         this.notificationService = notificationService;
         this.applicationSettings = applicationSettings;
         this.transactionManager = transactionManager;
         this.feedbackEvent = feedbackEvent;
         this.messagesBundle = messagesBundle;
+        this.searchIndex = searchIndex;
+        this.resultCache = resultCache;
     }
 
     /**
@@ -99,6 +117,16 @@ public class PostService {
         try (Transaction tx = transactionManager.begin()) {
             post.getAuthorship().setModifiedDate(OffsetDateTime.now());
             tx.newPostGateway().update(post);
+            if (report.getClosingDate() == null) {
+                Notification notification = new Notification();
+                notification.setType(Notification.Type.EDITED_POST);
+                notification.setActuatorID(post.getAuthorship().getModifier().getId());
+                notification.setTopicID(report.getTopicID());
+                notification.setReportID(report.getId());
+                notification.setPostID(post.getId());
+                notification.setReportTitle(report.getTitle());
+                notificationService.createNotification(notification, tx);
+            }
             AttachmentGateway attachmentGateway = tx.newAttachmentGateway();
             List<Attachment> newAttachments = post.getAttachments();
             List<Attachment> oldAttachments = attachmentGateway.getAttachmentsForPost(post);
@@ -118,6 +146,8 @@ public class PostService {
             }
 
             tx.commit();
+            searchIndex.putPost(post.getId(), post.getReport(), post.getContent());
+            resultCache.invalidate(report.getTopicID());
         } catch (NotFoundException e) {
             log.error("Post to be updated could not be found.", e);
             feedbackEvent.fire(new Feedback(messagesBundle.getString("not_found_report"), Feedback.Type.ERROR));
@@ -128,14 +158,7 @@ public class PostService {
             return false;
         }
         if (report.getClosingDate() == null) {
-            Notification notification = new Notification();
-            notification.setType(Notification.Type.EDITED_POST);
-            notification.setActuatorID(post.getAuthorship().getModifier().getId());
-            notification.setTopicID(report.getTopicID());
-            notification.setReportID(report.getId());
-            notification.setPostID(post.getId());
-            notification.setReportTitle(report.getTitle());
-            notificationService.createNotification(notification);
+            notificationService.dispatchNotifications();
         }
         return true;
     }
@@ -214,7 +237,19 @@ public class PostService {
         try (Transaction tx = transactionManager.begin()) {
             success = createPostWithTransaction(post, tx);
             if (success) {
+                if (report.getClosingDate() == null) {
+                    Notification notification = new Notification();
+                    notification.setType(Notification.Type.NEW_POST);
+                    notification.setActuatorID(post.getAuthorship().getCreator().getId());
+                    notification.setTopicID(report.getTopicID());
+                    notification.setReportID(report.getId());
+                    notification.setPostID(post.getId());
+                    notification.setReportTitle(report.getTitle());
+                    notificationService.createNotification(notification, tx);
+                }
                 tx.commit();
+                searchIndex.putPost(post.getId(), post.getReport(), post.getContent());
+                resultCache.invalidate(report.getTopicID());
                 log.info("Post created successfully.");
                 feedbackEvent.fire(new Feedback(messagesBundle.getString("post_created"), Feedback.Type.INFO));
             }
@@ -224,14 +259,7 @@ public class PostService {
             return false;
         }
         if (success && report.getClosingDate() == null) {
-            Notification notification = new Notification();
-            notification.setType(Notification.Type.NEW_POST);
-            notification.setActuatorID(post.getAuthorship().getCreator().getId());
-            notification.setTopicID(report.getTopicID());
-            notification.setReportID(report.getId());
-            notification.setPostID(post.getId());
-            notification.setReportTitle(report.getTitle());
-            notificationService.createNotification(notification);
+            notificationService.dispatchNotifications();
         }
         return success;
     }
@@ -296,9 +324,12 @@ public class PostService {
                 tx.newPostGateway().delete(post);
             }
             tx.commit();
+            resultCache.invalidate(report.getTopicID());
             if (reportGone) {
+                searchIndex.removeReport(report.getId());
                 feedbackEvent.fire(new Feedback(messagesBundle.getString("report_deleted"), Feedback.Type.INFO));
             } else {
+                searchIndex.removePost(post.getId());
                 feedbackEvent.fire(new Feedback(messagesBundle.getString("post_deleted"), Feedback.Type.INFO));
             }
         } catch (NotFoundException e) {
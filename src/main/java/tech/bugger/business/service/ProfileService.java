@@ -4,6 +4,7 @@ import tech.bugger.business.exception.CorruptImageException;
 import tech.bugger.business.util.Feedback;
 import tech.bugger.business.util.Hasher;
 import tech.bugger.business.util.Images;
+import tech.bugger.business.util.NameIndex;
 import tech.bugger.business.util.RegistryKey;
 import tech.bugger.global.transfer.Report;
 import tech.bugger.global.transfer.Selection;
@@ -57,6 +58,11 @@ public class ProfileService {
      */
     private final ResourceBundle messages;
 
+    /**
+     * The index of usernames to update on changes.
+     */
+    private final NameIndex nameIndex;
+
     /**
      * Constructs a new profile service with the given dependencies.
      *
@@ -64,16 +70,19 @@ public class ProfileService {
      * @param transactionManager The transaction manager to be used for creating transactions.
      * @param searchService      The service providing methods for searching.
      * @param messages           The resource bundle to look up feedback messages.
+     * @param nameIndex          The index of usernames to update on changes.
      */
     @Inject
     public ProfileService(final Event<Feedback> feedback,
                           final TransactionManager transactionManager,
                           final SearchService searchService,
-                          final @RegistryKey("messages") ResourceBundle messages) {
+                          final @RegistryKey("messages") ResourceBundle messages,
+                          final @RegistryKey("names") NameIndex nameIndex) {
         this.feedback = feedback;
         this.transactionManager = transactionManager;
         this.searchService = searchService;
         this.messages = messages;
+        this.nameIndex = nameIndex;
     }
 
     /**
@@ -109,6 +118,7 @@ public class ProfileService {
             user.setEmailAddress(user.getEmailAddress().toLowerCase());
             tx.newUserGateway().createUser(user);
             tx.commit();
+            nameIndex.putUser(user.getId(), user.getUsername(), user.isAdministrator());
             return true;
         } catch (TransactionException e) {
             log.error("User could not be created.", e);
@@ -131,6 +141,7 @@ public class ProfileService {
         try (Transaction tx = transactionManager.begin()) {
             tx.newUserGateway().deleteUser(user);
             tx.commit();
+            nameIndex.removeUser(user.getId());
         } catch (NotFoundException e) {
             log.error("The user with id " + user.getId() + " could not be found.", e);
         } catch (TransactionException e) {
@@ -151,6 +162,7 @@ public class ProfileService {
         try (Transaction tx = transactionManager.begin()) {
             tx.newUserGateway().updateUser(user);
             tx.commit();
+            nameIndex.putUser(user.getId(), user.getUsername(), user.isAdministrator());
             feedback.fire(new Feedback(messages.getString("operation_successful"), Feedback.Type.INFO));
             return true;
         } catch (NotFoundException e) {
@@ -506,6 +518,7 @@ public class ProfileService {
             user.setAdministrator(admin);
             transaction.newUserGateway().updateUser(user);
             transaction.commit();
+            nameIndex.putUser(user.getId(), user.getUsername(), user.isAdministrator());
             feedback.fire(new Feedback(messages.getString("operation_successful"), Feedback.Type.INFO));
         } catch (NotFoundException e) {
             user.setAdministrator(!admin);
@@ -600,6 +613,28 @@ public class ProfileService {
         return avatar;
     }
 
+    /**
+     * Searches and returns the avatar thumbnail of the {@link User} with the given {@code id}.
+     *
+     * @param id The ID of the user whose avatar thumbnail to search for.
+     * @return The user's avatar thumbnail or {@code null} if no such user exists.
+     */
+    public byte[] getAvatarThumbnailForUser(final int id) {
+        byte[] thumbnail = null;
+
+        try (Transaction tx = transactionManager.begin()) {
+            thumbnail = tx.newUserGateway().getAvatarThumbnailForUser(id);
+            tx.commit();
+        } catch (NotFoundException e) {
+            log.debug("Avatar thumbnail could not be found for user.");
+        } catch (TransactionException e) {
+            log.error("Error while searching for user avatar thumbnail.", e);
+            feedback.fire(new Feedback(messages.getString("data_access_error"), Feedback.Type.ERROR));
+        }
+
+        return thumbnail;
+    }
+
     /**
      * Counts the number of topics moderated by {@code user}.
      *
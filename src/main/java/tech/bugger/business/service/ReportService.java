@@ -1,6 +1,8 @@
 package tech.bugger.business.service;
 
+import tech.bugger.business.internal.SearchResultCache;
 import tech.bugger.business.util.Feedback;
+import tech.bugger.business.util.InvertedIndex;
 import tech.bugger.business.util.RegistryKey;
 import tech.bugger.global.transfer.Notification;
 import tech.bugger.global.transfer.Post;
@@ -71,6 +73,16 @@ public class ReportService {
      */
     private final ResourceBundle messagesBundle;
 
+    /**
+     * The in-process search index to keep up to date with report titles and post contents.
+     */
+    private final InvertedIndex searchIndex;
+
+    /**
+     * The cache of report search results to invalidate on changes.
+     */
+    private final SearchResultCache resultCache;
+
     /**
      * Constructs a new report service with the given dependencies.
      *
@@ -81,12 +93,16 @@ public class ReportService {
      * @param transactionManager  The transaction manager to use for creating transactions.
      * @param feedbackEvent       The feedback event to use for user feedback.
      * @param messagesBundle      The resource bundle for feedback messages.
+     * @param searchIndex         The search index to keep up to date.
+     * @param resultCache         The cache of report search results to invalidate on changes.
      */
     @Inject
     public ReportService(final NotificationService notificationService, final TopicService topicService,
                          final PostService postService, final ProfileService profileService,
                          final TransactionManager transactionManager, final Event<Feedback> feedbackEvent,
-                         final @RegistryKey("messages") ResourceBundle messagesBundle) {
+                         final @RegistryKey("messages") ResourceBundle messagesBundle,
+                         final @RegistryKey("reports") InvertedIndex searchIndex,
+                         final SearchResultCache resultCache) {
         this.notificationService = notificationService;
         this.topicService = topicService;
         this.postService = postService;
@@ -94,6 +110,8 @@ public class ReportService {
         this.transactionManager = transactionManager;
         this.feedbackEvent = feedbackEvent;
         this.messagesBundle = messagesBundle;
+        this.searchIndex = searchIndex;
+        this.resultCache = resultCache;
     }
 
     /**
@@ -213,6 +231,7 @@ public class ReportService {
         try (Transaction tx = transactionManager.begin()) {
             tx.newReportGateway().update(report);
             tx.commit();
+            resultCache.invalidate(report.getTopicID());
         } catch (NotFoundException e) {
             log.error("Could not find report " + report + ".", e);
             feedbackEvent.fire(new Feedback(messagesBundle.getString("not_found_error"), Feedback.Type.ERROR));
@@ -232,6 +251,7 @@ public class ReportService {
         try (Transaction tx = transactionManager.begin()) {
             tx.newReportGateway().update(report);
             tx.commit();
+            resultCache.invalidate(report.getTopicID());
         } catch (NotFoundException e) {
             log.error("Could not find report " + report + ".", e);
             feedbackEvent.fire(new Feedback(messagesBundle.getString("not_found_error"), Feedback.Type.ERROR));
@@ -254,6 +274,7 @@ public class ReportService {
             try (Transaction tx = transactionManager.begin()) {
                 tx.newReportGateway().addVote(report, user, votingWeight);
                 tx.commit();
+                resultCache.invalidate(report.getTopicID());
             } catch (NotFoundException e) {
                 log.error("Could not find report " + report + ".", e);
                 feedbackEvent.fire(new Feedback(messagesBundle.getString("not_found_error"), Feedback.Type.ERROR));
@@ -283,6 +304,7 @@ public class ReportService {
             try (Transaction tx = transactionManager.begin()) {
                 tx.newReportGateway().addVote(report, user, -votingWeight);
                 tx.commit();
+                resultCache.invalidate(report.getTopicID());
             } catch (NotFoundException e) {
                 log.error("Could not find report " + report + ".", e);
                 feedbackEvent.fire(new Feedback(messagesBundle.getString("not_found_error"), Feedback.Type.ERROR));
@@ -308,6 +330,7 @@ public class ReportService {
         try (Transaction tx = transactionManager.begin()) {
             tx.newReportGateway().removeVote(report, user);
             tx.commit();
+            resultCache.invalidate(report.getTopicID());
         } catch (NotFoundException e) {
             log.error("Error while removing vote in report " + report + ".", e);
             feedbackEvent.fire(new Feedback(messagesBundle.getString("not_found_error"), Feedback.Type.ERROR));
@@ -392,6 +415,13 @@ public class ReportService {
             firstPost.setReport(report.getId());
             boolean postCreated = postService.createPostWithTransaction(firstPost, tx);
             if (postCreated) {
+                Notification notification = new Notification();
+                notification.setType(Notification.Type.NEW_REPORT);
+                notification.setActuatorID(report.getAuthorship().getCreator().getId());
+                notification.setTopicID(report.getTopicID());
+                notification.setReportID(report.getId());
+                notification.setReportTitle(report.getTitle());
+                notificationService.createNotification(notification, tx);
                 tx.commit();
                 success = true;
                 log.info("Report created successfully.");
@@ -405,16 +435,13 @@ public class ReportService {
             return false;
         }
         if (success) {
+            searchIndex.putReport(report.getId(), report.getTitle());
+            searchIndex.putPost(firstPost.getId(), report.getId(), firstPost.getContent());
+            resultCache.invalidate(report.getTopicID());
             User creator = new User();
             creator.setId(report.getAuthorship().getCreator().getId());
             subscribeToReport(creator, report);
-            Notification notification = new Notification();
-            notification.setType(Notification.Type.NEW_REPORT);
-            notification.setActuatorID(report.getAuthorship().getCreator().getId());
-            notification.setTopicID(report.getTopicID());
-            notification.setReportID(report.getId());
-            notification.setReportTitle(report.getTitle());
-            notificationService.createNotification(notification);
+            notificationService.dispatchNotifications();
         }
         return success;
     }
@@ -432,7 +459,17 @@ public class ReportService {
 
         try (Transaction tx = transactionManager.begin()) {
             tx.newReportGateway().update(report);
+            if (report.getClosingDate() == null) {
+                Notification notification = new Notification();
+                notification.setType(Notification.Type.MOVED_REPORT);
+                notification.setActuatorID(report.getAuthorship().getModifier().getId());
+                notification.setTopicID(report.getTopicID());
+                notification.setReportID(report.getId());
+                notification.setReportTitle(report.getTitle());
+                notificationService.createNotification(notification, tx);
+            }
             tx.commit();
+            resultCache.invalidateAll();
             success = true;
             feedbackEvent.fire(new Feedback(messagesBundle.getString("operation_successful"), Feedback.Type.INFO));
         } catch (NotFoundException e) {
@@ -444,13 +481,7 @@ public class ReportService {
         }
 
         if (success && report.getClosingDate() == null) {
-            Notification notification = new Notification();
-            notification.setType(Notification.Type.MOVED_REPORT);
-            notification.setActuatorID(report.getAuthorship().getModifier().getId());
-            notification.setTopicID(report.getTopicID());
-            notification.setReportID(report.getId());
-            notification.setReportTitle(report.getTitle());
-            notificationService.createNotification(notification);
+            notificationService.dispatchNotifications();
         }
         return success;
     }
@@ -466,7 +497,18 @@ public class ReportService {
         try (Transaction tx = transactionManager.begin()) {
             report.getAuthorship().setModifiedDate(OffsetDateTime.now());
             tx.newReportGateway().update(report);
+            if (report.getClosingDate() == null) {
+                Notification notification = new Notification();
+                notification.setType(Notification.Type.EDITED_REPORT);
+                notification.setActuatorID(report.getAuthorship().getModifier().getId());
+                notification.setTopicID(report.getTopicID());
+                notification.setReportID(report.getId());
+                notification.setReportTitle(report.getTitle());
+                notificationService.createNotification(notification, tx);
+            }
             tx.commit();
+            resultCache.invalidate(report.getTopicID());
+            searchIndex.putReport(report.getId(), report.getTitle());
         } catch (NotFoundException e) {
             log.error("Report to be updated could not be found.", e);
             feedbackEvent.fire(new Feedback(messagesBundle.getString("not_found_error"), Feedback.Type.ERROR));
@@ -477,13 +519,7 @@ public class ReportService {
             return false;
         }
         if (report.getClosingDate() == null) {
-            Notification notification = new Notification();
-            notification.setType(Notification.Type.EDITED_REPORT);
-            notification.setActuatorID(report.getAuthorship().getModifier().getId());
-            notification.setTopicID(report.getTopicID());
-            notification.setReportID(report.getId());
-            notification.setReportTitle(report.getTitle());
-            notificationService.createNotification(notification);
+            notificationService.dispatchNotifications();
         }
         return true;
     }
@@ -498,6 +534,8 @@ public class ReportService {
         try (Transaction tx = transactionManager.begin()) {
             tx.newReportGateway().delete(report);
             tx.commit();
+            resultCache.invalidate(report.getTopicID());
+            searchIndex.removeReport(report.getId());
             feedbackEvent.fire(new Feedback(messagesBundle.getString("report_deleted"), Feedback.Type.INFO));
             return true;
         } catch (NotFoundException e) {
@@ -542,6 +580,7 @@ public class ReportService {
         try (Transaction tx = transactionManager.begin()) {
             tx.newReportGateway().markDuplicate(duplicate, originalID);
             tx.commit();
+            resultCache.invalidate(duplicate.getTopicID());
             valid = true;
         } catch (SelfReferenceException e) {
             log.error("Cannot mark report " + duplicate + " as original report of itself.", e);
@@ -569,6 +608,7 @@ public class ReportService {
         try (Transaction tx = transactionManager.begin()) {
             tx.newReportGateway().unmarkDuplicate(report);
             tx.commit();
+            resultCache.invalidate(report.getTopicID());
             valid = true;
         } catch (NotFoundException e) {
             log.error("Could not find report " + report + '.', e);
@@ -592,6 +632,7 @@ public class ReportService {
         try (Transaction tx = transactionManager.begin()) {
             tx.newReportGateway().overwriteRelevance(report, relevance);
             tx.commit();
+            resultCache.invalidate(report.getTopicID());
         } catch (NotFoundException e) {
             log.error("Error while overwriting relevance in report " + report + ".", e);
             feedbackEvent.fire(new Feedback(messagesBundle.getString("not_found_error"), Feedback.Type.ERROR));
@@ -1,15 +1,25 @@
 package tech.bugger.business.service;
 
 import tech.bugger.business.internal.ApplicationSettings;
+import tech.bugger.business.internal.SearchResultCache;
+import tech.bugger.business.internal.SuggestionCache;
 import tech.bugger.business.util.Feedback;
+import tech.bugger.business.util.InvertedIndex;
+import tech.bugger.business.util.NameIndex;
+import tech.bugger.business.util.QueryExecutor;
 import tech.bugger.business.util.RegistryKey;
 import tech.bugger.global.transfer.Report;
+import tech.bugger.global.transfer.ResultPage;
+import tech.bugger.global.transfer.SearchSuggestions;
 import tech.bugger.global.transfer.Selection;
 import tech.bugger.global.transfer.Topic;
 import tech.bugger.global.transfer.User;
 import tech.bugger.global.util.Log;
+import tech.bugger.global.util.Pagitable;
 import tech.bugger.persistence.exception.NotFoundException;
 import tech.bugger.persistence.exception.TransactionException;
+import tech.bugger.persistence.gateway.SearchGateway;
+import tech.bugger.persistence.util.PropertiesReader;
 import tech.bugger.persistence.util.Transaction;
 import tech.bugger.persistence.util.TransactionManager;
 
@@ -19,9 +29,16 @@ import javax.inject.Inject;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * Service providing methods related to searching for specific topics, reports and users. A {@link Feedback} event is
@@ -55,11 +72,58 @@ public class SearchService {
      */
     private final TransactionManager transactionManager;
 
+    /**
+     * The cache of search suggestions for short queries.
+     */
+    private final SuggestionCache suggestionCache;
+
+    /**
+     * The cache of report search result pages.
+     */
+    private final SearchResultCache resultCache;
+
+    /**
+     * The in-process search index over report titles and post contents, if enabled.
+     */
+    private final InvertedIndex searchIndex;
+
+    /**
+     * The in-process index over usernames and topic titles to serve suggestions from if it is enabled.
+     */
+    private final NameIndex nameIndex;
+
+    /**
+     * Whether to search reports using the full-text search of the data source.
+     */
+    private final boolean fullTextSearch;
+
+    /**
+     * The executor running independent queries concurrently to the current request.
+     */
+    private final QueryExecutor queryExecutor;
+
+    /**
+     * The time in nanoseconds the current request waits at most for its concurrent queries, or {@code 0} to wait
+     * indefinitely.
+     */
+    private final long timeoutNanos;
+
+    /**
+     * The time in nanoseconds until which the current request waits for its concurrent queries, or {@code null} if it
+     * has not started any.
+     */
+    private Long deadline;
+
     /**
      * The maximum amount of suggestions for user input in a search field.
      */
     private static final int MAX_SUGGESTIONS = 5;
 
+    /**
+     * The value of the {@code SEARCH_ENGINE} configuration selecting the full-text search for reports.
+     */
+    private static final String FULL_TEXT_SEARCH_ENGINE = "fulltext";
+
     /**
      * Constructs a new search service with the given dependencies.
      *
@@ -67,14 +131,57 @@ public class SearchService {
      * @param feedback            The feedback event to be used for user feedback.
      * @param messages            The resource bundle to look up feedback messages.
      * @param applicationSettings The application settings for the service.
+     * @param configReader        The application configuration selecting the search engine for reports.
+     * @param suggestionCache     The cache of search suggestions for short queries.
+     * @param resultCache         The cache of report search result pages.
+     * @param searchIndex         The in-process search index to search reports with if it is enabled.
+     * @param nameIndex           The in-process name index to serve user and topic suggestions from if it is enabled.
+     * @param queryExecutor       The executor to run independent queries concurrently to the current request on.
      */
     @Inject
     public SearchService(final Event<Feedback> feedback, final @RegistryKey("messages") ResourceBundle messages,
-                         final TransactionManager transactionManager, final ApplicationSettings applicationSettings) {
+                         final TransactionManager transactionManager, final ApplicationSettings applicationSettings,
+                         final @RegistryKey("config") PropertiesReader configReader,
+                         final SuggestionCache suggestionCache, final SearchResultCache resultCache,
+                         final @RegistryKey("reports") InvertedIndex searchIndex,
+                         final @RegistryKey("names") NameIndex nameIndex,
+                         final @RegistryKey("search") QueryExecutor queryExecutor) {
         this.applicationSettings = applicationSettings;
+        this.suggestionCache = suggestionCache;
+        this.resultCache = resultCache;
+        this.searchIndex = searchIndex;
+        this.nameIndex = nameIndex;
         this.feedback = feedback;
         this.messages = messages;
         this.transactionManager = transactionManager;
+        this.fullTextSearch = FULL_TEXT_SEARCH_ENGINE.equals(configReader.getString("SEARCH_ENGINE"));
+        this.queryExecutor = queryExecutor;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, configReader.getInt("SEARCH_TIMEOUT")));
+    }
+
+    /**
+     * Returns at most the first five usernames, topic titles and report titles each when searching the data source for
+     * all of them at once. Suggestions for short queries are served from the cache if possible.
+     *
+     * @param query The search query for usernames, topic titles and report titles.
+     * @return The suggestions containing the first few results of each kind.
+     */
+    public SearchSuggestions getSuggestions(final String query) {
+        String searchInput = query.trim().toLowerCase();
+        SearchSuggestions suggestions = suggestionCache.get(searchInput);
+        if (suggestions != null) {
+            return suggestions;
+        }
+        suggestions = new SearchSuggestions(List.of(), List.of(), List.of());
+        try (Transaction tx = transactionManager.begin()) {
+            suggestions = tx.newSearchGateway().getSuggestions(searchInput, MAX_SUGGESTIONS);
+            tx.commit();
+            suggestionCache.put(searchInput, suggestions);
+        } catch (TransactionException e) {
+            log.error("Error while loading the search suggestions.", e);
+            feedback.fire(new Feedback(messages.getString("data_access_error"), Feedback.Type.ERROR));
+        }
+        return suggestions;
     }
 
     /**
@@ -84,6 +191,9 @@ public class SearchService {
      * @return A list containing the first few results.
      */
     public List<String> getUserSuggestions(final String query) {
+        if (nameIndex.isEnabled()) {
+            return nameIndex.getUserSuggestions(query, MAX_SUGGESTIONS);
+        }
         List<String> users = new ArrayList<>();
         String searchInput = query.trim().toLowerCase();
         try (Transaction tx = transactionManager.begin()) {
@@ -122,6 +232,9 @@ public class SearchService {
      * @return A list containing the first few results.
      */
     public List<String> getTopicSuggestions(final String query) {
+        if (nameIndex.isEnabled()) {
+            return nameIndex.getTopicSuggestions(query, MAX_SUGGESTIONS);
+        }
         List<String> topics = new ArrayList<>();
         String searchInput = query.trim().toLowerCase();
         try (Transaction tx = transactionManager.begin()) {
@@ -143,6 +256,9 @@ public class SearchService {
      * @return A list containing the first few results.
      */
     public List<String> getUserBanSuggestions(final String query, final Topic topic) {
+        if (nameIndex.isEnabled()) {
+            return nameIndex.getUserBanSuggestions(query, MAX_SUGGESTIONS, topic.getId());
+        }
         List<String> users = new ArrayList<>();
 
         try (Transaction tx = transactionManager.begin()) {
@@ -165,6 +281,9 @@ public class SearchService {
      * @return A list containing the first few results.
      */
     public List<String> getUserUnbanSuggestions(final String query, final Topic topic) {
+        if (nameIndex.isEnabled()) {
+            return nameIndex.getUserUnbanSuggestions(query, MAX_SUGGESTIONS, topic.getId());
+        }
         List<String> users = null;
 
         try (Transaction tx = transactionManager.begin()) {
@@ -187,6 +306,9 @@ public class SearchService {
      * @return A list containing the first few results.
      */
     public List<String> getUserModSuggestions(final String query, final Topic topic) {
+        if (nameIndex.isEnabled()) {
+            return nameIndex.getUserModSuggestions(query, MAX_SUGGESTIONS, topic.getId());
+        }
         List<String> users = new ArrayList<>();
 
         try (Transaction tx = transactionManager.begin()) {
@@ -209,6 +331,9 @@ public class SearchService {
      * @return A list containing the first few results.
      */
     public List<String> getUserUnmodSuggestions(final String query, final Topic topic) {
+        if (nameIndex.isEnabled()) {
+            return nameIndex.getUserUnmodSuggestions(query, MAX_SUGGESTIONS, topic.getId());
+        }
         List<String> users = null;
         try (Transaction tx = transactionManager.begin()) {
             users = tx.newSearchGateway().getUserUnmodSuggestions(query, MAX_SUGGESTIONS, topic);
@@ -247,6 +372,76 @@ public class SearchService {
         return users;
     }
 
+    /**
+     * Searches the data source for specific users and counts all matches within the same query.
+     *
+     * @param query         The search query for usernames.
+     * @param selection     Information on which parts of the result to retrieve.
+     * @param showAdmins    Whether or not to include administrators.
+     * @param showNonAdmins Whether or not to include non-administrators.
+     * @return The selected search results along with the total number of results.
+     */
+    public ResultPage<User> getUserResultPage(final String query, final Selection selection,
+                                              final boolean showAdmins, final boolean showNonAdmins) {
+        ResultPage<User> page = ResultPage.empty();
+        String searchInput = query.trim().toLowerCase();
+        try (Transaction tx = transactionManager.begin()) {
+            page = tx.newSearchGateway().getUserResultPage(searchInput, selection, showAdmins, showNonAdmins);
+            tx.commit();
+        } catch (TransactionException e) {
+            log.error("Error while loading the user search results.", e);
+            feedback.fire(new Feedback(messages.getString("data_access_error"), Feedback.Type.ERROR));
+        }
+        for (User u : page.getItems()) {
+            u.setVotingWeight(getVotingWeightFromPosts(u.getNumPosts()));
+        }
+        return page;
+    }
+
+    /**
+     * Starts loading the titles of all topics, e.g. to filter search results by, concurrently to the current request.
+     *
+     * @return The pending topic titles, to be obtained via {@link #awaitTopicTitles(Future)}.
+     */
+    public Future<List<String>> prefetchTopicTitles() {
+        if (deadline == null) {
+            deadline = System.nanoTime() + timeoutNanos;
+        }
+        return queryExecutor.submit(() -> {
+            try (Transaction tx = transactionManager.begin()) {
+                List<Topic> topics = tx.newTopicGateway().discoverTopics();
+                tx.commit();
+                return topics.stream().map(Topic::getTitle).collect(Collectors.toList());
+            }
+        });
+    }
+
+    /**
+     * Waits for the topic titles started loading by {@link #prefetchTopicTitles()}, but no longer than until the
+     * deadline of the current request.
+     *
+     * @param pending The pending topic titles.
+     * @return The titles of all topics, or an empty list if they could not be loaded in time.
+     */
+    public List<String> awaitTopicTitles(final Future<List<String>> pending) {
+        try {
+            if (timeoutNanos == 0) {
+                return pending.get();
+            }
+            return pending.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            pending.cancel(false);
+            log.warning("Timeout while loading the topic titles.");
+        } catch (ExecutionException e) {
+            log.error("Error while loading the topic titles.", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Interrupted while loading the topic titles.", e);
+        }
+        feedback.fire(new Feedback(messages.getString("data_access_error"), Feedback.Type.ERROR));
+        return List.of();
+    }
+
     /**
      * Returns the voting weight calculated from a given number of posts.
      *
@@ -320,6 +515,26 @@ public class SearchService {
         return topics;
     }
 
+    /**
+     * Searches the data source for specific topics and counts all matches within the same query.
+     *
+     * @param query     The search query for topic titles.
+     * @param selection Information on which part of the result to retrieve.
+     * @return The selected search results along with the total number of results.
+     */
+    public ResultPage<Topic> getTopicResultPage(final String query, final Selection selection) {
+        ResultPage<Topic> page = ResultPage.empty();
+        String searchInput = query.trim().toLowerCase();
+        try (Transaction tx = transactionManager.begin()) {
+            page = tx.newSearchGateway().getTopicResultPage(searchInput, selection);
+            tx.commit();
+        } catch (TransactionException e) {
+            log.error("Error while loading the topic search results.", e);
+            feedback.fire(new Feedback(messages.getString("data_access_error"), Feedback.Type.ERROR));
+        }
+        return page;
+    }
+
     /**
      * Searches the data source for specific topics.
      *
@@ -349,10 +564,18 @@ public class SearchService {
                                          final Map<Report.Severity, Boolean> severityFilter) {
         List<Report> reports = new ArrayList<>();
         String searchInput = query.trim().toLowerCase();
+        long generation = resultCache.getGeneration();
         try (Transaction tx = transactionManager.begin()) {
-            reports = tx.newSearchGateway().getReportResults(searchInput, selection, latestCreationDateTime,
-                    earliestClosingDateTime, showOpenReports, showClosedReports, showDuplicates, fulltext, topic,
-                    reportTypeFilter, severityFilter);
+            ResultPage<Report> indexed = getIndexedReportResultPage(tx, generation, searchInput, selection,
+                    latestCreationDateTime, earliestClosingDateTime, showOpenReports, showClosedReports,
+                    showDuplicates, fulltext, topic, reportTypeFilter, severityFilter);
+            if (indexed != null) {
+                reports = indexed.getItems();
+            } else {
+                reports = newReportSearchGateway(tx).getReportResults(searchInput, selection,
+                        latestCreationDateTime, earliestClosingDateTime, showOpenReports, showClosedReports,
+                        showDuplicates, fulltext, topic, reportTypeFilter, severityFilter);
+            }
             tx.commit();
         } catch (NotFoundException e) {
             log.error("Filter Topic " + topic + " not found while searching for reports", e);
@@ -364,6 +587,146 @@ public class SearchService {
         return reports;
     }
 
+    /**
+     * Searches the data source for specific reports and counts all matches within the same query.
+     *
+     * @param query                   The search query for report titles.
+     * @param selection               Information on which part of the result to retrieve.
+     * @param latestCreationDateTime  Only reports created before this date are taken into account. Passing {@code null}
+     *                                includes reports regardless of when they were created.
+     * @param earliestClosingDateTime Only reports closed after this date are taken into account. Passing {@code null}
+     *                                includes reports regardless of when they were closed. Reports still open are never
+     *                                excluded via this filter.
+     * @param showOpenReports         Whether or not to include open reports.
+     * @param showClosedReports       Whether or not to include closed reports.
+     * @param showDuplicates          Whether or not to include duplicates.
+     * @param fulltext                Whether or not to enable fulltext search in postings.
+     * @param topic                   Only reports belonging to this topic are taken into account. Passing {@code null}
+     *                                includes reports regardless of which topic they belong to.
+     * @param reportTypeFilter        Which types of reports to include and which to exclude.
+     * @param severityFilter          Which reports of certain severities to include or exclude.
+     * @return The selected search results along with the total number of results. Pages are served from the cache
+     *         if possible.
+     */
+    public ResultPage<Report> getReportResultPage(final String query, final Selection selection,
+                                                  final OffsetDateTime latestCreationDateTime,
+                                                  final OffsetDateTime earliestClosingDateTime,
+                                                  final boolean showOpenReports, final boolean showClosedReports,
+                                                  final boolean showDuplicates, final boolean fulltext,
+                                                  final String topic,
+                                                  final Map<Report.Type, Boolean> reportTypeFilter,
+                                                  final Map<Report.Severity, Boolean> severityFilter) {
+        ResultPage<Report> page = ResultPage.empty();
+        String searchInput = query.trim().toLowerCase();
+        List<?> key = selection == null ? null : Arrays.asList(searchInput, selection.getCurrentPage(),
+                selection.getPageSize(), selection.getSortedBy(), selection.isAscending(), latestCreationDateTime,
+                earliestClosingDateTime, showOpenReports, showClosedReports, showDuplicates, fulltext, topic,
+                copyOf(reportTypeFilter), copyOf(severityFilter));
+        if (key != null) {
+            ResultPage<Report> cached = resultCache.get(key, selection);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        long generation = resultCache.getGeneration();
+        try (Transaction tx = transactionManager.begin()) {
+            ResultPage<Report> indexed = getIndexedReportResultPage(tx, generation, searchInput, selection,
+                    latestCreationDateTime, earliestClosingDateTime, showOpenReports, showClosedReports,
+                    showDuplicates, fulltext, topic, reportTypeFilter, severityFilter);
+            if (indexed != null) {
+                page = indexed;
+            } else {
+                page = newReportSearchGateway(tx).getReportResultPage(searchInput, selection,
+                        latestCreationDateTime, earliestClosingDateTime, showOpenReports, showClosedReports,
+                        showDuplicates, fulltext, topic, reportTypeFilter, severityFilter);
+            }
+            tx.commit();
+            if (key != null) {
+                Integer topicID = topic == null || page.getItems().isEmpty()
+                        ? null : page.getItems().get(0).getTopicID();
+                resultCache.put(key, generation, topicID, selection, page);
+            }
+        } catch (NotFoundException e) {
+            log.error("Filter Topic " + topic + " not found while searching for reports", e);
+            feedback.fire(new Feedback(messages.getString("data_access_error"), Feedback.Type.ERROR));
+        } catch (TransactionException e) {
+            log.error("Error while loading the report search results.", e);
+            feedback.fire(new Feedback(messages.getString("data_access_error"), Feedback.Type.ERROR));
+        }
+        return page;
+    }
+
+    /**
+     * Loads the selected page of the reports found by the search index. The found reports are filtered and sorted
+     * only once per search, after which their IDs are cached, such that further pages only load their own reports.
+     * As the pages are determined by their offset, the positions of the first and last item are cleared in the
+     * selection.
+     *
+     * @param tx                      The transaction to load the reports in.
+     * @param generation              The generation of the result cache obtained before searching.
+     * @param searchInput             The normalized search query for report titles.
+     * @param selection               Information on which part of the result to retrieve.
+     * @param latestCreationDateTime  Only reports created before this date are taken into account.
+     * @param earliestClosingDateTime Only reports closed after this date are taken into account.
+     * @param showOpenReports         Whether or not to include open reports.
+     * @param showClosedReports       Whether or not to include closed reports.
+     * @param showDuplicates          Whether or not to include duplicates.
+     * @param fulltext                Whether or not to enable fulltext search in postings.
+     * @param topic                   Only reports belonging to this topic are taken into account.
+     * @param reportTypeFilter        Which types of reports to include and which to exclude.
+     * @param severityFilter          Which reports of certain severities to include or exclude.
+     * @return The selected page of the results, or {@code null} if the search index cannot answer the search.
+     */
+    private ResultPage<Report> getIndexedReportResultPage(final Transaction tx, final long generation,
+                                                          final String searchInput, final Selection selection,
+                                                          final OffsetDateTime latestCreationDateTime,
+                                                          final OffsetDateTime earliestClosingDateTime,
+                                                          final boolean showOpenReports,
+                                                          final boolean showClosedReports,
+                                                          final boolean showDuplicates, final boolean fulltext,
+                                                          final String topic,
+                                                          final Map<Report.Type, Boolean> reportTypeFilter,
+                                                          final Map<Report.Severity, Boolean> severityFilter) {
+        if (!searchIndex.isEnabled() || selection == null) {
+            return null;
+        }
+        List<?> key = Arrays.asList(searchInput, selection.getSortedBy(), selection.isAscending(),
+                latestCreationDateTime, earliestClosingDateTime, showOpenReports, showClosedReports, showDuplicates,
+                fulltext, topic, copyOf(reportTypeFilter), copyOf(severityFilter));
+        SearchGateway gateway = tx.newSearchGateway();
+        List<Integer> ids = resultCache.getIDs(key);
+        boolean searched = ids == null;
+        if (searched) {
+            List<Integer> matches = searchIndex.search(searchInput, fulltext);
+            if (matches == null) {
+                return null;
+            }
+            ids = gateway.getReportResultIDs(matches, selection, latestCreationDateTime, earliestClosingDateTime,
+                    showOpenReports, showClosedReports, showDuplicates, topic, reportTypeFilter, severityFilter);
+        }
+        int from = Math.min(Pagitable.getItemOffset(selection), ids.size());
+        int to = Math.min(from + Pagitable.getItemLimit(selection), ids.size());
+        List<Report> reports = gateway.getReportsByIDs(ids.subList(from, to));
+        selection.setFirstCursor(null);
+        selection.setLastCursor(null);
+        if (searched) {
+            Integer topicID = topic == null || reports.isEmpty() ? null : reports.get(0).getTopicID();
+            resultCache.putIDs(key, generation, topicID, ids);
+        }
+        return new ResultPage<>(reports, ids.size());
+    }
+
+    /**
+     * Copies a filter for use in a cache key, so that later changes to the filter do not affect the key.
+     *
+     * @param filter The filter to copy.
+     * @param <T>    The type of the filtered values.
+     * @return A copy of {@code filter}, or {@code null} if it is {@code null}.
+     */
+    private static <T> Map<T, Boolean> copyOf(final Map<T, Boolean> filter) {
+        return filter == null ? null : new HashMap<>(filter);
+    }
+
     /**
      * Returns the number of user results for a certain search request.
      *
@@ -430,11 +793,18 @@ public class SearchService {
                                         final Map<Report.Type, Boolean> reportTypeFilter,
                                         final Map<Report.Severity, Boolean> severityFilter) {
         String searchInput = query.trim().toLowerCase();
+        List<Integer> matches = searchIndex.isEnabled() ? searchIndex.search(searchInput, fulltext) : null;
         int results = 0;
         try (Transaction tx = transactionManager.begin()) {
-            results = tx.newSearchGateway().getNumberOfReportResults(searchInput, latestCreationDateTime,
-                    earliestClosingDateTime, showOpenReports, showClosedReports, showDuplicates, fulltext,
-                    topic, reportTypeFilter, severityFilter);
+            if (matches != null) {
+                results = tx.newSearchGateway().getNumberOfReportResultsByIDs(matches, latestCreationDateTime,
+                        earliestClosingDateTime, showOpenReports, showClosedReports, showDuplicates, topic,
+                        reportTypeFilter, severityFilter);
+            } else {
+                results = newReportSearchGateway(tx).getNumberOfReportResults(searchInput, latestCreationDateTime,
+                        earliestClosingDateTime, showOpenReports, showClosedReports, showDuplicates, fulltext,
+                        topic, reportTypeFilter, severityFilter);
+            }
             tx.commit();
         } catch (NotFoundException e) {
             log.error("Filter Topic " + topic + " not found while searching for reports", e);
@@ -446,4 +816,66 @@ public class SearchService {
         return results;
     }
 
+    /**
+     * Searches the data source for specific reports and passes all of them to the given consumer in ascending order of
+     * their IDs. The reports are streamed from the data source in batches instead of being loaded at once, such that
+     * arbitrarily many reports can be exported. As exports are not served by pages, failures are only logged instead of
+     * being reported to the user.
+     *
+     * @param query                   The search query for report titles.
+     * @param latestCreationDateTime  Only reports created before this date are taken into account. Passing {@code null}
+     *                                includes reports regardless of when they were created.
+     * @param earliestClosingDateTime Only reports closed after this date are taken into account. Passing {@code null}
+     *                                includes reports regardless of when they were closed. Reports still open are never
+     *                                excluded via this filter.
+     * @param showOpenReports         Whether or not to include open reports.
+     * @param showClosedReports       Whether or not to include closed reports.
+     * @param showDuplicates          Whether or not to include duplicates.
+     * @param fulltext                Whether or not to enable fulltext search in postings.
+     * @param topic                   Only reports belonging to this topic are taken into account. Passing {@code null}
+     *                                includes reports regardless of which topic they belong to.
+     * @param reportTypeFilter        Which types of reports to include and which to exclude.
+     * @param severityFilter          Which reports of certain severities to include or exclude.
+     * @param consumer                The consumer to pass the found reports to.
+     * @return Whether all found reports have been passed to {@code consumer}.
+     */
+    public boolean exportReportResults(final String query, final OffsetDateTime latestCreationDateTime,
+                                       final OffsetDateTime earliestClosingDateTime, final boolean showOpenReports,
+                                       final boolean showClosedReports, final boolean showDuplicates,
+                                       final boolean fulltext, final String topic,
+                                       final Map<Report.Type, Boolean> reportTypeFilter,
+                                       final Map<Report.Severity, Boolean> severityFilter,
+                                       final Consumer<Report> consumer) {
+        String searchInput = query.trim().toLowerCase();
+        List<Integer> matches = searchIndex.isEnabled() ? searchIndex.search(searchInput, fulltext) : null;
+        try (Transaction tx = transactionManager.begin()) {
+            int exported;
+            if (matches != null) {
+                exported = tx.newSearchGateway().exportReportResultsByIDs(matches, latestCreationDateTime,
+                        earliestClosingDateTime, showOpenReports, showClosedReports, showDuplicates, topic,
+                        reportTypeFilter, severityFilter, consumer);
+            } else {
+                exported = newReportSearchGateway(tx).exportReportResults(searchInput, latestCreationDateTime,
+                        earliestClosingDateTime, showOpenReports, showClosedReports, showDuplicates, fulltext,
+                        topic, reportTypeFilter, severityFilter, consumer);
+            }
+            tx.commit();
+            log.info("Exported " + exported + " reports found for the query " + searchInput + ".");
+            return true;
+        } catch (TransactionException e) {
+            log.error("Error while exporting the report search results.", e);
+            return false;
+        }
+    }
+
+    /**
+     * Fabricates the search gateway for reports according to the configured search engine.
+     *
+     * @param tx The transaction to tie the gateway to.
+     * @return The search gateway to search reports with.
+     */
+    private SearchGateway newReportSearchGateway(final Transaction tx) {
+        return fullTextSearch ? tx.newFullTextSearchGateway() : tx.newSearchGateway();
+    }
+
 }
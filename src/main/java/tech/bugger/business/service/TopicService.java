@@ -1,6 +1,8 @@
 package tech.bugger.business.service;
 
+import tech.bugger.business.internal.SearchResultCache;
 import tech.bugger.business.util.Feedback;
+import tech.bugger.business.util.NameIndex;
 import tech.bugger.business.util.RegistryKey;
 import tech.bugger.global.transfer.Report;
 import tech.bugger.global.transfer.Selection;
@@ -49,19 +51,35 @@ public class TopicService {
      */
     private final ResourceBundle messagesBundle;
 
+    /**
+     * The cache of report search results to invalidate on changes.
+     */
+    private final SearchResultCache resultCache;
+
+    /**
+     * The index of usernames, topic titles, bans and moderations to update on changes.
+     */
+    private final NameIndex nameIndex;
+
     /**
      * Constructs a new topic service with the given dependencies.
      *
      * @param transactionManager The transaction manager to use for creating transactions.
      * @param feedbackEvent      The feedback event to use for user feedback.
      * @param messagesBundle     The resource bundle for feedback messages.
+     * @param resultCache        The cache of report search results to invalidate on changes.
+     * @param nameIndex          The index of usernames, topic titles, bans and moderations to update on changes.
      */
     @Inject
     public TopicService(final TransactionManager transactionManager, final Event<Feedback> feedbackEvent,
-                        final @RegistryKey("messages") ResourceBundle messagesBundle) {
+                        final @RegistryKey("messages") ResourceBundle messagesBundle,
+                        final SearchResultCache resultCache,
+                        final @RegistryKey("names") NameIndex nameIndex) {
         this.transactionManager = transactionManager;
         this.feedbackEvent = feedbackEvent;
         this.messagesBundle = messagesBundle;
+        this.resultCache = resultCache;
+        this.nameIndex = nameIndex;
     }
 
     /**
@@ -88,6 +106,7 @@ public class TopicService {
             } else {
                 tx.newTopicGateway().banUser(topic, user);
                 tx.commit();
+                nameIndex.ban(topic.getId(), user.getId());
                 feedbackEvent.fire(new Feedback(messagesBundle.getString("operation_successful"),
                         Feedback.Type.INFO));
                 return true;
@@ -125,6 +144,7 @@ public class TopicService {
             try {
                 tx.newTopicGateway().unbanUser(topic, user);
                 tx.commit();
+                nameIndex.unban(topic.getId(), user.getId());
                 feedbackEvent.fire(new Feedback(messagesBundle.getString("operation_successful"),
                         Feedback.Type.INFO));
                 return true;
@@ -171,6 +191,8 @@ public class TopicService {
 
                 tx.newTopicGateway().promoteModerator(topic, user);
                 tx.commit();
+                nameIndex.unban(topic.getId(), user.getId());
+                nameIndex.promoteModerator(topic.getId(), user.getId());
                 feedbackEvent.fire(new Feedback(messagesBundle.getString("operation_successful"),
                         Feedback.Type.INFO));
             }
@@ -220,6 +242,7 @@ public class TopicService {
             try {
                 tx.newTopicGateway().demoteModerator(topic, user);
                 tx.commit();
+                nameIndex.demoteModerator(topic.getId(), user.getId());
                 feedbackEvent.fire(new Feedback(messagesBundle.getString("operation_successful"),
                         Feedback.Type.INFO));
                 return true;
@@ -361,6 +384,8 @@ public class TopicService {
         try (Transaction tx = transactionManager.begin()) {
             tx.newTopicGateway().createTopic(topic);
             tx.commit();
+            resultCache.invalidate(topic.getId());
+            nameIndex.putTopic(topic.getId(), topic.getTitle());
             log.info("Topic created successfully.");
             feedbackEvent.fire(new Feedback(messagesBundle.getString("topic_created"), Feedback.Type.INFO));
         } catch (TransactionException | NotFoundException e) {
@@ -387,6 +412,8 @@ public class TopicService {
         try (Transaction tx = transactionManager.begin()) {
             tx.newTopicGateway().updateTopic(topic);
             tx.commit();
+            resultCache.invalidate(topic.getId());
+            nameIndex.putTopic(topic.getId(), topic.getTitle());
             return true;
         } catch (NotFoundException e) {
             log.error("Topic to update " + topic + " not found.", e);
@@ -407,6 +434,8 @@ public class TopicService {
         try (Transaction transaction = transactionManager.begin()) {
             transaction.newTopicGateway().deleteTopic(topic);
             transaction.commit();
+            resultCache.invalidate(topic.getId());
+            nameIndex.removeTopic(topic.getId());
         } catch (tech.bugger.persistence.exception.NotFoundException e) {
             log.error("The topic could not be found.", e);
             feedbackEvent.fire(new Feedback(messagesBundle.getString("not_found_error"), Feedback.Type.ERROR));
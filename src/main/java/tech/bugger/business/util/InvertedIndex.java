@@ -0,0 +1,486 @@
+package tech.bugger.business.util;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over report titles and post contents.
+ * <p>
+ * Every report title and every post content is a document of the index, which maps each of its words to the number of
+ * times it occurs. A search term matches all words it is a prefix of, and a report matches a query if every term
+ * matches its title or, if requested, one of its posts. Matching reports are ranked by how often the terms occur in
+ * them, where occurrences in the title weigh most.
+ * <p>
+ * The index is updated incrementally whenever a report or post is changed and can be written to and read from a
+ * memory-mapped snapshot file, such that it does not have to be rebuilt from scratch at every startup.
+ */
+public final class InvertedIndex {
+
+    /**
+     * Pattern of the words documents and search queries are made up of.
+     */
+    private static final Pattern TERM_PATTERN = Pattern.compile("[\\p{L}\\p{N}]+");
+
+    /**
+     * The weight of a word occurring in a report title.
+     */
+    private static final int TITLE_WEIGHT = 4;
+
+    /**
+     * The weight of a word occurring in a post content.
+     */
+    private static final int POST_WEIGHT = 1;
+
+    /**
+     * The magic number at the start of every snapshot file.
+     */
+    private static final int SNAPSHOT_MAGIC = 0x42554958;
+
+    /**
+     * The version of the snapshot file format.
+     */
+    private static final int SNAPSHOT_FORMAT = 1;
+
+    /**
+     * Whether this index is in use at all.
+     */
+    private final boolean enabled;
+
+    /**
+     * Lock guarding all of the following data structures.
+     */
+    private final ReadWriteLock lock;
+
+    /**
+     * The word counts of every document by document key.
+     */
+    private final Map<Long, Map<String, Integer>> documents;
+
+    /**
+     * The word counts of every document containing a word, by word and document key.
+     */
+    private final NavigableMap<String, Map<Long, Integer>> postings;
+
+    /**
+     * The ID of the report each indexed post belongs to, by post ID.
+     */
+    private final Map<Integer, Integer> postReports;
+
+    /**
+     * The IDs of the indexed posts of every report, by report ID.
+     */
+    private final Map<Integer, Set<Integer>> reportPosts;
+
+    /**
+     * The point in time the snapshot this index was read from has been taken, or {@code null} if it was not read from
+     * a snapshot.
+     */
+    private final Instant snapshotTime;
+
+    /**
+     * Constructs a new, empty inverted index.
+     */
+    public InvertedIndex() {
+        this(true, null);
+    }
+
+    private InvertedIndex(final boolean enabled, final Instant snapshotTime) {
+        this.enabled = enabled;
+        this.snapshotTime = snapshotTime;
+        this.lock = new ReentrantReadWriteLock();
+        this.documents = new HashMap<>();
+        this.postings = new TreeMap<>();
+        this.postReports = new HashMap<>();
+        this.reportPosts = new HashMap<>();
+    }
+
+    /**
+     * Returns an inverted index that ignores all updates and cannot be searched, for when searches are answered
+     * otherwise.
+     *
+     * @return The disabled inverted index.
+     */
+    public static InvertedIndex disabled() {
+        return new InvertedIndex(false, null);
+    }
+
+    /**
+     * Returns whether this index is in use, i.e. kept up to date and searchable.
+     *
+     * @return Whether this index is enabled.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the point in time the snapshot this index was read from has been taken. Changes after that point in time
+     * may be missing from the index.
+     *
+     * @return The snapshot time, or {@code null} if this index was not read from a snapshot.
+     */
+    public Instant getSnapshotTime() {
+        return snapshotTime;
+    }
+
+    /**
+     * Adds the title of a report to the index, replacing any previous title of the same report.
+     *
+     * @param reportID The ID of the report.
+     * @param title    The title of the report.
+     */
+    public void putReport(final int reportID, final String title) {
+        if (!enabled) {
+            return;
+        }
+        Map<String, Integer> counts = countTerms(title);
+        lock.writeLock().lock();
+        try {
+            putDocument(titleKey(reportID), counts);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the content of a post to the index, replacing any previous content of the same post.
+     *
+     * @param postID   The ID of the post.
+     * @param reportID The ID of the report the post belongs to.
+     * @param content  The content of the post.
+     */
+    public void putPost(final int postID, final int reportID, final String content) {
+        if (!enabled) {
+            return;
+        }
+        Map<String, Integer> counts = countTerms(content);
+        lock.writeLock().lock();
+        try {
+            unlinkPost(postID);
+            linkPost(postID, reportID);
+            putDocument(postKey(postID), counts);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a report along with all of its posts from the index.
+     *
+     * @param reportID The ID of the report to remove.
+     */
+    public void removeReport(final int reportID) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeDocument(titleKey(reportID));
+            Set<Integer> posts = reportPosts.remove(reportID);
+            if (posts != null) {
+                for (int postID : posts) {
+                    postReports.remove(postID);
+                    removeDocument(postKey(postID));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a post from the index.
+     *
+     * @param postID The ID of the post to remove.
+     */
+    public void removePost(final int postID) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            unlinkPost(postID);
+            removeDocument(postKey(postID));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Searches the index for the reports matching all terms of the given query.
+     *
+     * @param query        The search query.
+     * @param includePosts Whether terms may also match the posts of a report instead of only its title.
+     * @return The IDs of the matching reports, the best matches first, or {@code null} if {@code query} does not
+     *         contain any terms.
+     */
+    public List<Integer> search(final String query, final boolean includePosts) {
+        if (!enabled) {
+            throw new IllegalStateException("A disabled index cannot be searched.");
+        }
+        Set<String> terms = new LinkedHashSet<>(countTerms(query).keySet());
+        if (terms.isEmpty()) {
+            return null;
+        }
+
+        Map<Integer, Integer> scores = null;
+        lock.readLock().lock();
+        try {
+            for (String term : terms) {
+                Map<Integer, Integer> termScores = scoreTerm(term, includePosts);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((report, score) -> score + termScores.get(report));
+                }
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Map.Entry<Integer, Integer>> ranking = new ArrayList<>(scores.entrySet());
+        ranking.sort(Map.Entry.<Integer, Integer>comparingByValue().reversed()
+                .thenComparing(Map.Entry.<Integer, Integer>comparingByKey().reversed()));
+        List<Integer> reports = new ArrayList<>(ranking.size());
+        for (Map.Entry<Integer, Integer> entry : ranking) {
+            reports.add(entry.getKey());
+        }
+        return reports;
+    }
+
+    /**
+     * Writes a snapshot of this index to the given file. The snapshot is written to a temporary file next to
+     * {@code file} first, which then replaces {@code file}, such that readers never see a partially written snapshot.
+     *
+     * @param file The file to write the snapshot to.
+     * @throws IOException if the snapshot could not be written.
+     */
+    public void writeSnapshot(final Path file) throws IOException {
+        if (!enabled) {
+            throw new IllegalStateException("A disabled index cannot be snapshotted.");
+        }
+        // The term counts of a document are replaced rather than modified, so a shallow copy is a consistent view
+        // which can be written without blocking updates of the index for the whole disk write.
+        Map<Long, Map<String, Integer>> copy;
+        Map<Integer, Integer> reports;
+        lock.readLock().lock();
+        try {
+            copy = new HashMap<>(documents);
+            reports = new HashMap<>(postReports);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Instant now = Instant.now();
+        Map<String, byte[]> encoded = new HashMap<>();
+        long size = Integer.BYTES * 3 + Long.BYTES * 2;
+        for (Map<String, Integer> counts : copy.values()) {
+            size += Long.BYTES + Integer.BYTES * 2;
+            for (String term : counts.keySet()) {
+                size += Integer.BYTES * 2
+                        + encoded.computeIfAbsent(term, t -> t.getBytes(StandardCharsets.UTF_8)).length;
+            }
+        }
+
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(SNAPSHOT_MAGIC).putInt(SNAPSHOT_FORMAT).putLong(now.toEpochMilli()).putLong(copy.size());
+            for (Map.Entry<Long, Map<String, Integer>> document : copy.entrySet()) {
+                long key = document.getKey();
+                buffer.putLong(key).putInt(isTitle(key) ? documentID(key) : reports.get(documentID(key)))
+                        .putInt(document.getValue().size());
+                for (Map.Entry<String, Integer> count : document.getValue().entrySet()) {
+                    byte[] term = encoded.get(count.getKey());
+                    buffer.putInt(term.length).put(term).putInt(count.getValue());
+                }
+            }
+            buffer.putInt(SNAPSHOT_MAGIC);
+            buffer.force();
+        }
+
+        try {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Reads an inverted index from a snapshot file written by {@link #writeSnapshot(Path)}.
+     *
+     * @param file The snapshot file to read.
+     * @return The inverted index contained in the snapshot.
+     * @throws IOException if the snapshot could not be read or is corrupt.
+     */
+    public static InvertedIndex readSnapshot(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != SNAPSHOT_MAGIC || buffer.getInt() != SNAPSHOT_FORMAT) {
+                throw new IOException("Unsupported search index snapshot " + file + '.');
+            }
+            InvertedIndex index = new InvertedIndex(true, Instant.ofEpochMilli(buffer.getLong()));
+            long numDocuments = buffer.getLong();
+            for (long i = 0; i < numDocuments; i++) {
+                long key = buffer.getLong();
+                int reportID = buffer.getInt();
+                int numTerms = buffer.getInt();
+                Map<String, Integer> counts = new HashMap<>(numTerms * 2);
+                for (int j = 0; j < numTerms; j++) {
+                    byte[] term = new byte[buffer.getInt()];
+                    buffer.get(term);
+                    counts.put(new String(term, StandardCharsets.UTF_8), buffer.getInt());
+                }
+                if (!isTitle(key)) {
+                    index.linkPost(documentID(key), reportID);
+                }
+                index.putDocument(key, counts);
+            }
+            if (buffer.getInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Truncated search index snapshot " + file + '.');
+            }
+            return index;
+        } catch (BufferUnderflowException | IllegalArgumentException | NegativeArraySizeException e) {
+            throw new IOException("Corrupt search index snapshot " + file + '.', e);
+        }
+    }
+
+    /**
+     * Returns the number of reports with an indexed title.
+     *
+     * @return The number of indexed reports.
+     */
+    public int getNumberOfReports() {
+        lock.readLock().lock();
+        try {
+            return documents.size() - postReports.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of indexed posts.
+     *
+     * @return The number of indexed posts.
+     */
+    public int getNumberOfPosts() {
+        lock.readLock().lock();
+        try {
+            return postReports.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Integer, Integer> scoreTerm(final String term, final boolean includePosts) {
+        Map<Integer, Integer> scores = new HashMap<>();
+        for (Map<Long, Integer> occurrences : postings.subMap(term, true, term + Character.MAX_VALUE, true).values()) {
+            for (Map.Entry<Long, Integer> occurrence : occurrences.entrySet()) {
+                long key = occurrence.getKey();
+                if (isTitle(key)) {
+                    scores.merge(documentID(key), occurrence.getValue() * TITLE_WEIGHT, Integer::sum);
+                } else if (includePosts) {
+                    scores.merge(postReports.get(documentID(key)), occurrence.getValue() * POST_WEIGHT,
+                            Integer::sum);
+                }
+            }
+        }
+        return scores;
+    }
+
+    private void putDocument(final long key, final Map<String, Integer> counts) {
+        removeDocument(key);
+        documents.put(key, counts);
+        for (Map.Entry<String, Integer> count : counts.entrySet()) {
+            postings.computeIfAbsent(count.getKey(), t -> new HashMap<>()).put(key, count.getValue());
+        }
+    }
+
+    private void removeDocument(final long key) {
+        Map<String, Integer> counts = documents.remove(key);
+        if (counts == null) {
+            return;
+        }
+        for (String term : counts.keySet()) {
+            Map<Long, Integer> occurrences = postings.get(term);
+            occurrences.remove(key);
+            if (occurrences.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    private void linkPost(final int postID, final int reportID) {
+        postReports.put(postID, reportID);
+        reportPosts.computeIfAbsent(reportID, r -> new HashSet<>()).add(postID);
+    }
+
+    private void unlinkPost(final int postID) {
+        Integer reportID = postReports.remove(postID);
+        if (reportID != null) {
+            Set<Integer> posts = reportPosts.get(reportID);
+            posts.remove(postID);
+            if (posts.isEmpty()) {
+                reportPosts.remove(reportID);
+            }
+        }
+    }
+
+    private static Map<String, Integer> countTerms(final String text) {
+        Map<String, Integer> counts = new HashMap<>();
+        if (text != null) {
+            Matcher matcher = TERM_PATTERN.matcher(text.toLowerCase(Locale.ROOT));
+            while (matcher.find()) {
+                counts.merge(matcher.group(), 1, Integer::sum);
+            }
+        }
+        return counts;
+    }
+
+    private static long titleKey(final int reportID) {
+        return (long) reportID << 1;
+    }
+
+    private static long postKey(final int postID) {
+        return (long) postID << 1 | 1;
+    }
+
+    private static boolean isTitle(final long key) {
+        return (key & 1) == 0;
+    }
+
+    private static int documentID(final long key) {
+        return (int) (key >> 1);
+    }
+
+}
@@ -0,0 +1,588 @@
+package tech.bugger.business.util;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntFunction;
+
+/**
+ * In-memory n-gram index over usernames and topic titles, together with the administrators and the banned users and
+ * moderators of every topic.
+ * <p>
+ * A name matches a query if it contains the query, ignoring case, or if it contains a string within a small edit
+ * distance of the query, such that suggestions tolerate typos. Names sharing too few trigrams with the query to lie
+ * within that distance are ruled out before computing any distance. The users to suggest for moderation actions are
+ * selected by combining the bitsets of banned users, moderators and administrators, which are indexed by user ID.
+ * <p>
+ * The index is built from the data source at startup and updated incrementally whenever a user, a topic, a ban or a
+ * moderation is created or removed.
+ */
+public final class NameIndex {
+
+    /**
+     * The length of the n-grams names are broken down into.
+     */
+    private static final int GRAM_LENGTH = 3;
+
+    /**
+     * The minimum query length from which on one typo is tolerated.
+     */
+    private static final int ONE_TYPO_LENGTH = 4;
+
+    /**
+     * The minimum query length from which on two typos are tolerated.
+     */
+    private static final int TWO_TYPOS_LENGTH = 8;
+
+    /**
+     * Whether this index is in use at all.
+     */
+    private final boolean enabled;
+
+    /**
+     * Lock guarding all of the following data structures.
+     */
+    private final ReadWriteLock lock;
+
+    /**
+     * The indexed usernames.
+     */
+    private final Names users;
+
+    /**
+     * The indexed topic titles.
+     */
+    private final Names topics;
+
+    /**
+     * The IDs of all administrators.
+     */
+    private final BitSet administrators;
+
+    /**
+     * The IDs of the users banned from a topic, by topic ID.
+     */
+    private final Map<Integer, BitSet> bannedUsers;
+
+    /**
+     * The IDs of the moderators of a topic, by topic ID.
+     */
+    private final Map<Integer, BitSet> moderators;
+
+    /**
+     * Constructs a new, empty name index.
+     */
+    public NameIndex() {
+        this(true);
+    }
+
+    private NameIndex(final boolean enabled) {
+        this.enabled = enabled;
+        this.lock = new ReentrantReadWriteLock();
+        this.users = new Names();
+        this.topics = new Names();
+        this.administrators = new BitSet();
+        this.bannedUsers = new HashMap<>();
+        this.moderators = new HashMap<>();
+    }
+
+    /**
+     * Returns a name index that ignores all updates and cannot be searched, for when suggestions are loaded from the
+     * data source instead.
+     *
+     * @return The disabled name index.
+     */
+    public static NameIndex disabled() {
+        return new NameIndex(false);
+    }
+
+    /**
+     * Returns whether this index is in use, i.e. kept up to date and searchable.
+     *
+     * @return Whether this index is enabled.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Adds a user to the index, replacing any previous username and administrator status of the same user.
+     *
+     * @param userID        The ID of the user.
+     * @param username      The username of the user.
+     * @param administrator Whether the user is an administrator.
+     */
+    public void putUser(final int userID, final String username, final boolean administrator) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            users.put(userID, username);
+            administrators.set(userID, administrator);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a user from the index along with all of their bans and moderations.
+     *
+     * @param userID The ID of the user to remove.
+     */
+    public void removeUser(final int userID) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            users.remove(userID);
+            administrators.clear(userID);
+            bannedUsers.values().forEach(banned -> banned.clear(userID));
+            moderators.values().forEach(moderating -> moderating.clear(userID));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the title of a topic to the index, replacing any previous title of the same topic.
+     *
+     * @param topicID The ID of the topic.
+     * @param title   The title of the topic.
+     */
+    public void putTopic(final int topicID, final String title) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            topics.put(topicID, title);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a topic from the index along with all of its bans and moderations.
+     *
+     * @param topicID The ID of the topic to remove.
+     */
+    public void removeTopic(final int topicID) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            topics.remove(topicID);
+            bannedUsers.remove(topicID);
+            moderators.remove(topicID);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Records that a user is banned from a topic.
+     *
+     * @param topicID The ID of the topic.
+     * @param userID  The ID of the banned user.
+     */
+    public void ban(final int topicID, final int userID) {
+        setMember(bannedUsers, topicID, userID, true);
+    }
+
+    /**
+     * Records that a user is no longer banned from a topic.
+     *
+     * @param topicID The ID of the topic.
+     * @param userID  The ID of the unbanned user.
+     */
+    public void unban(final int topicID, final int userID) {
+        setMember(bannedUsers, topicID, userID, false);
+    }
+
+    /**
+     * Records that a user moderates a topic.
+     *
+     * @param topicID The ID of the topic.
+     * @param userID  The ID of the moderator.
+     */
+    public void promoteModerator(final int topicID, final int userID) {
+        setMember(moderators, topicID, userID, true);
+    }
+
+    /**
+     * Records that a user no longer moderates a topic.
+     *
+     * @param topicID The ID of the topic.
+     * @param userID  The ID of the former moderator.
+     */
+    public void demoteModerator(final int topicID, final int userID) {
+        setMember(moderators, topicID, userID, false);
+    }
+
+    /**
+     * Returns the usernames matching the given query, the best matches first.
+     *
+     * @param query The search query for usernames.
+     * @param limit The maximum number of usernames to return.
+     * @return The matching usernames.
+     */
+    public List<String> getUserSuggestions(final String query, final int limit) {
+        return findUsers(query, limit, topicID -> null, topicID -> null, 0);
+    }
+
+    /**
+     * Returns the usernames matching the given query of users which could be banned from a topic, i.e. who are neither
+     * administrators nor moderators of the topic nor already banned from it.
+     *
+     * @param query   The search query for usernames.
+     * @param limit   The maximum number of usernames to return.
+     * @param topicID The ID of the topic in question.
+     * @return The matching usernames, the best matches first.
+     */
+    public List<String> getUserBanSuggestions(final String query, final int limit, final int topicID) {
+        return findUsers(query, limit, t -> null, t -> {
+            BitSet excluded = (BitSet) administrators.clone();
+            excluded.or(bannedUsers.getOrDefault(t, new BitSet()));
+            excluded.or(moderators.getOrDefault(t, new BitSet()));
+            return excluded;
+        }, topicID);
+    }
+
+    /**
+     * Returns the usernames matching the given query of users banned from a topic.
+     *
+     * @param query   The search query for usernames.
+     * @param limit   The maximum number of usernames to return.
+     * @param topicID The ID of the topic in question.
+     * @return The matching usernames, the best matches first.
+     */
+    public List<String> getUserUnbanSuggestions(final String query, final int limit, final int topicID) {
+        return findUsers(query, limit, t -> bannedUsers.getOrDefault(t, new BitSet()), t -> null, topicID);
+    }
+
+    /**
+     * Returns the usernames matching the given query of users which could be made moderators of a topic, i.e. who are
+     * neither administrators nor already moderators of the topic.
+     *
+     * @param query   The search query for usernames.
+     * @param limit   The maximum number of usernames to return.
+     * @param topicID The ID of the topic in question.
+     * @return The matching usernames, the best matches first.
+     */
+    public List<String> getUserModSuggestions(final String query, final int limit, final int topicID) {
+        return findUsers(query, limit, t -> null, t -> {
+            BitSet excluded = (BitSet) administrators.clone();
+            excluded.or(moderators.getOrDefault(t, new BitSet()));
+            return excluded;
+        }, topicID);
+    }
+
+    /**
+     * Returns the usernames matching the given query of moderators of a topic.
+     *
+     * @param query   The search query for usernames.
+     * @param limit   The maximum number of usernames to return.
+     * @param topicID The ID of the topic in question.
+     * @return The matching usernames, the best matches first.
+     */
+    public List<String> getUserUnmodSuggestions(final String query, final int limit, final int topicID) {
+        return findUsers(query, limit, t -> moderators.getOrDefault(t, new BitSet()), t -> null, topicID);
+    }
+
+    /**
+     * Returns the topic titles matching the given query, the best matches first.
+     *
+     * @param query The search query for topic titles.
+     * @param limit The maximum number of titles to return.
+     * @return The matching topic titles.
+     */
+    public List<String> getTopicSuggestions(final String query, final int limit) {
+        if (!enabled) {
+            throw new IllegalStateException("A disabled index cannot be searched.");
+        }
+        lock.readLock().lock();
+        try {
+            return topics.find(normalize(query), limit, null, null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of indexed users.
+     *
+     * @return The number of indexed users.
+     */
+    public int getNumberOfUsers() {
+        lock.readLock().lock();
+        try {
+            return users.names.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of indexed topics.
+     *
+     * @return The number of indexed topics.
+     */
+    public int getNumberOfTopics() {
+        lock.readLock().lock();
+        try {
+            return topics.names.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<String> findUsers(final String query, final int limit,
+                                   final IntFunction<BitSet> included,
+                                   final IntFunction<BitSet> excluded, final int topicID) {
+        if (!enabled) {
+            throw new IllegalStateException("A disabled index cannot be searched.");
+        }
+        lock.readLock().lock();
+        try {
+            return users.find(normalize(query), limit, included.apply(topicID), excluded.apply(topicID));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void setMember(final Map<Integer, BitSet> members, final int topicID, final int userID,
+                           final boolean member) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (member) {
+                members.computeIfAbsent(topicID, t -> new BitSet()).set(userID);
+            } else if (members.containsKey(topicID)) {
+                members.get(topicID).clear(userID);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static String normalize(final String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns the number of typos tolerated in a query of the given length.
+     *
+     * @param length The length of the query.
+     * @return The maximum edit distance of matches.
+     */
+    static int maxDistance(final int length) {
+        if (length >= TWO_TYPOS_LENGTH) {
+            return 2;
+        } else if (length >= ONE_TYPO_LENGTH) {
+            return 1;
+        } else {
+            return 0;
+        }
+    }
+
+    /**
+     * Computes the smallest edit distance between {@code pattern} and any substring of {@code text}.
+     *
+     * @param pattern The string to look for.
+     * @param text    The string to look in.
+     * @return The edit distance of the best matching substring, which is {@code 0} iff {@code text} contains
+     *         {@code pattern}.
+     */
+    static int substringDistance(final String pattern, final String text) {
+        if (text.contains(pattern)) {
+            return 0;
+        }
+        int m = pattern.length();
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int i = 0; i <= m; i++) {
+            previous[i] = i;
+        }
+        int best = m;
+        for (int j = 0; j < text.length(); j++) {
+            char c = text.charAt(j);
+            current[0] = 0;
+            for (int i = 1; i <= m; i++) {
+                int substitution = previous[i - 1] + (pattern.charAt(i - 1) == c ? 0 : 1);
+                current[i] = Math.min(substitution, Math.min(previous[i], current[i - 1]) + 1);
+            }
+            best = Math.min(best, current[m]);
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return best;
+    }
+
+    /**
+     * Names of one kind, identified by ID, along with the IDs of the names every n-gram occurs in.
+     */
+    private static final class Names {
+
+        /**
+         * The original names by ID.
+         */
+        private final Map<Integer, String> names = new HashMap<>();
+
+        /**
+         * The normalized names by ID.
+         */
+        private final Map<Integer, String> keys = new HashMap<>();
+
+        /**
+         * The IDs of all names containing an n-gram, by n-gram.
+         */
+        private final Map<String, BitSet> postings = new HashMap<>();
+
+        private void put(final int id, final String name) {
+            remove(id);
+            String key = normalize(name);
+            names.put(id, name);
+            keys.put(id, key);
+            for (String gram : countGrams(key).keySet()) {
+                postings.computeIfAbsent(gram, g -> new BitSet()).set(id);
+            }
+        }
+
+        private void remove(final int id) {
+            names.remove(id);
+            String key = keys.remove(id);
+            if (key == null) {
+                return;
+            }
+            for (String gram : countGrams(key).keySet()) {
+                BitSet ids = postings.get(gram);
+                ids.clear(id);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+
+        private List<String> find(final String query, final int limit, final BitSet included,
+                                  final BitSet excluded) {
+            if (query.isEmpty() || limit <= 0) {
+                return new ArrayList<>();
+            }
+            int maxDistance = maxDistance(query.length());
+            BitSet candidates = candidates(query, maxDistance);
+            if (included != null) {
+                candidates.and(included);
+            }
+            if (excluded != null) {
+                candidates.andNot(excluded);
+            }
+
+            List<Match> matches = new ArrayList<>();
+            for (int id = candidates.nextSetBit(0); id >= 0; id = candidates.nextSetBit(id + 1)) {
+                String key = keys.get(id);
+                if (key == null) {
+                    continue;
+                }
+                int distance = substringDistance(query, key);
+                if (distance <= maxDistance) {
+                    matches.add(new Match(names.get(id), distance, !key.startsWith(query)));
+                }
+            }
+            matches.sort(Comparator.comparingInt((Match match) -> match.distance)
+                    .thenComparing(match -> match.infix)
+                    .thenComparingInt(match -> match.name.length())
+                    .thenComparing(match -> match.name));
+
+            List<String> results = new ArrayList<>(Math.min(limit, matches.size()));
+            for (Match match : matches.subList(0, Math.min(limit, matches.size()))) {
+                results.add(match.name);
+            }
+            return results;
+        }
+
+        /**
+         * Returns the IDs of all names which may lie within the given distance of the query. A name containing a
+         * string within edit distance {@code k} of the query shares at least all but {@code k * n} of the n-grams of
+         * the query, so names sharing fewer of them are no candidates. If the query is too short to make use of
+         * that, all names are candidates.
+         *
+         * @param query       The normalized query.
+         * @param maxDistance The maximum edit distance of matches.
+         * @return The IDs of the candidate names.
+         */
+        private BitSet candidates(final String query, final int maxDistance) {
+            int minShared = query.length() - GRAM_LENGTH + 1 - GRAM_LENGTH * maxDistance;
+            BitSet candidates = new BitSet();
+            if (minShared <= 0) {
+                keys.keySet().forEach(candidates::set);
+                return candidates;
+            }
+            Map<Integer, Integer> shared = new HashMap<>();
+            for (Map.Entry<String, Integer> gram : countGrams(query).entrySet()) {
+                BitSet ids = postings.get(gram.getKey());
+                if (ids == null) {
+                    continue;
+                }
+                for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+                    shared.merge(id, gram.getValue(), Integer::sum);
+                }
+            }
+            for (Map.Entry<Integer, Integer> count : shared.entrySet()) {
+                if (count.getValue() >= minShared) {
+                    candidates.set(count.getKey());
+                }
+            }
+            return candidates;
+        }
+
+        private static Map<String, Integer> countGrams(final String key) {
+            Map<String, Integer> counts = new HashMap<>();
+            for (int i = 0; i + GRAM_LENGTH <= key.length(); i++) {
+                counts.merge(key.substring(i, i + GRAM_LENGTH), 1, Integer::sum);
+            }
+            return counts;
+        }
+
+    }
+
+    /**
+     * A name matching a query.
+     */
+    private static final class Match {
+
+        /**
+         * The matching name.
+         */
+        private final String name;
+
+        /**
+         * The edit distance between the query and the best matching part of the name.
+         */
+        private final int distance;
+
+        /**
+         * Whether the name does not start with the query.
+         */
+        private final boolean infix;
+
+        private Match(final String name, final int distance, final boolean infix) {
+            this.name = name;
+            this.distance = distance;
+            this.infix = infix;
+        }
+
+    }
+
+}
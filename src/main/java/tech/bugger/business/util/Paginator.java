@@ -1,11 +1,21 @@
 package tech.bugger.business.util;
 
+import java.util.ArrayList;
+import java.util.List;
 import javax.faces.model.IterableDataModel;
+import tech.bugger.global.transfer.ResultPage;
 import tech.bugger.global.transfer.Selection;
 import tech.bugger.global.util.Log;
 
 /**
  * Generic manager for paginated and sortable tabular data.
+ * <p>
+ * Subclasses provide the current page and the total size of the data separately by implementing {@link #fetch()} and
+ * {@link #totalSize()}. Data sources determining both at once are paginated by a {@link ResultPagePaginator} instead.
+ * <p>
+ * If the data source remembers the positions of the first and last item of the current page in the
+ * {@link Selection}, neighbouring pages and the last page are located by seeking from these positions, so that their
+ * cost does not depend on how deep into the data they are. Otherwise, pages are located by their item offset.
  *
  * @param <T> Type of the items to be paginated.
  */
@@ -64,6 +74,26 @@ public abstract class Paginator<T> extends IterableDataModel<T> {
      */
     protected abstract int totalSize();
 
+    /**
+     * Fetches a slice of data specified by the current paginator state given by {@link #getSelection()} along with the
+     * current total size of the base data by combining {@link #totalSize()} and {@link #fetch()}.
+     *
+     * @return The data chunk characterized by the current paginator state and the total amount of items.
+     */
+    protected ResultPage<T> fetchPage() {
+        int size = totalSize();
+        if (size == 0) {
+            return ResultPage.empty();
+        }
+        selection.setTotalSize(size);
+        Iterable<T> items = fetch();
+        List<T> list = new ArrayList<>();
+        if (items != null) {
+            items.forEach(list::add);
+        }
+        return new ResultPage<>(list, size);
+    }
+
     /**
      * Returns the current page of this paginator for user interaction.
      *
@@ -98,6 +128,7 @@ public abstract class Paginator<T> extends IterableDataModel<T> {
         }
 
         selection.setCurrentPage(selection.getCurrentPage() - 1);
+        seek(Selection.Seek.BEFORE);
         update();
         log.debug("Paginator updated through prevPage to " + selection + ".");
     }
@@ -111,6 +142,7 @@ public abstract class Paginator<T> extends IterableDataModel<T> {
         }
 
         selection.setCurrentPage(selection.getCurrentPage() + 1);
+        seek(Selection.Seek.AFTER);
         update();
         log.debug("Paginator updated through nextPage to " + selection + ".");
     }
@@ -130,6 +162,7 @@ public abstract class Paginator<T> extends IterableDataModel<T> {
     public void lastPage() {
         // User interaction: Subtract 1 for convenience (1-indexed)
         selection.setCurrentPage(determineLastPageIndex() - 1);
+        seek(Selection.Seek.LAST);
         update();
         log.debug("Paginator updated through lastPage to " + selection + ".");
     }
@@ -150,7 +183,7 @@ public abstract class Paginator<T> extends IterableDataModel<T> {
      */
     public int determineLastPageIndex() {
         // User interaction: Add 1 for convenience (1-indexed)
-        return Math.max(1, (totalSize() - 1) / selection.getPageSize().getSize() + 1);
+        return Math.max(1, (selection.getTotalSize() - 1) / selection.getPageSize().getSize() + 1);
     }
 
     /**
@@ -184,10 +217,27 @@ public abstract class Paginator<T> extends IterableDataModel<T> {
      * Updates the paginated data model using the current parameters in {@link #selection}.
      */
     public void update() {
-        int size = totalSize();
-        if (size != 0 || !isEmpty()) {
-            selection.setTotalSize(size);
-            setWrappedData(fetch());
+        ResultPage<T> page;
+        try {
+            page = fetchPage();
+        } finally {
+            selection.setSeek(Selection.Seek.NONE);
+        }
+        if (page.getTotalSize() != 0 || !isEmpty()) {
+            selection.setTotalSize(page.getTotalSize());
+            setWrappedData(page.getItems());
+        }
+    }
+
+    /**
+     * Asks the data source to locate the page to be fetched next by seeking, if it supports doing so. The first page
+     * is always located by its offset.
+     *
+     * @param seek How to seek to the page to be fetched next.
+     */
+    private void seek(final Selection.Seek seek) {
+        if (selection.getCurrentPage() > 0 && selection.getFirstCursor() != null) {
+            selection.setSeek(seek);
         }
     }
 
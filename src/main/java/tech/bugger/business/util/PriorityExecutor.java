@@ -1,24 +1,82 @@
 package tech.bugger.business.util;
 
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.PriorityBlockingQueue;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
 import java.util.concurrent.RunnableFuture;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import tech.bugger.global.util.Metrics;
 
 /**
  * Executor for processing prioritized tasks on separate threads.
+ * <p>
+ * Waiting tasks age, so tasks of a lower priority are delayed but never starved by tasks of a higher one. The rate at
+ * which tasks of a priority are started can be limited, see {@link PriorityTaskQueue}.
  */
 public final class PriorityExecutor {
 
+    /**
+     * The default waiting time after which a task takes precedence over fresh tasks of the next higher priority.
+     */
+    public static final Duration DEFAULT_AGING_INTERVAL = Duration.ofSeconds(30);
+
     /**
      * Underlying executor service handling most of the work.
      */
-    private final ExecutorService executorService;
+    private final ThreadPoolExecutor executorService;
 
     /**
-     * Constructs a new priority task executor with the given technical parameters.
+     * Queue of the tasks waiting for execution.
+     */
+    private final PriorityTaskQueue queue;
+
+    /**
+     * Source of the sequence numbers of submitted tasks.
+     */
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * The waiting time after which a task takes precedence over fresh tasks of the next higher priority.
+     */
+    private final Duration agingInterval;
+
+    /**
+     * Usage statistics of this executor.
+     */
+    private final Metrics metrics;
+
+    /**
+     * Time tasks spent in the queue before being started.
+     */
+    private final Metrics.Histogram queueWait;
+
+    /**
+     * Time tasks spent in the queue before being started, by priority.
+     */
+    private final Map<PriorityTask.Priority, Metrics.Histogram> priorityQueueWait;
+
+    /**
+     * Time from submitting tasks until their completion.
+     */
+    private final Metrics.Histogram taskLatency;
+
+    /**
+     * Number of tasks submitted.
+     */
+    private final LongAdder submittedCount;
+
+    /**
+     * Number of tasks completed.
+     */
+    private final LongAdder completedCount;
+
+    /**
+     * Constructs a new priority task executor with the given technical parameters, aging waiting tasks by
+     * {@link #DEFAULT_AGING_INTERVAL} and without rate limits.
      *
      * @param initialCap  Initial capacity of the underlying task queue.
      * @param coreThreads Target number of threads to use for task execution.
@@ -26,20 +84,68 @@ public final class PriorityExecutor {
      * @param timeoutSecs Idle time after which a thread is terminated.
      */
     public PriorityExecutor(final int initialCap, final int coreThreads, final int maxThreads, final int timeoutSecs) {
-        BlockingQueue<Runnable> queue = new PriorityBlockingQueue<>(initialCap, (r1, r2) -> {
-            if (!(r1 instanceof PriorityFuture<?> && r2 instanceof PriorityFuture<?>)) {
-                throw new InternalError("Foreign tasks in priority queue. This should never happen!");
-            }
-            PriorityFuture<?> t1 = (PriorityFuture<?>) r1;
-            PriorityFuture<?> t2 = (PriorityFuture<?>) r2;
-            return t1.getTask().getPriority().compareTo(t2.getTask().getPriority());
-        });
+        this(initialCap, coreThreads, maxThreads, timeoutSecs, DEFAULT_AGING_INTERVAL, Map.of());
+    }
+
+    /**
+     * Constructs a new priority task executor with the given technical parameters.
+     * <p>
+     * A waiting task is preferred over tasks of the next higher priority submitted more than {@code agingInterval}
+     * after it, so that a flood of important tasks cannot starve less important ones. Tasks of the same priority are
+     * executed in the order of submission.
+     *
+     * @param initialCap     Initial capacity of the underlying task queue.
+     * @param coreThreads    Target number of threads to use for task execution.
+     * @param maxThreads     Maximum number of threads to use for task execution.
+     * @param timeoutSecs    Idle time after which a thread is terminated.
+     * @param agingInterval  The waiting time after which a task takes precedence over fresh tasks of the next higher
+     *                       priority.
+     * @param ratesPerSecond The maximum number of tasks started per second for each priority to limit. Priorities
+     *                       missing in the map are not limited.
+     */
+    public PriorityExecutor(final int initialCap, final int coreThreads, final int maxThreads, final int timeoutSecs,
+                            final Duration agingInterval, final Map<PriorityTask.Priority, Double> ratesPerSecond) {
+        this.agingInterval = agingInterval;
+        queue = new PriorityTaskQueue(initialCap, agingInterval, ratesPerSecond, System::nanoTime);
         executorService = new ThreadPoolExecutor(coreThreads, maxThreads, timeoutSecs, TimeUnit.SECONDS, queue) {
             @Override
             protected <V> RunnableFuture<V> newTaskFor(final Runnable r, final V v) {
-                return new PriorityFuture<>(super.newTaskFor(r, v), (PriorityTask) r);
+                return new PriorityFuture<>(super.newTaskFor(r, v), (PriorityTask) r, sequence.getAndIncrement());
+            }
+
+            @Override
+            protected void beforeExecute(final Thread t, final Runnable r) {
+                super.beforeExecute(t, r);
+                PriorityFuture<?> task = (PriorityFuture<?>) r;
+                long wait = System.nanoTime() - task.getSubmittedNanos();
+                queueWait.record(wait);
+                priorityQueueWait.get(task.getTask().getPriority()).record(wait);
+            }
+
+            @Override
+            protected void afterExecute(final Runnable r, final Throwable t) {
+                super.afterExecute(r, t);
+                taskLatency.record(System.nanoTime() - ((PriorityFuture<?>) r).getSubmittedNanos());
+                completedCount.increment();
             }
         };
+
+        metrics = new Metrics();
+        queueWait = metrics.histogram("queue_wait_seconds", "Time tasks waited in the queue before being started.");
+        taskLatency = metrics.histogram("task_latency_seconds", "Time from submitting tasks until their completion.");
+        metrics.gauge("queue_depth", "Tasks currently waiting in the queue.", queue::size);
+        priorityQueueWait = new EnumMap<>(PriorityTask.Priority.class);
+        for (PriorityTask.Priority priority : PriorityTask.Priority.values()) {
+            String name = priority.name().toLowerCase(Locale.ROOT);
+            priorityQueueWait.put(priority, metrics.histogram("queue_wait_" + name + "_seconds",
+                    "Time " + priority + " priority tasks waited in the queue before being started."));
+            metrics.gauge("queue_depth_" + name, priority + " priority tasks currently waiting in the queue.",
+                    () -> queue.size(priority));
+        }
+        metrics.gauge("active_threads", "Threads currently executing tasks.", executorService::getActiveCount);
+        metrics.gauge("pool_threads", "Threads currently in the pool.", executorService::getPoolSize);
+        submittedCount = metrics.counter("tasks_submitted_total", "Tasks submitted.");
+        completedCount = metrics.counter("tasks_completed_total", "Tasks completed.");
     }
 
     /**
@@ -52,6 +158,46 @@ public final class PriorityExecutor {
             throw new IllegalStateException("Priority executor has already been shut down.");
         }
         executorService.submit(priorityTask);
+        submittedCount.increment();
+    }
+
+    /**
+     * Returns the waiting time after which a task takes precedence over fresh tasks of the next higher priority.
+     *
+     * @return The aging interval.
+     */
+    public Duration getAgingInterval() {
+        return agingInterval;
+    }
+
+    /**
+     * Returns the number of further tasks of the given priority that can start without waiting for its rate limit.
+     *
+     * @param priority The priority to check.
+     * @return The number of further tasks, or {@link Integer#MAX_VALUE} if {@code priority} is not rate limited.
+     */
+    public int getPermits(final PriorityTask.Priority priority) {
+        return queue.getPermits(priority);
+    }
+
+    /**
+     * Returns the time until a further task of the given priority can start as far as its rate limit is concerned.
+     *
+     * @param priority The priority to check.
+     * @return The time until the next permit, which is zero if {@code priority} is not rate limited.
+     */
+    public Duration getTimeUntilPermit(final PriorityTask.Priority priority) {
+        return Duration.ofNanos(queue.getNanosUntilPermit(priority));
+    }
+
+    /**
+     * Returns the usage statistics of this executor, i.e. the queue depth and histograms of the time tasks spend
+     * waiting, overall and per priority, and until completion.
+     *
+     * @return The metrics of this executor.
+     */
+    public Metrics getMetrics() {
+        return metrics;
     }
 
     /**
@@ -23,15 +23,28 @@ public class PriorityFuture<T> implements RunnableFuture<T> {
      */
     private final PriorityTask task;
 
+    /**
+     * Point in time in nanoseconds at which this task was submitted.
+     */
+    private final long submittedNanos;
+
+    /**
+     * Number of this task in the order of submission.
+     */
+    private final long sequence;
+
     /**
      * Construct a new priority task decorator with the specified original API action and prioritized task.
      *
-     * @param action The original API action to be wrapped.
-     * @param task   The prioritized task to be executed.
+     * @param action   The original API action to be wrapped.
+     * @param task     The prioritized task to be executed.
+     * @param sequence The number of this task in the order of submission.
      */
-    public PriorityFuture(final RunnableFuture<T> action, final PriorityTask task) {
+    public PriorityFuture(final RunnableFuture<T> action, final PriorityTask task, final long sequence) {
         this.task = task;
         this.action = action;
+        this.sequence = sequence;
+        this.submittedNanos = System.nanoTime();
     }
 
     /**
@@ -132,4 +145,23 @@ public class PriorityFuture<T> implements RunnableFuture<T> {
         return task;
     }
 
+    /**
+     * Returns the point in time at which this task was submitted, as given by {@link System#nanoTime()}.
+     *
+     * @return The submission time in nanoseconds.
+     */
+    public long getSubmittedNanos() {
+        return submittedNanos;
+    }
+
+    /**
+     * Returns the number of this task in the order of submission. Tasks of the same priority are executed in this
+     * order.
+     *
+     * @return The sequence number.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
 }
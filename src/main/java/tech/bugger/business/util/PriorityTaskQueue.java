@@ -0,0 +1,529 @@
+package tech.bugger.business.util;
+
+import java.time.Duration;
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Task queue of a {@link PriorityExecutor} which ages waiting tasks and limits the rate at which tasks of a priority
+ * are taken.
+ * <p>
+ * A task counts as if it had been submitted one aging interval later for every priority level it lies below the highest
+ * one. Hence, more important tasks are taken first, but a less important task is taken before any task submitted more
+ * than one aging interval after it, so no priority starves. Tasks of the same priority are taken in the order of their
+ * sequence numbers.
+ * <p>
+ * Priorities may be limited to a number of tasks per second. Tasks of a priority which has used up its rate are left
+ * waiting while tasks of other priorities are taken.
+ */
+final class PriorityTaskQueue extends AbstractQueue<Runnable> implements BlockingQueue<Runnable> {
+
+    /**
+     * Waiting tasks by priority, each in the order of their sequence numbers.
+     */
+    private final Map<PriorityTask.Priority, PriorityQueue<PriorityFuture<?>>> queues;
+
+    /**
+     * Rate limits of the priorities that have one.
+     */
+    private final Map<PriorityTask.Priority, RateLimit> rateLimits;
+
+    /**
+     * The time in nanoseconds a task is deferred by per priority level below the highest one.
+     */
+    private final long agingNanos;
+
+    /**
+     * Source of the current time in nanoseconds for rate limiting.
+     */
+    private final LongSupplier nanoClock;
+
+    /**
+     * Lock guarding all state of this queue.
+     */
+    private final ReentrantLock lock;
+
+    /**
+     * Condition signalled when a task is added.
+     */
+    private final Condition notEmpty;
+
+    /**
+     * Constructs a new, empty task queue.
+     *
+     * @param initialCap     Initial capacity of the queue of each priority.
+     * @param agingInterval  The time a task is deferred by per priority level below the highest one.
+     * @param ratesPerSecond The maximum number of tasks taken per second for each limited priority.
+     * @param nanoClock      Source of the current time in nanoseconds for rate limiting.
+     */
+    PriorityTaskQueue(final int initialCap, final Duration agingInterval,
+                      final Map<PriorityTask.Priority, Double> ratesPerSecond, final LongSupplier nanoClock) {
+        if (agingInterval.isNegative()) {
+            throw new IllegalArgumentException("Aging interval must not be negative.");
+        }
+        this.agingNanos = agingInterval.toNanos();
+        this.nanoClock = nanoClock;
+        queues = new EnumMap<>(PriorityTask.Priority.class);
+        for (PriorityTask.Priority priority : PriorityTask.Priority.values()) {
+            queues.put(priority, new PriorityQueue<>(initialCap,
+                    Comparator.comparingLong(PriorityFuture::getSequence)));
+        }
+        rateLimits = new EnumMap<>(PriorityTask.Priority.class);
+        ratesPerSecond.forEach((priority, rate) -> {
+            if (!(rate > 0)) {
+                throw new IllegalArgumentException("Rate limit of priority " + priority + " must be positive.");
+            }
+            rateLimits.put(priority, new RateLimit(rate, nanoClock.getAsLong()));
+        });
+        lock = new ReentrantLock();
+        notEmpty = lock.newCondition();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean offer(final Runnable runnable) {
+        if (!(runnable instanceof PriorityFuture<?>)) {
+            throw new InternalError("Foreign tasks in priority queue. This should never happen!");
+        }
+        PriorityFuture<?> task = (PriorityFuture<?>) runnable;
+        lock.lock();
+        try {
+            queues.get(task.getTask().getPriority()).add(task);
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void put(final Runnable runnable) {
+        offer(runnable);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean offer(final Runnable runnable, final long timeout, final TimeUnit unit) {
+        return offer(runnable);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Runnable poll() {
+        lock.lock();
+        try {
+            return dequeue(nanoClock.getAsLong());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Runnable take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (true) {
+                long now = nanoClock.getAsLong();
+                Runnable task = dequeue(now);
+                if (task != null) {
+                    return task;
+                }
+                long wait = getNanosUntilAvailable(now);
+                if (wait == Long.MAX_VALUE) {
+                    notEmpty.await();
+                } else {
+                    notEmpty.awaitNanos(wait);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Runnable poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (true) {
+                long now = nanoClock.getAsLong();
+                Runnable task = dequeue(now);
+                if (task != null) {
+                    return task;
+                } else if (remaining <= 0) {
+                    return null;
+                }
+                long wait = Math.min(remaining, getNanosUntilAvailable(now));
+                remaining -= wait - notEmpty.awaitNanos(wait);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the task to be taken next without removing it.
+     *
+     * @return The task to be taken next, or {@code null} if there is none that may be taken now.
+     */
+    @Override
+    public Runnable peek() {
+        lock.lock();
+        try {
+            PriorityTask.Priority priority = next(nanoClock.getAsLong());
+            return priority == null ? null : queues.get(priority).peek();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            int size = 0;
+            for (PriorityQueue<PriorityFuture<?>> queue : queues.values()) {
+                size += queue.size();
+            }
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of tasks of the given priority waiting in this queue.
+     *
+     * @param priority The priority to count the tasks of.
+     * @return The number of waiting tasks of {@code priority}.
+     */
+    int size(final PriorityTask.Priority priority) {
+        lock.lock();
+        try {
+            return queues.get(priority).size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of further tasks of the given priority which its rate limit would let start right away, after
+     * the tasks of that priority already waiting in this queue.
+     *
+     * @param priority The priority to check.
+     * @return The number of further tasks, or {@link Integer#MAX_VALUE} if {@code priority} is not rate limited.
+     */
+    int getPermits(final PriorityTask.Priority priority) {
+        RateLimit rateLimit = rateLimits.get(priority);
+        if (rateLimit == null) {
+            return Integer.MAX_VALUE;
+        }
+        lock.lock();
+        try {
+            return Math.max(0, rateLimit.getPermits(nanoClock.getAsLong()) - queues.get(priority).size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the time until the rate limit of the given priority lets a further task start after the tasks of that
+     * priority already waiting in this queue.
+     *
+     * @param priority The priority to check.
+     * @return The time in nanoseconds, which is {@code 0} if {@code priority} is not rate limited.
+     */
+    long getNanosUntilPermit(final PriorityTask.Priority priority) {
+        RateLimit rateLimit = rateLimits.get(priority);
+        if (rateLimit == null) {
+            return 0;
+        }
+        lock.lock();
+        try {
+            return rateLimit.getNanosUntilAvailable(queues.get(priority).size() + 1, nanoClock.getAsLong());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int remainingCapacity() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean remove(final Object o) {
+        lock.lock();
+        try {
+            for (PriorityQueue<PriorityFuture<?>> queue : queues.values()) {
+                if (queue.remove(o)) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes all waiting tasks in the order they would have been taken, disregarding rate limits.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public int drainTo(final Collection<? super Runnable> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Removes at most the given number of waiting tasks in the order they would have been taken, disregarding rate
+     * limits.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public int drainTo(final Collection<? super Runnable> c, final int maxElements) {
+        lock.lock();
+        try {
+            int drained = 0;
+            while (drained < maxElements) {
+                PriorityTask.Priority priority = oldest(null);
+                if (priority == null) {
+                    break;
+                }
+                c.add(queues.get(priority).poll());
+                drained++;
+            }
+            return drained;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns an iterator over a snapshot of the waiting tasks in no particular order.
+     *
+     * @return An iterator over the waiting tasks.
+     */
+    @Override
+    public Iterator<Runnable> iterator() {
+        List<Runnable> snapshot = new ArrayList<>();
+        lock.lock();
+        try {
+            for (PriorityQueue<PriorityFuture<?>> queue : queues.values()) {
+                snapshot.addAll(queue);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return new Iterator<>() {
+            private int cursor;
+            private Runnable last;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < snapshot.size();
+            }
+
+            @Override
+            public Runnable next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                last = snapshot.get(cursor++);
+                return last;
+            }
+
+            @Override
+            public void remove() {
+                if (last == null) {
+                    throw new IllegalStateException();
+                }
+                PriorityTaskQueue.this.remove(last);
+                last = null;
+            }
+        };
+    }
+
+    /**
+     * Removes the task to be taken next, consuming a permit of its priority's rate limit.
+     *
+     * @param now The current time in nanoseconds.
+     * @return The task to be taken next, or {@code null} if there is none that may be taken now.
+     */
+    private PriorityFuture<?> dequeue(final long now) {
+        PriorityTask.Priority priority = next(now);
+        if (priority == null) {
+            return null;
+        }
+        RateLimit rateLimit = rateLimits.get(priority);
+        if (rateLimit != null) {
+            rateLimit.acquire(now);
+        }
+        return queues.get(priority).poll();
+    }
+
+    /**
+     * Determines the priority whose oldest task is to be taken next, skipping priorities that have used up their rate.
+     *
+     * @param now The current time in nanoseconds.
+     * @return The priority to take a task of next, or {@code null} if there is none that may be taken now.
+     */
+    private PriorityTask.Priority next(final long now) {
+        return oldest(priority -> {
+            RateLimit rateLimit = rateLimits.get(priority);
+            return rateLimit == null || rateLimit.isAvailable(now);
+        });
+    }
+
+    /**
+     * Determines the priority whose first task has the earliest aged submission time.
+     *
+     * @param eligible Filter for the priorities to consider, or {@code null} to consider all of them.
+     * @return The priority with the earliest task, or {@code null} if no eligible priority has waiting tasks.
+     */
+    private PriorityTask.Priority oldest(final Predicate<PriorityTask.Priority> eligible) {
+        PriorityTask.Priority oldest = null;
+        PriorityFuture<?> oldestTask = null;
+        for (Map.Entry<PriorityTask.Priority, PriorityQueue<PriorityFuture<?>>> entry : queues.entrySet()) {
+            PriorityFuture<?> task = entry.getValue().peek();
+            if (task != null && (eligible == null || eligible.test(entry.getKey()))
+                    && (oldestTask == null || compare(task, oldestTask) < 0)) {
+                oldest = entry.getKey();
+                oldestTask = task;
+            }
+        }
+        return oldest;
+    }
+
+    /**
+     * Returns the time until the next waiting task of a rate limited priority may be taken.
+     *
+     * @param now The current time in nanoseconds.
+     * @return The time to wait in nanoseconds, or {@link Long#MAX_VALUE} if no task is waiting.
+     */
+    private long getNanosUntilAvailable(final long now) {
+        long wait = Long.MAX_VALUE;
+        for (Map.Entry<PriorityTask.Priority, RateLimit> entry : rateLimits.entrySet()) {
+            if (!queues.get(entry.getKey()).isEmpty()) {
+                wait = Math.min(wait, entry.getValue().getNanosUntilAvailable(now));
+            }
+        }
+        return wait;
+    }
+
+    private int compare(final PriorityFuture<?> t1, final PriorityFuture<?> t2) {
+        long diff = getAgedNanos(t1) - getAgedNanos(t2); // overflow-conscious, like System.nanoTime() itself
+        if (diff != 0) {
+            return diff < 0 ? -1 : 1;
+        }
+        return Long.compare(t1.getSequence(), t2.getSequence());
+    }
+
+    private long getAgedNanos(final PriorityFuture<?> task) {
+        return task.getSubmittedNanos() + task.getTask().getPriority().ordinal() * agingNanos;
+    }
+
+    /**
+     * Token bucket allowing a number of tasks per second with bursts of up to one second's worth of tasks.
+     */
+    private static final class RateLimit {
+
+        /**
+         * The number of permits added per nanosecond.
+         */
+        private final double permitsPerNano;
+
+        /**
+         * The maximum number of permits stored.
+         */
+        private final double capacity;
+
+        /**
+         * The number of permits currently available.
+         */
+        private double permits;
+
+        /**
+         * The time in nanoseconds up to which permits have been added.
+         */
+        private long refilledNanos;
+
+        RateLimit(final double ratePerSecond, final long now) {
+            permitsPerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+            capacity = Math.max(1, ratePerSecond);
+            permits = capacity;
+            refilledNanos = now;
+        }
+
+        boolean isAvailable(final long now) {
+            refill(now);
+            return permits >= 1;
+        }
+
+        void acquire(final long now) {
+            refill(now);
+            permits--;
+        }
+
+        int getPermits(final long now) {
+            refill(now);
+            return (int) Math.floor(permits);
+        }
+
+        long getNanosUntilAvailable(final long now) {
+            return getNanosUntilAvailable(1, now);
+        }
+
+        long getNanosUntilAvailable(final int count, final long now) {
+            refill(now);
+            return permits >= count ? 0 : Math.max(1, (long) Math.ceil((count - permits) / permitsPerNano));
+        }
+
+        private void refill(final long now) {
+            permits = Math.min(capacity, permits + (now - refilledNanos) * permitsPerNano);
+            refilledNanos = now;
+        }
+
+    }
+
+}
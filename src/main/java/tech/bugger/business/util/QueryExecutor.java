@@ -0,0 +1,144 @@
+package tech.bugger.business.util;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import tech.bugger.global.util.Metrics;
+
+/**
+ * Executor for running independent read-only queries of a single request concurrently to the request thread.
+ * <p>
+ * Every query running on this executor holds a connection of its own. The number of queries running at once is
+ * therefore bounded, and queries submitted while the bound is reached run on the calling thread instead of waiting in
+ * a queue. That way, the executor never holds more than the given number of connections, and requests submitting
+ * queries under load are slowed down to their sequential speed rather than failing.
+ */
+public final class QueryExecutor {
+
+    /**
+     * Underlying executor service running the queries.
+     */
+    private final ThreadPoolExecutor executorService;
+
+    /**
+     * Permits for running a query on {@link #executorService}, one per query allowed to run at once.
+     */
+    private final Semaphore permits;
+
+    /**
+     * Usage statistics of this executor.
+     */
+    private final Metrics metrics;
+
+    /**
+     * Number of queries submitted.
+     */
+    private final LongAdder submittedCount;
+
+    /**
+     * Number of queries run on the calling thread since the maximum number of queries was running.
+     */
+    private final LongAdder callerRunsCount;
+
+    /**
+     * Constructs a new query executor with the given technical parameters.
+     *
+     * @param maxThreads  Maximum number of queries to run concurrently to their requests.
+     * @param timeoutSecs Idle time after which a thread is terminated.
+     */
+    public QueryExecutor(final int maxThreads, final int timeoutSecs) {
+        AtomicInteger threadCount = new AtomicInteger();
+        // The number of busy threads is bounded by the permits rather than the pool, such that threads just finishing
+        // a query never cause another one to be rejected.
+        executorService = new ThreadPoolExecutor(0, Integer.MAX_VALUE, timeoutSecs, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "search-query-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        permits = new Semaphore(maxThreads);
+
+        metrics = new Metrics();
+        metrics.gauge("active_threads", "Threads currently running queries.", executorService::getActiveCount);
+        metrics.gauge("pool_threads", "Threads currently in the pool.", executorService::getPoolSize);
+        submittedCount = metrics.counter("queries_submitted_total", "Queries submitted.");
+        callerRunsCount = metrics.counter("queries_caller_runs_total",
+                "Queries run on the calling thread since the maximum number of queries was running.");
+    }
+
+    /**
+     * Starts running the given query. If the maximum number of queries is already running, the query is run on
+     * the calling thread before returning.
+     *
+     * @param query The query to run.
+     * @param <T>   The type of the query result.
+     * @return The future result of the query.
+     */
+    public <T> Future<T> submit(final Callable<T> query) {
+        submittedCount.increment();
+        if (permits.tryAcquire()) {
+            CompletableFuture<T> future = new CompletableFuture<>();
+            try {
+                executorService.execute(() -> {
+                    try {
+                        T result;
+                        try {
+                            result = query.call();
+                        } finally {
+                            permits.release();
+                        }
+                        future.complete(result);
+                    } catch (Exception | Error e) {
+                        future.completeExceptionally(e);
+                    }
+                });
+                return future;
+            } catch (RejectedExecutionException e) {
+                permits.release();
+                if (executorService.isShutdown()) {
+                    throw new IllegalStateException("Query executor has already been shut down.", e);
+                }
+            }
+        }
+        callerRunsCount.increment();
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            future.complete(query.call());
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Returns the usage statistics of this executor, i.e. the number of busy threads and how often queries had to run
+     * on the calling thread.
+     *
+     * @return The metrics of this executor.
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Shuts down the executor by not accepting any new queries and finishing the running ones.
+     * <p>
+     * Calling this method blocks until either all queries have been finished or the given timeout has been reached.
+     *
+     * @param timeoutMillis The maximum time in milliseconds to wait for running queries to finish.
+     * @return {@code true} iff all running queries have been finished without timeout.
+     * @throws InterruptedException if interrupted whilst awaiting termination.
+     */
+    public boolean shutdown(final long timeoutMillis) throws InterruptedException {
+        executorService.shutdown();
+        return executorService.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+}
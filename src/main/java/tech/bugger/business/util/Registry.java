@@ -8,10 +8,13 @@ import java.util.concurrent.ConcurrentMap;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.inject.Produces;
 import javax.enterprise.inject.spi.InjectionPoint;
+import tech.bugger.business.internal.MailScheduler;
+import tech.bugger.business.internal.NotificationDispatcher;
 import tech.bugger.business.internal.UserSession;
 import tech.bugger.persistence.util.ConnectionPool;
 import tech.bugger.persistence.util.Mailer;
 import tech.bugger.persistence.util.PropertiesReader;
+import tech.bugger.persistence.util.StatementProfiler;
 
 /**
  * Registry for application-wide access to shared dependencies.
@@ -24,11 +27,31 @@ public class Registry {
      */
     private final ConcurrentMap<String, ConnectionPool> connectionPools;
 
+    /**
+     * The registered {@link InvertedIndex} instances.
+     */
+    private final ConcurrentMap<String, InvertedIndex> invertedIndexes;
+
+    /**
+     * The registered {@link MailScheduler} instances.
+     */
+    private final ConcurrentMap<String, MailScheduler> mailSchedulers;
+
     /**
      * The registered {@link Mailer} instances.
      */
     private final ConcurrentMap<String, Mailer> mailers;
 
+    /**
+     * The registered {@link NameIndex} instances.
+     */
+    private final ConcurrentMap<String, NameIndex> nameIndexes;
+
+    /**
+     * The registered {@link NotificationDispatcher} instances.
+     */
+    private final ConcurrentMap<String, NotificationDispatcher> notificationDispatchers;
+
     /**
      * The registered {@link PriorityExecutor} instances.
      */
@@ -39,14 +62,30 @@ public class Registry {
      */
     private final ConcurrentMap<String, PropertiesReader> propertiesReaders;
 
+    /**
+     * The registered {@link QueryExecutor} instances.
+     */
+    private final ConcurrentMap<String, QueryExecutor> queryExecutors;
+
+    /**
+     * The registered {@link StatementProfiler} instances.
+     */
+    private final ConcurrentMap<String, StatementProfiler> statementProfilers;
+
     /**
      * Constructs an empty registry.
      */
     public Registry() {
         connectionPools = new ConcurrentHashMap<>();
+        invertedIndexes = new ConcurrentHashMap<>();
+        mailSchedulers = new ConcurrentHashMap<>();
         mailers = new ConcurrentHashMap<>();
+        nameIndexes = new ConcurrentHashMap<>();
+        notificationDispatchers = new ConcurrentHashMap<>();
         priorityExecutors = new ConcurrentHashMap<>();
         propertiesReaders = new ConcurrentHashMap<>();
+        queryExecutors = new ConcurrentHashMap<>();
+        statementProfilers = new ConcurrentHashMap<>();
     }
 
     /**
@@ -84,6 +123,76 @@ public class Registry {
         connectionPools.put(key, connectionPool);
     }
 
+    /**
+     * Returns the {@link InvertedIndex} specified by the given injection point.
+     *
+     * @param ip The caller injection point, necessarily annotated with {@link RegistryKey}.
+     * @return The inverted index associated with {@link RegistryKey#value()}.
+     */
+    @Produces
+    @RegistryKey
+    public InvertedIndex getInvertedIndex(final InjectionPoint ip) {
+        return getInvertedIndex(extractKey(ip));
+    }
+
+    /**
+     * Returns the {@link InvertedIndex} registered for the given key.
+     *
+     * @param key The key of the desired inverted index.
+     * @return The inverted index associated with {@code key}.
+     */
+    public InvertedIndex getInvertedIndex(final String key) {
+        if (!invertedIndexes.containsKey(key)) {
+            throw new InternalError("No inverted index registered for key '" + key + "'");
+        }
+        return invertedIndexes.get(key);
+    }
+
+    /**
+     * Registers an {@link InvertedIndex} with the given key.
+     *
+     * @param key           The desired key for {@code invertedIndex}.
+     * @param invertedIndex The inverted index to register.
+     */
+    public void registerInvertedIndex(final String key, final InvertedIndex invertedIndex) {
+        invertedIndexes.put(key, invertedIndex);
+    }
+
+    /**
+     * Returns the {@link MailScheduler} specified by the given injection point.
+     *
+     * @param ip The caller injection point, necessarily annotated with {@link RegistryKey}.
+     * @return The mail scheduler associated with {@link RegistryKey#value()}.
+     */
+    @Produces
+    @RegistryKey
+    public MailScheduler getMailScheduler(final InjectionPoint ip) {
+        return getMailScheduler(extractKey(ip));
+    }
+
+    /**
+     * Returns the {@link MailScheduler} registered for the given key.
+     *
+     * @param key The key of the desired mail scheduler.
+     * @return The mail scheduler associated with {@code key}.
+     */
+    public MailScheduler getMailScheduler(final String key) {
+        if (!mailSchedulers.containsKey(key)) {
+            throw new InternalError("No mail scheduler registered for key '" + key + "'");
+        }
+        return mailSchedulers.get(key);
+    }
+
+    /**
+     * Registers a {@link MailScheduler} with the given key.
+     *
+     * @param key           The desired key for {@code mailScheduler}.
+     * @param mailScheduler The mail scheduler to register.
+     */
+    public void registerMailScheduler(final String key, final MailScheduler mailScheduler) {
+        mailSchedulers.put(key, mailScheduler);
+    }
+
     /**
      * Returns the {@link Mailer} specified by the given injection point.
      *
@@ -119,6 +228,77 @@ public class Registry {
         mailers.put(key, mailer);
     }
 
+    /**
+     * Returns the {@link NameIndex} specified by the given injection point.
+     *
+     * @param ip The caller injection point, necessarily annotated with {@link RegistryKey}.
+     * @return The name index associated with {@link RegistryKey#value()}.
+     */
+    @Produces
+    @RegistryKey
+    public NameIndex getNameIndex(final InjectionPoint ip) {
+        return getNameIndex(extractKey(ip));
+    }
+
+    /**
+     * Returns the {@link NameIndex} registered for the given key.
+     *
+     * @param key The key of the desired name index.
+     * @return The name index associated with {@code key}.
+     */
+    public NameIndex getNameIndex(final String key) {
+        if (!nameIndexes.containsKey(key)) {
+            throw new InternalError("No name index registered for key '" + key + "'");
+        }
+        return nameIndexes.get(key);
+    }
+
+    /**
+     * Registers a {@link NameIndex} with the given key.
+     *
+     * @param key       The desired key for {@code nameIndex}.
+     * @param nameIndex The name index to register.
+     */
+    public void registerNameIndex(final String key, final NameIndex nameIndex) {
+        nameIndexes.put(key, nameIndex);
+    }
+
+    /**
+     * Returns the {@link NotificationDispatcher} specified by the given injection point.
+     *
+     * @param ip The caller injection point, necessarily annotated with {@link RegistryKey}.
+     * @return The notification dispatcher associated with {@link RegistryKey#value()}.
+     */
+    @Produces
+    @RegistryKey
+    public NotificationDispatcher getNotificationDispatcher(final InjectionPoint ip) {
+        return getNotificationDispatcher(extractKey(ip));
+    }
+
+    /**
+     * Returns the {@link NotificationDispatcher} registered for the given key.
+     *
+     * @param key The key of the desired notification dispatcher.
+     * @return The notification dispatcher associated with {@code key}.
+     */
+    public NotificationDispatcher getNotificationDispatcher(final String key) {
+        if (!notificationDispatchers.containsKey(key)) {
+            throw new InternalError("No notification dispatcher registered for key '" + key + "'");
+        }
+        return notificationDispatchers.get(key);
+    }
+
+    /**
+     * Registers a {@link NotificationDispatcher} with the given key.
+     *
+     * @param key                    The desired key for {@code notificationDispatcher}.
+     * @param notificationDispatcher The notification dispatcher to register.
+     */
+    public void registerNotificationDispatcher(final String key,
+                                               final NotificationDispatcher notificationDispatcher) {
+        notificationDispatchers.put(key, notificationDispatcher);
+    }
+
     /**
      * Returns the {@link PriorityExecutor} specified by the given injection point.
      *
@@ -189,6 +369,76 @@ public class Registry {
         propertiesReaders.put(key, propertiesReader);
     }
 
+    /**
+     * Returns the {@link QueryExecutor} specified by the given injection point.
+     *
+     * @param ip The caller injection point, necessarily annotated with {@link RegistryKey}.
+     * @return The query executor associated with {@link RegistryKey#value()}.
+     */
+    @Produces
+    @RegistryKey
+    public QueryExecutor getQueryExecutor(final InjectionPoint ip) {
+        return getQueryExecutor(extractKey(ip));
+    }
+
+    /**
+     * Returns the {@link QueryExecutor} registered for the given key.
+     *
+     * @param key The key of the desired query executor.
+     * @return The query executor associated with {@code key}.
+     */
+    public QueryExecutor getQueryExecutor(final String key) {
+        if (!queryExecutors.containsKey(key)) {
+            throw new InternalError("No query executor registered for key '" + key + "'");
+        }
+        return queryExecutors.get(key);
+    }
+
+    /**
+     * Registers a {@link QueryExecutor} with the given key.
+     *
+     * @param key           The desired key for {@code queryExecutor}.
+     * @param queryExecutor The query executor to register.
+     */
+    public void registerQueryExecutor(final String key, final QueryExecutor queryExecutor) {
+        queryExecutors.put(key, queryExecutor);
+    }
+
+    /**
+     * Returns the {@link StatementProfiler} specified by the given injection point.
+     *
+     * @param ip The caller injection point, necessarily annotated with {@link RegistryKey}.
+     * @return The statement profiler associated with {@link RegistryKey#value()}.
+     */
+    @Produces
+    @RegistryKey
+    public StatementProfiler getStatementProfiler(final InjectionPoint ip) {
+        return getStatementProfiler(extractKey(ip));
+    }
+
+    /**
+     * Returns the {@link StatementProfiler} registered for the given key.
+     *
+     * @param key The key of the desired statement profiler.
+     * @return The statement profiler associated with {@code key}.
+     */
+    public StatementProfiler getStatementProfiler(final String key) {
+        if (!statementProfilers.containsKey(key)) {
+            throw new InternalError("No statement profiler registered for key '" + key + "'");
+        }
+        return statementProfilers.get(key);
+    }
+
+    /**
+     * Registers a {@link StatementProfiler} with the given key.
+     *
+     * @param key               The desired key for {@code statementProfiler}.
+     * @param statementProfiler The statement profiler to register.
+     */
+    public void registerStatementProfiler(final String key, final StatementProfiler statementProfiler) {
+        statementProfilers.put(key, statementProfiler);
+    }
+
     /**
      * Returns the {@link ResourceBundle} specified by the given injection point.
      *
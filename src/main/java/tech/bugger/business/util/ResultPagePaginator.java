@@ -0,0 +1,53 @@
+package tech.bugger.business.util;
+
+import tech.bugger.global.transfer.ResultPage;
+import tech.bugger.global.transfer.Selection;
+
+/**
+ * Paginator for data sources which determine the current page along with the total size of the data at once, e.g.
+ * by a single query.
+ *
+ * @param <T> Type of the items to be paginated.
+ */
+public abstract class ResultPagePaginator<T> extends Paginator<T> {
+
+    /**
+     * Constructs a paginator with the given parameters.
+     *
+     * @param sortedBy     Key of the column to initially sort by.
+     * @param itemsPerPage Number of items per page to display.
+     */
+    public ResultPagePaginator(final String sortedBy, final Selection.PageSize itemsPerPage) {
+        super(sortedBy, itemsPerPage);
+    }
+
+    /**
+     * Fetches a slice of data specified by the current paginator state given by {@link #getSelection()} along with the
+     * current total size of the base data.
+     *
+     * @return The data chunk characterized by the current paginator state and the total amount of items.
+     */
+    @Override
+    protected abstract ResultPage<T> fetchPage();
+
+    /**
+     * Fetches the current page only.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    protected final Iterable<T> fetch() {
+        return fetchPage().getItems();
+    }
+
+    /**
+     * Determines the current total size by fetching the current page.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    protected final int totalSize() {
+        return fetchPage().getTotalSize();
+    }
+
+}
@@ -7,6 +7,7 @@ import tech.bugger.business.util.RegistryKey;
 import tech.bugger.global.transfer.Configuration;
 import tech.bugger.global.transfer.Organization;
 import tech.bugger.global.util.Log;
+import tech.bugger.persistence.util.StatementProfiler;
 
 import javax.annotation.PostConstruct;
 import javax.enterprise.context.RequestScoped;
@@ -34,6 +35,11 @@ public class AdminBacker {
      */
     private static final Log log = Log.forClass(AdminBacker.class);
 
+    /**
+     * The number of statement shapes to list on the admin page.
+     */
+    static final int TOP_STATEMENTS = 20;
+
     /**
      * The application settings cache.
      */
@@ -69,6 +75,11 @@ public class AdminBacker {
      */
     private final ResourceBundle messagesBundle;
 
+    /**
+     * The profiler of the statements executed on the main database.
+     */
+    private final StatementProfiler statementProfiler;
+
     /**
      * Constructs a new admin page backing bean with the necessary dependencies.
      *
@@ -77,18 +88,21 @@ public class AdminBacker {
      * @param ectx                The current {@link ExternalContext} of the application.
      * @param feedbackEvent       The feedback event to use for user feedback.
      * @param messagesBundle      The resource bundle for feedback messages.
+     * @param statementProfiler   The profiler of the statements executed on the main database.
      */
     @Inject
     public AdminBacker(final ApplicationSettings applicationSettings,
                        final SettingsService settingsService,
                        final ExternalContext ectx,
                        final Event<Feedback> feedbackEvent,
-                       @RegistryKey("messages") final ResourceBundle messagesBundle) {
+                       @RegistryKey("messages") final ResourceBundle messagesBundle,
+                       @RegistryKey("db") final StatementProfiler statementProfiler) {
         this.applicationSettings = applicationSettings;
         this.settingsService = settingsService;
         this.ectx = ectx;
         this.feedbackEvent = feedbackEvent;
         this.messagesBundle = messagesBundle;
+        this.statementProfiler = statementProfiler;
     }
 
     /**
@@ -176,6 +190,15 @@ public class AdminBacker {
         }
     }
 
+    /**
+     * Returns the statement shapes that have taken the most time in total.
+     *
+     * @return The statistics of the top statement shapes, or an empty list if statement profiling is disabled.
+     */
+    public List<StatementProfiler.Statistics> getTopStatements() {
+        return statementProfiler.getTopStatements(TOP_STATEMENTS);
+    }
+
     /**
      * Returns the temporary application configuration.
      *
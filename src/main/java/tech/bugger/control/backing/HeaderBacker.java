@@ -24,6 +24,7 @@ import tech.bugger.business.internal.UserSession;
 import tech.bugger.business.service.SearchService;
 import tech.bugger.business.util.Feedback;
 import tech.bugger.business.util.RegistryKey;
+import tech.bugger.global.transfer.SearchSuggestions;
 import tech.bugger.global.transfer.User;
 import tech.bugger.global.util.Log;
 
@@ -237,9 +238,10 @@ public class HeaderBacker implements Serializable {
      */
     public void updateSuggestions() {
         if (search != null && !search.isBlank()) {
-            userSearchSuggestion = searchService.getUserSuggestions(search);
-            topicSearchSuggestion = searchService.getTopicSuggestions(search);
-            reportSearchSuggestion = searchService.getReportSuggestions(search);
+            SearchSuggestions suggestions = searchService.getSuggestions(search);
+            userSearchSuggestion = suggestions.getUsers();
+            topicSearchSuggestion = suggestions.getTopics();
+            reportSearchSuggestion = suggestions.getReports();
         }
     }
 
@@ -1,10 +1,11 @@
 package tech.bugger.control.backing;
 
 import tech.bugger.business.service.SearchService;
-import tech.bugger.business.service.TopicService;
 import tech.bugger.business.util.Paginator;
+import tech.bugger.business.util.ResultPagePaginator;
 import tech.bugger.control.exception.Error404Exception;
 import tech.bugger.global.transfer.Report;
+import tech.bugger.global.transfer.ResultPage;
 import tech.bugger.global.transfer.Selection;
 import tech.bugger.global.transfer.Topic;
 import tech.bugger.global.transfer.User;
@@ -20,7 +21,7 @@ import java.time.OffsetDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.Future;
 
 /**
  * Backing bean for the search page.
@@ -162,11 +163,6 @@ public class SearchBacker implements Serializable {
      */
     private final SearchService searchService;
 
-    /**
-     * A topic service.
-     */
-    private final TopicService topicService;
-
     /**
      * The current external context.
      */
@@ -176,15 +172,12 @@ public class SearchBacker implements Serializable {
      * Constructs a new search page backing bean with the necessary dependencies.
      *
      * @param searchService The search service to use.
-     * @param topicService  The topic service to use.
      * @param ectx          The current {@link ExternalContext} of the application.
      */
     @Inject
     public SearchBacker(final SearchService searchService,
-                        final TopicService topicService,
                         final ExternalContext ectx) {
         this.searchService = searchService;
-        this.topicService = topicService;
         this.ectx = ectx;
     }
 
@@ -221,43 +214,31 @@ public class SearchBacker implements Serializable {
         searchInFullText = false;
         topic = null;
 
-        if (tab == Tab.USER) {
-            userResults = new Paginator<>("username", Selection.PageSize.NORMAL) {
-                @Override
-                protected Iterable<User> fetch() {
-                    return searchService.getUserResults(query, getSelection(), adminShown, nonAdminShown);
-                }
+        // The topic titles are loaded concurrently to the first page of results.
+        Future<List<String>> pendingTopicTitles = null;
+        if (tab == Tab.REPORT || tab == Tab.TOPIC) {
+            pendingTopicTitles = searchService.prefetchTopicTitles();
+        }
 
+        if (tab == Tab.USER) {
+            userResults = new ResultPagePaginator<>("username", Selection.PageSize.NORMAL) {
                 @Override
-                protected int totalSize() {
-                    return searchService.getNumberOfUserResults(query, adminShown, nonAdminShown);
+                protected ResultPage<User> fetchPage() {
+                    return searchService.getUserResultPage(query, getSelection(), adminShown, nonAdminShown);
                 }
             };
         }
 
         if (tab == Tab.REPORT) {
-            topicTitles = topicService.discoverTopics().stream().map(Topic::getTitle).collect(Collectors.toList());
-            reportResults = new Paginator<>("id", Selection.PageSize.NORMAL) {
+            reportResults = new ResultPagePaginator<>("id", Selection.PageSize.NORMAL) {
                 @Override
-                protected Iterable<Report> fetch() {
+                protected ResultPage<Report> fetchPage() {
                     Map<Report.Type, Boolean> typeHashMap = getTypeHashMap();
                     Map<Report.Severity, Boolean> severityHashMap = getSeverityHashMap();
                     if (topic != null && topic.isBlank()) {
                         topic = null;
                     }
-                    return searchService.getReportResults(query, getSelection(), latestCreationDateTime,
-                            earliestClosingDateTime, openReportShown, closedReportShown, duplicatesShown,
-                            searchInFullText, topic, typeHashMap, severityHashMap);
-                }
-
-                @Override
-                protected int totalSize() {
-                    Map<Report.Type, Boolean> typeHashMap = getTypeHashMap();
-                    Map<Report.Severity, Boolean> severityHashMap = getSeverityHashMap();
-                    if (topic != null && topic.isBlank()) {
-                        topic = null;
-                    }
-                    return searchService.getNumberOfReportResults(query, latestCreationDateTime,
+                    return searchService.getReportResultPage(query, getSelection(), latestCreationDateTime,
                             earliestClosingDateTime, openReportShown, closedReportShown, duplicatesShown,
                             searchInFullText, topic, typeHashMap, severityHashMap);
                 }
@@ -281,18 +262,16 @@ public class SearchBacker implements Serializable {
         }
 
         if (tab == Tab.TOPIC) {
-            topicResults = new Paginator<>("id", Selection.PageSize.NORMAL) {
+            topicResults = new ResultPagePaginator<>("id", Selection.PageSize.NORMAL) {
                 @Override
-                protected Iterable<Topic> fetch() {
-                    return searchService.getTopicResults(query, getSelection());
-                }
-
-                @Override
-                protected int totalSize() {
-                    return searchService.getNumberOfTopicResults(query);
+                protected ResultPage<Topic> fetchPage() {
+                    return searchService.getTopicResultPage(query, getSelection());
                 }
             };
-            topicTitles = topicService.discoverTopics().stream().map(Topic::getTitle).collect(Collectors.toList());
+        }
+
+        if (tab == Tab.REPORT || tab == Tab.TOPIC) {
+            topicTitles = searchService.awaitTopicTitles(pendingTopicTitles);
         }
     }
 
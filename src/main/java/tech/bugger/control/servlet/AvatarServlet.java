@@ -79,8 +79,12 @@ public class AvatarServlet extends MediaServlet {
         }
         boolean serveThumbnail = "thumbnail".equals(request.getParameter("type"));
 
-        // Fetch the requested image.
-        byte[] image = serveThumbnail ? user.getAvatarThumbnail() : profileService.getAvatarForUser(user.getId());
+        // Fetch the requested image, which is not loaded along with the user.
+        byte[] image = null;
+        if (user.isExistsAvatar()) {
+            image = serveThumbnail ? profileService.getAvatarThumbnailForUser(user.getId())
+                    : profileService.getAvatarForUser(user.getId());
+        }
         if (image == null || image.length == 0) {
             image = loadDefaultAvatar(serveThumbnail);
         }
@@ -0,0 +1,228 @@
+package tech.bugger.control.servlet;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Serial;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import javax.inject.Inject;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import tech.bugger.business.internal.MailScheduler;
+import tech.bugger.business.internal.NotificationDispatcher;
+import tech.bugger.business.internal.SearchResultCache;
+import tech.bugger.business.internal.UserSession;
+import tech.bugger.business.util.PriorityExecutor;
+import tech.bugger.business.util.QueryExecutor;
+import tech.bugger.business.util.RegistryKey;
+import tech.bugger.global.transfer.User;
+import tech.bugger.global.util.Log;
+import tech.bugger.persistence.exception.ConfigException;
+import tech.bugger.persistence.util.ConnectionPool;
+import tech.bugger.persistence.util.Mailer;
+import tech.bugger.persistence.util.PropertiesReader;
+
+/**
+ * Custom servlet that serves usage statistics of the database connection pool, the e-mail queue and its scheduler, the
+ * SMTP connections, the notification dispatcher, the search result cache and the executor of concurrent search queries.
+ * <p>
+ * The metrics are written in the Prometheus text exposition format, or as JSON object if the request parameter
+ * {@code format} is {@code json}. Access is restricted to administrators and to clients presenting the bearer token
+ * configured as {@code METRICS_TOKEN}.
+ */
+public class MetricsServlet extends HttpServlet {
+
+    @Serial
+    private static final long serialVersionUID = -3412378212658791273L;
+
+    /**
+     * The {@link Log} instance associated with this class for logging purposes.
+     */
+    private static final Log log = Log.forClass(MetricsServlet.class);
+
+    /**
+     * The prefix of the authorization header value carrying a bearer token.
+     */
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    /**
+     * The prefix of all connection pool metric names.
+     */
+    private static final String DB_POOL_PREFIX = "bugger_db_pool_";
+
+    /**
+     * The prefix of all e-mail queue metric names.
+     */
+    private static final String MAIL_QUEUE_PREFIX = "bugger_mail_queue_";
+
+    /**
+     * The prefix of all mail scheduler metric names.
+     */
+    private static final String MAIL_DELIVERY_PREFIX = "bugger_mail_delivery_";
+
+    /**
+     * The prefix of all mailer metric names.
+     */
+    private static final String SMTP_PREFIX = "bugger_smtp_";
+
+    /**
+     * The prefix of all notification dispatcher metric names.
+     */
+    private static final String NOTIFICATIONS_PREFIX = "bugger_notifications_";
+
+    /**
+     * The prefix of all search result cache metric names.
+     */
+    private static final String SEARCH_CACHE_PREFIX = "bugger_search_cache_";
+
+    /**
+     * The prefix of all search query executor metric names.
+     */
+    private static final String SEARCH_QUERIES_PREFIX = "bugger_search_queries_";
+
+    /**
+     * The current user session.
+     */
+    @Inject
+    private UserSession session;
+
+    /**
+     * The application configuration.
+     */
+    @Inject
+    @RegistryKey("config")
+    private PropertiesReader configReader;
+
+    /**
+     * The main database connection pool.
+     */
+    @Inject
+    @RegistryKey("db")
+    private ConnectionPool connectionPool;
+
+    /**
+     * The executor sending e-mails.
+     */
+    @Inject
+    @RegistryKey("mails")
+    private PriorityExecutor mailExecutor;
+
+    /**
+     * The scheduler delivering the durable mail queue.
+     */
+    @Inject
+    @RegistryKey("main")
+    private MailScheduler mailScheduler;
+
+    /**
+     * The mailer sending e-mails over pooled SMTP connections.
+     */
+    @Inject
+    @RegistryKey("main")
+    private Mailer mailer;
+
+    /**
+     * The dispatcher creating notifications in the background.
+     */
+    @Inject
+    @RegistryKey("notifications")
+    private NotificationDispatcher notificationDispatcher;
+
+    /**
+     * The cache of report search results.
+     */
+    @Inject
+    private SearchResultCache searchResultCache;
+
+    /**
+     * The executor running search queries concurrently to their requests.
+     */
+    @Inject
+    @RegistryKey("search")
+    private QueryExecutor searchQueryExecutor;
+
+    /**
+     * Handles a GET request by writing the current metrics to the response.
+     *
+     * @param request  The request to handle.
+     * @param response The response to return to the client.
+     */
+    @Override
+    protected void doGet(final HttpServletRequest request, final HttpServletResponse response) {
+        if (!isAuthorized(request)) {
+            log.debug("Refusing to serve metrics to unauthorized client.");
+            try {
+                response.sendError(HttpServletResponse.SC_NOT_FOUND); // 404.
+            } catch (IOException e) {
+                log.warning("Could not redirect to 404 page.");
+            }
+            return;
+        }
+
+        response.reset();
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader("Cache-Control", "no-store");
+        try {
+            PrintWriter writer = response.getWriter();
+            if ("json".equals(request.getParameter("format"))) {
+                response.setContentType("application/json");
+                writer.append('{');
+                connectionPool.getMetrics().writeJsonMembers(DB_POOL_PREFIX, writer);
+                writer.append(',');
+                mailExecutor.getMetrics().writeJsonMembers(MAIL_QUEUE_PREFIX, writer);
+                writer.append(',');
+                mailScheduler.getMetrics().writeJsonMembers(MAIL_DELIVERY_PREFIX, writer);
+                writer.append(',');
+                mailer.getMetrics().writeJsonMembers(SMTP_PREFIX, writer);
+                writer.append(',');
+                notificationDispatcher.getMetrics().writeJsonMembers(NOTIFICATIONS_PREFIX, writer);
+                writer.append(',');
+                searchResultCache.getMetrics().writeJsonMembers(SEARCH_CACHE_PREFIX, writer);
+                writer.append(',');
+                searchQueryExecutor.getMetrics().writeJsonMembers(SEARCH_QUERIES_PREFIX, writer);
+                writer.append('}');
+            } else {
+                response.setContentType("text/plain; version=0.0.4");
+                connectionPool.getMetrics().writePrometheus(DB_POOL_PREFIX, writer);
+                mailExecutor.getMetrics().writePrometheus(MAIL_QUEUE_PREFIX, writer);
+                mailScheduler.getMetrics().writePrometheus(MAIL_DELIVERY_PREFIX, writer);
+                mailer.getMetrics().writePrometheus(SMTP_PREFIX, writer);
+                notificationDispatcher.getMetrics().writePrometheus(NOTIFICATIONS_PREFIX, writer);
+                searchResultCache.getMetrics().writePrometheus(SEARCH_CACHE_PREFIX, writer);
+                searchQueryExecutor.getMetrics().writePrometheus(SEARCH_QUERIES_PREFIX, writer);
+            }
+            writer.flush();
+        } catch (IOException e) {
+            log.warning("Could not write servlet response.", e);
+        }
+    }
+
+    /**
+     * Checks whether the client may view the metrics, i.e. is logged in as administrator or presents the configured
+     * bearer token.
+     *
+     * @param request The request to check.
+     * @return Whether the client is authorized.
+     */
+    private boolean isAuthorized(final HttpServletRequest request) {
+        User user = session.getUser();
+        if (user != null && user.isAdministrator()) {
+            return true;
+        }
+
+        String header = request.getHeader("Authorization");
+        if (header == null || !header.startsWith(BEARER_PREFIX)) {
+            return false;
+        }
+        String token;
+        try {
+            token = configReader.getString("METRICS_TOKEN").trim();
+        } catch (ConfigException e) {
+            return false; // token access not configured
+        }
+        return !token.isEmpty() && MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8),
+                header.substring(BEARER_PREFIX.length()).trim().getBytes(StandardCharsets.UTF_8));
+    }
+
+}
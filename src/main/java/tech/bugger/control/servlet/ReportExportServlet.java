@@ -0,0 +1,269 @@
+package tech.bugger.control.servlet;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Serial;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import javax.inject.Inject;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import tech.bugger.business.internal.UserSession;
+import tech.bugger.business.service.SearchService;
+import tech.bugger.global.transfer.Report;
+import tech.bugger.global.transfer.User;
+import tech.bugger.global.util.Log;
+
+/**
+ * Custom servlet that exports the reports found by a report search as CSV or as newline-delimited JSON.
+ * <p>
+ * The search is described by the request parameters {@code q} for the query, {@code topic} for the title of the topic
+ * to search in, the flags {@code open}, {@code closed}, {@code duplicates} and {@code fulltext}, and the repeatable
+ * parameters {@code type} and {@code severity} for the report types and severities to include. Omitted flags include
+ * open and closed reports, but exclude duplicates and matches in posts, and omitted types and severities include all of
+ * them. Reports are written to the response while they are read from the database, such that exports of any size run
+ * in constant memory. Access is restricted to administrators.
+ */
+public class ReportExportServlet extends HttpServlet {
+
+    @Serial
+    private static final long serialVersionUID = 6128330912750183315L;
+
+    /**
+     * The {@link Log} instance associated with this class for logging purposes.
+     */
+    private static final Log log = Log.forClass(ReportExportServlet.class);
+
+    /**
+     * The columns of an exported report, in the order they are written.
+     */
+    static final String[] COLUMNS = {"id", "title", "type", "severity", "version", "topic", "duplicate_of",
+            "closed_at", "last_activity", "relevance"};
+
+    /**
+     * The characters which make spreadsheet applications interpret a CSV field as formula.
+     */
+    static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    /**
+     * The current user session.
+     */
+    @Inject
+    private UserSession session;
+
+    /**
+     * The search service providing the reports to export.
+     */
+    @Inject
+    private SearchService searchService;
+
+    /**
+     * Handles a GET request by writing all reports found by the requested search to the response.
+     *
+     * @param request  The request to handle.
+     * @param response The response to return to the client.
+     */
+    @Override
+    protected void doGet(final HttpServletRequest request, final HttpServletResponse response) {
+        User user = session.getUser();
+        if (user == null || !user.isAdministrator()) {
+            log.debug("Refusing to export reports to unauthorized client.");
+            try {
+                response.sendError(HttpServletResponse.SC_NOT_FOUND); // 404.
+            } catch (IOException e) {
+                log.warning("Could not redirect to 404 page.");
+            }
+            return;
+        }
+
+        boolean ndjson = "ndjson".equals(request.getParameter("format"));
+        String query = request.getParameter("q") == null ? "" : request.getParameter("q");
+        response.reset();
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader("Cache-Control", "no-store");
+        response.setContentType(ndjson ? "application/x-ndjson" : "text/csv");
+        response.setHeader("Content-Disposition", "attachment; filename=\"reports." + (ndjson ? "ndjson" : "csv")
+                + '"');
+        try {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(),
+                    StandardCharsets.UTF_8));
+            if (!ndjson) {
+                writer.write(String.join(",", COLUMNS));
+                writer.write("\r\n");
+            }
+            Consumer<Report> consumer = report -> {
+                try {
+                    if (ndjson) {
+                        writeJson(report, writer);
+                    } else {
+                        writeCsv(report, writer);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            };
+            if (!searchService.exportReportResults(query, null, null, getFlag(request, "open", true),
+                    getFlag(request, "closed", true), getFlag(request, "duplicates", false),
+                    getFlag(request, "fulltext", false), request.getParameter("topic"),
+                    getFilter(request, "type", Report.Type.class),
+                    getFilter(request, "severity", Report.Severity.class), consumer)) {
+                log.warning("Report export for the query " + query + " has been cut short.");
+            }
+            writer.flush();
+        } catch (IOException | UncheckedIOException e) {
+            log.warning("Could not write servlet response.", e);
+        }
+    }
+
+    /**
+     * Reads a boolean request parameter.
+     *
+     * @param request      The request to read the parameter from.
+     * @param name         The name of the parameter.
+     * @param defaultValue The value to assume if the parameter is absent.
+     * @return The value of the parameter.
+     */
+    private static boolean getFlag(final HttpServletRequest request, final String name, final boolean defaultValue) {
+        String value = request.getParameter(name);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    /**
+     * Reads a repeatable request parameter selecting constants of an enum. Values not naming a constant are ignored.
+     *
+     * @param request The request to read the parameter from.
+     * @param name    The name of the parameter.
+     * @param type    The class of the enum.
+     * @param <E>     The type of the enum.
+     * @return Map that indicates for each constant whether it has been selected. If the parameter is absent, all
+     *         constants are selected.
+     */
+    static <E extends Enum<E>> Map<E, Boolean> getFilter(final HttpServletRequest request, final String name,
+                                                         final Class<E> type) {
+        String[] values = request.getParameterValues(name);
+        Map<E, Boolean> filter = new EnumMap<>(type);
+        for (E constant : type.getEnumConstants()) {
+            filter.put(constant, values == null || Arrays.stream(values)
+                    .anyMatch(value -> constant.name().equalsIgnoreCase(value.trim())));
+        }
+        return filter;
+    }
+
+    /**
+     * Returns the values of the exported columns of a report.
+     *
+     * @param report The report to export.
+     * @param string How to convert strings to column values.
+     * @return The values of the columns in the order of {@link #COLUMNS}, where absent values are {@code null}.
+     */
+    private static String[] getValues(final Report report, final Function<String, String> string) {
+        return new String[]{
+                String.valueOf(report.getId()),
+                report.getTitle() == null ? null : string.apply(report.getTitle()),
+                report.getType() == null ? null : string.apply(report.getType().name().toLowerCase(Locale.ROOT)),
+                report.getSeverity() == null ? null
+                        : string.apply(report.getSeverity().name().toLowerCase(Locale.ROOT)),
+                report.getVersion() == null ? null : string.apply(report.getVersion()),
+                report.getTopic() == null ? null : string.apply(report.getTopic()),
+                report.getDuplicateOf() == null ? null : report.getDuplicateOf().toString(),
+                report.getClosingDate() == null ? null : string.apply(report.getClosingDate().toString()),
+                report.getLastActivity() == null ? null : string.apply(report.getLastActivity().toString()),
+                report.getRelevance() == null ? null : report.getRelevance().toString()
+        };
+    }
+
+    /**
+     * Writes a report as CSV record as specified by RFC 4180.
+     *
+     * @param report The report to write.
+     * @param writer The writer to write to.
+     * @throws IOException if writing fails.
+     */
+    static void writeCsv(final Report report, final Writer writer) throws IOException {
+        String[] values = getValues(report, ReportExportServlet::quoteCsv);
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writer.write(values[i]);
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * Writes a report as JSON object on a line of its own.
+     *
+     * @param report The report to write.
+     * @param writer The writer to write to.
+     * @throws IOException if writing fails.
+     */
+    static void writeJson(final Report report, final Writer writer) throws IOException {
+        String[] values = getValues(report, ReportExportServlet::quoteJson);
+        writer.write('{');
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write('"');
+            writer.write(COLUMNS[i]);
+            writer.write("\":");
+            writer.write(values[i] == null ? "null" : values[i]);
+        }
+        writer.write("}\n");
+    }
+
+    /**
+     * Quotes a CSV field if it contains separators, quotes or line breaks. Fields which spreadsheet applications would
+     * evaluate as formula are prefixed with an apostrophe, so that user-supplied titles cannot inject formulas.
+     *
+     * @param value The value of the field.
+     * @return The field as it is to be written.
+     */
+    static String quoteCsv(final String value) {
+        String field = !value.isEmpty() && FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0 ? '\'' + value : value;
+        if (field.chars().noneMatch(c -> c == ',' || c == '"' || c == '\r' || c == '\n')) {
+            return field;
+        }
+        return '"' + field.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Quotes a string as JSON string literal.
+     *
+     * @param value The string to quote.
+     * @return The JSON string literal.
+     */
+    static String quoteJson(final String value) {
+        StringBuilder literal = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> literal.append("\\\"");
+                case '\\' -> literal.append("\\\\");
+                case '\n' -> literal.append("\\n");
+                case '\r' -> literal.append("\\r");
+                case '\t' -> literal.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        literal.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        literal.append(c);
+                    }
+                }
+            }
+        }
+        return literal.append('"').toString();
+    }
+
+}
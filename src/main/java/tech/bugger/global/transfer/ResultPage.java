@@ -0,0 +1,109 @@
+package tech.bugger.global.transfer;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * DTO representing one page of paginated results together with the total number of results across all pages.
+ *
+ * @param <T> Type of the results.
+ */
+public final class ResultPage<T> implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -2287405627133457813L;
+
+    /**
+     * The results on this page.
+     */
+    private final List<T> items;
+
+    /**
+     * The total number of results ignoring pagination.
+     */
+    private final int totalSize;
+
+    /**
+     * Constructs a new result page from the given parameters.
+     *
+     * @param items     The results on this page.
+     * @param totalSize The total number of results ignoring pagination.
+     */
+    public ResultPage(final List<T> items, final int totalSize) {
+        this.items = List.copyOf(items);
+        this.totalSize = totalSize;
+    }
+
+    /**
+     * Returns an empty result page.
+     *
+     * @param <T> Type of the results.
+     * @return A result page without any results.
+     */
+    public static <T> ResultPage<T> empty() {
+        return new ResultPage<>(List.of(), 0);
+    }
+
+    /**
+     * Returns the results on this page.
+     *
+     * @return The unmodifiable list of results.
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Returns the total number of results ignoring pagination.
+     *
+     * @return The total number of results.
+     */
+    public int getTotalSize() {
+        return totalSize;
+    }
+
+    /**
+     * Indicates whether some {@code other} result page is semantically equal to this result page.
+     *
+     * @param other The object to compare this result page to.
+     * @return {@code true} iff {@code other} is a semantically equivalent result page.
+     */
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof ResultPage)) {
+            return false;
+        }
+        ResultPage<?> that = (ResultPage<?>) other;
+        return totalSize == that.totalSize && items.equals(that.items);
+    }
+
+    /**
+     * Calculates a hash code for this result page for hashing purposes, and to fulfil the
+     * {@link Object#equals(Object)} contract.
+     *
+     * @return The hash code value of this result page.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(items, totalSize);
+    }
+
+    /**
+     * Converts this result page into a human-readable string representation.
+     *
+     * @return A human-readable string representation of this result page.
+     */
+    @Override
+    public String toString() {
+        return "ResultPage{"
+                + "items=" + items
+                + ", totalSize=" + totalSize
+                + '}';
+    }
+
+}
@@ -0,0 +1,115 @@
+package tech.bugger.global.transfer;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * DTO representing the suggestions for a search query, consisting of matching usernames, topic titles and report
+ * titles.
+ */
+public final class SearchSuggestions implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 4629711389305267140L;
+
+    /**
+     * The suggested usernames.
+     */
+    private final List<String> users;
+
+    /**
+     * The suggested topic titles.
+     */
+    private final List<String> topics;
+
+    /**
+     * The suggested report titles.
+     */
+    private final List<String> reports;
+
+    /**
+     * Constructs new search suggestions from the given parameters.
+     *
+     * @param users   The suggested usernames.
+     * @param topics  The suggested topic titles.
+     * @param reports The suggested report titles.
+     */
+    public SearchSuggestions(final List<String> users, final List<String> topics, final List<String> reports) {
+        this.users = List.copyOf(users);
+        this.topics = List.copyOf(topics);
+        this.reports = List.copyOf(reports);
+    }
+
+    /**
+     * Returns the suggested usernames.
+     *
+     * @return The unmodifiable list of usernames.
+     */
+    public List<String> getUsers() {
+        return users;
+    }
+
+    /**
+     * Returns the suggested topic titles.
+     *
+     * @return The unmodifiable list of topic titles.
+     */
+    public List<String> getTopics() {
+        return topics;
+    }
+
+    /**
+     * Returns the suggested report titles.
+     *
+     * @return The unmodifiable list of report titles.
+     */
+    public List<String> getReports() {
+        return reports;
+    }
+
+    /**
+     * Indicates whether some {@code other} search suggestions are semantically equal to these search suggestions.
+     *
+     * @param other The object to compare these search suggestions to.
+     * @return {@code true} iff {@code other} are semantically equivalent search suggestions.
+     */
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof SearchSuggestions)) {
+            return false;
+        }
+        SearchSuggestions that = (SearchSuggestions) other;
+        return users.equals(that.users) && topics.equals(that.topics) && reports.equals(that.reports);
+    }
+
+    /**
+     * Calculates a hash code for these search suggestions for hashing purposes, and to fulfil the
+     * {@link Object#equals(Object)} contract.
+     *
+     * @return The hash code value of these search suggestions.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(users, topics, reports);
+    }
+
+    /**
+     * Converts these search suggestions into a human-readable string representation.
+     *
+     * @return A human-readable string representation of these search suggestions.
+     */
+    @Override
+    public String toString() {
+        return "SearchSuggestions{"
+                + "users=" + users
+                + ", topics=" + topics
+                + ", reports=" + reports
+                + '}';
+    }
+
+}
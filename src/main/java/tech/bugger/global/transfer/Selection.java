@@ -64,6 +64,146 @@ public class Selection implements Serializable {
 
     }
 
+    /**
+     * How to position the next page relative to the current one.
+     */
+    public enum Seek {
+
+        /**
+         * Position the page by its item offset derived from {@link #getCurrentPage()}.
+         */
+        NONE,
+
+        /**
+         * Take the items directly following {@link #getLastCursor()}.
+         */
+        AFTER,
+
+        /**
+         * Take the items directly preceding {@link #getFirstCursor()}.
+         */
+        BEFORE,
+
+        /**
+         * Take the items at the very end of the sort order.
+         */
+        LAST
+
+    }
+
+    /**
+     * Position of a single item within a sort order, consisting of the value of the sort column and the ID of the
+     * item to break ties with.
+     */
+    public static final class Cursor implements Serializable {
+
+        @Serial
+        private static final long serialVersionUID = 6236212483512795591L;
+
+        /**
+         * The textual representation of the sort column value, or {@code null} if there is none.
+         */
+        private final String key;
+
+        /**
+         * The name of the data type of the sort column.
+         */
+        private final String keyType;
+
+        /**
+         * The ID of the item.
+         */
+        private final int id;
+
+        /**
+         * Constructs a new cursor from the specified parameters.
+         *
+         * @param key     The textual representation of the sort column value, or {@code null} if there is none.
+         * @param keyType The name of the data type of the sort column.
+         * @param id      The ID of the item.
+         */
+        public Cursor(final String key, final String keyType, final int id) {
+            this.key = key;
+            this.keyType = keyType;
+            this.id = id;
+        }
+
+        /**
+         * Returns the textual representation of the sort column value.
+         *
+         * @return The sort column value, or {@code null} if there is none.
+         */
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * Returns the name of the data type of the sort column.
+         *
+         * @return The data type name.
+         */
+        public String getKeyType() {
+            return keyType;
+        }
+
+        /**
+         * Returns the ID of the item.
+         *
+         * @return The item ID.
+         */
+        public int getId() {
+            return id;
+        }
+
+        /**
+         * Indicates whether some {@code other} cursor is semantically equal to this cursor.
+         *
+         * @param other The object to compare this cursor to.
+         * @return {@code true} iff {@code other} is a semantically equivalent cursor.
+         */
+        @Override
+        public boolean equals(final Object other) {
+            if (this == other) {
+                return true;
+            }
+
+            if (!(other instanceof Cursor)) {
+                return false;
+            }
+
+            Cursor cursor = (Cursor) other;
+            return id == cursor.id
+                    && Objects.equals(key, cursor.key)
+                    && Objects.equals(keyType, cursor.keyType);
+        }
+
+        /**
+         * Calculates a hash code for this cursor for hashing purposes, and to fulfil the
+         * {@link Object#equals(Object)} contract.
+         *
+         * @return The hash code value of this cursor.
+         */
+        @Override
+        public int hashCode() {
+            return Objects.hash(key, keyType, id);
+        }
+
+        /**
+         * Converts this cursor into a human-readable string representation.
+         *
+         * @return A human-readable string representation of this cursor.
+         */
+        @Override
+        public String toString() {
+            return "Cursor{"
+                    + "key='" + key + '\''
+                    + ", keyType='" + keyType + '\''
+                    + ", id=" + id
+                    + '}';
+        }
+
+    }
+
     /**
      * The total number of entries.
      */
@@ -89,6 +229,21 @@ public class Selection implements Serializable {
      */
     private boolean ascending;
 
+    /**
+     * How to position the next page relative to the current one.
+     */
+    private Seek seek = Seek.NONE;
+
+    /**
+     * The position of the first item on the current page, if known.
+     */
+    private Cursor firstCursor;
+
+    /**
+     * The position of the last item on the current page, if known.
+     */
+    private Cursor lastCursor;
+
     /**
      * Constructs a pagination selection from the specified parameters.
      *
@@ -197,6 +352,60 @@ public class Selection implements Serializable {
         this.ascending = ascending;
     }
 
+    /**
+     * Returns how to position the next page relative to the current one.
+     *
+     * @return The seek mode.
+     */
+    public Seek getSeek() {
+        return seek;
+    }
+
+    /**
+     * Sets how to position the next page relative to the current one.
+     *
+     * @param seek The seek mode to be set.
+     */
+    public void setSeek(final Seek seek) {
+        this.seek = seek;
+    }
+
+    /**
+     * Returns the position of the first item on the current page.
+     *
+     * @return The position of the first item, or {@code null} if unknown.
+     */
+    public Cursor getFirstCursor() {
+        return firstCursor;
+    }
+
+    /**
+     * Sets the position of the first item on the current page.
+     *
+     * @param firstCursor The position of the first item to be set.
+     */
+    public void setFirstCursor(final Cursor firstCursor) {
+        this.firstCursor = firstCursor;
+    }
+
+    /**
+     * Returns the position of the last item on the current page.
+     *
+     * @return The position of the last item, or {@code null} if unknown.
+     */
+    public Cursor getLastCursor() {
+        return lastCursor;
+    }
+
+    /**
+     * Sets the position of the last item on the current page.
+     *
+     * @param lastCursor The position of the last item to be set.
+     */
+    public void setLastCursor(final Cursor lastCursor) {
+        this.lastCursor = lastCursor;
+    }
+
     /**
      * Indicates whether some {@code other} selection is semantically equal to this selection.
      *
@@ -218,7 +427,10 @@ public class Selection implements Serializable {
                 && currentPage == sel.currentPage
                 && pageSize == sel.pageSize
                 && ascending == sel.ascending
-                && Objects.equals(sortedBy, sel.sortedBy);
+                && Objects.equals(sortedBy, sel.sortedBy)
+                && seek == sel.seek
+                && Objects.equals(firstCursor, sel.firstCursor)
+                && Objects.equals(lastCursor, sel.lastCursor);
     }
 
     /**
@@ -229,7 +441,7 @@ public class Selection implements Serializable {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(totalSize, currentPage, pageSize, sortedBy, ascending);
+        return Objects.hash(totalSize, currentPage, pageSize, sortedBy, ascending, seek, firstCursor, lastCursor);
     }
 
     /**
@@ -245,6 +457,9 @@ public class Selection implements Serializable {
                 + ", pageSize=" + pageSize
                 + ", sortedBy='" + sortedBy + '\''
                 + ", ascending=" + ascending
+                + ", seek=" + seek
+                + ", firstCursor=" + firstCursor
+                + ", lastCursor=" + lastCursor
                 + '}';
     }
 
@@ -86,6 +86,11 @@ public class User implements Serializable {
      */
     private byte[] avatarThumbnail;
 
+    /**
+     * Whether this user has an avatar, even if the avatar images themselves have not been loaded.
+     */
+    private boolean existsAvatar;
+
     /**
      * This user's current biography in Markdown.
      */
@@ -169,6 +174,7 @@ public class User implements Serializable {
         this.lastName = lastName;
         this.avatar = avatar;
         this.avatarThumbnail = avatarThumbnail;
+        this.existsAvatar = avatarThumbnail != null && avatarThumbnail.length > 0;
         this.biography = biography;
         this.preferredLanguage = preferredLanguage;
         this.profileVisibility = profileVisibility;
@@ -184,9 +190,11 @@ public class User implements Serializable {
      */
     public User(final User user) {
         this(user.id, user.username, user.passwordHash, user.passwordSalt, user.hashingAlgorithm,
-                user.emailAddress, user.firstName, user.lastName, user.avatar, user.avatarThumbnail.clone(),
+                user.emailAddress, user.firstName, user.lastName, user.avatar,
+                user.avatarThumbnail == null ? null : user.avatarThumbnail.clone(),
                 user.biography, user.preferredLanguage, user.profileVisibility, user.registrationDate,
                 user.forcedVotingWeight, user.administrator);
+        existsAvatar = user.existsAvatar;
         votingWeight = user.votingWeight;
         numPosts = user.numPosts;
     }
@@ -363,21 +371,31 @@ public class User implements Serializable {
     }
 
     /**
-     * Sets the avatar thumbnail of this user.
+     * Sets the avatar thumbnail of this user. A non-empty thumbnail marks this user as having an avatar.
      *
      * @param avatarThumbnail The user's avatar thumbnail to be set.
      */
     public void setAvatarThumbnail(final byte[] avatarThumbnail) {
         this.avatarThumbnail = avatarThumbnail;
+        this.existsAvatar = avatarThumbnail != null && avatarThumbnail.length > 0;
     }
 
     /**
-     * Returns whether the avatar thumbnail is non-empty.
+     * Returns whether this user has an avatar. This is also known for users loaded without their avatar images.
      *
-     * @return Whether the avatar thumbnail is non-empty.
+     * @return Whether this user has an avatar.
      */
     public boolean isExistsAvatar() {
-        return avatarThumbnail != null && avatarThumbnail.length > 0;
+        return existsAvatar;
+    }
+
+    /**
+     * Sets whether this user has an avatar without loading the avatar images.
+     *
+     * @param existsAvatar Whether this user has an avatar.
+     */
+    public void setExistsAvatar(final boolean existsAvatar) {
+        this.existsAvatar = existsAvatar;
     }
 
     /**
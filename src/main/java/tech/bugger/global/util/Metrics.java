@@ -0,0 +1,277 @@
+package tech.bugger.global.util;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Group of counters, gauges and latency histograms of a single component.
+ * <p>
+ * Metrics are registered once by their owning component and updated concurrently without locking. Their current values
+ * can be rendered in the Prometheus text exposition format or as a flat JSON object.
+ */
+public final class Metrics {
+
+    /**
+     * Upper bounds in seconds of the buckets of every {@link Histogram}, ranging from one millisecond to half a minute.
+     */
+    private static final double[] BUCKET_BOUNDS = {
+            0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30
+    };
+
+    /**
+     * The registered metrics in order of registration.
+     */
+    private final List<Metric> metrics;
+
+    /**
+     * Constructs an empty group of metrics.
+     */
+    public Metrics() {
+        this.metrics = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Registers a monotonically increasing counter.
+     *
+     * @param name The name of the counter without prefix, conventionally ending in {@code _total}.
+     * @param help A short description of what is counted.
+     * @return The counter to increment.
+     */
+    public LongAdder counter(final String name, final String help) {
+        LongAdder counter = new LongAdder();
+        metrics.add(new Metric(name, help, "counter", counter::sum, null));
+        return counter;
+    }
+
+    /**
+     * Registers a gauge whose value is sampled whenever the metrics are rendered.
+     *
+     * @param name  The name of the gauge without prefix.
+     * @param help  A short description of what is measured.
+     * @param value The supplier of the current value.
+     */
+    public void gauge(final String name, final String help, final DoubleSupplier value) {
+        metrics.add(new Metric(name, help, "gauge", value, null));
+    }
+
+    /**
+     * Registers a histogram of durations.
+     *
+     * @param name The name of the histogram without prefix, conventionally ending in {@code _seconds}.
+     * @param help A short description of what is measured.
+     * @return The histogram to record durations into.
+     */
+    public Histogram histogram(final String name, final String help) {
+        Histogram histogram = new Histogram();
+        metrics.add(new Metric(name, help, "histogram", null, histogram));
+        return histogram;
+    }
+
+    /**
+     * Writes the current values of all metrics in the Prometheus text exposition format.
+     *
+     * @param prefix The prefix to prepend to the name of every metric, e.g. {@code bugger_db_pool_}.
+     * @param out    The destination to write to.
+     * @throws IOException if writing to {@code out} fails.
+     */
+    public void writePrometheus(final String prefix, final Appendable out) throws IOException {
+        for (Metric metric : metrics) {
+            String name = prefix + metric.name;
+            out.append("# HELP ").append(name).append(' ').append(metric.help).append('\n');
+            out.append("# TYPE ").append(name).append(' ').append(metric.type).append('\n');
+            if (metric.histogram == null) {
+                out.append(name).append(' ').append(format(metric.value.getAsDouble())).append('\n');
+                continue;
+            }
+            long[] counts = metric.histogram.getCumulativeCounts();
+            for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+                out.append(name).append("_bucket{le=\"").append(format(BUCKET_BOUNDS[i])).append("\"} ")
+                        .append(Long.toString(counts[i])).append('\n');
+            }
+            out.append(name).append("_bucket{le=\"+Inf\"} ").append(Long.toString(counts[BUCKET_BOUNDS.length]))
+                    .append('\n');
+            out.append(name).append("_sum ").append(format(metric.histogram.getSumSeconds())).append('\n');
+            out.append(name).append("_count ").append(Long.toString(counts[BUCKET_BOUNDS.length])).append('\n');
+        }
+    }
+
+    /**
+     * Writes the current values of all metrics as the members of a JSON object, without the enclosing braces.
+     * Histograms are written as nested objects holding their count, sum and cumulative bucket counts. As JSON has no
+     * representation of them, values that are not a number or infinite are written as {@code null}.
+     *
+     * @param prefix The prefix to prepend to the name of every metric, e.g. {@code bugger_db_pool_}.
+     * @param out    The destination to write to.
+     * @throws IOException if writing to {@code out} fails.
+     */
+    public void writeJsonMembers(final String prefix, final Appendable out) throws IOException {
+        String separator = "";
+        for (Metric metric : metrics) {
+            out.append(separator).append('"').append(prefix).append(metric.name).append("\":");
+            separator = ",";
+            if (metric.histogram == null) {
+                double value = metric.value.getAsDouble();
+                out.append(Double.isFinite(value) ? format(value) : "null");
+                continue;
+            }
+            long[] counts = metric.histogram.getCumulativeCounts();
+            out.append("{\"count\":").append(Long.toString(counts[BUCKET_BOUNDS.length]))
+                    .append(",\"sum\":").append(format(metric.histogram.getSumSeconds()))
+                    .append(",\"buckets\":{");
+            for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+                out.append('"').append(format(BUCKET_BOUNDS[i])).append("\":").append(Long.toString(counts[i]))
+                        .append(',');
+            }
+            out.append("\"+Inf\":").append(Long.toString(counts[BUCKET_BOUNDS.length])).append("}}");
+        }
+    }
+
+    /**
+     * Formats a sample value, omitting the fractional part of integral values. Infinite values are formatted as
+     * {@code +Inf} and {@code -Inf} as in the Prometheus text exposition format.
+     *
+     * @param value The value to format.
+     * @return The textual representation of {@code value}.
+     */
+    private static String format(final double value) {
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        } else if (value == Math.rint(value)) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    /**
+     * A single registered metric. Exactly one of {@code value} and {@code histogram} is set.
+     */
+    private static final class Metric {
+
+        /**
+         * The name without prefix.
+         */
+        private final String name;
+
+        /**
+         * The description of the metric.
+         */
+        private final String help;
+
+        /**
+         * The Prometheus metric type.
+         */
+        private final String type;
+
+        /**
+         * The supplier of the current value of a counter or gauge.
+         */
+        private final DoubleSupplier value;
+
+        /**
+         * The histogram backing a histogram metric.
+         */
+        private final Histogram histogram;
+
+        /**
+         * Constructs a new metric.
+         *
+         * @param name      The name without prefix.
+         * @param help      The description of the metric.
+         * @param type      The Prometheus metric type.
+         * @param value     The supplier of the current value, or {@code null} for histograms.
+         * @param histogram The backing histogram, or {@code null} for counters and gauges.
+         */
+        private Metric(final String name, final String help, final String type, final DoubleSupplier value,
+                       final Histogram histogram) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+            this.value = value;
+            this.histogram = histogram;
+        }
+
+    }
+
+    /**
+     * Lock-free histogram of durations with fixed bucket bounds.
+     */
+    public static final class Histogram {
+
+        /**
+         * The bucket bounds in nanoseconds.
+         */
+        private static final long[] BOUNDS_NANOS = new long[BUCKET_BOUNDS.length];
+
+        static {
+            for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+                BOUNDS_NANOS[i] = (long) (BUCKET_BOUNDS[i] * TimeUnit.SECONDS.toNanos(1));
+            }
+        }
+
+        /**
+         * The number of observations per bucket, with the last bucket holding observations exceeding all bounds.
+         */
+        private final LongAdder[] buckets;
+
+        /**
+         * The sum of all observations in nanoseconds.
+         */
+        private final LongAdder sumNanos;
+
+        /**
+         * Constructs an empty histogram.
+         */
+        private Histogram() {
+            buckets = new LongAdder[BUCKET_BOUNDS.length + 1];
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+            sumNanos = new LongAdder();
+        }
+
+        /**
+         * Records a single duration.
+         *
+         * @param nanos The observed duration in nanoseconds.
+         */
+        public void record(final long nanos) {
+            int i = 0;
+            while (i < BOUNDS_NANOS.length && nanos > BOUNDS_NANOS[i]) {
+                i++;
+            }
+            buckets[i].increment();
+            sumNanos.add(nanos);
+        }
+
+        /**
+         * Returns the cumulative number of observations per bucket. The last element is the total number of
+         * observations.
+         *
+         * @return The cumulative bucket counts.
+         */
+        public long[] getCumulativeCounts() {
+            long[] counts = new long[buckets.length];
+            long total = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                total += buckets[i].sum();
+                counts[i] = total;
+            }
+            return counts;
+        }
+
+        /**
+         * Returns the sum of all observations.
+         *
+         * @return The sum of all observed durations in seconds.
+         */
+        public double getSumSeconds() {
+            return (double) sumNanos.sum() / TimeUnit.SECONDS.toNanos(1);
+        }
+
+    }
+
+}
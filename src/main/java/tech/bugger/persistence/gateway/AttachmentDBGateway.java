@@ -5,7 +5,10 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import tech.bugger.global.transfer.Attachment;
 import tech.bugger.global.transfer.Post;
 import tech.bugger.global.util.Log;
@@ -195,4 +198,30 @@ public class AttachmentDBGateway implements AttachmentGateway {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<Integer, List<Attachment>> getAttachmentsForPosts(final Collection<Integer> postIDs) {
+        Map<Integer, List<Attachment>> attachments = new HashMap<>();
+        if (postIDs.isEmpty()) {
+            return attachments;
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT id, name, mimetype, post FROM attachment WHERE post = ANY(?) ORDER BY id;"
+        )) {
+            ResultSet rs = new StatementParametrizer(stmt)
+                    .object(conn.createArrayOf("integer", postIDs.toArray()))
+                    .toStatement().executeQuery();
+            while (rs.next()) {
+                Attachment attachment = getAttachmentFromResultSet(rs);
+                attachments.computeIfAbsent(attachment.getPost(), post -> new ArrayList<>()).add(attachment);
+            }
+            return attachments;
+        } catch (SQLException e) {
+            throw new StoreException("Error while retrieving attachments.", e);
+        }
+    }
+
 }
@@ -1,6 +1,8 @@
 package tech.bugger.persistence.gateway;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import tech.bugger.global.transfer.Attachment;
 import tech.bugger.global.transfer.Post;
 import tech.bugger.persistence.exception.NotFoundException;
@@ -37,6 +39,14 @@ public interface AttachmentGateway {
      */
     List<Attachment> getAttachmentsForPost(Post post) throws NotFoundException;
 
+    /**
+     * Retrieves the attachments of several posts at once, leaving their contents empty.
+     *
+     * @param postIDs The IDs of the posts whose attachments to look for.
+     * @return The lists of attachments, mapped by the ID of their post. Posts without attachments are not contained.
+     */
+    Map<Integer, List<Attachment>> getAttachmentsForPosts(Collection<Integer> postIDs);
+
     /**
      * Inserts an attachment into the attachment storage.
      * <p>
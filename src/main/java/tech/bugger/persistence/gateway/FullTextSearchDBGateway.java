@@ -0,0 +1,242 @@
+package tech.bugger.persistence.gateway;
+
+import com.ocpsoft.pretty.faces.util.StringUtils;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import tech.bugger.global.transfer.Report;
+import tech.bugger.global.transfer.ResultPage;
+import tech.bugger.global.transfer.Selection;
+import tech.bugger.global.util.Log;
+import tech.bugger.global.util.Pagitable;
+import tech.bugger.persistence.exception.StoreException;
+import tech.bugger.persistence.util.Keyset;
+import tech.bugger.persistence.util.StatementParametrizer;
+
+/**
+ * Search gateway that searches reports using the full-text search of the database.
+ * <p>
+ * Report titles and post contents are matched against their indexed search vectors instead of being scanned for
+ * substrings. Every search term matches words it is a prefix of, and all terms have to match within the title of a
+ * report or within one of its posts. Matching reports are ranked by the sum of the ranks of their title and posts,
+ * where title matches weigh most. All other searches behave like in {@link SearchDBGateway}.
+ */
+public class FullTextSearchDBGateway extends SearchDBGateway {
+
+    /**
+     * The {@link Log} instance associated with this class for logging purposes.
+     */
+    private static final Log log = Log.forClass(FullTextSearchDBGateway.class);
+
+    /**
+     * The sort key ordering reports by how well they match the search query.
+     */
+    public static final String SEARCH_RANK = "rank";
+
+    /**
+     * Pattern of the words a search query is made up of.
+     */
+    private static final Pattern TERM_PATTERN = Pattern.compile("[\\p{L}\\p{N}]+");
+
+    /**
+     * Common table expressions determining the search rank of every report matching the query. The parameters are the
+     * search query and whether to search in posts.
+     */
+    private static final String MATCHES = "WITH q AS (SELECT to_tsquery('simple', ?) AS query), "
+            + "matches AS (SELECT r.id AS report, ts_rank(r.title_vector, q.query) AS rank "
+            + "FROM report AS r, q WHERE r.title_vector @@ q.query "
+            + "UNION ALL SELECT p.report, ts_rank(p.content_vector, q.query) "
+            + "FROM post AS p, q WHERE ? AND p.content_vector @@ q.query), "
+            + "ranks AS (SELECT report, SUM(rank) AS search_rank FROM matches GROUP BY report) ";
+
+    /**
+     * The database connection used by this gateway.
+     */
+    private final Connection conn;
+
+    /**
+     * Constructs a new full-text search gateway with the given database connection.
+     *
+     * @param conn The database connection to use for the gateway.
+     */
+    public FullTextSearchDBGateway(final Connection conn) {
+        super(conn);
+        this.conn = conn;
+    }
+
+    /**
+     * Converts a search query into a database text search query matching every word of which all query terms are a
+     * prefix.
+     *
+     * @param query The search query to convert.
+     * @return The text search query, or {@code null} if {@code query} does not contain any terms.
+     */
+    static String toTextSearchQuery(final String query) {
+        StringJoiner tsquery = new StringJoiner(" & ");
+        Matcher matcher = TERM_PATTERN.matcher(query);
+        while (matcher.find()) {
+            tsquery.add(matcher.group() + ":*");
+        }
+        return tsquery.length() == 0 ? null : tsquery.toString();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ResultPage<Report> getReportResultPage(final String query, final Selection selection,
+                                                  final OffsetDateTime latestOpeningDateTime,
+                                                  final OffsetDateTime earliestClosingDateTime,
+                                                  final boolean showOpenReports, final boolean showClosedReports,
+                                                  final boolean showDuplicates, final boolean fulltext,
+                                                  final String topic,
+                                                  final Map<Report.Type, Boolean> reportTypeFilter,
+                                                  final Map<Report.Severity, Boolean> severityFilter) {
+        String tsquery = query == null ? null : toTextSearchQuery(query);
+        if (tsquery == null || selection == null || severityFilter == null || reportTypeFilter == null
+                || isEmptyFilter(showOpenReports, showClosedReports, reportTypeFilter, severityFilter)) {
+            return super.getReportResultPage(query, selection, latestOpeningDateTime, earliestClosingDateTime,
+                    showOpenReports, showClosedReports, showDuplicates, fulltext, topic, reportTypeFilter,
+                    severityFilter);
+        } else if (StringUtils.isBlank(selection.getSortedBy())) {
+            log.error("Error when trying to get reports sorted by nothing.");
+            throw new IllegalArgumentException("The selection needs to have a column to sort by.");
+        }
+
+        String filter = getFilter("r.", showOpenReports, showClosedReports, showDuplicates,
+                reportTypeFilter, severityFilter);
+        String orderBy = selection.getSortedBy();
+        if (orderBy.equals("relevance")) {
+            orderBy = "COALESCE(forced_relevance, relevance)";
+        } else if (orderBy.equals(SEARCH_RANK)) {
+            orderBy = "search_rank";
+        }
+
+        List<Report> reportResults = new ArrayList<>(Math.max(0, selection.getTotalSize()));
+        int totalSize = 0;
+        Keyset keyset = new Keyset(selection, orderBy, "id");
+        try (PreparedStatement stmt = conn.prepareStatement(keyset.paginate(MATCHES
+                + "SELECT r.*, t.title AS t_title, a.last_activity, a.relevance, m.search_rank, "
+                + "COUNT(*) OVER () AS total_size "
+                + "FROM ranks AS m JOIN report AS r ON r.id = m.report "
+                + "LEFT OUTER JOIN topic AS t ON r.topic = t.id "
+                + "LEFT OUTER JOIN report_stats AS a ON a.report = r.id "
+                + "WHERE r.created_at <= COALESCE(?, r.created_at) "
+                + "AND (r.closed_at >= COALESCE(?, r.closed_at) OR r.closed_at IS NULL) " + filter + ' '
+                + "AND t.title = COALESCE(?, t.title)"))) {
+            ResultSet rs = keyset.bind(new StatementParametrizer(stmt)
+                    .string(tsquery)
+                    .bool(fulltext)
+                    .object(latestOpeningDateTime)
+                    .object(earliestClosingDateTime)
+                    .string(topic))
+                    .toStatement().executeQuery();
+            while (rs.next()) {
+                keyset.track(rs);
+                totalSize = rs.getInt("total_size");
+                reportResults.add(getSearchedReportFromResultSet(rs));
+            }
+            keyset.finish(reportResults);
+        } catch (SQLException e) {
+            log.error("Error while searching reports for the query " + query, e);
+            throw new StoreException("Error while searching reports for the query " + query, e);
+        }
+        if (reportResults.isEmpty() && Pagitable.getItemOffset(selection) > 0) {
+            totalSize = getNumberOfReportResults(query, latestOpeningDateTime, earliestClosingDateTime,
+                    showOpenReports, showClosedReports, showDuplicates, fulltext, topic, reportTypeFilter,
+                    severityFilter);
+        }
+        return new ResultPage<>(reportResults, totalSize);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getNumberOfReportResults(final String query, final OffsetDateTime latestOpeningDateTime,
+                                        final OffsetDateTime earliestClosingDateTime, final boolean showOpenReports,
+                                        final boolean showClosedReports, final boolean showDuplicates,
+                                        final boolean fulltext, final String topic,
+                                        final Map<Report.Type, Boolean> reportTypeFilter,
+                                        final Map<Report.Severity, Boolean> severityFilter) {
+        String tsquery = query == null ? null : toTextSearchQuery(query);
+        if (tsquery == null || severityFilter == null || reportTypeFilter == null
+                || isEmptyFilter(showOpenReports, showClosedReports, reportTypeFilter, severityFilter)) {
+            return super.getNumberOfReportResults(query, latestOpeningDateTime, earliestClosingDateTime,
+                    showOpenReports, showClosedReports, showDuplicates, fulltext, topic, reportTypeFilter,
+                    severityFilter);
+        }
+
+        String filter = getFilter("r.", showOpenReports, showClosedReports, showDuplicates,
+                reportTypeFilter, severityFilter);
+        int reports = 0;
+        try (PreparedStatement stmt = conn.prepareStatement(MATCHES
+                + "SELECT COUNT(*) AS num_reports "
+                + "FROM ranks AS m JOIN report AS r ON r.id = m.report "
+                + "JOIN topic AS t ON r.topic = t.id "
+                + "WHERE r.created_at <= COALESCE(?, r.created_at) "
+                + "AND (r.closed_at >= COALESCE(?, r.closed_at) OR r.closed_at IS NULL) " + filter + ' '
+                + "AND t.title = COALESCE(?, t.title);")) {
+            ResultSet rs = new StatementParametrizer(stmt)
+                    .string(tsquery)
+                    .bool(fulltext)
+                    .object(latestOpeningDateTime)
+                    .object(earliestClosingDateTime)
+                    .string(topic)
+                    .toStatement().executeQuery();
+            if (rs.next()) {
+                reports = rs.getInt("num_reports");
+            }
+        } catch (SQLException e) {
+            log.error("Error while counting the reports found for the query " + query, e);
+            throw new StoreException("Error while counting the reports found for the query " + query, e);
+        }
+        return reports;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int exportReportResults(final String query, final OffsetDateTime latestOpeningDateTime,
+                                   final OffsetDateTime earliestClosingDateTime, final boolean showOpenReports,
+                                   final boolean showClosedReports, final boolean showDuplicates,
+                                   final boolean fulltext, final String topic,
+                                   final Map<Report.Type, Boolean> reportTypeFilter,
+                                   final Map<Report.Severity, Boolean> severityFilter,
+                                   final Consumer<Report> consumer) {
+        String tsquery = query == null ? null : toTextSearchQuery(query);
+        if (tsquery == null || severityFilter == null || reportTypeFilter == null || consumer == null
+                || isEmptyFilter(showOpenReports, showClosedReports, reportTypeFilter, severityFilter)) {
+            return super.exportReportResults(query, latestOpeningDateTime, earliestClosingDateTime,
+                    showOpenReports, showClosedReports, showDuplicates, fulltext, topic, reportTypeFilter,
+                    severityFilter, consumer);
+        }
+
+        String filter = getFilter("r.", showOpenReports, showClosedReports, showDuplicates,
+                reportTypeFilter, severityFilter);
+        try (PreparedStatement stmt = conn.prepareStatement(MATCHES + "SELECT r.*, " + REPORT_COLUMNS + ' '
+                + RANKED_REPORT_SEARCH + filter + TOPIC_CONDITION + " ORDER BY r.id")) {
+            new StatementParametrizer(stmt)
+                    .string(tsquery)
+                    .bool(fulltext)
+                    .object(latestOpeningDateTime)
+                    .object(earliestClosingDateTime)
+                    .string(topic);
+            return exportReports(stmt, consumer);
+        } catch (SQLException e) {
+            log.error("Error while exporting the reports found for the query " + query, e);
+            throw new StoreException("Error while exporting the reports found for the query " + query, e);
+        }
+    }
+
+}
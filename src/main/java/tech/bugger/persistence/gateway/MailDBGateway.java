@@ -0,0 +1,267 @@
+package tech.bugger.persistence.gateway;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import tech.bugger.global.util.Log;
+import tech.bugger.persistence.exception.NotFoundException;
+import tech.bugger.persistence.exception.StoreException;
+import tech.bugger.persistence.util.Mail;
+import tech.bugger.persistence.util.QueuedMail;
+import tech.bugger.persistence.util.StatementParametrizer;
+
+/**
+ * Mail gateway that gives access to the queue of outgoing e-mails stored in a database.
+ */
+public class MailDBGateway implements MailGateway {
+
+    /**
+     * The {@link Log} instance associated with this class for logging purposes.
+     */
+    private static final Log log = Log.forClass(MailDBGateway.class);
+
+    /**
+     * Database connection used by this gateway.
+     */
+    private final Connection conn;
+
+    /**
+     * Constructs a new mail gateway with the given database connection.
+     *
+     * @param conn The database connection to use for the gateway.
+     */
+    public MailDBGateway(final Connection conn) {
+        this.conn = conn;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void create(final QueuedMail mail) {
+        if (mail == null) {
+            log.error("Cannot queue mail null.");
+            throw new IllegalArgumentException("Mail cannot be null.");
+        }
+
+        String sql = "INSERT INTO mail (recipients, cc, bcc, reply_to, subject, content, priority, notification)"
+                + " VALUES (?, ?, ?, ?, ?, ?, ?, ?) RETURNING id;";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            ResultSet rs = new StatementParametrizer(stmt)
+                    .object(toArray(mail.getMail().getTo()))
+                    .object(toArray(mail.getMail().getCc()))
+                    .object(toArray(mail.getMail().getBcc()))
+                    .object(toArray(mail.getMail().getReplyto()))
+                    .string(mail.getMail().getSubject())
+                    .string(mail.getMail().getContent())
+                    .integer(mail.getPriority())
+                    .object(mail.getNotificationID(), Types.INTEGER)
+                    .toStatement().executeQuery();
+            if (rs.next()) {
+                mail.setId(rs.getInt("id"));
+            } else {
+                log.error("Couldn't read ID of queued mail " + mail + ".");
+                throw new StoreException("Couldn't read ID of queued mail " + mail + ".");
+            }
+        } catch (SQLException e) {
+            log.error("Error when queueing mail " + mail + ".", e);
+            throw new StoreException("Error when queueing mail " + mail + ".", e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The longest due e-mails are selected per priority level, such that every selection can be read from the index on
+     * priority and due date. The selections are then merged by their deferred due dates.
+     */
+    @Override
+    public List<QueuedMail> claim(final int limit, final int[] quotas, final Duration lease, final Duration aging) {
+        List<Candidate> candidates = new ArrayList<>();
+        String sql = "SELECT id, due_at FROM mail WHERE status = 'PENDING' AND priority = ? AND due_at <= NOW()"
+                + " ORDER BY due_at, id LIMIT ? FOR UPDATE SKIP LOCKED;";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int priority = 0; priority < quotas.length; priority++) {
+                if (quotas[priority] <= 0) {
+                    continue;
+                }
+                Duration deferral = aging.multipliedBy(priority);
+                ResultSet rs = new StatementParametrizer(stmt)
+                        .integer(priority)
+                        .integer(Math.min(limit, quotas[priority]))
+                        .toStatement().executeQuery();
+                while (rs.next()) {
+                    candidates.add(new Candidate(rs.getInt("id"),
+                            rs.getObject("due_at", OffsetDateTime.class).toInstant().plus(deferral)));
+                }
+            }
+        } catch (SQLException e) {
+            log.error("Error when selecting queued mails to claim.", e);
+            throw new StoreException("Error when selecting queued mails to claim.", e);
+        }
+        if (candidates.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        candidates.sort(Comparator.comparing((Candidate candidate) -> candidate.deferredDueAt)
+                .thenComparingInt(candidate -> candidate.id));
+        List<Integer> ids = new ArrayList<>(Math.min(limit, candidates.size()));
+        for (Candidate candidate : candidates.subList(0, Math.min(limit, candidates.size()))) {
+            ids.add(candidate.id);
+        }
+        sql = "UPDATE mail SET attempts = attempts + 1, due_at = NOW() + ? * INTERVAL '1 millisecond'"
+                + " WHERE id = ANY(?) RETURNING *;";
+        List<QueuedMail> mails = new ArrayList<>(ids.size());
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            ResultSet rs = new StatementParametrizer(stmt)
+                    .object(lease.toMillis())
+                    .object(conn.createArrayOf("integer", ids.toArray()))
+                    .toStatement().executeQuery();
+            while (rs.next()) {
+                mails.add(getQueuedMailFromResultSet(rs));
+            }
+        } catch (SQLException e) {
+            log.error("Error when claiming queued mails.", e);
+            throw new StoreException("Error when claiming queued mails.", e);
+        }
+        mails.sort(Comparator.comparingInt(mail -> ids.indexOf(mail.getId())));
+        return mails;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void markSent(final QueuedMail mail) throws NotFoundException {
+        validate(mail);
+        String sql = "WITH sent AS (DELETE FROM mail WHERE id = ? RETURNING notification),"
+                + " marked AS (UPDATE notification SET sent = true WHERE id IN (SELECT notification FROM sent))"
+                + " SELECT COUNT(*) AS count FROM sent;";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            ResultSet rs = new StatementParametrizer(stmt).integer(mail.getId()).toStatement().executeQuery();
+            if (!rs.next() || rs.getInt("count") == 0) {
+                log.warning("Sent mail " + mail + " not found in queue.");
+                throw new NotFoundException("Sent mail " + mail + " not found in queue.");
+            }
+        } catch (SQLException e) {
+            log.error("Error when removing sent mail " + mail + ".", e);
+            throw new StoreException("Error when removing sent mail " + mail + ".", e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void reschedule(final QueuedMail mail, final Duration delay) throws NotFoundException {
+        validate(mail);
+        String sql = "UPDATE mail SET due_at = NOW() + ? * INTERVAL '1 millisecond' WHERE id = ?;";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int affectedRows = new StatementParametrizer(stmt)
+                    .object(delay.toMillis())
+                    .integer(mail.getId())
+                    .toStatement().executeUpdate();
+            if (affectedRows == 0) {
+                log.warning("Mail to retry " + mail + " not found in queue.");
+                throw new NotFoundException("Mail to retry " + mail + " not found in queue.");
+            }
+        } catch (SQLException e) {
+            log.error("Error when rescheduling mail " + mail + ".", e);
+            throw new StoreException("Error when rescheduling mail " + mail + ".", e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void markDead(final QueuedMail mail) throws NotFoundException {
+        validate(mail);
+        try (PreparedStatement stmt = conn.prepareStatement("UPDATE mail SET status = 'DEAD' WHERE id = ?;")) {
+            int affectedRows = new StatementParametrizer(stmt).integer(mail.getId()).toStatement().executeUpdate();
+            if (affectedRows == 0) {
+                log.warning("Mail to give up on " + mail + " not found in queue.");
+                throw new NotFoundException("Mail to give up on " + mail + " not found in queue.");
+            }
+        } catch (SQLException e) {
+            log.error("Error when marking mail " + mail + " as dead letter.", e);
+            throw new StoreException("Error when marking mail " + mail + " as dead letter.", e);
+        }
+    }
+
+    private void validate(final QueuedMail mail) {
+        if (mail == null) {
+            log.error("Cannot handle queued mail null.");
+            throw new IllegalArgumentException("Mail cannot be null.");
+        } else if (mail.getId() == null) {
+            log.error("Cannot handle queued mail with ID null.");
+            throw new IllegalArgumentException("Mail ID cannot be null.");
+        }
+    }
+
+    private Array toArray(final Collection<String> values) throws SQLException {
+        return conn.createArrayOf("varchar", values.toArray());
+    }
+
+    private static QueuedMail getQueuedMailFromResultSet(final ResultSet rs) throws SQLException {
+        Mail.Builder builder = new Mail.Builder()
+                .subject(rs.getString("subject"))
+                .content(rs.getString("content"));
+        addAll(rs, "recipients", builder::to);
+        addAll(rs, "cc", builder::cc);
+        addAll(rs, "bcc", builder::bcc);
+        addAll(rs, "reply_to", builder::replyto);
+        QueuedMail mail = new QueuedMail(builder.envelop(), rs.getInt("priority"),
+                rs.getObject("notification", Integer.class));
+        mail.setId(rs.getInt("id"));
+        mail.setAttempts(rs.getInt("attempts"));
+        return mail;
+    }
+
+    private static void addAll(final ResultSet rs, final String column, final Function<String, Mail.Builder> adder)
+            throws SQLException {
+        for (String value : (String[]) rs.getArray(column).getArray()) {
+            adder.apply(value);
+        }
+    }
+
+    /**
+     * A due e-mail that may be claimed, together with its due date deferred according to its priority.
+     */
+    private static final class Candidate {
+
+        /**
+         * The ID of the e-mail.
+         */
+        private final int id;
+
+        /**
+         * The due date of the e-mail, deferred by the aging interval for every priority level below the highest one.
+         */
+        private final Instant deferredDueAt;
+
+        /**
+         * Constructs a new candidate.
+         *
+         * @param id            The ID of the e-mail.
+         * @param deferredDueAt The deferred due date of the e-mail.
+         */
+        private Candidate(final int id, final Instant deferredDueAt) {
+            this.id = id;
+            this.deferredDueAt = deferredDueAt;
+        }
+
+    }
+
+}
@@ -0,0 +1,61 @@
+package tech.bugger.persistence.gateway;
+
+import java.time.Duration;
+import java.util.List;
+import tech.bugger.persistence.exception.NotFoundException;
+import tech.bugger.persistence.util.QueuedMail;
+
+/**
+ * A mail gateway allows to query and modify a persistent queue of outgoing e-mails.
+ */
+public interface MailGateway {
+
+    /**
+     * Adds the given e-mail to the queue, due immediately, and sets its ID.
+     *
+     * @param mail The e-mail to queue.
+     */
+    void create(QueuedMail mail);
+
+    /**
+     * Claims up to {@code limit} due e-mails, most important and longest due first. An e-mail counts as due
+     * {@code aging} later for every priority level it lies below the highest one, so that less important e-mails are
+     * not held back forever by more important ones. Claimed e-mails count one more attempt and are not due again before
+     * {@code lease} has passed, such that they are retried if their sender never reports back, e.g. because the
+     * application stopped in between. E-mails claimed by concurrent transactions are skipped.
+     *
+     * @param limit  The maximum number of e-mails to claim.
+     * @param quotas The maximum number of e-mails to claim per priority level, indexed by priority from {@code 0}, the
+     *               highest one. Only e-mails with priorities from {@code 0} to {@code quotas.length - 1} are claimed.
+     * @param lease  The time after which claimed e-mails are due again.
+     * @param aging  The time an e-mail is deferred by per priority level.
+     * @return The claimed e-mails in the order they are due.
+     */
+    List<QueuedMail> claim(int limit, int[] quotas, Duration lease, Duration aging);
+
+    /**
+     * Removes a sent e-mail from the queue and marks the notification it announces as sent.
+     *
+     * @param mail The e-mail that has been sent.
+     * @throws NotFoundException The e-mail could not be found.
+     */
+    void markSent(QueuedMail mail) throws NotFoundException;
+
+    /**
+     * Makes an e-mail which could not be sent due again after the given delay.
+     *
+     * @param mail  The e-mail to retry.
+     * @param delay The time after which the e-mail is due again.
+     * @throws NotFoundException The e-mail could not be found.
+     */
+    void reschedule(QueuedMail mail, Duration delay) throws NotFoundException;
+
+    /**
+     * Keeps an e-mail which could not be sent in the queue as dead letter, which is not claimed anymore.
+     *
+     * @param mail The e-mail to give up on.
+     * @throws NotFoundException The e-mail could not be found.
+     */
+    void markDead(QueuedMail mail) throws NotFoundException;
+
+}
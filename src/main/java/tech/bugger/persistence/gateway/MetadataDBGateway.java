@@ -22,6 +22,11 @@ public class MetadataDBGateway implements MetadataGateway {
      */
     private static final Log log = Log.forClass(MetadataGateway.class);
 
+    /**
+     * Pattern separating the statements of a script at semicolons that are not part of a {@code $$}-quoted body.
+     */
+    private static final String STATEMENT_DELIMITER = ";(?=(?:[^$]*\\$\\$[^$]*\\$\\$)*[^$]*\\Z)";
+
     /**
      * Database connection used by this gateway.
      */
@@ -65,7 +70,7 @@ public class MetadataDBGateway implements MetadataGateway {
     @Override
     public void initializeSchema(final InputStream is) {
         Scanner scanner = new Scanner(is, StandardCharsets.UTF_8);
-        scanner.useDelimiter(";(?=(?:[^$]*\\$\\$[^$]*\\$\\$)*[^$]*\\Z)");
+        scanner.useDelimiter(STATEMENT_DELIMITER);
         try (Statement stmt = conn.createStatement()) {
             while (scanner.hasNext()) {
                 stmt.addBatch(scanner.next());
@@ -77,4 +82,29 @@ public class MetadataDBGateway implements MetadataGateway {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void applyScriptOutsideTransaction(final InputStream is) {
+        Scanner scanner = new Scanner(is, StandardCharsets.UTF_8);
+        scanner.useDelimiter(STATEMENT_DELIMITER);
+        try {
+            conn.setAutoCommit(true);
+            try (Statement stmt = conn.createStatement()) {
+                while (scanner.hasNext()) {
+                    String sql = scanner.next();
+                    if (!sql.isBlank()) {
+                        stmt.execute(sql);
+                    }
+                }
+            } finally {
+                conn.setAutoCommit(false);
+            }
+        } catch (SQLException e) {
+            log.error("Database schema migration failed. Cannot continue.", e);
+            throw new StoreException("Schema migration failed.", e);
+        }
+    }
+
 }
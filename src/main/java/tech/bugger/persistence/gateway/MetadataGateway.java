@@ -22,4 +22,14 @@ public interface MetadataGateway {
      */
     void initializeSchema(InputStream is);
 
+    /**
+     * Applies the statements of the given script one by one, each in its own implicit transaction. This is required for
+     * statements that must not run inside a transaction block, such as {@code CREATE INDEX CONCURRENTLY}, which builds
+     * an index without blocking writes to the indexed table. Pending changes of the current transaction are committed
+     * beforehand.
+     *
+     * @param is Stream of instructions to apply.
+     */
+    void applyScriptOutsideTransaction(InputStream is);
+
 }
@@ -6,6 +6,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Types;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -16,6 +17,7 @@ import tech.bugger.global.util.Log;
 import tech.bugger.global.util.Pagitable;
 import tech.bugger.persistence.exception.NotFoundException;
 import tech.bugger.persistence.exception.StoreException;
+import tech.bugger.persistence.util.Keyset;
 import tech.bugger.persistence.util.StatementParametrizer;
 
 /**
@@ -167,26 +169,25 @@ public class NotificationDBGateway implements NotificationGateway {
             throw new IllegalArgumentException("Sorted by cannot be blank");
         }
 
-        String sql = "SELECT n.*, u.username, r.title FROM notification AS n"
+        Keyset keyset = new Keyset(selection, selection.getSortedBy(), "id");
+        String sql = keyset.paginate("SELECT n.*, u.username, r.title FROM notification AS n"
                 + " LEFT OUTER JOIN \"user\" u ON u.id = n.causer"
                 + " LEFT OUTER JOIN report r ON r.id = n.report"
-                + " WHERE n.recipient = ?"
-                + " ORDER BY " + selection.getSortedBy() + (selection.isAscending() ? " ASC" : " DESC")
-                + " LIMIT ? OFFSET ?;";
+                + " WHERE n.recipient = ?");
         List<Notification> selectedNotifications = new ArrayList<>(Math.min(Pagitable.getItemLimit(selection),
                 Math.max(0, selection.getTotalSize())));
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            PreparedStatement statement = new StatementParametrizer(stmt)
-                    .integer(user.getId())
-                    .integer(Pagitable.getItemLimit(selection))
-                    .integer(Pagitable.getItemOffset(selection)).toStatement();
+            PreparedStatement statement = keyset.bind(new StatementParametrizer(stmt)
+                    .integer(user.getId())).toStatement();
             ResultSet rs = statement.executeQuery();
             while (rs.next()) {
+                keyset.track(rs);
                 Notification n = getNotificationFromResultSet(rs);
                 n.setActuatorUsername(rs.getString("username"));
                 n.setReportTitle(rs.getString("title"));
                 selectedNotifications.add(n);
             }
+            keyset.finish(selectedNotifications);
         } catch (SQLException e) {
             log.error("Error while selecting notifications for user " + user + " with selection " + selection
                     + ".", e);
@@ -328,6 +329,188 @@ public class NotificationDBGateway implements NotificationGateway {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Notification> createNotificationForSubscribers(final Notification notification) {
+        if (notification == null) {
+            log.error("Cannot create notification null for subscribers.");
+            throw new IllegalArgumentException("Notification cannot be null.");
+        } else if (notification.getReportID() == null || notification.getTopicID() == null) {
+            log.error("Cannot create notification " + notification + " without report or topic for subscribers.");
+            throw new IllegalArgumentException("Report and topic ID cannot be null.");
+        }
+
+        String sql = "WITH recipient AS ("
+                + " SELECT subscriber FROM user_subscription WHERE subscribee = ?"
+                + " UNION SELECT subscriber FROM report_subscription WHERE report = ?"
+                + " UNION SELECT subscriber FROM topic_subscription WHERE topic = ?"
+                + " EXCEPT SELECT outcast FROM topic_ban WHERE topic = ?"
+                + " EXCEPT SELECT ?::integer"
+                + "), created AS ("
+                + " INSERT INTO notification (sent, read, type, recipient, causer, topic, report, post)"
+                + " SELECT ?::boolean, ?::boolean, ?::notification_type, subscriber, ?::integer, ?::integer,"
+                + " ?::integer, ?::integer FROM recipient"
+                + " RETURNING id, recipient"
+                + ") SELECT c.id, c.recipient, u.email_address, u.preferred_language FROM created AS c"
+                + " JOIN \"user\" AS u ON u.id = c.recipient;";
+        List<Notification> notifications = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            ResultSet rs = new StatementParametrizer(stmt)
+                    .integer(notification.getActuatorID())
+                    .integer(notification.getReportID())
+                    .integer(notification.getTopicID())
+                    .integer(notification.getTopicID())
+                    .integer(notification.getActuatorID())
+                    .bool(notification.isSent())
+                    .bool(notification.isRead())
+                    .string(notification.getType().name())
+                    .integer(notification.getActuatorID())
+                    .integer(notification.getTopicID())
+                    .integer(notification.getReportID())
+                    .object(notification.getPostID(), Types.INTEGER)
+                    .toStatement().executeQuery();
+            while (rs.next()) {
+                Notification n = new Notification(notification);
+                n.setId(rs.getInt("id"));
+                n.setRecipientID(rs.getInt("recipient"));
+                n.setRecipientMail(rs.getString("email_address"));
+                n.setEmailLanguage(rs.getString("preferred_language"));
+                notifications.add(n);
+            }
+        } catch (SQLException e) {
+            log.error("Error when creating notification " + notification + " for subscribers.", e);
+            throw new StoreException("Error when creating notification " + notification + " for subscribers.", e);
+        }
+        return notifications;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void createNotificationEvent(final Notification notification) {
+        if (notification == null) {
+            log.error("Cannot create notification event for notification null.");
+            throw new IllegalArgumentException("Notification cannot be null.");
+        } else if (notification.getReportID() == null || notification.getTopicID() == null) {
+            log.error("Cannot create notification event for notification " + notification
+                    + " without report or topic.");
+            throw new IllegalArgumentException("Report and topic ID cannot be null.");
+        }
+
+        String sql = "INSERT INTO notification_event (type, causer, topic, report, post)"
+                + " VALUES (?::notification_type, ?, ?, ?, ?);";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            new StatementParametrizer(stmt)
+                    .string(notification.getType().name())
+                    .integer(notification.getActuatorID())
+                    .integer(notification.getTopicID())
+                    .integer(notification.getReportID())
+                    .object(notification.getPostID(), Types.INTEGER)
+                    .toStatement().executeUpdate();
+        } catch (SQLException e) {
+            log.error("Error when creating notification event for notification " + notification + ".", e);
+            throw new StoreException("Error when creating notification event for notification " + notification
+                    + ".", e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Notification> claimNotificationEvents(final int limit) {
+        String sql = "WITH claimed AS ("
+                + " DELETE FROM notification_event WHERE id IN ("
+                + " SELECT id FROM notification_event WHERE status = 'PENDING'"
+                + " ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED"
+                + ") RETURNING *"
+                + ") SELECT c.*, r.title FROM claimed AS c"
+                + " JOIN report AS r ON r.id = c.report"
+                + " ORDER BY c.id;";
+        List<Notification> notifications = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            ResultSet rs = new StatementParametrizer(stmt).integer(limit).toStatement().executeQuery();
+            while (rs.next()) {
+                notifications.add(getNotificationEventFromResultSet(rs));
+            }
+        } catch (SQLException e) {
+            log.error("Error when claiming notification events.", e);
+            throw new StoreException("Error when claiming notification events.", e);
+        }
+        return notifications;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Notification claimNotificationEvent(final int id) throws NotFoundException {
+        String sql = "WITH claimed AS ("
+                + " DELETE FROM notification_event WHERE id IN ("
+                + " SELECT id FROM notification_event WHERE id = ? AND status = 'PENDING' FOR UPDATE SKIP LOCKED"
+                + ") RETURNING *"
+                + ") SELECT c.*, r.title FROM claimed AS c"
+                + " JOIN report AS r ON r.id = c.report;";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            ResultSet rs = new StatementParametrizer(stmt).integer(id).toStatement().executeQuery();
+            if (rs.next()) {
+                return getNotificationEventFromResultSet(rs);
+            }
+        } catch (SQLException e) {
+            log.error("Error when claiming notification event with id " + id + ".", e);
+            throw new StoreException("Error when claiming notification event with id " + id + ".", e);
+        }
+        log.error("Could not claim notification event with id " + id + ".");
+        throw new NotFoundException("Could not claim notification event with id " + id + ".");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean recordFailedNotificationEvent(final int id, final int maxAttempts) throws NotFoundException {
+        String sql = "UPDATE notification_event SET attempts = attempts + 1,"
+                + " status = CASE WHEN attempts + 1 >= ? THEN 'DEAD' ELSE status END"
+                + " WHERE id = ? RETURNING status;";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            ResultSet rs = new StatementParametrizer(stmt)
+                    .integer(maxAttempts)
+                    .integer(id)
+                    .toStatement().executeQuery();
+            if (rs.next()) {
+                return rs.getString("status").equals("DEAD");
+            }
+        } catch (SQLException e) {
+            log.error("Error when recording a failed attempt for notification event with id " + id + ".", e);
+            throw new StoreException("Error when recording a failed attempt for notification event with id " + id
+                    + ".", e);
+        }
+        log.error("Could not find notification event with id " + id + ".");
+        throw new NotFoundException("Could not find notification event with id " + id + ".");
+    }
+
+    /**
+     * Parses the current row of a result set of claimed notification events into a notification.
+     *
+     * @param rs The result set to parse, containing the title of the report as {@code title}.
+     * @return The parsed notification carrying the ID of the event.
+     * @throws SQLException Some parsing error occurred.
+     */
+    private static Notification getNotificationEventFromResultSet(final ResultSet rs) throws SQLException {
+        Notification n = new Notification();
+        n.setId(rs.getInt("id"));
+        n.setType(Notification.Type.valueOf(rs.getString("type")));
+        n.setActuatorID(rs.getInt("causer"));
+        n.setTopicID(rs.getObject("topic", Integer.class));
+        n.setReportID(rs.getObject("report", Integer.class));
+        n.setPostID(rs.getObject("post", Integer.class));
+        n.setReportTitle(rs.getString("title"));
+        return n;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -336,7 +519,7 @@ public class NotificationDBGateway implements NotificationGateway {
         String sql = "SELECT n.*, u.email_address, u.preferred_language, r.title FROM notification n"
                 + " JOIN \"user\" u ON u.id = n.recipient"
                 + " JOIN report r ON n.report = r.id"
-                + " WHERE sent = false;";
+                + " WHERE sent = false AND NOT EXISTS (SELECT 1 FROM mail m WHERE m.notification = n.id);";
         List<Notification> notifications;
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             ResultSet rs = stmt.executeQuery();
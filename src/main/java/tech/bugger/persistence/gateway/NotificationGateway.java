@@ -33,6 +33,57 @@ public interface NotificationGateway {
      */
     void createNotificationBulk(List<Notification> notifications);
 
+    /**
+     * Inserts a copy of a notification for every user subscribed to its actuator, report or topic, except for the
+     * actuator and the users banned from the topic.
+     *
+     * @param notification The notification to copy, whose recipient is ignored.
+     * @return The inserted notifications, carrying their ID, recipient ID, recipient e-mail address and e-mail language
+     *         but no other recipient data.
+     */
+    List<Notification> createNotificationForSubscribers(Notification notification);
+
+    /**
+     * Records an event for a notification to be created for all subscribers later on.
+     *
+     * @param notification The notification to create for all subscribers, whose recipient is ignored.
+     * @see #claimNotificationEvents(int)
+     */
+    void createNotificationEvent(Notification notification);
+
+    /**
+     * Removes the oldest recorded notification events and returns them for being expanded. Events recorded by
+     * uncommitted transactions or claimed by concurrent transactions are skipped, such that concurrent transactions
+     * claim disjoint events. If the transaction claiming events is aborted, they can be claimed again. Dead events are
+     * never claimed.
+     *
+     * @param limit The maximum number of events to claim.
+     * @return The notifications recorded by the claimed events, carrying the IDs of the events and the titles of their
+     *         reports.
+     */
+    List<Notification> claimNotificationEvents(int limit);
+
+    /**
+     * Removes a single recorded notification event and returns it for being expanded, like {@link
+     * #claimNotificationEvents(int)} does for the oldest events.
+     *
+     * @param id The ID of the event to claim.
+     * @return The notification recorded by the event, carrying the ID of the event and the title of its report.
+     * @throws NotFoundException The event does not exist, is dead or has been claimed by a concurrent transaction.
+     */
+    Notification claimNotificationEvent(int id) throws NotFoundException;
+
+    /**
+     * Records a failed attempt to expand a notification event. Once the event has failed the given number of times,
+     * it is kept as dead letter and no longer claimed.
+     *
+     * @param id          The ID of the event.
+     * @param maxAttempts The number of failed attempts after which the event is dead.
+     * @return Whether the event is dead now.
+     * @throws NotFoundException The event could not be found.
+     */
+    boolean recordFailedNotificationEvent(int id, int maxAttempts) throws NotFoundException;
+
     /**
      * Retrieves a notification by its ID.
      *
@@ -75,7 +126,7 @@ public interface NotificationGateway {
     void deleteAllNotifications(User user);
 
     /**
-     * Returns all unsent notifications.
+     * Returns all unsent notifications whose e-mail has not been queued either.
      *
      * @return The unsent notifications
      */
@@ -8,6 +8,7 @@ import java.sql.Types;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import tech.bugger.global.transfer.Attachment;
 import tech.bugger.global.transfer.Authorship;
 import tech.bugger.global.transfer.Post;
@@ -15,9 +16,9 @@ import tech.bugger.global.transfer.Report;
 import tech.bugger.global.transfer.Selection;
 import tech.bugger.global.transfer.User;
 import tech.bugger.global.util.Log;
-import tech.bugger.global.util.Pagitable;
 import tech.bugger.persistence.exception.NotFoundException;
 import tech.bugger.persistence.exception.StoreException;
+import tech.bugger.persistence.util.Keyset;
 import tech.bugger.persistence.util.StatementParametrizer;
 
 /**
@@ -199,11 +200,13 @@ public class PostDBGateway implements PostGateway {
                     .integer(report.getId()).toStatement();
             ResultSet rs = statement.executeQuery();
             if (rs.next()) {
+                Authorship authorship = ReportDBGateway.getUnresolvedAuthorshipFromResultSet(rs);
+                ReportDBGateway.resolveAuthorships(List.of(authorship), userGateway);
                 Post post = new Post(
                         rs.getInt("id"),
                         rs.getString("content"),
                         report.getId(),
-                        ReportDBGateway.getAuthorshipFromResultSet(rs, userGateway),
+                        authorship,
                         null);
                 post.setAttachments(attachmentGateway.getAttachmentsForPost(post));
                 return post;
@@ -233,45 +236,23 @@ public class PostDBGateway implements PostGateway {
             throw new IllegalArgumentException("Selection cannot be null.");
         }
 
-        String sql = "SELECT p.id AS p_id, p.content AS p_content, p.created_at AS p_created_at,"
+        Keyset keyset = new Keyset(selection, "p_" + selection.getSortedBy(), "p_id");
+        String sql = keyset.paginate("SELECT p.id AS p_id, p.content AS p_content, p.created_at AS p_created_at,"
                 + " p.created_by AS p_created_by, p.last_modified_at AS p_last_modified_at,"
                 + " p.last_modified_by AS p_last_modified_by, p.report AS p_report,"
-                + " author.id AS author_id, author.username AS author_username,"
-                + " author.password_hash AS author_password_hash, author.password_salt AS author_password_salt,"
-                + " author.hashing_algorithm AS author_hashing_algorithm,"
-                + " author.email_address AS author_email_address, author.first_name AS author_first_name,"
-                + " author.last_name AS author_last_name, author.avatar AS author_avatar,"
-                + " author.avatar_thumbnail AS author_avatar_thumbnail, author.biography AS author_biography,"
-                + " author.preferred_language AS author_preferred_language,"
-                + " author.profile_visibility AS author_profile_visibility,"
-                + " author.registered_at AS author_registered_at,"
-                + " author.forced_voting_weight AS author_forced_voting_weight, author.is_admin AS author_is_admin,"
-                + " modifier.id AS modifier_id, modifier.username AS modifier_username,"
-                + " modifier.password_hash AS modifier_password_hash, modifier.password_salt AS modifier_password_salt,"
-                + " modifier.hashing_algorithm AS modifier_hashing_algorithm,"
-                + " modifier.email_address AS modifier_email_address, modifier.first_name AS modifier_first_name,"
-                + " modifier.last_name AS modifier_last_name, modifier.avatar AS modifier_avatar,"
-                + " modifier.avatar_thumbnail AS modifier_avatar_thumbnail, modifier.biography AS modifier_biography,"
-                + " modifier.preferred_language AS modifier_preferred_language,"
-                + " modifier.profile_visibility AS modifier_profile_visibility,"
-                + " modifier.registered_at AS modifier_registered_at,"
-                + " modifier.forced_voting_weight AS modifier_forced_voting_weight,"
-                + " modifier.is_admin AS modifier_is_admin"
+                + " " + UserDBGateway.userSummaryColumns("author", "author_") + ","
+                + " " + UserDBGateway.userSummaryColumns("modifier", "modifier_")
                 + " FROM post AS p"
                 + " LEFT JOIN \"user\" AS author ON p.created_by = author.id"
                 + " LEFT JOIN \"user\" AS modifier ON p.last_modified_by = modifier.id"
-                + " WHERE p.report = ?"
-                + " ORDER BY p." + selection.getSortedBy() + (selection.isAscending() ? " ASC" : " DESC")
-                + " LIMIT ?"
-                + " OFFSET ?;";
+                + " WHERE p.report = ?");
         List<Post> selectedPosts = new ArrayList<>(Math.max(0, selection.getTotalSize()));
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            PreparedStatement statement = new StatementParametrizer(stmt)
-                    .integer(report.getId())
-                    .integer(Pagitable.getItemLimit(selection))
-                    .integer(Pagitable.getItemOffset(selection)).toStatement();
+            PreparedStatement statement = keyset.bind(new StatementParametrizer(stmt)
+                    .integer(report.getId())).toStatement();
             ResultSet rs = statement.executeQuery();
             while (rs.next()) {
+                keyset.track(rs);
                 User author = null;
                 if (rs.getInt("p_created_by") != 0) {
                     author = UserDBGateway.getUserFromResultSet("author_", rs);
@@ -285,15 +266,23 @@ public class PostDBGateway implements PostGateway {
                 Authorship authorship = new Authorship(author, creationDate, modifier, modificationDate);
                 Post post = new Post(rs.getInt("p_id"), rs.getString("p_content"), report.getId(), authorship,
                         new ArrayList<>());
-                post.setAttachments(attachmentGateway.getAttachmentsForPost(post));
                 selectedPosts.add(post);
             }
+            keyset.finish(selectedPosts);
         } catch (SQLException e) {
             log.error("Error when selecting posts of report " + report + " with selection " + selection + ".", e);
             throw new StoreException("Error when selecting posts of report " + report + " with selection " + selection
                     + ".", e);
         }
 
+        List<Integer> postIDs = new ArrayList<>(selectedPosts.size());
+        for (Post post : selectedPosts) {
+            postIDs.add(post.getId());
+        }
+        Map<Integer, List<Attachment>> attachments = attachmentGateway.getAttachmentsForPosts(postIDs);
+        for (Post post : selectedPosts) {
+            post.setAttachments(attachments.getOrDefault(post.getId(), new ArrayList<>()));
+        }
         return selectedPosts;
     }
 
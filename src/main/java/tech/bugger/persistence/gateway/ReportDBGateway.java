@@ -8,8 +8,12 @@ import java.sql.SQLException;
 import java.sql.Types;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import tech.bugger.global.transfer.Authorship;
 import tech.bugger.global.transfer.Report;
 import tech.bugger.global.transfer.Selection;
@@ -21,6 +25,7 @@ import tech.bugger.persistence.exception.DuplicateException;
 import tech.bugger.persistence.exception.NotFoundException;
 import tech.bugger.persistence.exception.SelfReferenceException;
 import tech.bugger.persistence.exception.StoreException;
+import tech.bugger.persistence.util.Keyset;
 import tech.bugger.persistence.util.StatementParametrizer;
 
 /**
@@ -69,10 +74,9 @@ public class ReportDBGateway implements ReportGateway {
         return report;
     }
 
-    static Report getReportFromResultSet(final ResultSet rs, final UserGateway userGateway)
-            throws SQLException, NotFoundException {
+    private static Report getUnresolvedReportFromResultSet(final ResultSet rs) throws SQLException {
         Report report = getDefaultReportFromResultSet(rs);
-        report.setAuthorship(getAuthorshipFromResultSet(rs, userGateway));
+        report.setAuthorship(getUnresolvedAuthorshipFromResultSet(rs));
         return report;
     }
 
@@ -113,6 +117,71 @@ public class ReportDBGateway implements ReportGateway {
         return new Authorship(creator, createdAt, modifier, modifiedAt);
     }
 
+    /**
+     * Parses the given {@link ResultSet} and returns the corresponding {@link Authorship} whose creator and modifier
+     * only carry their IDs. The users have to be filled in by {@link #resolveAuthorships(Collection, UserGateway)}.
+     *
+     * @param rs The {@link ResultSet} to parse.
+     * @return The parsed {@link Authorship} referencing its users by ID only.
+     * @throws SQLException Some parsing error occurred.
+     */
+    static Authorship getUnresolvedAuthorshipFromResultSet(final ResultSet rs) throws SQLException {
+        User creator = userReference(rs.getObject("created_by", Integer.class));
+        OffsetDateTime createdAt = rs.getObject("created_at", OffsetDateTime.class);
+        User modifier = userReference(rs.getObject("last_modified_by", Integer.class));
+        OffsetDateTime modifiedAt = rs.getObject("last_modified_at", OffsetDateTime.class);
+        return new Authorship(creator, createdAt, modifier, modifiedAt);
+    }
+
+    private static User userReference(final Integer id) {
+        if (id == null) {
+            return null;
+        }
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+
+    /**
+     * Replaces the users referenced by ID in the given authorships with the complete users, fetching all of them with
+     * a single lookup. Users that do not exist anymore are replaced with {@code null}.
+     *
+     * @param authorships The authorships parsed by {@link #getUnresolvedAuthorshipFromResultSet(ResultSet)}.
+     * @param userGateway The {@link UserGateway} to use for fetching users.
+     */
+    static void resolveAuthorships(final Collection<Authorship> authorships, final UserGateway userGateway) {
+        Set<Integer> ids = new HashSet<>();
+        for (Authorship authorship : authorships) {
+            if (authorship.getCreator() != null) {
+                ids.add(authorship.getCreator().getId());
+            }
+            if (authorship.getModifier() != null) {
+                ids.add(authorship.getModifier().getId());
+            }
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, User> users = userGateway.getUsersByIDs(ids);
+        for (Authorship authorship : authorships) {
+            if (authorship.getCreator() != null) {
+                authorship.setCreator(users.get(authorship.getCreator().getId()));
+            }
+            if (authorship.getModifier() != null) {
+                authorship.setModifier(users.get(authorship.getModifier().getId()));
+            }
+        }
+    }
+
+    private void resolveAuthorships(final List<Report> reports) {
+        List<Authorship> authorships = new ArrayList<>(reports.size());
+        for (Report report : reports) {
+            authorships.add(report.getAuthorship());
+        }
+        resolveAuthorships(authorships, userGateway);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -127,7 +196,8 @@ public class ReportDBGateway implements ReportGateway {
         }
 
         int count = 0;
-        try (PreparedStatement stmt = conn.prepareStatement("SELECT COUNT(*) AS count FROM post WHERE report = ?;")) {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT num_posts AS count FROM report_stats"
+                + " WHERE report = ?;")) {
             PreparedStatement statement = new StatementParametrizer(stmt)
                     .integer(report.getId()).toStatement();
             ResultSet rs = statement.executeQuery();
@@ -148,7 +218,7 @@ public class ReportDBGateway implements ReportGateway {
     public Report find(final int id) throws NotFoundException {
         try (PreparedStatement stmt = conn.prepareStatement(
                 "SELECT r.*, v.*, t.title AS topic_title FROM report AS r"
-                        + " LEFT OUTER JOIN report_relevance AS v ON r.id = v.report"
+                        + " LEFT OUTER JOIN report_stats AS v ON r.id = v.report"
                         + " JOIN topic AS t ON r.topic = t.id"
                         + " WHERE r.id = ?;"
         )) {
@@ -209,24 +279,23 @@ public class ReportDBGateway implements ReportGateway {
         if (orderBy.equals("relevance")) {
             orderBy = "COALESCE(forced_relevance, relevance)";
         }
-        String sql = "SELECT * FROM report AS r"
-                + " LEFT OUTER JOIN report_relevance AS v ON r.id = v.report JOIN report_last_activity"
-                + " as a on a.report = r.id WHERE topic = ? " + filter
-                + " ORDER BY " + orderBy + (selection.isAscending() ? " ASC" : " DESC")
-                + " LIMIT ? OFFSET ?;";
+        Keyset keyset = new Keyset(selection, orderBy, "id");
+        String sql = keyset.paginate("SELECT * FROM report AS r"
+                + " JOIN report_stats AS s ON s.report = r.id WHERE topic = ? " + filter);
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            ResultSet rs = new StatementParametrizer(stmt)
-                    .integer(topic.getId())
-                    .integer(Pagitable.getItemLimit(selection))
-                    .integer(Pagitable.getItemOffset(selection))
+            ResultSet rs = keyset.bind(new StatementParametrizer(stmt)
+                    .integer(topic.getId()))
                     .toStatement().executeQuery();
 
             while (rs.next()) {
-                Report report = extractRelevanceFromResultSet(getReportFromResultSet(rs, userGateway), rs);
+                keyset.track(rs);
+                Report report = extractRelevanceFromResultSet(getUnresolvedReportFromResultSet(rs), rs);
                 selectedReports.add(extractLastActivityFromResultSet(report, rs));
             }
+            keyset.finish(selectedReports);
+            resolveAuthorships(selectedReports);
             log.debug("Found " + selectedReports.size() + " reports!");
-        } catch (SQLException | NotFoundException e) {
+        } catch (SQLException e) {
             log.error("Error while searching for reports in topic with id " + topic.getId(), e);
             throw new StoreException("Error while searching reports in topic with id " + topic.getId(), e);
         }
@@ -286,10 +355,11 @@ public class ReportDBGateway implements ReportGateway {
                     .toStatement().executeQuery();
 
             while (rs.next()) {
-                selectedDuplicates.add(getReportFromResultSet(rs, userGateway));
+                selectedDuplicates.add(getUnresolvedReportFromResultSet(rs));
             }
+            resolveAuthorships(selectedDuplicates);
             log.debug("Found " + selectedDuplicates.size() + " duplicates!");
-        } catch (SQLException | NotFoundException e) {
+        } catch (SQLException e) {
             log.error("Error while searching for duplicates of report with id " + report.getId(), e);
             throw new StoreException("Error while searching duplicates of report with id " + report.getId(), e);
         }
@@ -613,15 +683,9 @@ public class ReportDBGateway implements ReportGateway {
                     .integer(Pagitable.getItemOffset(selection)).toStatement();
             ResultSet rs = statement.executeQuery();
             while (rs.next()) {
-                Report r;
-                try {
-                    r = getReportFromResultSet(rs, userGateway);
-                } catch (NotFoundException e) {
-                    throw new InternalError("User not found! Who thought it was a good idea to let the helper "
-                            + "methods throw a NotFoundException?!", e);
-                }
-                selectedReports.add(r);
+                selectedReports.add(getUnresolvedReportFromResultSet(rs));
             }
+            resolveAuthorships(selectedReports);
         } catch (SQLException e) {
             log.error("Error while selecting subscribed reports for user " + user + " with " + selection + ".", e);
             throw new StoreException("Error while selecting subscribed reports for user " + user + " with " + selection
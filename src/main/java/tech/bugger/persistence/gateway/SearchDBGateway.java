@@ -7,15 +7,21 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import tech.bugger.global.transfer.Post;
 import tech.bugger.global.transfer.Report;
+import tech.bugger.global.transfer.ResultPage;
+import tech.bugger.global.transfer.SearchSuggestions;
 import tech.bugger.global.transfer.Selection;
 import tech.bugger.global.transfer.Topic;
 import tech.bugger.global.transfer.User;
 import tech.bugger.global.util.Log;
 import tech.bugger.global.util.Pagitable;
 import tech.bugger.persistence.exception.StoreException;
+import tech.bugger.persistence.util.Keyset;
 import tech.bugger.persistence.util.StatementParametrizer;
 
 /**
@@ -28,6 +34,52 @@ public class SearchDBGateway implements SearchGateway {
      */
     private static final Log log = Log.forClass(SearchDBGateway.class);
 
+    /**
+     * The number of rows fetched from the database at once when exporting reports.
+     */
+    static final int EXPORT_FETCH_SIZE = 1000;
+
+    /**
+     * The columns of a report search result besides those of the report itself.
+     */
+    static final String REPORT_COLUMNS = "t.title AS t_title, a.last_activity, a.relevance";
+
+    /**
+     * The tables and conditions of a search for reports by title and optionally by post content. The parameters are
+     * the search query, whether to search in posts, the search query again, the latest opening and the earliest
+     * closing date.
+     */
+    private static final String REPORT_SEARCH = "FROM report AS r LEFT OUTER JOIN topic AS t ON r.topic = t.id "
+            + "LEFT OUTER JOIN report_stats AS a ON a.report = r.id "
+            + "WHERE (LOWER(r.title) LIKE CONCAT('%',?,'%') "
+            + "OR (SELECT COUNT(*) FROM post p WHERE ? AND p.report = r.id AND TRIM(LOWER(p.content)) LIKE "
+            + "CONCAT('%',?,'%')) > 0) "
+            + "AND r.created_at <= COALESCE(?, r.created_at) "
+            + "AND (r.closed_at >= COALESCE(?, r.closed_at) OR r.closed_at IS NULL) ";
+
+    /**
+     * Common table expression ranking the reports of a given ID array by their position in it. The parameter is the
+     * array of report IDs.
+     */
+    private static final String ID_RANKS = "WITH ranks AS (SELECT m.report, -m.ord AS "
+            + "search_rank FROM UNNEST(?::INTEGER[]) WITH ORDINALITY AS m(report, ord)) ";
+
+    /**
+     * The tables and conditions of a search for the reports found in a common table expression {@code ranks}. The
+     * parameters are the latest opening and the earliest closing date.
+     */
+    static final String RANKED_REPORT_SEARCH = "FROM ranks AS m JOIN report AS r ON r.id = m.report "
+            + "LEFT OUTER JOIN topic AS t ON r.topic = t.id "
+            + "LEFT OUTER JOIN report_stats AS a ON a.report = r.id "
+            + "WHERE r.created_at <= COALESCE(?, r.created_at) "
+            + "AND (r.closed_at >= COALESCE(?, r.closed_at) OR r.closed_at IS NULL) ";
+
+    /**
+     * The condition restricting reports to a topic, to be appended to a report search. The parameter is the title of
+     * the topic, or {@code null} for all topics.
+     */
+    static final String TOPIC_CONDITION = " AND t.title = COALESCE(?, t.title)";
+
     /**
      * The database connection used by this gateway.
      */
@@ -48,6 +100,15 @@ public class SearchDBGateway implements SearchGateway {
     @Override
     public List<User> getUserResults(final String query, final Selection selection, final boolean showAdmins,
                                      final boolean showNonAdmins) {
+        return getUserResultPage(query, selection, showAdmins, showNonAdmins).getItems();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ResultPage<User> getUserResultPage(final String query, final Selection selection,
+                                              final boolean showAdmins, final boolean showNonAdmins) {
         if (selection == null || query == null) {
             log.error("The selection or query cannot be null!");
             throw new IllegalArgumentException("The selection or query cannot be null!");
@@ -60,7 +121,7 @@ public class SearchDBGateway implements SearchGateway {
         }
         List<User> userResults = new ArrayList<>(Math.max(0, selection.getTotalSize()));
         if (!showAdmins && !showNonAdmins) {
-            return userResults;
+            return ResultPage.empty();
         }
         String adminFilter = "";
         if (showAdmins) {
@@ -73,26 +134,32 @@ public class SearchDBGateway implements SearchGateway {
                 adminFilter = "AND is_admin = false ";
             }
         }
-        try (PreparedStatement stmt = conn.prepareStatement("SELECT * FROM \"user\" as u "
-                + "LEFT OUTER JOIN user_num_posts as p "
-                + "on u.id = p.author WHERE TRIM(LOWER(username)) LIKE CONCAT('%',?,'%') "
-                + adminFilter
-                + "ORDER BY " + selection.getSortedBy() + (selection.isAscending() ? " ASC " : " DESC ")
-                + "LIMIT ? OFFSET ?;")) {
-            ResultSet rs = new StatementParametrizer(stmt)
-                    .string(query)
-                    .integer(Pagitable.getItemLimit(selection))
-                    .integer(Pagitable.getItemOffset(selection))
+        int totalSize = 0;
+        Keyset keyset = new Keyset(selection, selection.getSortedBy(), "id");
+        try (PreparedStatement stmt = conn.prepareStatement(keyset.paginate("SELECT u.id, u.username, u.is_admin, "
+                + "u.profile_visibility, u.first_name, u.last_name, u.forced_voting_weight, p.num_posts, "
+                + "COUNT(*) OVER () AS total_size "
+                + "FROM \"user\" as u LEFT OUTER JOIN user_stats as p "
+                + "on u.id = p.\"user\" WHERE LOWER(username) LIKE CONCAT('%',?,'%') "
+                + adminFilter))) {
+            ResultSet rs = keyset.bind(new StatementParametrizer(stmt)
+                    .string(query))
                     .toStatement().executeQuery();
 
             while (rs.next()) {
+                keyset.track(rs);
+                totalSize = rs.getInt("total_size");
                 userResults.add(getSearchedUserFromResultSet(rs));
             }
+            keyset.finish(userResults);
         } catch (SQLException e) {
             log.error("Error while loading the user search suggestions for the query " + query, e);
             throw new StoreException("Error while loading the user search suggestions for the query " + query, e);
         }
-        return userResults;
+        if (userResults.isEmpty() && Pagitable.getItemOffset(selection) > 0) {
+            totalSize = getNumberOfUserResults(query, showAdmins, showNonAdmins);
+        }
+        return new ResultPage<>(userResults, totalSize);
     }
 
     /**
@@ -240,7 +307,7 @@ public class SearchDBGateway implements SearchGateway {
         validateSuggestionParams(query, limit);
         List<String> userResults = new ArrayList<>(limit);
         try (PreparedStatement stmt = conn.prepareStatement("SELECT distinct u.username FROM \"user\" AS u "
-                + "WHERE TRIM(LOWER(u.username)) LIKE CONCAT('%',?,'%') LIMIT ?;")) {
+                + "WHERE LOWER(u.username) LIKE CONCAT('%',?,'%') LIMIT ?;")) {
             ResultSet rs = new StatementParametrizer(stmt)
                     .string(query)
                     .integer(limit)
@@ -265,7 +332,7 @@ public class SearchDBGateway implements SearchGateway {
         validateSuggestionParams(query, limit);
         List<String> topicResults = new ArrayList<>(limit);
         try (PreparedStatement stmt = conn.prepareStatement("SELECT distinct t.title FROM \"topic\" AS t "
-                + "WHERE TRIM(LOWER(t.title)) LIKE CONCAT('%',?,'%') LIMIT ?;")) {
+                + "WHERE LOWER(t.title) LIKE CONCAT('%',?,'%') LIMIT ?;")) {
             ResultSet rs = new StatementParametrizer(stmt)
                     .string(query)
                     .integer(limit)
@@ -290,7 +357,7 @@ public class SearchDBGateway implements SearchGateway {
         validateSuggestionParams(query, limit);
         List<String> reportResults = new ArrayList<>(limit);
         try (PreparedStatement stmt = conn.prepareStatement("SELECT distinct t.title FROM \"report\" AS t "
-                + "WHERE TRIM(LOWER(t.title)) LIKE CONCAT('%',?,'%') LIMIT ?;")) {
+                + "WHERE LOWER(t.title) LIKE CONCAT('%',?,'%') LIMIT ?;")) {
             ResultSet rs = new StatementParametrizer(stmt)
                     .string(query)
                     .integer(limit)
@@ -307,6 +374,45 @@ public class SearchDBGateway implements SearchGateway {
         return reportResults;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SearchSuggestions getSuggestions(final String query, final int limit) {
+        validateSuggestionParams(query, limit);
+        List<String> users = new ArrayList<>(limit);
+        List<String> topics = new ArrayList<>(limit);
+        List<String> reports = new ArrayList<>(limit);
+        try (PreparedStatement stmt = conn.prepareStatement("(SELECT 'user' AS kind, u.username AS suggestion "
+                + "FROM \"user\" AS u WHERE LOWER(u.username) LIKE CONCAT('%',?,'%') LIMIT ?) "
+                + "UNION ALL (SELECT 'topic', t.title FROM topic AS t "
+                + "WHERE LOWER(t.title) LIKE CONCAT('%',?,'%') LIMIT ?) "
+                + "UNION ALL (SELECT DISTINCT 'report', r.title FROM report AS r "
+                + "WHERE LOWER(r.title) LIKE CONCAT('%',?,'%') LIMIT ?);")) {
+            ResultSet rs = new StatementParametrizer(stmt)
+                    .string(query)
+                    .integer(limit)
+                    .string(query)
+                    .integer(limit)
+                    .string(query)
+                    .integer(limit)
+                    .toStatement().executeQuery();
+
+            while (rs.next()) {
+                switch (rs.getString("kind")) {
+                    case "user" -> users.add(rs.getString("suggestion"));
+                    case "topic" -> topics.add(rs.getString("suggestion"));
+                    default -> reports.add(rs.getString("suggestion"));
+                }
+            }
+        } catch (SQLException e) {
+            log.error("Error while loading the search suggestions for the query " + query, e);
+            throw new StoreException("Error while loading the search suggestions for the query " + query, e);
+        }
+
+        return new SearchSuggestions(users, topics, reports);
+    }
+
     /**
      * Checks if the given parameters violate restrictions.
      *
@@ -381,6 +487,14 @@ public class SearchDBGateway implements SearchGateway {
      */
     @Override
     public List<Topic> getTopicResults(final String query, final Selection selection) {
+        return getTopicResultPage(query, selection).getItems();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ResultPage<Topic> getTopicResultPage(final String query, final Selection selection) {
         if (selection == null || query == null) {
             log.error("The selection or query cannot be null!");
             throw new IllegalArgumentException("The selection or query cannot be null!");
@@ -390,27 +504,29 @@ public class SearchDBGateway implements SearchGateway {
         }
 
         List<Topic> topicResults = new ArrayList<>(Math.max(0, selection.getTotalSize()));
-        try (PreparedStatement stmt = conn.prepareStatement("Select * FROM \"topic\" as t JOIN topic_num_subscribers "
-                + "as s "
-                + "on s.topic = t.id LEFT OUTER JOIN topic_last_activity as a on t.id = a.topic "
-                + "LEFT OUTER JOIN topic_num_posts as p "
-                + "on t.id = p.topic WHERE TRIM(LOWER(title)) LIKE CONCAT('%',?,'%') "
-                + "ORDER BY " + selection.getSortedBy() + (selection.isAscending() ? " ASC " : " DESC ")
-                + "LIMIT ? OFFSET ?;")) {
-            ResultSet rs = new StatementParametrizer(stmt)
-                    .string(query)
-                    .integer(Pagitable.getItemLimit(selection))
-                    .integer(Pagitable.getItemOffset(selection))
+        int totalSize = 0;
+        Keyset keyset = new Keyset(selection, selection.getSortedBy(), "id");
+        try (PreparedStatement stmt = conn.prepareStatement(keyset.paginate("Select *, "
+                + "COUNT(*) OVER () AS total_size FROM \"topic\" as t JOIN topic_num_subscribers as s "
+                + "on s.topic = t.id LEFT OUTER JOIN topic_stats as a on t.id = a.topic "
+                + "WHERE LOWER(title) LIKE CONCAT('%',?,'%')"))) {
+            ResultSet rs = keyset.bind(new StatementParametrizer(stmt)
+                    .string(query))
                     .toStatement().executeQuery();
             while (rs.next()) {
+                keyset.track(rs);
+                totalSize = rs.getInt("total_size");
                 topicResults.add(getSearchedTopicFromResultSet(rs));
             }
+            keyset.finish(topicResults);
         } catch (SQLException e) {
             log.error("Error while loading the topic search suggestions for the query " + query, e);
             throw new StoreException("Error while loading the topic search suggestions for the query " + query, e);
         }
-
-        return topicResults;
+        if (topicResults.isEmpty() && Pagitable.getItemOffset(selection) > 0) {
+            totalSize = getNumberOfTopicResults(query);
+        }
+        return new ResultPage<>(topicResults, totalSize);
     }
 
     /**
@@ -424,6 +540,23 @@ public class SearchDBGateway implements SearchGateway {
                                          final boolean fulltext, final String topic,
                                          final Map<Report.Type, Boolean> reportTypeFilter,
                                          final Map<Report.Severity, Boolean> severityFilter) {
+        return getReportResultPage(query, selection, latestOpeningDateTime, earliestClosingDateTime,
+                showOpenReports, showClosedReports, showDuplicates, fulltext, topic, reportTypeFilter,
+                severityFilter).getItems();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ResultPage<Report> getReportResultPage(final String query, final Selection selection,
+                                                  final OffsetDateTime latestOpeningDateTime,
+                                                  final OffsetDateTime earliestClosingDateTime,
+                                                  final boolean showOpenReports, final boolean showClosedReports,
+                                                  final boolean showDuplicates, final boolean fulltext,
+                                                  final String topic,
+                                                  final Map<Report.Type, Boolean> reportTypeFilter,
+                                                  final Map<Report.Severity, Boolean> severityFilter) {
         if (selection == null || query == null || severityFilter == null || reportTypeFilter == null) {
             log.error("The selection or query cannot be null!");
             throw new IllegalArgumentException("The selection or query cannot be null!");
@@ -436,14 +569,14 @@ public class SearchDBGateway implements SearchGateway {
 
         if (!reportTypeFilter.get(Report.Type.BUG) && !reportTypeFilter.get(Report.Type.HINT)
                 && !reportTypeFilter.get(Report.Type.FEATURE)) {
-            return reportResults;
+            return ResultPage.empty();
         }
         if (!severityFilter.get(Report.Severity.RELEVANT) && !severityFilter.get(Report.Severity.MINOR)
                 && !severityFilter.get(Report.Severity.SEVERE)) {
-            return reportResults;
+            return ResultPage.empty();
         }
         if (!showClosedReports && !showOpenReports) {
-            return reportResults;
+            return ResultPage.empty();
         }
 
         String filter = getFilter("", showOpenReports, showClosedReports, showDuplicates,
@@ -452,39 +585,158 @@ public class SearchDBGateway implements SearchGateway {
         if (orderBy.equals("relevance")) {
             orderBy = "COALESCE(forced_relevance, relevance)";
         }
-        try (PreparedStatement stmt = conn.prepareStatement("SELECT r.*, t.title as t_title , a.last_activity, "
-                + "v.relevance FROM report AS r LEFT OUTER JOIN topic AS t ON r.topic = t.id "
-                + "LEFT OUTER JOIN report_last_activity AS a "
-                + "ON a.report = r.id LEFT OUTER JOIN report_relevance AS v ON r.id = v.report "
-                + "WHERE (TRIM(LOWER(r.title)) LIKE CONCAT('%',?,'%') "
-                + "OR (SELECT COUNT(*) FROM post p WHERE ? AND p.report = r.id AND TRIM(LOWER(p.content)) LIKE "
-                + "CONCAT('%',?,'%')) > 0) "
-                + "AND r.created_at <= COALESCE(?, r.created_at) "
-                + "AND (r.closed_at >= COALESCE(?, r.closed_at) OR r.closed_at IS NULL) " + filter + ' '
-                + "AND t.title = COALESCE(?, t.title) "
-                + "ORDER BY " + orderBy + (selection.isAscending() ? " ASC " : " DESC ")
-                + "LIMIT ? OFFSET ?;")) {
-            ResultSet rs = new StatementParametrizer(stmt)
+        int totalSize = 0;
+        Keyset keyset = new Keyset(selection, orderBy, "id");
+        try (PreparedStatement stmt = conn.prepareStatement(keyset.paginate("SELECT r.*, " + REPORT_COLUMNS
+                + ", COUNT(*) OVER () AS total_size " + REPORT_SEARCH + filter + TOPIC_CONDITION))) {
+            ResultSet rs = keyset.bind(new StatementParametrizer(stmt)
                     .string(query)
                     .bool(fulltext)
                     .string(query)
                     .object(latestOpeningDateTime)
                     .object(earliestClosingDateTime)
-                    .string(topic)
-                    .integer(Pagitable.getItemLimit(selection))
-                    .integer(Pagitable.getItemOffset(selection))
+                    .string(topic))
                     .toStatement().executeQuery();
             while (rs.next()) {
+                keyset.track(rs);
+                totalSize = rs.getInt("total_size");
                 reportResults.add(getSearchedReportFromResultSet(rs));
             }
+            keyset.finish(reportResults);
         } catch (SQLException e) {
             log.error("Error while loading the topic search suggestions for the query " + query, e);
             throw new StoreException("Error while loading the topic search suggestions for the query " + query, e);
         }
-        return reportResults;
+        if (reportResults.isEmpty() && Pagitable.getItemOffset(selection) > 0) {
+            totalSize = getNumberOfReportResults(query, latestOpeningDateTime, earliestClosingDateTime,
+                    showOpenReports, showClosedReports, showDuplicates, fulltext, topic, reportTypeFilter,
+                    severityFilter);
+        }
+        return new ResultPage<>(reportResults, totalSize);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int exportReportResults(final String query, final OffsetDateTime latestOpeningDateTime,
+                                   final OffsetDateTime earliestClosingDateTime, final boolean showOpenReports,
+                                   final boolean showClosedReports, final boolean showDuplicates,
+                                   final boolean fulltext, final String topic,
+                                   final Map<Report.Type, Boolean> reportTypeFilter,
+                                   final Map<Report.Severity, Boolean> severityFilter,
+                                   final Consumer<Report> consumer) {
+        if (query == null || severityFilter == null || reportTypeFilter == null || consumer == null) {
+            log.error("The query, filters or consumer cannot be null!");
+            throw new IllegalArgumentException("The query, filters or consumer cannot be null!");
+        } else if (isEmptyFilter(showOpenReports, showClosedReports, reportTypeFilter, severityFilter)) {
+            return 0;
+        }
+
+        String filter = getFilter("", showOpenReports, showClosedReports, showDuplicates,
+                reportTypeFilter, severityFilter);
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT r.*, " + REPORT_COLUMNS + ' ' + REPORT_SEARCH
+                + filter + TOPIC_CONDITION + " ORDER BY r.id")) {
+            new StatementParametrizer(stmt)
+                    .string(query)
+                    .bool(fulltext)
+                    .string(query)
+                    .object(latestOpeningDateTime)
+                    .object(earliestClosingDateTime)
+                    .string(topic);
+            return exportReports(stmt, consumer);
+        } catch (SQLException e) {
+            log.error("Error while exporting the reports found for the query " + query, e);
+            throw new StoreException("Error while exporting the reports found for the query " + query, e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int exportReportResultsByIDs(final List<Integer> reportIDs, final OffsetDateTime latestOpeningDateTime,
+                                        final OffsetDateTime earliestClosingDateTime, final boolean showOpenReports,
+                                        final boolean showClosedReports, final boolean showDuplicates,
+                                        final String topic, final Map<Report.Type, Boolean> reportTypeFilter,
+                                        final Map<Report.Severity, Boolean> severityFilter,
+                                        final Consumer<Report> consumer) {
+        if (reportIDs == null || severityFilter == null || reportTypeFilter == null || consumer == null) {
+            log.error("The report IDs, filters or consumer cannot be null!");
+            throw new IllegalArgumentException("The report IDs, filters or consumer cannot be null!");
+        } else if (reportIDs.isEmpty()
+                || isEmptyFilter(showOpenReports, showClosedReports, reportTypeFilter, severityFilter)) {
+            return 0;
+        }
+
+        String filter = getFilter("r.", showOpenReports, showClosedReports, showDuplicates,
+                reportTypeFilter, severityFilter);
+        try (PreparedStatement stmt = conn.prepareStatement(ID_RANKS + "SELECT r.*, " + REPORT_COLUMNS + ' '
+                + RANKED_REPORT_SEARCH + filter + TOPIC_CONDITION + " ORDER BY r.id")) {
+            new StatementParametrizer(stmt)
+                    .object(conn.createArrayOf("integer", reportIDs.toArray()))
+                    .object(latestOpeningDateTime)
+                    .object(earliestClosingDateTime)
+                    .string(topic);
+            return exportReports(stmt, consumer);
+        } catch (SQLException e) {
+            log.error("Error while exporting the reports " + reportIDs.size() + " found by a search.", e);
+            throw new StoreException("Error while exporting the reports found by a search.", e);
+        }
     }
 
-    private String getFilter(final String prefix, final boolean showOpenReports, final boolean showClosedReports,
+    /**
+     * Executes a bound report search and passes every resulting report to the given consumer, fetching only a batch
+     * of rows at once. This relies on the statement running within a transaction, as the database otherwise
+     * materializes the whole result before returning the first row.
+     *
+     * @param stmt     The statement of the report search with all parameters bound.
+     * @param consumer The consumer to pass the reports to.
+     * @return The number of reports passed to {@code consumer}.
+     * @throws SQLException if the search fails.
+     */
+    static int exportReports(final PreparedStatement stmt, final Consumer<Report> consumer) throws SQLException {
+        stmt.setFetchSize(EXPORT_FETCH_SIZE);
+        int exported = 0;
+        try (ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                consumer.accept(getSearchedReportFromResultSet(rs));
+                exported++;
+            }
+        }
+        return exported;
+    }
+
+    /**
+     * Checks whether the given filters exclude every report.
+     *
+     * @param showOpenReports   Whether to include open reports.
+     * @param showClosedReports Whether to include closed reports.
+     * @param reportTypeFilter  Map that indicates for each report type whether to include reports of this type.
+     * @param severityFilter    Map that indicates for each degree of severity whether to include reports of this
+     *                          severity.
+     * @return Whether no report can pass the filters.
+     */
+    static boolean isEmptyFilter(final boolean showOpenReports, final boolean showClosedReports,
+                                 final Map<Report.Type, Boolean> reportTypeFilter,
+                                 final Map<Report.Severity, Boolean> severityFilter) {
+        return !reportTypeFilter.containsValue(true) || !severityFilter.containsValue(true)
+                || (!showOpenReports && !showClosedReports);
+    }
+
+    /**
+     * Builds the SQL conditions restricting reports by their state, type and severity.
+     *
+     * @param prefix            The prefix of the type and severity columns, e.g. a table alias followed by a dot.
+     * @param showOpenReports   Whether to include open reports.
+     * @param showClosedReports Whether to include closed reports.
+     * @param showDuplicates    Whether to include reports that were marked as a duplicate of another report.
+     * @param reportTypeFilter  Map that indicates for each report type whether to include reports of this type.
+     * @param severityFilter    Map that indicates for each degree of severity whether to include reports of this
+     *                          severity.
+     * @return The conditions, each preceded by {@code AND}.
+     */
+    String getFilter(final String prefix, final boolean showOpenReports, final boolean showClosedReports,
                              final boolean showDuplicates,
                              final Map<Report.Type, Boolean> reportTypeFilter,
                              final Map<Report.Severity, Boolean> severityFilter) {
@@ -576,7 +828,7 @@ public class SearchDBGateway implements SearchGateway {
             }
         }
         try (PreparedStatement stmt = conn.prepareStatement("SELECT COUNT(*) AS num_users FROM \"user\" "
-                + "WHERE TRIM(LOWER(username)) LIKE CONCAT('%',?,'%') " + adminFilter)) {
+                + "WHERE LOWER(username) LIKE CONCAT('%',?,'%') " + adminFilter)) {
             ResultSet rs = new StatementParametrizer(stmt)
                     .string(query)
                     .toStatement().executeQuery();
@@ -605,7 +857,7 @@ public class SearchDBGateway implements SearchGateway {
         int topics = 0;
 
         try (PreparedStatement stmt = conn.prepareStatement("SELECT COUNT(*) AS num_topics FROM topic "
-                + "WHERE TRIM(LOWER(title)) LIKE CONCAT('%',?,'%');")) {
+                + "WHERE LOWER(title) LIKE CONCAT('%',?,'%');")) {
             ResultSet rs = new StatementParametrizer(stmt)
                     .string(query)
                     .toStatement().executeQuery();
@@ -653,7 +905,7 @@ public class SearchDBGateway implements SearchGateway {
 
         try (PreparedStatement stmt = conn.prepareStatement("SELECT Count(*) AS num_reports FROM \"report\" AS r "
                 + "JOIN topic AS t "
-                + "ON r.topic = t.id WHERE (TRIM(LOWER(r.title)) LIKE CONCAT('%',?,'%') "
+                + "ON r.topic = t.id WHERE (LOWER(r.title) LIKE CONCAT('%',?,'%') "
                 + "OR (SELECT COUNT(*) FROM post p WHERE ? AND p.report = r.id AND TRIM(LOWER(p.content)) LIKE "
                 + "CONCAT('%',?,'%')) > 0) "
                 + "AND r.created_at <= COALESCE(?, r.created_at) "
@@ -678,4 +930,256 @@ public class SearchDBGateway implements SearchGateway {
         return reports;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Integer> getReportResultIDs(final List<Integer> reportIDs, final Selection selection,
+                                            final OffsetDateTime latestOpeningDateTime,
+                                            final OffsetDateTime earliestClosingDateTime,
+                                            final boolean showOpenReports, final boolean showClosedReports,
+                                            final boolean showDuplicates, final String topic,
+                                            final Map<Report.Type, Boolean> reportTypeFilter,
+                                            final Map<Report.Severity, Boolean> severityFilter) {
+        if (reportIDs == null || selection == null || severityFilter == null || reportTypeFilter == null) {
+            log.error("The report IDs, selection or filters cannot be null!");
+            throw new IllegalArgumentException("The report IDs, selection or filters cannot be null!");
+        } else if (StringUtils.isBlank(selection.getSortedBy())) {
+            log.error("Error when trying to get reports sorted by nothing.");
+            throw new IllegalArgumentException("The selection needs to have a column to sort by.");
+        }
+
+        List<Integer> results = new ArrayList<>();
+        if (reportIDs.isEmpty()
+                || isEmptyFilter(showOpenReports, showClosedReports, reportTypeFilter, severityFilter)) {
+            return results;
+        }
+
+        String filter = getFilter("r.", showOpenReports, showClosedReports, showDuplicates,
+                reportTypeFilter, severityFilter);
+        String orderBy = selection.getSortedBy();
+        if (orderBy.equals("relevance")) {
+            orderBy = "COALESCE(forced_relevance, relevance)";
+        } else if (orderBy.equals(FullTextSearchDBGateway.SEARCH_RANK)) {
+            orderBy = "search_rank";
+        }
+        String direction = selection.isAscending() ? " ASC" : " DESC";
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT id FROM (" + ID_RANKS + "SELECT r.*, "
+                + REPORT_COLUMNS + ", m.search_rank " + RANKED_REPORT_SEARCH + filter + TOPIC_CONDITION
+                + ") AS results ORDER BY " + orderBy + direction + ", id" + direction)) {
+            ResultSet rs = new StatementParametrizer(stmt)
+                    .object(conn.createArrayOf("integer", reportIDs.toArray()))
+                    .object(latestOpeningDateTime)
+                    .object(earliestClosingDateTime)
+                    .string(topic)
+                    .toStatement().executeQuery();
+            while (rs.next()) {
+                results.add(rs.getInt("id"));
+            }
+        } catch (SQLException e) {
+            log.error("Error while sorting the reports " + reportIDs.size() + " found by a search.", e);
+            throw new StoreException("Error while sorting the reports found by a search.", e);
+        }
+        return results;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Report> getReportsByIDs(final List<Integer> reportIDs) {
+        if (reportIDs == null) {
+            log.error("The report IDs cannot be null!");
+            throw new IllegalArgumentException("The report IDs cannot be null!");
+        }
+
+        List<Report> reports = new ArrayList<>(reportIDs.size());
+        if (reportIDs.isEmpty()) {
+            return reports;
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(ID_RANKS + "SELECT r.*, " + REPORT_COLUMNS
+                + " FROM ranks AS m JOIN report AS r ON r.id = m.report "
+                + "LEFT OUTER JOIN topic AS t ON r.topic = t.id "
+                + "LEFT OUTER JOIN report_stats AS a ON a.report = r.id "
+                + "ORDER BY m.search_rank DESC")) {
+            ResultSet rs = new StatementParametrizer(stmt)
+                    .object(conn.createArrayOf("integer", reportIDs.toArray()))
+                    .toStatement().executeQuery();
+            while (rs.next()) {
+                reports.add(getSearchedReportFromResultSet(rs));
+            }
+        } catch (SQLException e) {
+            log.error("Error while loading the reports " + reportIDs + " found by a search.", e);
+            throw new StoreException("Error while loading the reports " + reportIDs + " found by a search.", e);
+        }
+        return reports;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getNumberOfReportResultsByIDs(final List<Integer> reportIDs,
+                                             final OffsetDateTime latestOpeningDateTime,
+                                             final OffsetDateTime earliestClosingDateTime,
+                                             final boolean showOpenReports, final boolean showClosedReports,
+                                             final boolean showDuplicates, final String topic,
+                                             final Map<Report.Type, Boolean> reportTypeFilter,
+                                             final Map<Report.Severity, Boolean> severityFilter) {
+        if (reportIDs == null || severityFilter == null || reportTypeFilter == null) {
+            log.error("The report IDs or filters cannot be null!");
+            throw new IllegalArgumentException("The report IDs or filters cannot be null!");
+        }
+        if (reportIDs.isEmpty() || !reportTypeFilter.containsValue(true) || !severityFilter.containsValue(true)
+                || (!showOpenReports && !showClosedReports)) {
+            return 0;
+        }
+
+        String filter = getFilter("r.", showOpenReports, showClosedReports, showDuplicates,
+                reportTypeFilter, severityFilter);
+        int reports = 0;
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT COUNT(*) AS num_reports "
+                + "FROM report AS r JOIN topic AS t ON r.topic = t.id "
+                + "WHERE r.id = ANY(?) "
+                + "AND r.created_at <= COALESCE(?, r.created_at) "
+                + "AND (r.closed_at >= COALESCE(?, r.closed_at) OR r.closed_at IS NULL) " + filter + ' '
+                + "AND t.title = COALESCE(?, t.title);")) {
+            ResultSet rs = new StatementParametrizer(stmt)
+                    .object(conn.createArrayOf("integer", reportIDs.toArray()))
+                    .object(latestOpeningDateTime)
+                    .object(earliestClosingDateTime)
+                    .string(topic)
+                    .toStatement().executeQuery();
+            if (rs.next()) {
+                reports = rs.getInt("num_reports");
+            }
+        } catch (SQLException e) {
+            log.error("Error while counting the reports " + reportIDs + " found by a search.", e);
+            throw new StoreException("Error while counting the reports " + reportIDs + " found by a search.", e);
+        }
+        return reports;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Report> getIndexableReports(final OffsetDateTime since) {
+        List<Report> reports = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT id, title FROM report "
+                + "WHERE COALESCE(last_modified_at, created_at) >= COALESCE(?, created_at);")) {
+            ResultSet rs = new StatementParametrizer(stmt)
+                    .object(since)
+                    .toStatement().executeQuery();
+            while (rs.next()) {
+                Report report = new Report();
+                report.setId(rs.getInt("id"));
+                report.setTitle(rs.getString("title"));
+                reports.add(report);
+            }
+        } catch (SQLException e) {
+            log.error("Error while loading the reports changed since " + since + '.', e);
+            throw new StoreException("Error while loading the reports changed since " + since + '.', e);
+        }
+        return reports;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Post> getIndexablePosts(final OffsetDateTime since) {
+        List<Post> posts = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT id, content, report FROM post "
+                + "WHERE COALESCE(last_modified_at, created_at) >= COALESCE(?, created_at);")) {
+            ResultSet rs = new StatementParametrizer(stmt)
+                    .object(since)
+                    .toStatement().executeQuery();
+            while (rs.next()) {
+                posts.add(new Post(rs.getInt("id"), rs.getString("content"), rs.getInt("report"), null, null));
+            }
+        } catch (SQLException e) {
+            log.error("Error while loading the posts changed since " + since + '.', e);
+            throw new StoreException("Error while loading the posts changed since " + since + '.', e);
+        }
+        return posts;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<User> getIndexableUsers() {
+        List<User> users = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT id, username, is_admin FROM \"user\";")) {
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                User user = new User();
+                user.setId(rs.getInt("id"));
+                user.setUsername(rs.getString("username"));
+                user.setAdministrator(rs.getBoolean("is_admin"));
+                users.add(user);
+            }
+        } catch (SQLException e) {
+            log.error("Error while loading the users to index.", e);
+            throw new StoreException("Error while loading the users to index.", e);
+        }
+        return users;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Topic> getIndexableTopics() {
+        List<Topic> topics = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT id, title FROM topic;")) {
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                topics.add(new Topic(rs.getInt("id"), rs.getString("title"), null));
+            }
+        } catch (SQLException e) {
+            log.error("Error while loading the topics to index.", e);
+            throw new StoreException("Error while loading the topics to index.", e);
+        }
+        return topics;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<Integer, List<Integer>> getBannedUserIDs() {
+        return getMembersByTopic("SELECT topic, outcast AS member FROM topic_ban;");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<Integer, List<Integer>> getModeratorIDs() {
+        return getMembersByTopic("SELECT topic, moderator AS member FROM topic_moderation;");
+    }
+
+    /**
+     * Runs a query returning pairs of topic and user IDs and groups the user IDs by topic.
+     *
+     * @param sql The query selecting the columns {@code topic} and {@code member}.
+     * @return The user IDs by topic ID.
+     */
+    private Map<Integer, List<Integer>> getMembersByTopic(final String sql) {
+        Map<Integer, List<Integer>> members = new HashMap<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                members.computeIfAbsent(rs.getInt("topic"), t -> new ArrayList<>()).add(rs.getInt("member"));
+            }
+        } catch (SQLException e) {
+            log.error("Error while loading the topic members to index.", e);
+            throw new StoreException("Error while loading the topic members to index.", e);
+        }
+        return members;
+    }
+
 }
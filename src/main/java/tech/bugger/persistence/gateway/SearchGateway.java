@@ -3,7 +3,11 @@ package tech.bugger.persistence.gateway;
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import tech.bugger.global.transfer.Post;
 import tech.bugger.global.transfer.Report;
+import tech.bugger.global.transfer.ResultPage;
+import tech.bugger.global.transfer.SearchSuggestions;
 import tech.bugger.global.transfer.Selection;
 import tech.bugger.global.transfer.Topic;
 import tech.bugger.global.transfer.User;
@@ -25,6 +29,19 @@ public interface SearchGateway {
      */
     List<User> getUserResults(String query, Selection selection, boolean showAdmins, boolean showNonAdmins);
 
+    /**
+     * Searches for users by their username and returns the requested result page along with the total number of
+     * results, determined by the same query.
+     *
+     * @param query         The search string to use.
+     * @param selection     The pagination filters to apply.
+     * @param showAdmins    Whether to include administrators.
+     * @param showNonAdmins Whether to include non-administrators.
+     * @return The users on the requested page and the total number of users that match the search criteria.
+     */
+    ResultPage<User> getUserResultPage(String query, Selection selection, boolean showAdmins,
+                                       boolean showNonAdmins);
+
     /**
      * Searches for users by their username and filters the results according to given selection criteria.
      *
@@ -92,6 +109,15 @@ public interface SearchGateway {
      */
     List<String> getReportSuggestions(String query, int limit);
 
+    /**
+     * Searches for users by their username, topics by their title and reports by their title at once.
+     *
+     * @param query The search string to use.
+     * @param limit The maximum amount of suggestions to return per kind.
+     * @return The usernames, topic titles and report titles that match the search string.
+     */
+    SearchSuggestions getSuggestions(String query, int limit);
+
     /**
      * Searches for topics by their title and returns the requested result page.
      *
@@ -101,6 +127,16 @@ public interface SearchGateway {
      */
     List<Topic> getTopicResults(String query, Selection selection);
 
+    /**
+     * Searches for topics by their title and returns the requested result page along with the total number of
+     * results, determined by the same query.
+     *
+     * @param query     The search string to use.
+     * @param selection The pagination filters to apply.
+     * @return The topics on the requested page and the total number of topics that match the search criteria.
+     */
+    ResultPage<Topic> getTopicResultPage(String query, Selection selection);
+
     /**
      * Searches for reports by their title and filters the results according to given selection criteria.
      *
@@ -127,6 +163,33 @@ public interface SearchGateway {
                                   Map<Report.Type, Boolean> reportTypeFilter,
                                   Map<Report.Severity, Boolean> severityFilter) throws NotFoundException;
 
+    /**
+     * Searches for reports by their title, filters the results according to given selection criteria, and returns the
+     * requested result page along with the total number of results, determined by the same query.
+     *
+     * @param query                   The search string to use.
+     * @param selection               The pagination filters to apply.
+     * @param latestOpeningDateTime   The date and time before which the search results must have been opened.
+     * @param earliestClosingDateTime The date and time after which closed search results must have been closed.
+     * @param showOpenReports         Whether to include open reports.
+     * @param showClosedReports       Whether to include closed reports.
+     * @param showDuplicates          Whether to include reports that were marked as a duplicate of another report.
+     * @param fulltext                Whether or not to enable fulltext search in postings.
+     * @param topic                   The topic the search results have to belong to. Can be {@code null} to search in
+     *                                all topics.
+     * @param reportTypeFilter        Map that indicates for each report type whether to include or exclude reports of
+     *                                this type.
+     * @param severityFilter          Map that indicates for each degree of severity whether to include or exclude
+     *                                reports of this severity.
+     * @return The reports on the requested page and the total number of reports that match the search criteria.
+     * @throws NotFoundException The topic could not be found.
+     */
+    ResultPage<Report> getReportResultPage(String query, Selection selection, OffsetDateTime latestOpeningDateTime,
+                                           OffsetDateTime earliestClosingDateTime, boolean showOpenReports,
+                                           boolean showClosedReports, boolean showDuplicates, boolean fulltext,
+                                           String topic, Map<Report.Type, Boolean> reportTypeFilter,
+                                           Map<Report.Severity, Boolean> severityFilter) throws NotFoundException;
+
     /**
      * Searches for users by their username, filters the results according to given selection criteria, and returns the
      * number of results.
@@ -172,4 +235,162 @@ public interface SearchGateway {
                                  Map<Report.Type, Boolean> reportTypeFilter,
                                  Map<Report.Severity, Boolean> severityFilter) throws NotFoundException;
 
+    /**
+     * Sorts the given reports which pass the given filters as requested by the selection, preserving the order of
+     * {@code reportIDs} when sorting by {@link FullTextSearchDBGateway#SEARCH_RANK}. Only the IDs are retrieved, so
+     * that the pages of the result can be loaded one by one using {@link #getReportsByIDs(List)}. Reports that do not
+     * exist (any more) are skipped.
+     *
+     * @param reportIDs               The IDs of the reports found by a search, the best matches first.
+     * @param selection               The selection holding the column and direction to sort by.
+     * @param latestOpeningDateTime   The date and time before which the search results must have been opened.
+     * @param earliestClosingDateTime The date and time after which closed search results must have been closed.
+     * @param showOpenReports         Whether to include open reports.
+     * @param showClosedReports       Whether to include closed reports.
+     * @param showDuplicates          Whether to include reports that were marked as a duplicate of another report.
+     * @param topic                   The topic the search results have to belong to. Can be {@code null} to search in
+     *                                all topics.
+     * @param reportTypeFilter        Map that indicates for each report type whether to include or exclude reports of
+     *                                this type.
+     * @param severityFilter          Map that indicates for each degree of severity whether to include or exclude
+     *                                reports of this severity.
+     * @return The IDs of all reports that pass the filters in the requested order.
+     */
+    List<Integer> getReportResultIDs(List<Integer> reportIDs, Selection selection,
+                                     OffsetDateTime latestOpeningDateTime, OffsetDateTime earliestClosingDateTime,
+                                     boolean showOpenReports, boolean showClosedReports, boolean showDuplicates,
+                                     String topic, Map<Report.Type, Boolean> reportTypeFilter,
+                                     Map<Report.Severity, Boolean> severityFilter);
+
+    /**
+     * Retrieves the given reports as search results in the order of {@code reportIDs}. Reports that do not exist (any
+     * more) are skipped.
+     *
+     * @param reportIDs The IDs of the reports to retrieve, typically one page of {@link #getReportResultIDs}.
+     * @return The reports in the order of their IDs in {@code reportIDs}.
+     */
+    List<Report> getReportsByIDs(List<Integer> reportIDs);
+
+    /**
+     * Counts the given reports which exist and pass the given filters.
+     *
+     * @param reportIDs               The IDs of the reports found by a search.
+     * @param latestOpeningDateTime   The date and time before which the search results must have been opened.
+     * @param earliestClosingDateTime The date and time after which closed search results must have been closed.
+     * @param showOpenReports         Whether to include open reports.
+     * @param showClosedReports       Whether to include closed reports.
+     * @param showDuplicates          Whether to include reports that were marked as a duplicate of another report.
+     * @param topic                   The topic the search results have to belong to. Can be {@code null} to search in
+     *                                all topics.
+     * @param reportTypeFilter        Map that indicates for each report type whether to include or exclude reports of
+     *                                this type.
+     * @param severityFilter          Map that indicates for each degree of severity whether to include or exclude
+     *                                reports of this severity.
+     * @return The number of reports that pass the filters.
+     */
+    int getNumberOfReportResultsByIDs(List<Integer> reportIDs, OffsetDateTime latestOpeningDateTime,
+                                      OffsetDateTime earliestClosingDateTime, boolean showOpenReports,
+                                      boolean showClosedReports, boolean showDuplicates, String topic,
+                                      Map<Report.Type, Boolean> reportTypeFilter,
+                                      Map<Report.Severity, Boolean> severityFilter);
+
+    /**
+     * Passes every report matching the given search and filters to the given consumer in ascending order of their IDs.
+     * The results are fetched from the data source in small batches while they are consumed, such that they never
+     * have to be held in memory at once.
+     *
+     * @param query                   The search string to use.
+     * @param latestOpeningDateTime   The date and time before which the search results must have been opened.
+     * @param earliestClosingDateTime The date and time after which closed search results must have been closed.
+     * @param showOpenReports         Whether to include open reports.
+     * @param showClosedReports       Whether to include closed reports.
+     * @param showDuplicates          Whether to include reports that were marked as a duplicate of another report.
+     * @param fulltext                Whether or not to enable fulltext search in postings.
+     * @param topic                   The topic the search results have to belong to. Can be {@code null} to search in
+     *                                all topics.
+     * @param reportTypeFilter        Map that indicates for each report type whether to include or exclude reports of
+     *                                this type.
+     * @param severityFilter          Map that indicates for each degree of severity whether to include or exclude
+     *                                reports of this severity.
+     * @param consumer                The consumer to pass the reports to.
+     * @return The number of reports passed to {@code consumer}.
+     */
+    int exportReportResults(String query, OffsetDateTime latestOpeningDateTime,
+                            OffsetDateTime earliestClosingDateTime, boolean showOpenReports,
+                            boolean showClosedReports, boolean showDuplicates, boolean fulltext, String topic,
+                            Map<Report.Type, Boolean> reportTypeFilter, Map<Report.Severity, Boolean> severityFilter,
+                            Consumer<Report> consumer);
+
+    /**
+     * Passes every one of the given reports which exists and passes the given filters to the given consumer in
+     * ascending order of their IDs. The results are fetched from the data source in small batches while they are
+     * consumed, such that they never have to be held in memory at once.
+     *
+     * @param reportIDs               The IDs of the reports found by a search.
+     * @param latestOpeningDateTime   The date and time before which the search results must have been opened.
+     * @param earliestClosingDateTime The date and time after which closed search results must have been closed.
+     * @param showOpenReports         Whether to include open reports.
+     * @param showClosedReports       Whether to include closed reports.
+     * @param showDuplicates          Whether to include reports that were marked as a duplicate of another report.
+     * @param topic                   The topic the search results have to belong to. Can be {@code null} to search in
+     *                                all topics.
+     * @param reportTypeFilter        Map that indicates for each report type whether to include or exclude reports of
+     *                                this type.
+     * @param severityFilter          Map that indicates for each degree of severity whether to include or exclude
+     *                                reports of this severity.
+     * @param consumer                The consumer to pass the reports to.
+     * @return The number of reports passed to {@code consumer}.
+     */
+    int exportReportResultsByIDs(List<Integer> reportIDs, OffsetDateTime latestOpeningDateTime,
+                                 OffsetDateTime earliestClosingDateTime, boolean showOpenReports,
+                                 boolean showClosedReports, boolean showDuplicates, String topic,
+                                 Map<Report.Type, Boolean> reportTypeFilter,
+                                 Map<Report.Severity, Boolean> severityFilter, Consumer<Report> consumer);
+
+    /**
+     * Retrieves the ID and title of every report created or modified since the given point in time, for building a
+     * search index.
+     *
+     * @param since The point in time to retrieve changes since, or {@code null} to retrieve all reports.
+     * @return The list of reports with only their ID and title set.
+     */
+    List<Report> getIndexableReports(OffsetDateTime since);
+
+    /**
+     * Retrieves the ID, content and report of every post created or modified since the given point in time, for
+     * building a search index.
+     *
+     * @param since The point in time to retrieve changes since, or {@code null} to retrieve all posts.
+     * @return The list of posts with only their ID, content and report set.
+     */
+    List<Post> getIndexablePosts(OffsetDateTime since);
+
+    /**
+     * Retrieves the ID, username and administrator status of every user, for building a name index.
+     *
+     * @return The list of users with only their ID, username and administrator status set.
+     */
+    List<User> getIndexableUsers();
+
+    /**
+     * Retrieves the ID and title of every topic, for building a name index.
+     *
+     * @return The list of topics with only their ID and title set.
+     */
+    List<Topic> getIndexableTopics();
+
+    /**
+     * Retrieves the IDs of the users banned from every topic, for building a name index.
+     *
+     * @return The IDs of the banned users by topic ID, omitting topics without any bans.
+     */
+    Map<Integer, List<Integer>> getBannedUserIDs();
+
+    /**
+     * Retrieves the IDs of the moderators of every topic, for building a name index.
+     *
+     * @return The IDs of the moderators by topic ID, omitting topics without any moderators.
+     */
+    Map<Integer, List<Integer>> getModeratorIDs();
+
 }
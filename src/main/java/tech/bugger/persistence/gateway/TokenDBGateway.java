@@ -93,8 +93,8 @@ public class TokenDBGateway implements TokenGateway {
     public Token findToken(final String value) throws NotFoundException {
         Token token;
 
-        try (PreparedStatement stmt = conn.prepareStatement("SELECT * FROM token t "
-                + "JOIN \"user\" u on t.verifies = u.id WHERE t.value = ?")) {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT t.*, " + UserDBGateway.userSummaryColumns("u", "")
+                + " FROM token t JOIN \"user\" u on t.verifies = u.id WHERE t.value = ?")) {
             ResultSet rs = new StatementParametrizer(stmt).string(value).toStatement().executeQuery();
             if (rs.next()) {
                 token = new Token(rs.getString("value"), Token.Type.valueOf(rs.getString("type")),
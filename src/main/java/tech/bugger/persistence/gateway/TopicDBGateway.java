@@ -204,7 +204,7 @@ public class TopicDBGateway implements TopicGateway {
         }
 
         String sql = "SELECT t.*, l.last_activity FROM topic AS t"
-                + " LEFT OUTER JOIN topic_last_activity AS l ON t.id = l.topic"
+                + " LEFT OUTER JOIN topic_stats AS l ON t.id = l.topic"
                 + " ORDER BY " + selection.getSortedBy() + (selection.isAscending() ? " ASC" : " DESC")
                 + " LIMIT " + Pagitable.getItemLimit(selection)
                 + " OFFSET " + Pagitable.getItemOffset(selection) + ";";
@@ -429,7 +429,7 @@ public class TopicDBGateway implements TopicGateway {
         }
 
         OffsetDateTime lastActivity;
-        String sql = "SELECT * FROM topic_last_activity WHERE topic =" + topic.getId();
+        String sql = "SELECT last_activity FROM topic_stats WHERE topic =" + topic.getId();
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             ResultSet rs = stmt.executeQuery();
             if (rs.next()) {
@@ -549,7 +549,7 @@ public class TopicDBGateway implements TopicGateway {
 
         String sql = "SELECT s.*, t.*, l.last_activity FROM topic_subscription AS s"
                 + " LEFT OUTER JOIN topic AS t ON s.topic = t.id"
-                + " LEFT OUTER JOIN topic_last_activity AS l ON t.id = l.topic"
+                + " LEFT OUTER JOIN topic_stats AS l ON t.id = l.topic"
                 + " WHERE s.subscriber = ?"
                 + " ORDER BY " + selection.getSortedBy() + (selection.isAscending() ? " ASC" : " DESC")
                 + " LIMIT ?"
@@ -19,8 +19,11 @@ import java.sql.Statement;
 import java.sql.Types;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 /**
  * User gateway that gives access to user stored in a database.
@@ -32,6 +35,13 @@ public class UserDBGateway implements UserGateway {
      */
     private static final Log log = Log.forClass(UserDBGateway.class);
 
+    /**
+     * The columns of the {@code "user"} table that make up a user summary, i.e. all columns except the avatar images.
+     */
+    private static final String[] SUMMARY_COLUMNS = {"id", "username", "password_hash", "password_salt",
+            "hashing_algorithm", "email_address", "first_name", "last_name", "biography", "preferred_language",
+            "profile_visibility", "registered_at", "forced_voting_weight", "is_admin"};
+
     /**
      * The database connection used by this gateway.
      */
@@ -74,6 +84,26 @@ public class UserDBGateway implements UserGateway {
                 .bool(user.isAdministrator());
     }
 
+    /**
+     * Returns the select list of a user summary, which holds all user columns except the avatar images. Instead of the
+     * images, only whether the user has an avatar is selected as column {@code has_avatar}.
+     * <p>
+     * Every query whose results are parsed with {@link #getUserFromResultSet(String, ResultSet)} must select the user
+     * this way, so that large avatar images are only ever loaded on explicit request.
+     *
+     * @param table  The name or alias of the {@code "user"} table in the query.
+     * @param prefix The prefix to put in front of the column labels.
+     * @return The select list of a user summary.
+     */
+    static String userSummaryColumns(final String table, final String prefix) {
+        StringBuilder columns = new StringBuilder();
+        for (String column : SUMMARY_COLUMNS) {
+            columns.append(table).append('.').append(column).append(" AS ").append(prefix).append(column).append(", ");
+        }
+        return columns.append("octet_length(").append(table).append(".avatar_thumbnail) > 0 AS ").append(prefix)
+                .append("has_avatar").toString();
+    }
+
     /**
      * Parses the given {@link ResultSet} and returns the corresponding {@link User}.
      *
@@ -86,7 +116,8 @@ public class UserDBGateway implements UserGateway {
     }
 
     /**
-     * Parses the given {@link ResultSet} and returns the corresponding {@link User}.
+     * Parses the given {@link ResultSet} selected with {@link #userSummaryColumns(String, String)} and returns the
+     * corresponding {@link User}. The avatar images of the user are left {@code null}.
      *
      * @param prefix The prefix to put in front of the column names.
      * @param rs     The {@link ResultSet} to parse.
@@ -94,17 +125,19 @@ public class UserDBGateway implements UserGateway {
      * @throws SQLException Some parsing error occurred.
      */
     static User getUserFromResultSet(final String prefix, final ResultSet rs) throws SQLException {
-        return new User(rs.getInt(prefix + "id"), rs.getString(prefix + "username"),
+        User user = new User(rs.getInt(prefix + "id"), rs.getString(prefix + "username"),
                 rs.getString(prefix + "password_hash"), rs.getString(prefix + "password_salt"),
                 rs.getString(prefix + "hashing_algorithm"), rs.getString(prefix + "email_address"),
                 rs.getString(prefix + "first_name"), rs.getString(prefix + "last_name"),
-                new byte[0], rs.getBytes(prefix + "avatar_thumbnail"),
+                null, null,
                 rs.getString(prefix + "biography"),
                 Locale.forLanguageTag(rs.getString(prefix + "preferred_language").toUpperCase()),
                 User.ProfileVisibility.valueOf(rs.getString(prefix + "profile_visibility").toUpperCase()),
                 rs.getObject(prefix + "registered_at", OffsetDateTime.class),
                 rs.getObject(prefix + "forced_voting_weight", Integer.class), rs.getBoolean(prefix + "is_admin"
         ));
+        user.setExistsAvatar(rs.getBoolean(prefix + "has_avatar"));
+        return user;
     }
 
     /**
@@ -157,7 +190,8 @@ public class UserDBGateway implements UserGateway {
     public User getUserByID(final int id) throws NotFoundException {
         User user;
 
-        try (PreparedStatement stmt = conn.prepareStatement("SELECT * FROM \"user\" WHERE id = ?")) {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT " + userSummaryColumns("u", "")
+                + " FROM \"user\" AS u WHERE u.id = ?")) {
             ResultSet rs = new StatementParametrizer(stmt).integer(id).toStatement().executeQuery();
 
             if (rs.next()) {
@@ -173,6 +207,32 @@ public class UserDBGateway implements UserGateway {
         return user;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<Integer, User> getUsersByIDs(final Collection<Integer> ids) {
+        Map<Integer, User> users = new HashMap<>();
+        if (ids.isEmpty()) {
+            return users;
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT " + userSummaryColumns("u", "")
+                + " FROM \"user\" AS u WHERE u.id = ANY(?)")) {
+            ResultSet rs = new StatementParametrizer(stmt)
+                    .object(conn.createArrayOf("integer", ids.toArray()))
+                    .toStatement().executeQuery();
+            while (rs.next()) {
+                User user = getUserFromResultSet(rs);
+                users.put(user.getId(), user);
+            }
+        } catch (SQLException e) {
+            log.error("Error while searching for users with ids " + ids, e);
+            throw new StoreException("Error while searching for users with ids " + ids, e);
+        }
+        return users;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -180,7 +240,8 @@ public class UserDBGateway implements UserGateway {
     public User getUserByUsername(final String username) throws NotFoundException {
         User user;
 
-        try (PreparedStatement stmt = conn.prepareStatement("SELECT * FROM \"user\" WHERE username = ?")) {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT " + userSummaryColumns("u", "")
+                + " FROM \"user\" AS u WHERE u.username = ?")) {
             ResultSet rs = new StatementParametrizer(stmt).string(username).toStatement().executeQuery();
 
             if (rs.next()) {
@@ -217,6 +278,26 @@ public class UserDBGateway implements UserGateway {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public byte[] getAvatarThumbnailForUser(final int id) throws NotFoundException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT avatar_thumbnail FROM \"user\" WHERE id = ?")) {
+            ResultSet rs = new StatementParametrizer(stmt).integer(id).toStatement().executeQuery();
+
+            if (rs.next()) {
+                return rs.getBytes("avatar_thumbnail");
+            } else {
+                log.debug("No user with the given id could be found in the database.");
+                throw new NotFoundException("No user with the given id could be found in the database.");
+            }
+        } catch (SQLException e) {
+            log.error("Error while retrieving user avatar thumbnail.", e);
+            throw new StoreException("Error while retrieving user avatar thumbnail.", e);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -224,7 +305,8 @@ public class UserDBGateway implements UserGateway {
     public User getUserByEmail(final String emailAddress) throws NotFoundException {
         User user;
 
-        try (PreparedStatement stmt = conn.prepareStatement("SELECT * FROM \"user\" WHERE email_address = ?")) {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT " + userSummaryColumns("u", "")
+                + " FROM \"user\" AS u WHERE u.email_address = ?")) {
             ResultSet rs = new StatementParametrizer(stmt).string(emailAddress).toStatement().executeQuery();
 
             if (rs.next()) {
@@ -249,7 +331,8 @@ public class UserDBGateway implements UserGateway {
         validTopicSelection(topic, selection);
 
         List<User> moderators = new ArrayList<>(Math.max(0, selection.getTotalSize()));
-        try (PreparedStatement stmt = conn.prepareStatement("SELECT u.* FROM \"user\" AS u, topic_moderation AS t "
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT " + userSummaryColumns("u", "")
+                + " FROM \"user\" AS u, topic_moderation AS t "
                 + "WHERE t.topic = ? AND u.id = t.moderator ORDER BY u.username ASC LIMIT ? OFFSET ?;")) {
             ResultSet rs = new StatementParametrizer(stmt)
                     .integer(topic.getId())
@@ -275,7 +358,8 @@ public class UserDBGateway implements UserGateway {
         validTopicSelection(topic, selection);
 
         List<User> banned = new ArrayList<>(Math.max(0, selection.getTotalSize()));
-        try (PreparedStatement stmt = conn.prepareStatement("SELECT u.* FROM \"user\" AS u, topic_ban AS t "
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT " + userSummaryColumns("u", "")
+                + " FROM \"user\" AS u, topic_ban AS t "
                 + "WHERE t.topic = ? AND u.id = t.outcast ORDER BY u.username ASC LIMIT ? OFFSET ?;")) {
             ResultSet rs = new StatementParametrizer(stmt)
                     .integer(topic.getId())
@@ -359,7 +443,8 @@ public class UserDBGateway implements UserGateway {
                         + "username = ?, password_hash = ?, password_salt"
                         + " = ?, hashing_algorithm = ?, "
                         + "email_address = ?, first_name = ?, last_name ="
-                        + " ?, avatar = ?, avatar_thumbnail = ?, "
+                        + " ?, avatar = COALESCE(?, avatar), "
+                        + "avatar_thumbnail = COALESCE(?, avatar_thumbnail), "
                         + "biography = ?, preferred_language = ?, "
                         + "profile_visibility = ?, "
                         + "forced_voting_weight = ?, is_admin = ? "
@@ -411,7 +496,8 @@ public class UserDBGateway implements UserGateway {
             throw new IllegalArgumentException("User ID cannot be null.");
         }
 
-        String sql = "SELECT * FROM user_subscription AS s"
+        String sql = "SELECT " + userSummaryColumns("u", "")
+                + " FROM user_subscription AS s"
                 + " JOIN \"user\" u on u.id = s.subscriber"
                 + " WHERE s.subscribee = ?;";
         List<User> subscribers;
@@ -443,7 +529,8 @@ public class UserDBGateway implements UserGateway {
             throw new IllegalArgumentException("Report ID cannot be null.");
         }
 
-        String sql = "SELECT * FROM report_subscription AS s"
+        String sql = "SELECT " + userSummaryColumns("u", "")
+                + " FROM report_subscription AS s"
                 + " JOIN \"user\" u on u.id = s.subscriber"
                 + " WHERE s.report = ?;";
         List<User> subscribers;
@@ -475,7 +562,8 @@ public class UserDBGateway implements UserGateway {
             throw new IllegalArgumentException("Topic ID cannot be null.");
         }
 
-        String sql = "SELECT * FROM topic_subscription AS s"
+        String sql = "SELECT " + userSummaryColumns("u", "")
+                + " FROM topic_subscription AS s"
                 + " JOIN \"user\" u on u.id = s.subscriber"
                 + " WHERE s.topic = ?;";
         List<User> subscribers;
@@ -499,8 +587,8 @@ public class UserDBGateway implements UserGateway {
      */
     @Override
     public int getNumberOfPosts(final User user) throws NotFoundException {
-        try (PreparedStatement stmt = conn.prepareStatement("SELECT num_posts FROM user_num_posts WHERE "
-                + "author = ?;")) {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT num_posts FROM user_stats WHERE "
+                + "\"user\" = ?;")) {
             ResultSet rs = new StatementParametrizer(stmt)
                     .integer(user.getId())
                     .toStatement().executeQuery();
@@ -579,7 +667,7 @@ public class UserDBGateway implements UserGateway {
      * {@inheritDoc}
      */
     @Override
-    public void cleanExpiredRegistrations() {
+    public List<Integer> cleanExpiredRegistrations() {
         // @formatter:off
         String query =
                 "DELETE FROM \"user\""
@@ -589,10 +677,16 @@ public class UserDBGateway implements UserGateway {
               + "    FROM   token "
               + "    WHERE  type = 'REGISTER' "
               + "    AND    verifies = id"
-              + ");";
+              + ") "
+              + "RETURNING id;";
         // @formatter:on
         try (PreparedStatement stmt = conn.prepareStatement(query)) {
-            stmt.executeUpdate();
+            ResultSet rs = stmt.executeQuery();
+            List<Integer> ids = new ArrayList<>();
+            while (rs.next()) {
+                ids.add(rs.getInt("id"));
+            }
+            return ids;
         } catch (SQLException e) {
             log.error("Error when cleaning expired user registrations.", e);
             throw new StoreException("Error when cleaning expired user registrations.", e);
@@ -618,7 +712,8 @@ public class UserDBGateway implements UserGateway {
             throw new IllegalArgumentException("User ID cannot be null.");
         }
 
-        String sql = " SELECT * FROM user_subscription AS s"
+        String sql = "SELECT " + userSummaryColumns("u", "")
+                + " FROM user_subscription AS s"
                 + " LEFT OUTER JOIN \"user\" u ON s.subscribee = u.id"
                 + " WHERE s.subscriber = ?"
                 + " ORDER BY " + selection.getSortedBy() + (selection.isAscending() ? " ASC" : " DESC")
@@ -685,7 +780,8 @@ public class UserDBGateway implements UserGateway {
         }
 
         List<User> banned = new ArrayList<>();
-        try (PreparedStatement stmt = conn.prepareStatement("SELECT u.* FROM \"user\" AS u, topic_ban AS t "
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT " + userSummaryColumns("u", "")
+                + " FROM \"user\" AS u, topic_ban AS t "
                 + "WHERE t.topic = ? AND u.id = t.outcast;")) {
             ResultSet rs = new StatementParametrizer(stmt)
                     .integer(topic.getId())
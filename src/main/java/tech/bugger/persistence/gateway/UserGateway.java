@@ -1,6 +1,8 @@
 package tech.bugger.persistence.gateway;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import tech.bugger.global.transfer.Report;
 import tech.bugger.global.transfer.Selection;
 import tech.bugger.global.transfer.Topic;
@@ -47,7 +49,7 @@ public interface UserGateway {
     int getNumberOfAdmins();
 
     /**
-     * Retrieves a user by their ID, leaving the avatar empty.
+     * Retrieves a user by their ID without their avatar images.
      *
      * @param id The ID of the user to look for.
      * @return The user identified by the ID.
@@ -56,7 +58,15 @@ public interface UserGateway {
     User getUserByID(int id) throws NotFoundException;
 
     /**
-     * Retrieves a user by their username, leaving the avatar empty.
+     * Retrieves all users with the given IDs at once without their avatar images.
+     *
+     * @param ids The IDs of the users to look for.
+     * @return The users found, mapped by their ID. IDs without a corresponding user are not contained.
+     */
+    Map<Integer, User> getUsersByIDs(Collection<Integer> ids);
+
+    /**
+     * Retrieves a user by their username without their avatar images.
      *
      * @param username The username of the user to look for.
      * @return The user identified by the username.
@@ -65,7 +75,7 @@ public interface UserGateway {
     User getUserByUsername(String username) throws NotFoundException;
 
     /**
-     * Retrieves a user by their e-mail address, leaving the avatar empty.
+     * Retrieves a user by their e-mail address without their avatar images.
      *
      * @param emailAddress The username of the user to look for.
      * @return The user identified by the given {@code emailAddress}.
@@ -82,6 +92,15 @@ public interface UserGateway {
      */
     byte[] getAvatarForUser(int id) throws NotFoundException;
 
+    /**
+     * Retrieves a user's avatar thumbnail.
+     *
+     * @param id The id of the user to look for.
+     * @return The avatar thumbnail of the user identified by the given {@code id}.
+     * @throws NotFoundException The user could not be found.
+     */
+    byte[] getAvatarThumbnailForUser(int id) throws NotFoundException;
+
     /**
      * Retrieves a list of moderators for a topic that match the given selection criteria.
      *
@@ -159,8 +178,10 @@ public interface UserGateway {
 
     /**
      * Cleans up user corpses due to expired registration.
+     *
+     * @return The IDs of the deleted users.
      */
-    void cleanExpiredRegistrations();
+    List<Integer> cleanExpiredRegistrations();
 
     /**
      * Retrieves all users the user is subscribed to for a given selection.
@@ -1,22 +1,53 @@
 package tech.bugger.persistence.util;
 
 import tech.bugger.global.util.Log;
+import tech.bugger.global.util.Metrics;
 import tech.bugger.persistence.exception.OutOfConnectionsException;
 
+import java.lang.ref.WeakReference;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
-import java.util.ArrayDeque;
 import java.util.Deque;
-import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Properties;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Thread-safe object pool of database connections.
  * <p>
  * The pool dynamically manages a set of database connections that can be borrowed and returned by callers. Before being
  * used, the pool must be initialized with technical parameters for the database connection and performance aspects.
+ * <p>
+ * Borrowing and returning connections does not take any lock. Each thread first tries to reclaim the connection it has
+ * returned most recently. If no connection is available, callers queue up and returned connections are handed directly
+ * to the longest waiting caller, which guarantees first-come, first-served fairness under contention.
+ * <p>
+ * New connections are never opened on a caller's thread. A background thread keeps a minimum number of idle connections
+ * ready and opens further connections for waiting callers as long as the maximum number of connections allows it.
+ * <p>
+ * The pool grows immediately but shrinks reluctantly: returning a connection never closes it. Instead, a periodic
+ * housekeeping task closes connections that have been idle for longer than the idle timeout, and only as far as a
+ * smoothed estimate of the recent peak demand allows. This keeps the pool warm across bursts of load.
+ * <p>
+ * Optionally, idle connections are validated before being handed out, connections are retired after a maximum
+ * lifetime, and connections held for suspiciously long are reported together with the stack trace of their borrower.
  */
 public final class ConnectionPool {
 
@@ -26,12 +57,28 @@ public final class ConnectionPool {
     private static final Log log = Log.forClass(ConnectionPool.class);
 
     /**
-     * Percentage of used connections below which the load is considered low.
+     * Utilization the pool aims for when shrinking, leaving headroom above the smoothed peak demand.
      */
-    private static final double DECREASE_THRESH = 0.7;
+    private static final double TARGET_UTILIZATION = 0.7;
 
     /**
-     * The connections available for usage.
+     * Weight of the latest peak demand in the smoothed demand estimate, which is updated once per housekeeping run.
+     * Decreasing demand thus takes effect with a time constant of about ten housekeeping periods.
+     */
+    private static final double DEMAND_SMOOTHING = 0.1;
+
+    /**
+     * Rate in milliseconds at which the background housekeeping runs.
+     */
+    private static final long HOUSEKEEPING_PERIOD_MILLIS = 1000;
+
+    /**
+     * Milliseconds per second, for converting the timeout into a validation timeout.
+     */
+    private static final int MILLIS_PER_SECOND = 1000;
+
+    /**
+     * The connections available for usage, most recently returned first.
      */
     private final Deque<Connection> availableConnections;
 
@@ -40,6 +87,52 @@ public final class ConnectionPool {
      */
     private final Set<Connection> usedConnections;
 
+    /**
+     * The callers waiting for a connection to be handed to them, in order of arrival.
+     */
+    private final Queue<Waiter> waiters;
+
+    /**
+     * The connection each thread has returned most recently.
+     */
+    private final ThreadLocal<WeakReference<Connection>> lastConnection;
+
+    /**
+     * Lifecycle information for each connection opened by this pool.
+     */
+    private final ConcurrentMap<Connection, Lifecycle> lifecycles;
+
+    /**
+     * The total number of connections opened and not yet closed, including those currently being opened.
+     */
+    private final AtomicInteger totalConnections;
+
+    /**
+     * The number of connections scheduled for opening in the background but not yet available.
+     */
+    private final AtomicInteger pendingConnections;
+
+    /**
+     * Single-threaded executor opening new connections in the background.
+     */
+    private final ExecutorService connectionCreator;
+
+    /**
+     * Single-threaded executor periodically retiring expired connections and reporting leaks.
+     */
+    private final ScheduledExecutorService housekeeper;
+
+    /**
+     * The highest number of connections in use since the last housekeeping run.
+     */
+    private final AtomicInteger peakDemand;
+
+    /**
+     * Exponentially smoothed peak demand, rising immediately with the demand but decaying slowly. Only written by the
+     * housekeeping thread.
+     */
+    private volatile double smoothedDemand;
+
     /**
      * The minimum total number of connections to maintain.
      */
@@ -50,11 +143,39 @@ public final class ConnectionPool {
      */
     private final int maxConnections;
 
+    /**
+     * The number of idle connections below which new connections are opened in the background.
+     */
+    private final int minIdleConnections;
+
     /**
      * Maximum time in milliseconds to wait on receiving a connection.
      */
     private final int timeoutMillis;
 
+    /**
+     * Time in milliseconds after which an idle connection may be closed if the pool is larger than needed, or {@code 0}
+     * if the pool never shrinks.
+     */
+    private final long idleTimeoutMillis;
+
+    /**
+     * Time in milliseconds after its last validation at which a connection is validated again before being handed
+     * out, or a negative number if connections are never validated.
+     */
+    private final long validationIntervalMillis;
+
+    /**
+     * Time in milliseconds after which a connection is retired, or {@code 0} if connections live forever.
+     */
+    private final long maxLifetimeMillis;
+
+    /**
+     * Time in milliseconds after which a borrowed connection is reported as potential leak, or {@code 0} if leaks are
+     * not reported.
+     */
+    private final long leakThresholdMillis;
+
     /**
      * The DBMS-specific JDBC URL for connecting to the database.
      */
@@ -68,25 +189,91 @@ public final class ConnectionPool {
     /**
      * Flag indicating whether the connection pool is shut down and not available for use anymore.
      */
-    private boolean shutDown;
+    private volatile boolean shutDown;
+
+    /**
+     * Usage statistics of this pool.
+     */
+    private final Metrics metrics;
+
+    /**
+     * Time callers spent in {@link #getConnection()}.
+     */
+    private final Metrics.Histogram acquireWait;
+
+    /**
+     * Time connections were held by their borrowers.
+     */
+    private final Metrics.Histogram borrowDuration;
+
+    /**
+     * Number of connections opened.
+     */
+    private final LongAdder openedCount;
+
+    /**
+     * Number of connections closed.
+     */
+    private final LongAdder closedCount;
+
+    /**
+     * Number of times new connections were scheduled for opening.
+     */
+    private final LongAdder growCount;
+
+    /**
+     * Number of times idle connections were closed due to low demand.
+     */
+    private final LongAdder shrinkCount;
+
+    /**
+     * Number of callers that gave up waiting for a connection.
+     */
+    private final LongAdder timeoutCount;
+
+    /**
+     * Number of connections discarded because they failed validation.
+     */
+    private final LongAdder invalidCount;
+
+    /**
+     * Number of borrowed connections reported as potential leak.
+     */
+    private final LongAdder leakCount;
 
     /**
      * Constructs a connection pool with the given technical parameters and sets up the initial connections.
      * <p>
-     * This initialization has to occur before any other method calls and can only be executed exactly once.
+     * This initialization has to occur before any other method calls and can only be executed exactly once. The first
+     * connection is opened right away in order to detect configuration errors early, the remaining initial connections
+     * are opened in the background.
      *
-     * @param jdbcDriver     The fully qualified class name of the JDBC database driver to use.
-     * @param jdbcURL        The DBMS-specific JDBC URL for connecting to the database. For a list, see
-     *                       https://vladmihalcea.com/jdbc-driver-connection-url-strings.
-     * @param jdbcProperties The DBMS-specific JDBC connection properties containing at least the credentials.
-     * @param minConnections The minimum amount of database connections to maintain.
-     * @param maxConnections The maximum amount of database connections to maintain.
-     * @param timeoutMillis  The maximum time in milliseconds to wait for receiving a connection.
+     * @param jdbcDriver               The fully qualified class name of the JDBC database driver to use.
+     * @param jdbcURL                  The DBMS-specific JDBC URL for connecting to the database. For a list, see
+     *                                 https://vladmihalcea.com/jdbc-driver-connection-url-strings.
+     * @param jdbcProperties           The DBMS-specific JDBC connection properties containing at least the
+     *                                 credentials.
+     * @param minConnections           The minimum amount of database connections to maintain.
+     * @param maxConnections           The maximum amount of database connections to maintain.
+     * @param minIdleConnections       The amount of idle database connections below which new ones are opened in
+     *                                 advance.
+     * @param timeoutMillis            The maximum time in milliseconds to wait for receiving a connection.
+     * @param idleTimeoutMillis        The time in milliseconds after which an idle connection may be closed if the
+     *                                 recent demand does not warrant keeping it. {@code 0} disables shrinking.
+     * @param validationIntervalMillis The time in milliseconds after which an idle connection is validated again
+     *                                 before being handed out. {@code 0} validates on every borrow, a negative number
+     *                                 disables validation.
+     * @param maxLifetimeMillis        The time in milliseconds after which a connection is retired. {@code 0} disables
+     *                                 retirement.
+     * @param leakThresholdMillis      The time in milliseconds after which a borrowed connection is reported as
+     *                                 potential leak. {@code 0} disables leak detection.
      * @throws IllegalStateException if the connection pool has already been initialized.
      * @see <a href="https://docs.oracle.com/javase/tutorial/jdbc/basics/connecting.html">Connecting with JDBC</a>
      */
     public ConnectionPool(final String jdbcDriver, final String jdbcURL, final Properties jdbcProperties,
-                          final int minConnections, final int maxConnections, final int timeoutMillis) {
+                          final int minConnections, final int maxConnections, final int minIdleConnections,
+                          final int timeoutMillis, final long idleTimeoutMillis, final long validationIntervalMillis,
+                          final long maxLifetimeMillis, final long leakThresholdMillis) {
         if (jdbcDriver == null) {
             throw new IllegalArgumentException("Driver class must not be null.");
         } else if (jdbcURL == null) {
@@ -97,8 +284,16 @@ public final class ConnectionPool {
             throw new IllegalArgumentException("Minimum number of connections must be a positive integer.");
         } else if (minConnections > maxConnections) {
             throw new IllegalArgumentException("Minimum number of connections must be <= maximum number.");
+        } else if (minIdleConnections < 0 || minIdleConnections > maxConnections) {
+            throw new IllegalArgumentException("Minimum number of idle connections must be in [0, maximum number].");
         } else if (timeoutMillis < 0) {
             throw new IllegalArgumentException("Timeout cannot be negative.");
+        } else if (idleTimeoutMillis < 0) {
+            throw new IllegalArgumentException("Idle timeout cannot be negative.");
+        } else if (maxLifetimeMillis < 0) {
+            throw new IllegalArgumentException("Maximum lifetime cannot be negative.");
+        } else if (leakThresholdMillis < 0) {
+            throw new IllegalArgumentException("Leak detection threshold cannot be negative.");
         }
 
         try {
@@ -110,61 +305,215 @@ public final class ConnectionPool {
 
         this.minConnections = minConnections;
         this.maxConnections = maxConnections;
+        this.minIdleConnections = minIdleConnections;
         this.timeoutMillis = timeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.validationIntervalMillis = validationIntervalMillis;
+        this.maxLifetimeMillis = maxLifetimeMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
         this.jdbcURL = jdbcURL;
         this.jdbcProperties = jdbcProperties;
 
-        int meanConnections = (int) Math.sqrt(minConnections * maxConnections);
-        availableConnections = new ArrayDeque<>(meanConnections);
-        usedConnections = new HashSet<>(meanConnections);
+        availableConnections = new ConcurrentLinkedDeque<>();
+        usedConnections = ConcurrentHashMap.newKeySet((int) Math.sqrt(minConnections * maxConnections));
+        waiters = new ConcurrentLinkedQueue<>();
+        lastConnection = new ThreadLocal<>();
+        lifecycles = new ConcurrentHashMap<>();
+        totalConnections = new AtomicInteger();
+        pendingConnections = new AtomicInteger();
+        peakDemand = new AtomicInteger();
+        connectionCreator = Executors.newSingleThreadExecutor(daemonThreadFactory("db-connection-creator"));
+        housekeeper = Executors.newSingleThreadScheduledExecutor(daemonThreadFactory("db-pool-housekeeper"));
+
+        metrics = new Metrics();
+        acquireWait = metrics.histogram("acquire_wait_seconds", "Time spent waiting for a connection.");
+        borrowDuration = metrics.histogram("borrow_duration_seconds", "Time a connection was held by its borrower.");
+        metrics.gauge("connections_in_use", "Connections currently borrowed.", usedConnections::size);
+        metrics.gauge("connections_idle", "Connections currently available.", availableConnections::size);
+        metrics.gauge("connections_open", "Connections currently open.",
+                () -> totalConnections.get() - pendingConnections.get());
+        metrics.gauge("connections_pending", "Connections currently being opened.", pendingConnections::get);
+        metrics.gauge("connections_max", "Maximum number of connections.", () -> maxConnections);
+        metrics.gauge("waiting_callers", "Callers currently waiting for a connection.", waiters::size);
+        metrics.gauge("utilization", "Ratio of borrowed to open connections.", this::getUtilization);
+        metrics.gauge("smoothed_demand", "Smoothed peak number of connections in use.", () -> smoothedDemand);
+        openedCount = metrics.counter("connections_opened_total", "Connections opened.");
+        closedCount = metrics.counter("connections_closed_total", "Connections closed.");
+        growCount = metrics.counter("grow_total", "Times new connections were scheduled for opening.");
+        shrinkCount = metrics.counter("shrink_total", "Times idle connections were closed due to low demand.");
+        timeoutCount = metrics.counter("acquire_timeouts_total", "Callers that timed out waiting for a connection.");
+        invalidCount = metrics.counter("validation_failures_total", "Connections discarded after failed validation.");
+        leakCount = metrics.counter("leaks_total", "Borrowed connections reported as potential leak.");
+
+        try {
+            availableConnections.add(openConnection());
+            totalConnections.incrementAndGet();
+        } catch (SQLException e) {
+            log.error("Could not acquire a database connection.", e);
+            throw new InternalError(e);
+        }
+        increaseConnections(minConnections - 1);
+        housekeeper.scheduleWithFixedDelay(this::keepHouse, HOUSEKEEPING_PERIOD_MILLIS, HOUSEKEEPING_PERIOD_MILLIS,
+                TimeUnit.MILLISECONDS);
+    }
 
-        increaseConnections(minConnections);
+    private static ThreadFactory daemonThreadFactory(final String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
     }
 
     /**
      * Requests a database connection for use.
      * <p>
-     * If no connections are currently available, the calling thread will wait until this is the case. Therefore any
-     * received connections should be returned soon
+     * If no connections are currently available, the calling thread will wait until a connection is returned or
+     * opened in the background, or the timeout elapses. Therefore any received connections should be returned soon.
      *
      * @return A free database connection that is ready to be used.
-     * @throws IllegalStateException if the connection pool has already been shut down.
+     * @throws IllegalStateException     if the connection pool has already been shut down.
+     * @throws OutOfConnectionsException if no connection became available within the timeout.
      */
-    public synchronized Connection getConnection() {
-        if (shutDown) {
-            throw new IllegalStateException("Connection pool has already been shut down.");
-        }
+    public Connection getConnection() {
+        checkState();
+        long start = System.nanoTime();
 
-        if (availableConnections.isEmpty()) {
-            int increasePotential = maxConnections - usedConnections.size();
-            if (increasePotential > 0) {
-                increaseConnections(Math.min(usedConnections.size(), increasePotential));
-            } else {
-                awaitConnections();
+        Connection connection = null;
+        if (waiters.isEmpty()) { // do not overtake callers that are already queued
+            connection = claimLastConnection();
+            if (connection == null) {
+                connection = claimAvailableConnection();
             }
         }
-        Connection connection = availableConnections.remove();
-        usedConnections.add(connection);
+        if (connection == null) {
+            increaseConnections(1);
+            connection = awaitConnection();
+        } else {
+            increaseConnections(0);
+        }
+        recordDemand();
+
+        Lifecycle lifecycle = lifecycles.get(connection);
+        if (lifecycle != null) {
+            lifecycle.borrow(leakThresholdMillis > 0 ? new Throwable("Connection borrowed here.") : null);
+        }
+        acquireWait.record(System.nanoTime() - start);
         log.debug("Connection " + connection.hashCode() + " acquired.");
         return connection;
     }
 
-    private void awaitConnections() {
-        while (availableConnections.isEmpty()) {
-            long t = System.currentTimeMillis();
-            try {
-                wait(timeoutMillis);
-            } catch (InterruptedException e) {
-                log.warning("Interrupted while waiting for a database connection.", e);
+    private Connection claimLastConnection() {
+        WeakReference<Connection> reference = lastConnection.get();
+        Connection connection = reference == null ? null : reference.get();
+        if (connection != null && availableConnections.removeFirstOccurrence(connection)) {
+            if (isHealthy(connection)) {
+                usedConnections.add(connection);
+                return connection;
             }
+            retire(connection);
+        }
+        return null;
+    }
+
+    private Connection claimAvailableConnection() {
+        Connection connection = availableConnections.pollFirst();
+        while (connection != null && !isHealthy(connection)) {
+            retire(connection);
+            connection = availableConnections.pollFirst();
+        }
+        if (connection != null) {
+            usedConnections.add(connection);
+        }
+        return connection;
+    }
 
-            /*
-             * Check for timeout. This is necessary as the thread might be awakened spuriously!
-             */
-            if (System.currentTimeMillis() - t >= timeoutMillis) { // timeout?
-                log.error("Timeout while waiting for a database connection.");
-                throw new OutOfConnectionsException("Out of database connections.");
+    private boolean isHealthy(final Connection connection) {
+        Lifecycle lifecycle = lifecycles.get(connection);
+        if (lifecycle == null) {
+            return true; // not opened by us, nothing known about it
+        } else if (isExpired(lifecycle)) {
+            log.debug("Connection " + connection.hashCode() + " exceeded its maximum lifetime.");
+            return false;
+        } else if (validationIntervalMillis < 0 || lifecycle.millisSinceValidation() < validationIntervalMillis) {
+            return true; // validated recently enough
+        }
+
+        try {
+            if (connection.isValid(Math.max(1, timeoutMillis / MILLIS_PER_SECOND))) {
+                lifecycle.validated();
+                return true;
             }
+        } catch (SQLException e) {
+            log.warning("Database error when validating connection.", e);
+        }
+        log.warning("Connection " + connection.hashCode() + " failed validation and is discarded.");
+        invalidCount.increment();
+        return false;
+    }
+
+    private boolean isExpired(final Lifecycle lifecycle) {
+        return maxLifetimeMillis > 0 && lifecycle.millisSinceCreation() >= maxLifetimeMillis;
+    }
+
+    private void retire(final Connection connection) {
+        lifecycles.remove(connection);
+        totalConnections.decrementAndGet();
+        close(connection);
+    }
+
+    private Connection awaitConnection() {
+        Waiter waiter = new Waiter();
+        waiters.add(waiter);
+
+        /*
+         * Check again after enqueueing. A connection returned in between would otherwise never reach this waiter. It
+         * goes to the longest waiting caller though, which is not necessarily this one.
+         */
+        handOverAvailableConnection();
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        boolean interrupted = false;
+        try {
+            while (true) {
+                Connection connection = waiter.receive();
+                if (connection != null) {
+                    return connection;
+                } else if (shutDown) {
+                    withdraw(waiter);
+                    throw new IllegalStateException("Connection pool has already been shut down.");
+                }
+
+                long remainingNanos = deadline - System.nanoTime();
+                if (remainingNanos <= 0) { // timeout?
+                    connection = waiter.cancel();
+                    if (connection != null) { // handed over just in time
+                        return connection;
+                    }
+                    waiters.remove(waiter);
+                    timeoutCount.increment();
+                    log.error("Timeout while waiting for a database connection.");
+                    throw new OutOfConnectionsException("Out of database connections.");
+                }
+
+                LockSupport.parkNanos(this, remainingNanos);
+                if (Thread.interrupted() && !interrupted) {
+                    log.warning("Interrupted while waiting for a database connection.");
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void withdraw(final Waiter waiter) {
+        Connection surplus = waiter.cancel();
+        waiters.remove(waiter);
+        if (surplus != null) { // someone handed over a connection meanwhile
+            offerConnection(surplus);
         }
     }
 
@@ -177,10 +526,9 @@ public final class ConnectionPool {
      * @throws IllegalStateException if the connection pool has already been shut down.
      * @throws IllegalStateException if the {@code connection} is already closed.
      */
-    public synchronized void releaseConnection(final Connection connection) {
-        if (shutDown) {
-            throw new IllegalStateException("Connection pool has already been shut down.");
-        } else if (connection == null) {
+    public void releaseConnection(final Connection connection) {
+        checkState();
+        if (connection == null) {
             throw new IllegalArgumentException("Connection to release must not be null.");
         } else if (!usedConnections.contains(connection)) {
             throw new IllegalArgumentException("Connection does not belong to this pool.");
@@ -190,12 +538,96 @@ public final class ConnectionPool {
 
         rollback(connection);
 
-        usedConnections.remove(connection);
-        availableConnections.add(connection);
+        Lifecycle lifecycle = lifecycles.get(connection);
+        if (lifecycle != null) {
+            long heldNanos = lifecycle.giveBack();
+            borrowDuration.record(heldNanos);
+            if (lifecycle.isLeakReported()) {
+                log.info("Connection " + connection.hashCode() + " previously reported as leak was returned after "
+                        + TimeUnit.NANOSECONDS.toMillis(heldNanos) + " ms.");
+            }
+            if (isExpired(lifecycle)) {
+                usedConnections.remove(connection);
+                retire(connection);
+                increaseConnections(waiters.isEmpty() ? 0 : 1);
+                log.debug("Connection " + connection.hashCode() + " retired on release due to its age.");
+                return;
+            }
+        }
+
+        WeakReference<Connection> reference = lastConnection.get();
+        if (reference == null || reference.get() != connection) {
+            lastConnection.set(new WeakReference<>(connection));
+        }
+
+        offerConnection(connection);
         log.debug("Connection " + connection.hashCode() + " released.");
+    }
 
-        balanceConnections();
-        notifyAll();
+    /**
+     * Hands a used connection to the longest waiting caller, or makes it available if nobody is waiting. Before it is
+     * handed over, the connection is checked like one borrowed from the available connections.
+     *
+     * @param connection The connection to pass on.
+     */
+    private void offerConnection(final Connection connection) {
+        boolean checked = false;
+        while (!waiters.isEmpty()) {
+            if (!checked) {
+                if (!isHealthy(connection)) {
+                    usedConnections.remove(connection);
+                    retire(connection);
+                    increaseConnections(waiters.isEmpty() ? 0 : 1);
+                    return;
+                }
+                checked = true;
+            }
+            Waiter waiter = waiters.poll();
+            if (waiter != null && waiter.handOver(connection)) {
+                return; // connection stays in use, just by someone else
+            }
+        }
+
+        usedConnections.remove(connection);
+        availableConnections.addFirst(connection);
+
+        /*
+         * A caller might have queued up after we checked for waiters but before the connection became available.
+         */
+        if (!waiters.isEmpty()) {
+            handOverAvailableConnection();
+        }
+    }
+
+    /**
+     * Hands an available connection, if there is a healthy one, to the longest waiting caller.
+     */
+    private void handOverAvailableConnection() {
+        Connection connection = claimAvailableConnection();
+        if (connection != null) {
+            offerConnection(connection);
+        }
+    }
+
+    /**
+     * Returns the usage statistics of this pool, i.e. acquire wait and borrow duration histograms, gauges of the
+     * connections in use and idle, and counters of opened, closed and lost connections.
+     *
+     * @return The metrics of this pool.
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    private double getUtilization() {
+        int total = totalConnections.get() - pendingConnections.get();
+        return total <= 0 ? 0 : (double) usedConnections.size() / total;
+    }
+
+    private void checkState() {
+        if (shutDown) {
+            throw new IllegalStateException("Connection pool has already been shut down.");
+        }
     }
 
     private boolean isClosed(final Connection connection) {
@@ -217,13 +649,42 @@ public final class ConnectionPool {
         }
     }
 
-    private void balanceConnections() {
-        int used = usedConnections.size();
-        int total = availableConnections.size() + used;
-        if (total > minConnections && (double) used / total < DECREASE_THRESH) {
-            int decreaseAmount = availableConnections.size() / 2;
-            decreaseConnections(decreaseAmount);
-            log.debug("Decreased available connections by " + decreaseAmount + " due to low load.");
+    private void recordDemand() {
+        int demand = usedConnections.size();
+        int peak = peakDemand.get();
+        while (demand > peak && !peakDemand.compareAndSet(peak, demand)) {
+            peak = peakDemand.get();
+        }
+    }
+
+    /**
+     * Updates the smoothed demand estimate and closes connections that have been idle for longer than the idle timeout,
+     * as long as the pool stays large enough for the smoothed demand at the target utilization.
+     */
+    private void shrinkConnections() {
+        int peak = peakDemand.getAndSet(usedConnections.size());
+        smoothedDemand = Math.max(peak, (1 - DEMAND_SMOOTHING) * smoothedDemand + DEMAND_SMOOTHING * peak);
+        if (idleTimeoutMillis == 0) {
+            return;
+        }
+
+        int target = Math.max(minConnections, (int) Math.ceil(smoothedDemand / TARGET_UTILIZATION));
+        int excess = Math.min(totalConnections.get() - pendingConnections.get() - target,
+                availableConnections.size() - minIdleConnections);
+        int closed = 0;
+        Iterator<Connection> leastRecentlyUsed = availableConnections.descendingIterator();
+        while (closed < excess && leastRecentlyUsed.hasNext()) {
+            Connection connection = leastRecentlyUsed.next();
+            Lifecycle lifecycle = lifecycles.get(connection);
+            if (lifecycle != null && lifecycle.millisSinceIdle() >= idleTimeoutMillis
+                    && availableConnections.removeFirstOccurrence(connection)) {
+                retire(connection);
+                closed++;
+            }
+        }
+        if (closed > 0) {
+            shrinkCount.increment();
+            log.debug("Closed " + closed + " idle connections due to low demand.");
         }
     }
 
@@ -233,23 +694,127 @@ public final class ConnectionPool {
     public synchronized void shutdown() {
         if (!shutDown) {
             log.debug("Shutting down connection pool.");
+            shutDown = true;
+            housekeeper.shutdownNow();
+            connectionCreator.shutdownNow();
+            try {
+                if (!connectionCreator.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    log.warning("Timeout while waiting for background connection creation to finish.");
+                }
+            } catch (InterruptedException e) {
+                log.warning("Interrupted while waiting for background connection creation to finish.", e);
+                Thread.currentThread().interrupt();
+            }
             availableConnections.addAll(usedConnections);
+            usedConnections.clear();
             decreaseConnections(availableConnections.size());
-            shutDown = true;
+            for (Waiter waiter : waiters) {
+                waiter.wakeUp();
+            }
         } else {
             log.debug("Connection pool already shut down. Doing nothing.");
         }
     }
 
-    private void increaseConnections(final int increaseAmount) {
+    /**
+     * Schedules opening new connections in the background if there are too few idle connections or callers waiting.
+     *
+     * @param demand The number of connections needed in any case, as long as the maximum number of connections allows.
+     */
+    private void increaseConnections(final int demand) {
+        int total;
+        int increaseAmount;
+        do {
+            total = totalConnections.get();
+            int idle = total - usedConnections.size(); // connections being opened count as idle already
+            int deficit = Math.max(Math.max(minIdleConnections - idle, minConnections - total), demand);
+            increaseAmount = Math.min(deficit, maxConnections - total);
+            if (increaseAmount <= 0) {
+                return;
+            }
+        } while (!totalConnections.compareAndSet(total, total + increaseAmount));
+
         log.debug("Increasing available database connections by " + increaseAmount + ".");
+        growCount.increment();
+        pendingConnections.addAndGet(increaseAmount);
         for (int i = 0; i < increaseAmount; i++) {
             try {
-                availableConnections.add(DriverManager.getConnection(jdbcURL, jdbcProperties));
+                connectionCreator.execute(this::createConnection);
+            } catch (RejectedExecutionException e) { // shut down concurrently
+                pendingConnections.decrementAndGet();
+                totalConnections.decrementAndGet();
+            }
+        }
+    }
+
+    private void createConnection() {
+        Connection connection = null;
+        if (!shutDown) {
+            try {
+                connection = openConnection();
             } catch (SQLException e) {
-                log.error("Could not acquire a database connection.", e);
-                throw new InternalError(e);
+                log.error("Could not open a database connection in the background.", e);
+            }
+        }
+        pendingConnections.decrementAndGet();
+
+        if (connection == null) {
+            totalConnections.decrementAndGet();
+        } else if (shutDown) {
+            totalConnections.decrementAndGet();
+            close(connection);
+        } else {
+            usedConnections.add(connection);
+            offerConnection(connection);
+        }
+    }
+
+    private Connection openConnection() throws SQLException {
+        Connection connection = DriverManager.getConnection(jdbcURL, jdbcProperties);
+        lifecycles.put(connection, new Lifecycle());
+        openedCount.increment();
+        return connection;
+    }
+
+    /**
+     * Retires idle connections that exceeded their maximum lifetime, reports borrowed connections that are held for
+     * too long, closes idle connections not needed anymore and replaces lost connections.
+     */
+    private void keepHouse() {
+        try {
+            if (maxLifetimeMillis > 0) {
+                for (Connection connection : availableConnections) {
+                    Lifecycle lifecycle = lifecycles.get(connection);
+                    if (lifecycle != null && isExpired(lifecycle)
+                            && availableConnections.removeFirstOccurrence(connection)) {
+                        retire(connection);
+                        log.debug("Retired connection " + connection.hashCode() + " due to its age.");
+                    }
+                }
             }
+            if (leakThresholdMillis > 0) {
+                for (Connection connection : usedConnections) {
+                    Lifecycle lifecycle = lifecycles.get(connection);
+                    if (lifecycle != null && lifecycle.reportLeak(leakThresholdMillis)) {
+                        leakCount.increment();
+                        log.warning("Connection " + connection.hashCode() + " has been held for more than "
+                                + leakThresholdMillis + " ms, possibly leaked.", lifecycle.getBorrowTrace());
+                    }
+                }
+            }
+            shrinkConnections();
+            increaseConnections(0);
+        } catch (RuntimeException e) { // an escaping exception would cancel all further housekeeping
+            log.error("Error during connection pool housekeeping.", e);
+        }
+    }
+
+    private void close(final Connection connection) {
+        closedCount.increment();
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.warning("Failed to close connection.", e);
         }
     }
 
@@ -260,13 +825,220 @@ public final class ConnectionPool {
 
         log.debug("Decreasing available database connections by " + decreaseAmount + ".");
         for (int i = 0; i < decreaseAmount; i++) {
-            Connection conn = availableConnections.remove();
-            try {
-                conn.close();
-            } catch (SQLException e) {
-                log.warning("Failed to close connection.", e);
+            Connection conn = availableConnections.pollLast(); // least recently used first
+            if (conn == null) {
+                break; // concurrently borrowed in the meantime
+            }
+            totalConnections.decrementAndGet();
+            lifecycles.remove(conn);
+            close(conn);
+        }
+    }
+
+    /**
+     * Timing information about a pooled connection.
+     */
+    private static final class Lifecycle {
+
+        /**
+         * Point in time in nanoseconds at which the connection was opened.
+         */
+        private final long createdNanos;
+
+        /**
+         * Point in time in nanoseconds at which the connection was last known to be alive.
+         */
+        private volatile long validatedNanos;
+
+        /**
+         * Point in time in nanoseconds at which the connection was borrowed, if currently borrowed.
+         */
+        private volatile long borrowedNanos;
+
+        /**
+         * Point in time in nanoseconds at which the connection was last given back, or opened if never borrowed.
+         */
+        private volatile long idleNanos;
+
+        /**
+         * Stack trace of the current borrower, if recorded.
+         */
+        private volatile Throwable borrowTrace;
+
+        /**
+         * Whether the current borrower has already been reported for holding the connection too long.
+         */
+        private final AtomicBoolean leakReported;
+
+        /**
+         * Constructs the lifecycle of a freshly opened connection.
+         */
+        Lifecycle() {
+            createdNanos = System.nanoTime();
+            validatedNanos = createdNanos;
+            idleNanos = createdNanos;
+            leakReported = new AtomicBoolean();
+        }
+
+        /**
+         * Records that the connection has just been borrowed.
+         *
+         * @param trace The stack trace of the borrower or {@code null} if not needed.
+         */
+        void borrow(final Throwable trace) {
+            borrowTrace = trace;
+            leakReported.set(false);
+            borrowedNanos = System.nanoTime();
+        }
+
+        /**
+         * Records that the connection has just been given back.
+         *
+         * @return The time in nanoseconds the connection was borrowed.
+         */
+        long giveBack() {
+            borrowTrace = null;
+            idleNanos = System.nanoTime();
+            return idleNanos - borrowedNanos;
+        }
+
+        /**
+         * Records that the connection has just been successfully validated.
+         */
+        void validated() {
+            validatedNanos = System.nanoTime();
+        }
+
+        /**
+         * Marks the current borrower as reported if it holds the connection for longer than the given threshold.
+         *
+         * @param thresholdMillis The time in milliseconds after which a borrower is considered leaking.
+         * @return {@code true} iff the borrower is leaking and has not been reported before.
+         */
+        boolean reportLeak(final long thresholdMillis) {
+            return borrowTrace != null
+                    && TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - borrowedNanos) >= thresholdMillis
+                    && leakReported.compareAndSet(false, true);
+        }
+
+        /**
+         * Returns whether the current borrower has been reported for holding the connection too long.
+         *
+         * @return {@code true} iff the current borrower has been reported.
+         */
+        boolean isLeakReported() {
+            return leakReported.get();
+        }
+
+        /**
+         * Returns the stack trace of the current borrower.
+         *
+         * @return The stack trace or {@code null} if none was recorded.
+         */
+        Throwable getBorrowTrace() {
+            return borrowTrace;
+        }
+
+        /**
+         * Returns the age of the connection.
+         *
+         * @return The time in milliseconds since the connection was opened.
+         */
+        long millisSinceCreation() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - createdNanos);
+        }
+
+        /**
+         * Returns the time since the connection was last given back.
+         *
+         * @return The time in milliseconds since the connection became idle.
+         */
+        long millisSinceIdle() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - idleNanos);
+        }
+
+        /**
+         * Returns the time since the connection was last known to be alive.
+         *
+         * @return The time in milliseconds since the last validation.
+         */
+        long millisSinceValidation() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - validatedNanos);
+        }
+
+    }
+
+    /**
+     * A caller parked until a connection is handed over to it.
+     */
+    private static final class Waiter {
+
+        /**
+         * Marker for a waiter that gave up and must not be handed a connection anymore.
+         */
+        private static final Object CANCELLED = new Object();
+
+        /**
+         * The waiting thread.
+         */
+        private final Thread thread;
+
+        /**
+         * The connection handed over, {@link #CANCELLED}, or {@code null} while still waiting.
+         */
+        private final AtomicReference<Object> slot;
+
+        /**
+         * Constructs a waiter for the current thread.
+         */
+        Waiter() {
+            thread = Thread.currentThread();
+            slot = new AtomicReference<>();
+        }
+
+        /**
+         * Hands the given connection to this waiter and wakes it up.
+         *
+         * @param connection The connection to hand over.
+         * @return {@code true} iff the waiter took the connection, {@code false} if it had already given up.
+         */
+        boolean handOver(final Connection connection) {
+            if (slot.compareAndSet(null, connection)) {
+                LockSupport.unpark(thread);
+                return true;
             }
+            return false;
         }
+
+        /**
+         * Returns the connection handed over so far.
+         *
+         * @return The connection or {@code null} if none was handed over yet.
+         */
+        Connection receive() {
+            Object value = slot.get();
+            return value instanceof Connection ? (Connection) value : null;
+        }
+
+        /**
+         * Gives up waiting such that no connection will be handed over from now on.
+         *
+         * @return A connection handed over before cancellation succeeded or {@code null} if there was none.
+         */
+        Connection cancel() {
+            if (slot.compareAndSet(null, CANCELLED)) {
+                return null;
+            }
+            return receive();
+        }
+
+        /**
+         * Wakes up the waiting thread without handing over a connection.
+         */
+        void wakeUp() {
+            LockSupport.unpark(thread);
+        }
+
     }
 
 }
@@ -5,6 +5,9 @@ import java.sql.SQLException;
 import tech.bugger.persistence.exception.TransactionException;
 import tech.bugger.persistence.gateway.AttachmentDBGateway;
 import tech.bugger.persistence.gateway.AttachmentGateway;
+import tech.bugger.persistence.gateway.FullTextSearchDBGateway;
+import tech.bugger.persistence.gateway.MailDBGateway;
+import tech.bugger.persistence.gateway.MailGateway;
 import tech.bugger.persistence.gateway.MetadataDBGateway;
 import tech.bugger.persistence.gateway.MetadataGateway;
 import tech.bugger.persistence.gateway.NotificationDBGateway;
@@ -45,6 +48,11 @@ public class DBTransaction implements Transaction {
      */
     private Connection connection;
 
+    /**
+     * The reserved database connection wrapped for profiling the statements of the gateways.
+     */
+    private Connection profiledConnection;
+
     /**
      * Whether this transaction has been completed, i.e. committed or aborted.
      */
@@ -53,11 +61,13 @@ public class DBTransaction implements Transaction {
     /**
      * Constructs a new transaction with a connection pool to use.
      *
-     * @param connectionPool The connection pool to borrow connections from.
+     * @param connectionPool    The connection pool to borrow connections from.
+     * @param statementProfiler The profiler of the statements executed within the transaction.
      */
-    public DBTransaction(final ConnectionPool connectionPool) {
+    public DBTransaction(final ConnectionPool connectionPool, final StatementProfiler statementProfiler) {
         this.connectionPool = connectionPool;
         connection = connectionPool.getConnection();
+        profiledConnection = statementProfiler.wrap(connection);
         completed = false;
         try {
             connection.setAutoCommit(false);
@@ -104,6 +114,7 @@ public class DBTransaction implements Transaction {
         }
         connectionPool.releaseConnection(connection);
         connection = null;
+        profiledConnection = null;
     }
 
     /**
@@ -112,7 +123,16 @@ public class DBTransaction implements Transaction {
     @Override
     public AttachmentGateway newAttachmentGateway() {
         checkState();
-        return new AttachmentDBGateway(connection);
+        return new AttachmentDBGateway(profiledConnection);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public MailGateway newMailGateway() {
+        checkState();
+        return new MailDBGateway(profiledConnection);
     }
 
     /**
@@ -121,7 +141,7 @@ public class DBTransaction implements Transaction {
     @Override
     public MetadataGateway newMetadataGateway() {
         checkState();
-        return new MetadataDBGateway(connection);
+        return new MetadataDBGateway(profiledConnection);
     }
 
     /**
@@ -130,7 +150,7 @@ public class DBTransaction implements Transaction {
     @Override
     public NotificationGateway newNotificationGateway() {
         checkState();
-        return new NotificationDBGateway(connection);
+        return new NotificationDBGateway(profiledConnection);
     }
 
     /**
@@ -139,7 +159,7 @@ public class DBTransaction implements Transaction {
     @Override
     public PostGateway newPostGateway() {
         checkState();
-        return new PostDBGateway(connection, newUserGateway(), newAttachmentGateway());
+        return new PostDBGateway(profiledConnection, newUserGateway(), newAttachmentGateway());
     }
 
     /**
@@ -148,7 +168,7 @@ public class DBTransaction implements Transaction {
     @Override
     public ReportGateway newReportGateway() {
         checkState();
-        return new ReportDBGateway(connection, newUserGateway());
+        return new ReportDBGateway(profiledConnection, newUserGateway());
     }
 
     /**
@@ -157,7 +177,16 @@ public class DBTransaction implements Transaction {
     @Override
     public SearchGateway newSearchGateway() {
         checkState();
-        return new SearchDBGateway(connection);
+        return new SearchDBGateway(profiledConnection);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SearchGateway newFullTextSearchGateway() {
+        checkState();
+        return new FullTextSearchDBGateway(profiledConnection);
     }
 
     /**
@@ -166,7 +195,7 @@ public class DBTransaction implements Transaction {
     @Override
     public SettingsGateway newSettingsGateway() {
         checkState();
-        return new SettingsDBGateway(connection);
+        return new SettingsDBGateway(profiledConnection);
     }
 
     /**
@@ -175,7 +204,7 @@ public class DBTransaction implements Transaction {
     @Override
     public StatisticsGateway newStatisticsGateway() {
         checkState();
-        return new StatisticsDBGateway(connection);
+        return new StatisticsDBGateway(profiledConnection);
     }
 
     /**
@@ -184,7 +213,7 @@ public class DBTransaction implements Transaction {
     @Override
     public SubscriptionGateway newSubscriptionGateway() {
         checkState();
-        return new SubscriptionDBGateway(connection);
+        return new SubscriptionDBGateway(profiledConnection);
     }
 
     /**
@@ -193,7 +222,7 @@ public class DBTransaction implements Transaction {
     @Override
     public TokenGateway newTokenGateway() {
         checkState();
-        return new TokenDBGateway(connection);
+        return new TokenDBGateway(profiledConnection);
     }
 
     /**
@@ -202,7 +231,7 @@ public class DBTransaction implements Transaction {
     @Override
     public TopicGateway newTopicGateway() {
         checkState();
-        return new TopicDBGateway(connection);
+        return new TopicDBGateway(profiledConnection);
     }
 
     /**
@@ -211,7 +240,7 @@ public class DBTransaction implements Transaction {
     @Override
     public UserGateway newUserGateway() {
         checkState();
-        return new UserDBGateway(connection);
+        return new UserDBGateway(profiledConnection);
     }
 
     /**
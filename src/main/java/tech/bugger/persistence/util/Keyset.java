@@ -0,0 +1,220 @@
+package tech.bugger.persistence.util;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+import tech.bugger.global.transfer.Selection;
+import tech.bugger.global.util.Pagitable;
+
+/**
+ * Helper for paginating queries by keyset, i.e. by seeking to the sort column value and ID of the first or last item
+ * of the current page instead of skipping a number of items.
+ * <p>
+ * Queries are wrapped by {@link #paginate(String)} and parametrized by {@link #bind(StatementParametrizer)} after
+ * all parameters of the wrapped query. Every row read must be passed to {@link #track(ResultSet)}, and the items read
+ * to {@link #finish(List)}, which remembers the positions of the first and last item in the {@link Selection}. Unless
+ * the selection asks to seek from such a position, the page is located by its item offset as usual.
+ */
+public final class Keyset {
+
+    /**
+     * Pattern for data type names which may be safely used in casts.
+     */
+    private static final Pattern TYPE_NAME = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    /**
+     * The selection to paginate by.
+     */
+    private final Selection selection;
+
+    /**
+     * The expression to sort by in terms of the columns of the wrapped query.
+     */
+    private final String sortExpression;
+
+    /**
+     * The column of the wrapped query holding the unique item IDs.
+     */
+    private final String idColumn;
+
+    /**
+     * How the page is actually positioned.
+     */
+    private final Selection.Seek seek;
+
+    /**
+     * The position to seek from, if any.
+     */
+    private final Selection.Cursor cursor;
+
+    /**
+     * Whether the wrapped query is read in the opposite sort order.
+     */
+    private final boolean reversed;
+
+    /**
+     * The name of the data type of the sort expression.
+     */
+    private String keyType;
+
+    /**
+     * The position of the first row read.
+     */
+    private Selection.Cursor first;
+
+    /**
+     * The position of the last row read.
+     */
+    private Selection.Cursor last;
+
+    /**
+     * Constructs a new keyset paginator for one query.
+     *
+     * @param selection      The selection to paginate by.
+     * @param sortExpression The expression to sort by in terms of the columns of the wrapped query.
+     * @param idColumn       The column of the wrapped query holding the unique item IDs.
+     */
+    public Keyset(final Selection selection, final String sortExpression, final String idColumn) {
+        this.selection = selection;
+        this.sortExpression = sortExpression;
+        this.idColumn = idColumn;
+
+        Selection.Seek requested = selection.getSeek() == null ? Selection.Seek.NONE : selection.getSeek();
+        Selection.Cursor from = null;
+        if (requested == Selection.Seek.AFTER) {
+            from = selection.getLastCursor();
+        } else if (requested == Selection.Seek.BEFORE) {
+            from = selection.getFirstCursor();
+        }
+        if ((requested == Selection.Seek.AFTER || requested == Selection.Seek.BEFORE)
+                && (from == null || from.getKeyType() == null || !TYPE_NAME.matcher(from.getKeyType()).matches())) {
+            requested = Selection.Seek.NONE;
+            from = null;
+        }
+        this.seek = requested;
+        this.cursor = from;
+        this.reversed = requested == Selection.Seek.BEFORE || requested == Selection.Seek.LAST;
+    }
+
+    /**
+     * Wraps the given query such that it only yields the requested page in the requested order. The wrapped query
+     * must neither be sorted nor limited itself.
+     *
+     * @param sql The query to paginate.
+     * @return The paginated query, with parameters for the position and limits following those of {@code sql}.
+     */
+    public String paginate(final String sql) {
+        String direction = isAscending() ? " ASC" : " DESC";
+        return "SELECT keyset.*, " + sortExpression + " AS seek_key FROM (" + sql + ") AS keyset"
+                + condition()
+                + " ORDER BY " + sortExpression + direction + ", " + idColumn + direction
+                + " LIMIT ? OFFSET ?";
+    }
+
+    /**
+     * Substitutes the parameters added by {@link #paginate(String)}.
+     *
+     * @param parametrizer The parametrizer having substituted all parameters of the wrapped query.
+     * @return The given parametrizer for further use.
+     * @throws SQLException if substituting the parameters is not possible.
+     */
+    public StatementParametrizer bind(final StatementParametrizer parametrizer) throws SQLException {
+        if (cursor != null) {
+            if (cursor.getKey() != null) {
+                parametrizer.string(cursor.getKey());
+            }
+            parametrizer.integer(cursor.getId());
+        }
+        return parametrizer.integer(getLimit()).integer(getOffset());
+    }
+
+    /**
+     * Remembers the position of the current row of the given result set.
+     *
+     * @param rs The result set of the paginated query.
+     * @throws SQLException if reading the position is not possible.
+     */
+    public void track(final ResultSet rs) throws SQLException {
+        if (keyType == null) {
+            keyType = rs.getMetaData().getColumnTypeName(rs.findColumn("seek_key"));
+        }
+        last = new Selection.Cursor(rs.getString("seek_key"), keyType, rs.getInt(idColumn));
+        if (first == null) {
+            first = last;
+        }
+    }
+
+    /**
+     * Brings the items read into the requested order and remembers the positions of the first and last of them in the
+     * selection.
+     *
+     * @param items The items read from the paginated query in the order read.
+     */
+    public void finish(final List<?> items) {
+        if (reversed) {
+            Collections.reverse(items);
+            selection.setFirstCursor(last);
+            selection.setLastCursor(first);
+        } else {
+            selection.setFirstCursor(first);
+            selection.setLastCursor(last);
+        }
+    }
+
+    /**
+     * Returns whether the wrapped query is read in ascending order.
+     *
+     * @return Whether to read in ascending order.
+     */
+    private boolean isAscending() {
+        return selection.isAscending() != reversed;
+    }
+
+    /**
+     * Builds the condition restricting the wrapped query to the items after {@link #cursor} in reading order. Since
+     * {@code NULL}s come last in ascending and first in descending order, they need special treatment.
+     *
+     * @return The condition, or an empty string if the page is not positioned by a cursor.
+     */
+    private String condition() {
+        if (cursor == null) {
+            return "";
+        }
+        boolean ascending = isAscending();
+        if (cursor.getKey() == null) {
+            return ascending
+                    ? " WHERE " + sortExpression + " IS NULL AND " + idColumn + " > ?"
+                    : " WHERE (" + sortExpression + " IS NOT NULL OR " + idColumn + " < ?)";
+        }
+        String row = "(" + sortExpression + ", " + idColumn + ")";
+        String value = "(CAST(? AS \"" + cursor.getKeyType() + "\"), ?)";
+        return ascending
+                ? " WHERE (" + row + " > " + value + " OR " + sortExpression + " IS NULL)"
+                : " WHERE " + row + " < " + value;
+    }
+
+    /**
+     * Returns the maximum number of items to read.
+     *
+     * @return The item limit.
+     */
+    private int getLimit() {
+        int limit = Pagitable.getItemLimit(selection);
+        if (seek == Selection.Seek.LAST && selection.getTotalSize() % limit != 0) {
+            return selection.getTotalSize() % limit;
+        }
+        return limit;
+    }
+
+    /**
+     * Returns the number of items to skip.
+     *
+     * @return The item offset.
+     */
+    private int getOffset() {
+        return seek == Selection.Seek.NONE ? Pagitable.getItemOffset(selection) : 0;
+    }
+
+}
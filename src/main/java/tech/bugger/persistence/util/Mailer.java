@@ -6,22 +6,33 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import javax.mail.Address;
 import javax.mail.Authenticator;
 import javax.mail.Message;
 import javax.mail.MessagingException;
 import javax.mail.PasswordAuthentication;
+import javax.mail.SendFailedException;
 import javax.mail.Session;
 import javax.mail.Transport;
 import javax.mail.internet.AddressException;
 import javax.mail.internet.InternetAddress;
 import javax.mail.internet.MimeMessage;
 import tech.bugger.global.util.Log;
+import tech.bugger.global.util.Metrics;
 
 /**
  * Basic e-mail sender.
  * <p>
  * This is a facade for any mailing API (currently Jakarta Mail), adapted to our needs.
+ * <p>
+ * Messages are sent over a fixed number of pooled SMTP connections, each of which is opened on first use and reused
+ * for many messages in order to avoid a handshake per message. A connection is closed after a configurable number of
+ * messages or as soon as sending over it fails, and reopened by the next sender. Senders wait while all connections are
+ * in use, which also bounds the load put on the SMTP server.
  */
 public final class Mailer {
 
@@ -30,24 +41,74 @@ public final class Mailer {
      */
     private static final Log log = Log.forClass(Mailer.class);
 
+    /**
+     * The maximum number of messages sent over a single connection if not configured otherwise.
+     */
+    private static final int DEFAULT_MESSAGES_PER_CONNECTION = 100;
+
+    /**
+     * The transport protocol used if the configuration does not specify one.
+     */
+    private static final String DEFAULT_PROTOCOL = "smtp";
+
     /**
      * E-mail session used by this mailer throughout its lifetime.
      */
     private final Session session;
 
     /**
-     * Constructs a new mailer without authentication.
+     * The maximum number of messages sent over a single connection before it is closed.
+     */
+    private final int messagesPerConnection;
+
+    /**
+     * The pooled connections currently not in use.
+     */
+    private final BlockingQueue<PooledTransport> transports;
+
+    /**
+     * The number of pooled connections currently open.
+     */
+    private final AtomicInteger openConnections;
+
+    /**
+     * The metrics of this mailer.
+     */
+    private final Metrics metrics;
+
+    /**
+     * The number of messages sent so far.
+     */
+    private final LongAdder sentCount;
+
+    /**
+     * The number of messages that could not be sent so far.
+     */
+    private final LongAdder failedCount;
+
+    /**
+     * The number of connections opened so far.
+     */
+    private final LongAdder connectCount;
+
+    /**
+     * The time taken to hand messages over to the SMTP server.
+     */
+    private final Metrics.Histogram sendDuration;
+
+    /**
+     * Constructs a new mailer without authentication, sending over a single connection.
      *
      * @param is Stream of mail configuration settings. The format and valid entries are specified in the
      *           <a href="https://eclipse-ee4j.github.io/mail/docs/api/">Jakarta Mail API Docs</a>.
      * @throws IOException if the configuration could not be read.
      */
     public Mailer(final InputStream is) throws IOException {
-        session = Session.getInstance(loadConfiguration(is));
+        this(Session.getInstance(loadConfiguration(is)), 1, DEFAULT_MESSAGES_PER_CONNECTION);
     }
 
     /**
-     * Constructs a new mailer with authentication parameters.
+     * Constructs a new mailer with authentication parameters, sending over a single connection.
      *
      * @param is       Stream of mail configuration settings. The format and valid entries are specified in the
      *                 <a href="https://eclipse-ee4j.github.io/mail/docs/api/">Jakarta Mail API Docs</a>.
@@ -56,15 +117,55 @@ public final class Mailer {
      * @throws IOException if the configuration could not be read.
      */
     public Mailer(final InputStream is, final String username, final String password) throws IOException {
-        session = Session.getInstance(loadConfiguration(is), new Authenticator() {
+        this(is, username, password, 1, DEFAULT_MESSAGES_PER_CONNECTION);
+    }
+
+    /**
+     * Constructs a new mailer with authentication parameters.
+     *
+     * @param is                    Stream of mail configuration settings. The format and valid entries are specified
+     *                              in the <a href="https://eclipse-ee4j.github.io/mail/docs/api/">Jakarta Mail API
+     *                              Docs</a>.
+     * @param username              The username needed for authentication.
+     * @param password              The password needed for authentication.
+     * @param connections           The maximum number of simultaneously open connections to the SMTP server.
+     * @param messagesPerConnection The maximum number of messages sent over a single connection before it is closed.
+     * @throws IOException if the configuration could not be read.
+     */
+    public Mailer(final InputStream is, final String username, final String password, final int connections,
+                  final int messagesPerConnection) throws IOException {
+        this(Session.getInstance(loadConfiguration(is), new Authenticator() {
             @Override
             protected PasswordAuthentication getPasswordAuthentication() {
                 return new PasswordAuthentication(username, password);
             }
-        });
+        }), connections, messagesPerConnection);
     }
 
-    private Properties loadConfiguration(final InputStream is) throws IOException {
+    private Mailer(final Session session, final int connections, final int messagesPerConnection) {
+        if (connections < 1 || messagesPerConnection < 1) {
+            throw new IllegalArgumentException("Connection count and messages per connection must be positive.");
+        }
+        this.session = session;
+        this.messagesPerConnection = messagesPerConnection;
+        transports = new ArrayBlockingQueue<>(connections);
+        for (int i = 0; i < connections; i++) {
+            transports.add(new PooledTransport());
+        }
+        openConnections = new AtomicInteger();
+
+        metrics = new Metrics();
+        sentCount = metrics.counter("messages_sent_total", "Messages handed over to the SMTP server.");
+        failedCount = metrics.counter("messages_failed_total", "Messages that could not be sent.");
+        connectCount = metrics.counter("connections_opened_total", "Connections opened to the SMTP server.");
+        sendDuration = metrics.histogram("send_duration_seconds",
+                "Time taken to send a message, including connecting.");
+        metrics.gauge("connections_open", "Connections currently open.", openConnections::get);
+        metrics.gauge("connections_idle", "Connections currently not in use.", transports::size);
+        metrics.gauge("connections_max", "Maximum number of connections.", () -> connections);
+    }
+
+    private static Properties loadConfiguration(final InputStream is) throws IOException {
         Properties configuration = new Properties();
         try {
             configuration.load(is);
@@ -96,22 +197,90 @@ public final class Mailer {
                          final String subject, final String content) {
         log.debug(String.format("Sending mail to %s with cc %s, bcc %s, replyto %s and subject '%s'.",
                 Arrays.toString(to), Arrays.toString(cc), Arrays.toString(bcc), Arrays.toString(replyto), subject));
+        MimeMessage message = new MimeMessage(session);
         try {
-            MimeMessage message = new MimeMessage(session);
             message.setRecipients(Message.RecipientType.TO, to);
             message.setRecipients(Message.RecipientType.CC, cc);
             message.setRecipients(Message.RecipientType.BCC, bcc);
             message.setReplyTo(replyto);
             message.setSubject(subject);
             message.setText(content);
-            Transport.send(message);
+            message.saveChanges();
+        } catch (MessagingException e) {
+            log.warning("Could not compose mail with subject \"" + subject + "\".", e);
+            failedCount.increment();
+            return false;
+        }
+        if (to.length + cc.length + bcc.length == 0) {
+            log.warning("Could not send mail with subject \"" + subject + "\" without recipients.");
+            failedCount.increment();
+            return false;
+        }
+
+        PooledTransport transport;
+        try {
+            transport = transports.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warning("Interrupted while waiting for a connection to send mail with subject \"" + subject + "\".");
+            failedCount.increment();
+            return false;
+        }
+        long start = System.nanoTime();
+        try {
+            boolean reused = transport.isOpen();
+            try {
+                transport.send(message);
+            } catch (MessagingException e) {
+                if (!reused || isPartiallySent(e)) {
+                    throw e;
+                }
+                // The server may have dropped the idle connection in the meantime, so try once more on a fresh one.
+                log.debug("Retrying after sending over reused connection failed.", e);
+                transport.send(message);
+            }
+            sentCount.increment();
             return true;
         } catch (MessagingException e) {
             log.warning("Could not send mail with subject \"" + subject + "\".", e);
+            failedCount.increment();
             return false;
+        } finally {
+            sendDuration.record(System.nanoTime() - start);
+            transports.add(transport);
         }
     }
 
+    private static boolean isPartiallySent(final MessagingException e) {
+        if (!(e instanceof SendFailedException)) {
+            return false;
+        }
+        Address[] sent = ((SendFailedException) e).getValidSentAddresses();
+        return sent != null && sent.length > 0;
+    }
+
+    /**
+     * Closes all pooled connections which are currently not in use. Connections in use are closed by their senders
+     * after sending, once they have been recycled or have failed.
+     */
+    public void close() {
+        Collection<PooledTransport> idle = new ArrayList<>();
+        transports.drainTo(idle);
+        for (PooledTransport transport : idle) {
+            transport.close();
+        }
+        transports.addAll(idle);
+    }
+
+    /**
+     * Returns the metrics of this mailer.
+     *
+     * @return The metrics.
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
     private Address[] addressify(final Collection<String> addresses) {
         Collection<Address> validAddresses = new ArrayList<>(addresses.size());
         for (String address : addresses) {
@@ -124,4 +293,89 @@ public final class Mailer {
         return validAddresses.toArray(new Address[]{});
     }
 
+    /**
+     * A slot of the connection pool holding a lazily opened connection to the SMTP server.
+     * <p>
+     * A slot is used by at most one sender at a time, namely the one that took it from {@link #transports}.
+     */
+    private final class PooledTransport {
+
+        /**
+         * The open connection, or {@code null} if the connection is closed.
+         */
+        private Transport transport;
+
+        /**
+         * The number of messages sent over the current connection.
+         */
+        private int messageCount;
+
+        /**
+         * Returns whether this slot currently holds an open connection.
+         *
+         * @return Whether the connection is open.
+         */
+        boolean isOpen() {
+            return transport != null;
+        }
+
+        /**
+         * Sends the given message over the connection of this slot, opening the connection if necessary. The
+         * connection is closed if sending fails or if it has reached its maximum number of messages.
+         *
+         * @param message The message to send.
+         * @throws MessagingException if connecting or sending fails.
+         */
+        void send(final Message message) throws MessagingException {
+            try {
+                if (transport == null) {
+                    open();
+                }
+                transport.sendMessage(message, message.getAllRecipients());
+            } catch (MessagingException e) {
+                // Rejected recipients leave the connection usable, whereas a dropped connection may fail the same way.
+                if (e instanceof SendFailedException && transport != null && transport.isConnected()) {
+                    countMessage();
+                } else {
+                    close();
+                }
+                throw e;
+            }
+            countMessage();
+        }
+
+        private void open() throws MessagingException {
+            String protocol = session.getProperty("mail.transport.protocol");
+            Transport newTransport = session.getTransport(protocol == null ? DEFAULT_PROTOCOL : protocol);
+            newTransport.connect();
+            transport = newTransport;
+            messageCount = 0;
+            openConnections.incrementAndGet();
+            connectCount.increment();
+        }
+
+        private void countMessage() {
+            if (transport != null && ++messageCount >= messagesPerConnection) {
+                close();
+            }
+        }
+
+        /**
+         * Closes the connection of this slot, if any.
+         */
+        void close() {
+            if (transport == null) {
+                return;
+            }
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                log.debug("Could not close SMTP connection cleanly.", e);
+            }
+            transport = null;
+            openConnections.decrementAndGet();
+        }
+
+    }
+
 }
@@ -0,0 +1,125 @@
+package tech.bugger.persistence.util;
+
+/**
+ * An e-mail in the durable mail queue together with its delivery state.
+ */
+public final class QueuedMail {
+
+    /**
+     * The ID of the queued e-mail, or {@code null} if it has not been queued yet.
+     */
+    private Integer id;
+
+    /**
+     * The e-mail to send.
+     */
+    private final Mail mail;
+
+    /**
+     * The priority of the e-mail. Lower values are sent first.
+     */
+    private final int priority;
+
+    /**
+     * The ID of the notification announced by the e-mail, if any.
+     */
+    private final Integer notificationID;
+
+    /**
+     * The number of attempts to send the e-mail made so far, including the current one.
+     */
+    private int attempts;
+
+    /**
+     * Constructs a new e-mail to queue.
+     *
+     * @param mail           The e-mail to send.
+     * @param priority       The priority of the e-mail. Lower values are sent first.
+     * @param notificationID The ID of the notification announced by the e-mail, or {@code null} if there is none.
+     */
+    public QueuedMail(final Mail mail, final int priority, final Integer notificationID) {
+        this.mail = mail;
+        this.priority = priority;
+        this.notificationID = notificationID;
+    }
+
+    /**
+     * Returns the ID of the queued e-mail.
+     *
+     * @return The ID, or {@code null} if the e-mail has not been queued yet.
+     */
+    public Integer getId() {
+        return id;
+    }
+
+    /**
+     * Sets the ID of the queued e-mail.
+     *
+     * @param id The ID to set.
+     */
+    public void setId(final Integer id) {
+        this.id = id;
+    }
+
+    /**
+     * Returns the e-mail to send.
+     *
+     * @return The e-mail.
+     */
+    public Mail getMail() {
+        return mail;
+    }
+
+    /**
+     * Returns the priority of the e-mail. Lower values are sent first.
+     *
+     * @return The priority.
+     */
+    public int getPriority() {
+        return priority;
+    }
+
+    /**
+     * Returns the ID of the notification announced by the e-mail.
+     *
+     * @return The notification ID, or {@code null} if there is none.
+     */
+    public Integer getNotificationID() {
+        return notificationID;
+    }
+
+    /**
+     * Returns the number of attempts to send the e-mail made so far, including the current one.
+     *
+     * @return The number of attempts.
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * Sets the number of attempts to send the e-mail made so far.
+     *
+     * @param attempts The number of attempts to set.
+     */
+    public void setAttempts(final int attempts) {
+        this.attempts = attempts;
+    }
+
+    /**
+     * Converts this queued e-mail into a human-readable string.
+     *
+     * @return A human-readable string.
+     */
+    @Override
+    public String toString() {
+        return "QueuedMail{"
+                + "id=" + id
+                + ", mail=" + mail
+                + ", priority=" + priority
+                + ", notificationID=" + notificationID
+                + ", attempts=" + attempts
+                + '}';
+    }
+
+}
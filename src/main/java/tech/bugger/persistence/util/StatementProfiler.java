@@ -0,0 +1,846 @@
+package tech.bugger.persistence.util;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.JDBCType;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import tech.bugger.global.util.Log;
+
+/**
+ * Thread-safe profiler of the prepared statements executed on database connections.
+ * <p>
+ * Connections handed out by {@link #wrap(Connection)} record the latency, the number of affected or returned rows and
+ * the number of executions of every prepared statement, aggregated by statement shape. The shape of a statement is its
+ * SQL with whitespace collapsed and literals replaced by placeholders, so that dynamically assembled statements
+ * differing only in their literals are aggregated together. Latency covers the execution of a statement up to the first
+ * rows of its result, but not the time spent iterating over them.
+ * <p>
+ * Executions taking longer than a threshold are logged together with the types and lengths of their bound parameters.
+ * As parameters may hold secrets such as tokens, password hashes or the contents of e-mails, their values are only
+ * logged if explicitly requested. Optionally, the query
+ * plan of slow read-only statements is captured by running them once more with {@code EXPLAIN (ANALYZE, BUFFERS)}
+ * within a savepoint of the enclosing transaction, at most once per shape every {@link #PLAN_CAPTURE_INTERVAL_NANOS}.
+ */
+public final class StatementProfiler {
+
+    /**
+     * Log instance for logging in this class.
+     */
+    private static final Log log = Log.forClass(StatementProfiler.class);
+
+    /**
+     * The maximum number of statement shapes to keep statistics for. Executions of further shapes are only counted.
+     */
+    static final int MAX_SHAPES = 1000;
+
+    /**
+     * Minimum time in nanoseconds between two query plan captures for the same statement shape.
+     */
+    static final long PLAN_CAPTURE_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+    /**
+     * The maximum number of characters of a string parameter to log.
+     */
+    private static final int MAX_PARAMETER_LENGTH = 100;
+
+    /**
+     * The JDBC types of the parameters bound by the setters of {@link PreparedStatement}, as far as they are implied by
+     * the setter.
+     */
+    private static final Map<String, String> SETTER_TYPES = Map.ofEntries(
+            Map.entry("setString", JDBCType.VARCHAR.getName()),
+            Map.entry("setNString", JDBCType.NVARCHAR.getName()),
+            Map.entry("setBoolean", JDBCType.BOOLEAN.getName()),
+            Map.entry("setByte", JDBCType.TINYINT.getName()),
+            Map.entry("setShort", JDBCType.SMALLINT.getName()),
+            Map.entry("setInt", JDBCType.INTEGER.getName()),
+            Map.entry("setLong", JDBCType.BIGINT.getName()),
+            Map.entry("setFloat", JDBCType.REAL.getName()),
+            Map.entry("setDouble", JDBCType.DOUBLE.getName()),
+            Map.entry("setBigDecimal", JDBCType.NUMERIC.getName()),
+            Map.entry("setBytes", JDBCType.VARBINARY.getName()),
+            Map.entry("setDate", JDBCType.DATE.getName()),
+            Map.entry("setTime", JDBCType.TIME.getName()),
+            Map.entry("setTimestamp", JDBCType.TIMESTAMP.getName()),
+            Map.entry("setArray", JDBCType.ARRAY.getName())
+    );
+
+    /**
+     * Pattern of whitespace to collapse in statement shapes.
+     */
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    /**
+     * Pattern of string and numeric literals to replace in statement shapes.
+     */
+    private static final Pattern LITERALS = Pattern.compile("'(?:[^']|'')*'|\\b\\d+(?:\\.\\d+)?\\b");
+
+    /**
+     * Pattern of statements that modify data and must therefore not be run again for capturing their query plan.
+     */
+    private static final Pattern MODIFYING = Pattern.compile("\\b(?:INSERT|UPDATE|DELETE|MERGE|TRUNCATE|CALL)\\b",
+            Pattern.CASE_INSENSITIVE);
+
+    /**
+     * Whether statements are profiled at all.
+     */
+    private final boolean enabled;
+
+    /**
+     * Time in nanoseconds from which on an execution is logged as slow, or {@code 0} if no executions are logged.
+     */
+    private final long slowThresholdNanos;
+
+    /**
+     * Whether to capture the query plans of slow read-only statements.
+     */
+    private final boolean explainSlowStatements;
+
+    /**
+     * Whether to log the values of the parameters of slow statements rather than only their types and lengths.
+     */
+    private final boolean logParameterValues;
+
+    /**
+     * Source of the current time in nanoseconds.
+     */
+    private final LongSupplier clock;
+
+    /**
+     * The statistics of each statement shape.
+     */
+    private final ConcurrentMap<String, Shape> shapes;
+
+    /**
+     * Number of executions of statements whose shape has not been tracked as the maximum number of shapes was reached.
+     */
+    private final LongAdder untrackedCount;
+
+    /**
+     * Constructs a new statement profiler.
+     *
+     * @param slowThresholdMillis   Time in milliseconds from which on an execution is logged as slow. {@code 0}
+     *                              disables the log.
+     * @param explainSlowStatements Whether to capture the query plans of slow read-only statements.
+     * @param logParameterValues    Whether to log the values of the parameters of slow statements rather than only
+     *                              their types and lengths.
+     */
+    public StatementProfiler(final long slowThresholdMillis, final boolean explainSlowStatements,
+                             final boolean logParameterValues) {
+        this(true, slowThresholdMillis, explainSlowStatements, logParameterValues, System::nanoTime);
+    }
+
+    /**
+     * Constructs a new statement profiler with the given technical parameters.
+     *
+     * @param enabled               Whether statements are profiled at all.
+     * @param slowThresholdMillis   Time in milliseconds from which on an execution is logged as slow. {@code 0}
+     *                              disables the log.
+     * @param explainSlowStatements Whether to capture the query plans of slow read-only statements.
+     * @param logParameterValues    Whether to log the values of the parameters of slow statements rather than only
+     *                              their types and lengths.
+     * @param clock                 The source of the current time in nanoseconds.
+     */
+    StatementProfiler(final boolean enabled, final long slowThresholdMillis, final boolean explainSlowStatements,
+                      final boolean logParameterValues, final LongSupplier clock) {
+        if (slowThresholdMillis < 0) {
+            throw new IllegalArgumentException("Slow statement threshold cannot be negative.");
+        }
+        this.enabled = enabled;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+        this.explainSlowStatements = explainSlowStatements;
+        this.logParameterValues = logParameterValues;
+        this.clock = clock;
+        shapes = new ConcurrentHashMap<>();
+        untrackedCount = new LongAdder();
+    }
+
+    /**
+     * Returns a profiler that does not profile any statements.
+     *
+     * @return A disabled profiler.
+     */
+    public static StatementProfiler disabled() {
+        return new StatementProfiler(false, 0, false, false, System::nanoTime);
+    }
+
+    /**
+     * Returns whether this profiler profiles statements.
+     *
+     * @return Whether this profiler is enabled.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Wraps a connection such that all statements prepared on it are profiled.
+     *
+     * @param connection The connection to wrap.
+     * @return The profiled connection, or {@code connection} itself if this profiler is disabled.
+     */
+    public Connection wrap(final Connection connection) {
+        if (!enabled) {
+            return connection;
+        }
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (result instanceof PreparedStatement && method.getName().equals("prepareStatement")) {
+                return proxy(PreparedStatement.class,
+                        new ProfiledStatement(connection, (PreparedStatement) result, (String) args[0]));
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Returns the statistics of the statement shapes which took the most time in total, most expensive first.
+     *
+     * @param limit The maximum number of statement shapes to return.
+     * @return The statistics of the most expensive statement shapes.
+     */
+    public List<Statistics> getTopStatements(final int limit) {
+        return shapes.entrySet().stream()
+                .map(entry -> entry.getValue().snapshot(entry.getKey()))
+                .sorted(Comparator.comparingLong(Statistics::getTotalNanos).reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the number of executions whose statement shape has not been tracked since the maximum number of shapes
+     * was reached.
+     *
+     * @return The number of untracked executions.
+     */
+    public long getUntrackedCount() {
+        return untrackedCount.sum();
+    }
+
+    /**
+     * Discards all statistics collected so far.
+     */
+    public void reset() {
+        shapes.clear();
+        untrackedCount.reset();
+    }
+
+    /**
+     * Determines the shape of a statement, under which its executions are aggregated.
+     *
+     * @param sql The SQL of the statement.
+     * @return The statement shape.
+     */
+    static String getShape(final String sql) {
+        String shape = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        return LITERALS.matcher(shape).replaceAll("?");
+    }
+
+    /**
+     * Records an execution of a statement and logs it if it was slow.
+     *
+     * @param connection The connection the statement was executed on.
+     * @param sql        The SQL of the statement.
+     * @param bindings   The parameters the statement was executed with.
+     * @param nanos      The time the execution took in nanoseconds.
+     * @param rows       The number of rows returned or affected by the execution.
+     */
+    private void record(final Connection connection, final String sql, final Map<Integer, Binding> bindings,
+                        final long nanos, final long rows) {
+        String shapeKey = getShape(sql);
+        Shape shape = shapes.get(shapeKey);
+        if (shape == null) {
+            if (shapes.size() >= MAX_SHAPES) {
+                untrackedCount.increment();
+            } else {
+                shape = shapes.computeIfAbsent(shapeKey, key -> new Shape());
+            }
+        }
+        boolean slow = slowThresholdNanos > 0 && nanos >= slowThresholdNanos;
+        if (shape != null) {
+            shape.record(nanos, rows, slow);
+        }
+        if (!slow) {
+            return;
+        }
+
+        log.warning("Slow statement took " + TimeUnit.NANOSECONDS.toMillis(nanos) + " ms for " + rows + " rows: "
+                + shapeKey + " with parameters " + formatParameters(bindings, logParameterValues));
+        if (explainSlowStatements && shape != null && !MODIFYING.matcher(sql).find()
+                && shape.claimPlanCapture(clock.getAsLong())) {
+            String plan = explain(connection, sql, bindings);
+            if (plan != null) {
+                shape.plan = plan;
+                log.warning("Plan of slow statement " + shapeKey + ":\n" + plan);
+            }
+        }
+    }
+
+    /**
+     * Captures the query plan of a statement by running it with {@code EXPLAIN (ANALYZE, BUFFERS)}. If the connection
+     * is within a transaction, the statement runs within a savepoint, so that a failure does not abort the transaction.
+     *
+     * @param connection The connection to run the statement on.
+     * @param sql        The SQL of the statement.
+     * @param bindings   The parameters to run the statement with.
+     * @return The query plan, or {@code null} if it could not be captured.
+     */
+    static String explain(final Connection connection, final String sql, final Map<Integer, Binding> bindings) {
+        Savepoint savepoint = null;
+        try {
+            if (!connection.getAutoCommit()) {
+                savepoint = connection.setSavepoint();
+            }
+            StringJoiner plan = new StringJoiner("\n");
+            try (PreparedStatement stmt = connection.prepareStatement("EXPLAIN (ANALYZE, BUFFERS) " + sql)) {
+                for (Binding binding : bindings.values()) {
+                    binding.method.invoke(stmt, binding.args);
+                }
+                ResultSet rs = stmt.executeQuery();
+                while (rs.next()) {
+                    plan.add(rs.getString(1));
+                }
+            }
+            if (savepoint != null) {
+                connection.releaseSavepoint(savepoint);
+            }
+            return plan.toString();
+        } catch (SQLException | ReflectiveOperationException e) {
+            log.warning("Could not capture the plan of a slow statement.", e);
+            if (savepoint != null) {
+                try {
+                    connection.rollback(savepoint);
+                } catch (SQLException rollbackException) {
+                    log.error("Could not roll back to savepoint after capturing a plan failed.", rollbackException);
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Formats bound parameters for the log. Unless values are requested, only the type of each parameter and the length
+     * of strings and binary data are given. Otherwise, long strings are truncated and binary data is summarized.
+     *
+     * @param bindings The parameters to format.
+     * @param values   Whether to include the values of the parameters.
+     * @return The formatted parameters.
+     */
+    static String formatParameters(final Map<Integer, Binding> bindings, final boolean values) {
+        StringJoiner parameters = new StringJoiner(", ", "[", "]");
+        for (Map.Entry<Integer, Binding> entry : bindings.entrySet()) {
+            Binding binding = entry.getValue();
+            Object value = binding.method.getName().equals("setNull") ? null : binding.args[1];
+            String formatted;
+            if (!values) {
+                formatted = describeParameter(binding, value);
+            } else if (value instanceof byte[]) {
+                formatted = "<" + ((byte[]) value).length + " bytes>";
+            } else if (value instanceof String && ((String) value).length() > MAX_PARAMETER_LENGTH) {
+                formatted = "'" + ((String) value).substring(0, MAX_PARAMETER_LENGTH) + "...'";
+            } else if (value instanceof String) {
+                formatted = "'" + value + "'";
+            } else if (value instanceof InputStream || value instanceof Reader) {
+                formatted = "<stream>";
+            } else {
+                formatted = String.valueOf(value);
+            }
+            parameters.add(entry.getKey() + "=" + formatted);
+        }
+        return parameters.toString();
+    }
+
+    /**
+     * Describes a bound parameter without revealing its value.
+     *
+     * @param binding The binding of the parameter.
+     * @param value   The value of the parameter, or {@code null} if it has been set to {@code NULL}.
+     * @return The JDBC type of the parameter, followed by the length of strings and binary data.
+     */
+    private static String describeParameter(final Binding binding, final Object value) {
+        String setter = binding.method.getName();
+        if (setter.equals("setNull")) {
+            return "NULL " + getTypeName((Integer) binding.args[2]);
+        } else if (binding.args.length > 2 && binding.args[2] instanceof Integer && setter.equals("setObject")) {
+            return getTypeName((Integer) binding.args[2]);
+        }
+        String type = SETTER_TYPES.get(setter);
+        if (type == null) {
+            type = setter.equals("setObject") && value != null ? value.getClass().getSimpleName()
+                    : setter.substring("set".length()).toUpperCase(Locale.ROOT);
+        }
+        if (value instanceof String) {
+            return type + "(" + ((String) value).length() + " chars)";
+        } else if (value instanceof byte[]) {
+            return type + "(" + ((byte[]) value).length + " bytes)";
+        }
+        return type;
+    }
+
+    /**
+     * Returns the name of a JDBC type.
+     *
+     * @param type The type as constant of {@link java.sql.Types}.
+     * @return The name of the type, or its number if it is unknown.
+     */
+    private static String getTypeName(final int type) {
+        try {
+            return JDBCType.valueOf(type).getName();
+        } catch (IllegalArgumentException e) {
+            return String.valueOf(type);
+        }
+    }
+
+    /**
+     * Creates a proxy implementing a JDBC interface.
+     *
+     * @param type    The interface to implement.
+     * @param handler The handler of the proxy's method invocations.
+     * @param <T>     The type of the interface.
+     * @return The proxy.
+     */
+    private static <T> T proxy(final Class<T> type, final InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(StatementProfiler.class.getClassLoader(), new Class<?>[]{type},
+                handler));
+    }
+
+    /**
+     * Invokes a method on the object behind a proxy, rethrowing exceptions of the method as they are.
+     *
+     * @param target The object to invoke the method on.
+     * @param method The method to invoke.
+     * @param args   The arguments of the invocation.
+     * @return The result of the invocation.
+     * @throws Throwable whatever the method throws.
+     */
+    private static Object invoke(final Object target, final Method method, final Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * A parameter bound to a statement, recorded as the invocation of the setter binding it.
+     */
+    static final class Binding {
+
+        /**
+         * The setter binding the parameter.
+         */
+        private final Method method;
+
+        /**
+         * The arguments the setter has been invoked with, starting with the parameter index.
+         */
+        private final Object[] args;
+
+        /**
+         * Constructs a new binding.
+         *
+         * @param method The setter binding the parameter.
+         * @param args   The arguments the setter has been invoked with.
+         */
+        Binding(final Method method, final Object[] args) {
+            this.method = method;
+            this.args = args;
+        }
+
+    }
+
+    /**
+     * Handler of a profiled prepared statement.
+     */
+    private final class ProfiledStatement implements InvocationHandler {
+
+        /**
+         * The unprofiled connection the statement has been prepared on.
+         */
+        private final Connection connection;
+
+        /**
+         * The statement being profiled.
+         */
+        private final PreparedStatement statement;
+
+        /**
+         * The SQL of the statement.
+         */
+        private final String sql;
+
+        /**
+         * The parameters currently bound to the statement, by index.
+         */
+        private Map<Integer, Binding> bindings;
+
+        /**
+         * The duration of the query whose result is currently being read, or {@code -1} if there is none.
+         */
+        private long pendingNanos;
+
+        /**
+         * The parameters of the query whose result is currently being read.
+         */
+        private Map<Integer, Binding> pendingBindings;
+
+        /**
+         * The number of rows read from the result of the pending query so far.
+         */
+        private long pendingRows;
+
+        /**
+         * Constructs a new handler for a profiled statement.
+         *
+         * @param connection The unprofiled connection the statement has been prepared on.
+         * @param statement  The statement to profile.
+         * @param sql        The SQL of the statement.
+         */
+        ProfiledStatement(final Connection connection, final PreparedStatement statement, final String sql) {
+            this.connection = connection;
+            this.statement = statement;
+            this.sql = sql;
+            bindings = new TreeMap<>();
+            pendingNanos = -1;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                bindings.put((Integer) args[0], new Binding(method, args.clone()));
+                return StatementProfiler.invoke(statement, method, args);
+            } else if (name.equals("clearParameters")) {
+                bindings = new TreeMap<>();
+            } else if (args == null && (name.equals("executeQuery") || name.equals("executeUpdate")
+                    || name.equals("executeLargeUpdate") || name.equals("execute")
+                    || name.equals("executeBatch"))) {
+                return execute(method);
+            } else if (name.equals("close")) {
+                Object result = StatementProfiler.invoke(statement, method, args);
+                finishQuery();
+                return result;
+            }
+            return StatementProfiler.invoke(statement, method, args);
+        }
+
+        /**
+         * Executes the statement and records the execution. Queries are recorded once their result is closed, such
+         * that the rows read can be counted.
+         *
+         * @param method The execution method to invoke.
+         * @return The result of the execution.
+         * @throws Throwable whatever the execution throws.
+         */
+        private Object execute(final Method method) throws Throwable {
+            finishQuery();
+            long start = clock.getAsLong();
+            Object result = StatementProfiler.invoke(statement, method, null);
+            long nanos = clock.getAsLong() - start;
+            if (result instanceof ResultSet) {
+                pendingNanos = nanos;
+                pendingBindings = new TreeMap<>(bindings);
+                pendingRows = 0;
+                ResultSet resultSet = (ResultSet) result;
+                return proxy(ResultSet.class, (rsProxy, rsMethod, rsArgs) -> {
+                    Object rsResult = StatementProfiler.invoke(resultSet, rsMethod, rsArgs);
+                    if (rsMethod.getName().equals("next") && Boolean.TRUE.equals(rsResult)) {
+                        pendingRows++;
+                    } else if (rsMethod.getName().equals("close")) {
+                        finishQuery();
+                    }
+                    return rsResult;
+                });
+            }
+            long rows;
+            if (result instanceof Number) {
+                rows = ((Number) result).longValue();
+            } else if (result instanceof int[]) {
+                rows = Arrays.stream((int[]) result).filter(count -> count > 0).sum();
+            } else {
+                rows = Math.max(0, statement.getUpdateCount());
+            }
+            record(connection, sql, bindings, nanos, rows);
+            return result;
+        }
+
+        /**
+         * Records the pending query, if any.
+         */
+        private void finishQuery() {
+            if (pendingNanos >= 0) {
+                long nanos = pendingNanos;
+                pendingNanos = -1;
+                record(connection, sql, pendingBindings, nanos, pendingRows);
+            }
+        }
+
+    }
+
+    /**
+     * Statistics of the executions of a statement shape.
+     */
+    private static final class Shape {
+
+        /**
+         * Number of executions.
+         */
+        private final LongAdder calls = new LongAdder();
+
+        /**
+         * Total time of all executions in nanoseconds.
+         */
+        private final LongAdder totalNanos = new LongAdder();
+
+        /**
+         * Time of the slowest execution in nanoseconds.
+         */
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        /**
+         * Total number of rows returned or affected.
+         */
+        private final LongAdder rows = new LongAdder();
+
+        /**
+         * Number of executions logged as slow.
+         */
+        private final LongAdder slowCalls = new LongAdder();
+
+        /**
+         * The time of the last query plan capture in nanoseconds.
+         */
+        private long lastPlanCapture;
+
+        /**
+         * Whether the query plan has been captured before.
+         */
+        private boolean planCaptured;
+
+        /**
+         * The most recently captured query plan, or {@code null} if none has been captured.
+         */
+        private volatile String plan;
+
+        /**
+         * Records an execution.
+         *
+         * @param nanos The time the execution took in nanoseconds.
+         * @param count The number of rows returned or affected.
+         * @param slow  Whether the execution has been logged as slow.
+         */
+        void record(final long nanos, final long count, final boolean slow) {
+            calls.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            rows.add(count);
+            if (slow) {
+                slowCalls.increment();
+            }
+        }
+
+        /**
+         * Claims the capture of the query plan if it has not been captured recently.
+         *
+         * @param now The current time in nanoseconds.
+         * @return Whether the caller should capture the query plan.
+         */
+        synchronized boolean claimPlanCapture(final long now) {
+            if (planCaptured && now - lastPlanCapture < PLAN_CAPTURE_INTERVAL_NANOS) {
+                return false;
+            }
+            planCaptured = true;
+            lastPlanCapture = now;
+            return true;
+        }
+
+        /**
+         * Returns a snapshot of these statistics.
+         *
+         * @param sql The statement shape.
+         * @return The snapshot.
+         */
+        Statistics snapshot(final String sql) {
+            return new Statistics(sql, calls.sum(), totalNanos.sum(), maxNanos.get(), rows.sum(), slowCalls.sum(),
+                    plan);
+        }
+
+    }
+
+    /**
+     * Snapshot of the statistics of a statement shape.
+     */
+    public static final class Statistics {
+
+        /**
+         * Nanoseconds per millisecond.
+         */
+        private static final double NANOS_PER_MILLI = 1e6;
+
+        /**
+         * The statement shape.
+         */
+        private final String sql;
+
+        /**
+         * Number of executions.
+         */
+        private final long calls;
+
+        /**
+         * Total time of all executions in nanoseconds.
+         */
+        private final long totalNanos;
+
+        /**
+         * Time of the slowest execution in nanoseconds.
+         */
+        private final long maxNanos;
+
+        /**
+         * Total number of rows returned or affected.
+         */
+        private final long rows;
+
+        /**
+         * Number of executions logged as slow.
+         */
+        private final long slowCalls;
+
+        /**
+         * The most recently captured query plan, or {@code null} if none has been captured.
+         */
+        private final String plan;
+
+        /**
+         * Constructs a new snapshot of statement statistics.
+         *
+         * @param sql        The statement shape.
+         * @param calls      The number of executions.
+         * @param totalNanos The total time of all executions in nanoseconds.
+         * @param maxNanos   The time of the slowest execution in nanoseconds.
+         * @param rows       The total number of rows returned or affected.
+         * @param slowCalls  The number of executions logged as slow.
+         * @param plan       The most recently captured query plan, or {@code null} if none has been captured.
+         */
+        Statistics(final String sql, final long calls, final long totalNanos, final long maxNanos, final long rows,
+                   final long slowCalls, final String plan) {
+            this.sql = sql;
+            this.calls = calls;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+            this.rows = rows;
+            this.slowCalls = slowCalls;
+            this.plan = plan;
+        }
+
+        /**
+         * Returns the statement shape.
+         *
+         * @return The statement shape.
+         */
+        public String getSql() {
+            return sql;
+        }
+
+        /**
+         * Returns the number of executions.
+         *
+         * @return The number of executions.
+         */
+        public long getCalls() {
+            return calls;
+        }
+
+        /**
+         * Returns the total time of all executions in nanoseconds.
+         *
+         * @return The total time in nanoseconds.
+         */
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        /**
+         * Returns the total time of all executions in milliseconds.
+         *
+         * @return The total time in milliseconds.
+         */
+        public double getTotalMillis() {
+            return totalNanos / NANOS_PER_MILLI;
+        }
+
+        /**
+         * Returns the mean time of an execution in milliseconds.
+         *
+         * @return The mean time in milliseconds.
+         */
+        public double getMeanMillis() {
+            return calls == 0 ? 0 : totalNanos / NANOS_PER_MILLI / calls;
+        }
+
+        /**
+         * Returns the time of the slowest execution in milliseconds.
+         *
+         * @return The maximum time in milliseconds.
+         */
+        public double getMaxMillis() {
+            return maxNanos / NANOS_PER_MILLI;
+        }
+
+        /**
+         * Returns the total number of rows returned or affected.
+         *
+         * @return The total number of rows.
+         */
+        public long getRows() {
+            return rows;
+        }
+
+        /**
+         * Returns the number of executions logged as slow.
+         *
+         * @return The number of slow executions.
+         */
+        public long getSlowCalls() {
+            return slowCalls;
+        }
+
+        /**
+         * Returns the most recently captured query plan.
+         *
+         * @return The query plan, or {@code null} if none has been captured.
+         */
+        public String getPlan() {
+            return plan;
+        }
+
+    }
+
+}
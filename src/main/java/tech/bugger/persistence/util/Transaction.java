@@ -2,6 +2,7 @@ package tech.bugger.persistence.util;
 
 import tech.bugger.persistence.exception.TransactionException;
 import tech.bugger.persistence.gateway.AttachmentGateway;
+import tech.bugger.persistence.gateway.MailGateway;
 import tech.bugger.persistence.gateway.MetadataGateway;
 import tech.bugger.persistence.gateway.NotificationGateway;
 import tech.bugger.persistence.gateway.PostGateway;
@@ -39,6 +40,13 @@ public interface Transaction extends AutoCloseable {
      */
     AttachmentGateway newAttachmentGateway();
 
+    /**
+     * Fabricates a mail gateway to use with this transaction.
+     *
+     * @return A brand-new mail gateway tied to this transaction's connection.
+     */
+    MailGateway newMailGateway();
+
     /**
      * Fabricates a metadata gateway to use with this transaction.
      *
@@ -74,6 +82,13 @@ public interface Transaction extends AutoCloseable {
      */
     SearchGateway newSearchGateway();
 
+    /**
+     * Fabricates a search gateway searching reports by full-text search to use with this transaction.
+     *
+     * @return A brand-new full-text search gateway tied to this transaction's connection.
+     */
+    SearchGateway newFullTextSearchGateway();
+
     /**
      * Fabricates a settings gateway to use with this transaction.
      *
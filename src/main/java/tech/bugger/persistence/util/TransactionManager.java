@@ -16,7 +16,7 @@ public final class TransactionManager {
     private static final String MAIN_DB_POOL = "db";
 
     /**
-     * The connection pool registry of the application.
+     * The registry of the application's connection pools and statement profilers.
      */
     private final Registry registry;
 
@@ -36,7 +36,8 @@ public final class TransactionManager {
      * @return The fresh transaction.
      */
     public Transaction begin() {
-        return new DBTransaction(registry.getConnectionPool(MAIN_DB_POOL));
+        return new DBTransaction(registry.getConnectionPool(MAIN_DB_POOL),
+                registry.getStatementProfiler(MAIN_DB_POOL));
     }
 
 }
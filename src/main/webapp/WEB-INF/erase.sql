@@ -14,6 +14,10 @@ DROP VIEW IF EXISTS report_last_activity;
 DROP VIEW IF EXISTS topic_num_subscribers;
 DROP VIEW IF EXISTS topic_num_posts;
 
+DROP TABLE IF EXISTS report_stats;
+DROP TABLE IF EXISTS topic_stats;
+DROP TABLE IF EXISTS user_stats;
+
 DROP TABLE IF EXISTS user_subscription;
 DROP TABLE IF EXISTS topic_subscription;
 DROP TABLE IF EXISTS report_subscription;
@@ -21,6 +25,10 @@ DROP TABLE IF EXISTS topic_moderation;
 DROP TABLE IF EXISTS topic_ban;
 DROP TABLE IF EXISTS relevance_vote;
 
+DROP TABLE IF EXISTS mail;
+DROP TYPE IF EXISTS mail_status;
+DROP TABLE IF EXISTS notification_event;
+DROP TYPE IF EXISTS notification_event_status;
 DROP TABLE IF EXISTS notification;
 DROP TYPE IF EXISTS notification_type;
 DROP TABLE IF EXISTS attachment;
@@ -34,5 +42,15 @@ DROP TYPE IF EXISTS token_type;
 DROP TABLE IF EXISTS "user";
 DROP TYPE IF EXISTS user_profile_visibility;
 
+DROP FUNCTION IF EXISTS maintain_post_search_vector();
+DROP FUNCTION IF EXISTS maintain_report_search_vector();
+DROP FUNCTION IF EXISTS maintain_stats_on_vote();
+DROP FUNCTION IF EXISTS maintain_stats_on_post();
+DROP FUNCTION IF EXISTS maintain_stats_on_report();
+DROP FUNCTION IF EXISTS maintain_stats_on_topic();
+DROP FUNCTION IF EXISTS maintain_stats_on_user();
+DROP FUNCTION IF EXISTS refresh_topic_stats(INTEGER);
+DROP FUNCTION IF EXISTS refresh_report_stats(INTEGER);
+
 DROP TABLE IF EXISTS system_settings;
 DROP TABLE IF EXISTS metadata;
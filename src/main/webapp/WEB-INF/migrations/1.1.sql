@@ -0,0 +1,243 @@
+/*
+ * Migrates the database schema from version 1.0 to version 1.1.
+ *
+ * Replaces the aggregating views for relevance, last activity and post counts
+ * by tables holding precomputed values. The tables are kept up to date by
+ * triggers on every write to the underlying entities, such that listings only
+ * have to read one row per displayed report, topic or user.
+ */
+
+
+/*****************************************
+ *  Definition of the aggregate tables.  *
+ ****************************************/
+
+CREATE TABLE report_stats (
+    report INTEGER PRIMARY KEY REFERENCES report (id) ON DELETE CASCADE,
+    relevance INTEGER NOT NULL DEFAULT 0,
+    num_posts INTEGER NOT NULL DEFAULT 0,
+    last_activity TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE TABLE topic_stats (
+    topic INTEGER PRIMARY KEY REFERENCES topic (id) ON DELETE CASCADE,
+    num_posts INTEGER NOT NULL DEFAULT 0,
+    last_activity TIMESTAMP WITH TIME ZONE
+);
+
+CREATE TABLE user_stats (
+    "user" INTEGER PRIMARY KEY REFERENCES "user" (id) ON DELETE CASCADE,
+    num_posts INTEGER NOT NULL DEFAULT 0
+);
+
+INSERT INTO report_stats (report, relevance, num_posts, last_activity)
+    SELECT r.id, v.relevance, (SELECT COUNT(*) FROM post AS p WHERE p.report = r.id), a.last_activity
+    FROM report AS r
+    JOIN report_relevance AS v
+    ON r.id = v.report
+    JOIN report_last_activity AS a
+    ON r.id = a.report;
+
+INSERT INTO topic_stats (topic, num_posts, last_activity)
+    SELECT n.topic, n.num_posts, a.last_activity
+    FROM topic_num_posts AS n
+    JOIN topic_last_activity AS a
+    ON n.topic = a.topic;
+
+INSERT INTO user_stats ("user", num_posts)
+    SELECT author, num_posts
+    FROM user_num_posts;
+
+
+/***********************************************
+ *  Recomputation of aggregates from scratch.  *
+ **********************************************/
+
+-- Recomputes the post count and last activity of a report, e.g. after a post has been deleted.
+CREATE FUNCTION refresh_report_stats(report_id INTEGER) RETURNS VOID AS $$
+    UPDATE report_stats AS s
+    SET (num_posts, last_activity) = (
+        SELECT COUNT(p.id), GREATEST(MAX(p.last_modified_at), r.last_modified_at, MAX(p.created_at), r.created_at)
+        FROM report AS r
+        LEFT OUTER JOIN post AS p
+        ON r.id = p.report
+        WHERE r.id = report_id
+        GROUP BY r.id
+    )
+    WHERE s.report = report_id
+    AND EXISTS (SELECT 1 FROM report WHERE id = report_id);
+$$ LANGUAGE SQL;
+
+-- Recomputes the post count and last activity of a topic from the aggregates of its reports.
+CREATE FUNCTION refresh_topic_stats(topic_id INTEGER) RETURNS VOID AS $$
+    UPDATE topic_stats AS t
+    SET (num_posts, last_activity) = (
+        SELECT COALESCE(SUM(s.num_posts), 0), MAX(s.last_activity)
+        FROM report AS r
+        JOIN report_stats AS s
+        ON r.id = s.report
+        WHERE r.topic = topic_id
+    )
+    WHERE t.topic = topic_id;
+$$ LANGUAGE SQL;
+
+
+/********************************************
+ *  Incremental maintenance of aggregates.  *
+ *******************************************/
+
+CREATE FUNCTION maintain_stats_on_user() RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO user_stats ("user") VALUES (NEW.id);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER user_stats_maintenance
+    AFTER INSERT ON "user"
+    FOR EACH ROW EXECUTE PROCEDURE maintain_stats_on_user();
+
+
+CREATE FUNCTION maintain_stats_on_topic() RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO topic_stats (topic) VALUES (NEW.id);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER topic_stats_maintenance
+    AFTER INSERT ON topic
+    FOR EACH ROW EXECUTE PROCEDURE maintain_stats_on_topic();
+
+
+CREATE FUNCTION maintain_stats_on_report() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO report_stats (report, last_activity)
+            VALUES (NEW.id, GREATEST(NEW.created_at, NEW.last_modified_at));
+        UPDATE topic_stats
+            SET last_activity = GREATEST(last_activity, NEW.created_at, NEW.last_modified_at)
+            WHERE topic = NEW.topic;
+    ELSIF TG_OP = 'UPDATE' THEN
+        UPDATE report_stats
+            SET last_activity = GREATEST(last_activity, NEW.created_at, NEW.last_modified_at)
+            WHERE report = NEW.id;
+        IF NEW.topic <> OLD.topic THEN
+            PERFORM refresh_topic_stats(OLD.topic);
+            PERFORM refresh_topic_stats(NEW.topic);
+        ELSE
+            UPDATE topic_stats
+                SET last_activity = GREATEST(last_activity, NEW.created_at, NEW.last_modified_at)
+                WHERE topic = NEW.topic;
+        END IF;
+    ELSE
+        -- The report and its aggregates are gone by now, so the topic aggregates no longer include them.
+        PERFORM refresh_topic_stats(OLD.topic);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER report_stats_maintenance
+    AFTER INSERT OR DELETE OR UPDATE OF topic, created_at, last_modified_at ON report
+    FOR EACH ROW EXECUTE PROCEDURE maintain_stats_on_report();
+
+
+CREATE FUNCTION maintain_stats_on_post() RETURNS TRIGGER AS $$
+DECLARE
+    report_activity TIMESTAMP WITH TIME ZONE;
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        UPDATE report_stats
+            SET num_posts = num_posts + 1,
+                last_activity = GREATEST(last_activity, NEW.created_at, NEW.last_modified_at)
+            WHERE report = NEW.report;
+        UPDATE topic_stats AS t
+            SET num_posts = t.num_posts + 1,
+                last_activity = GREATEST(t.last_activity, NEW.created_at, NEW.last_modified_at)
+            FROM report AS r
+            WHERE r.id = NEW.report AND t.topic = r.topic;
+        UPDATE user_stats SET num_posts = num_posts + 1 WHERE "user" = NEW.created_by;
+    ELSIF TG_OP = 'UPDATE' THEN
+        IF NEW.report <> OLD.report THEN
+            PERFORM refresh_report_stats(OLD.report);
+            PERFORM refresh_report_stats(NEW.report);
+            PERFORM refresh_topic_stats(r.topic) FROM report AS r WHERE r.id IN (OLD.report, NEW.report);
+        ELSE
+            UPDATE report_stats
+                SET last_activity = GREATEST(last_activity, NEW.created_at, NEW.last_modified_at)
+                WHERE report = NEW.report;
+            UPDATE topic_stats AS t
+                SET last_activity = GREATEST(t.last_activity, NEW.created_at, NEW.last_modified_at)
+                FROM report AS r
+                WHERE r.id = NEW.report AND t.topic = r.topic;
+        END IF;
+        IF NEW.created_by IS DISTINCT FROM OLD.created_by THEN
+            UPDATE user_stats SET num_posts = num_posts - 1 WHERE "user" = OLD.created_by;
+            UPDATE user_stats SET num_posts = num_posts + 1 WHERE "user" = NEW.created_by;
+        END IF;
+    ELSE
+        UPDATE report_stats
+            SET num_posts = num_posts - 1
+            WHERE report = OLD.report
+            RETURNING last_activity INTO report_activity;
+        UPDATE topic_stats AS t
+            SET num_posts = t.num_posts - 1
+            FROM report AS r
+            WHERE r.id = OLD.report AND t.topic = r.topic;
+        UPDATE user_stats SET num_posts = num_posts - 1 WHERE "user" = OLD.created_by;
+        -- Only if the deleted post was the latest activity, the last activity has to be searched for again.
+        IF GREATEST(OLD.created_at, OLD.last_modified_at) >= report_activity THEN
+            PERFORM refresh_report_stats(OLD.report);
+            PERFORM refresh_topic_stats(r.topic) FROM report AS r WHERE r.id = OLD.report;
+        END IF;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER post_stats_maintenance
+    AFTER INSERT OR DELETE OR UPDATE OF report, created_at, created_by, last_modified_at ON post
+    FOR EACH ROW EXECUTE PROCEDURE maintain_stats_on_post();
+
+
+CREATE FUNCTION maintain_stats_on_vote() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP <> 'DELETE' THEN
+        UPDATE report_stats SET relevance = relevance + NEW.weight WHERE report = NEW.report;
+    END IF;
+    IF TG_OP <> 'INSERT' THEN
+        UPDATE report_stats SET relevance = relevance - OLD.weight WHERE report = OLD.report;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER vote_stats_maintenance
+    AFTER INSERT OR DELETE OR UPDATE OF report, weight ON relevance_vote
+    FOR EACH ROW EXECUTE PROCEDURE maintain_stats_on_vote();
+
+
+/*******************************************
+ *  Replacement of the aggregating views.  *
+ ******************************************/
+
+DROP VIEW top_users;
+DROP VIEW topic_num_posts;
+DROP VIEW user_num_posts;
+DROP VIEW topic_last_activity;
+DROP VIEW report_last_activity;
+DROP VIEW report_relevance;
+
+CREATE VIEW top_users ("user", earned_relevance) AS
+    SELECT u.id, COALESCE(SUM(s.relevance), 0)
+    FROM "user" AS u
+    LEFT OUTER JOIN report AS r
+    ON r.created_by = u.id
+    LEFT OUTER JOIN report_stats AS s
+    ON r.id = s.report
+    GROUP BY u.id
+    ORDER BY COALESCE(SUM(s.relevance), 0) DESC, u.id ASC;
+
+
+UPDATE metadata SET version = '1.1';
\ No newline at end of file
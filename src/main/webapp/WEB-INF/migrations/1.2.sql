@@ -0,0 +1,30 @@
+/*
+ * Migrates the database schema from version 1.1 to version 1.2.
+ *
+ * Adds indexes on the columns the gateways filter by. The indexes are built
+ * concurrently such that a live database stays writable during the migration,
+ * which is why this script is applied outside of a transaction. An aborted
+ * concurrent build leaves an invalid index behind, so every index is dropped
+ * first in order for a repeated migration to succeed.
+ */
+
+DROP INDEX CONCURRENTLY IF EXISTS post_report_idx;
+CREATE INDEX CONCURRENTLY post_report_idx ON post (report);
+
+DROP INDEX CONCURRENTLY IF EXISTS report_topic_idx;
+CREATE INDEX CONCURRENTLY report_topic_idx ON report (topic);
+
+DROP INDEX CONCURRENTLY IF EXISTS relevance_vote_report_idx;
+CREATE INDEX CONCURRENTLY relevance_vote_report_idx ON relevance_vote (report);
+
+DROP INDEX CONCURRENTLY IF EXISTS notification_recipient_idx;
+CREATE INDEX CONCURRENTLY notification_recipient_idx ON notification (recipient);
+
+DROP INDEX CONCURRENTLY IF EXISTS attachment_post_idx;
+CREATE INDEX CONCURRENTLY attachment_post_idx ON attachment (post);
+
+DROP INDEX CONCURRENTLY IF EXISTS token_timestamp_idx;
+CREATE INDEX CONCURRENTLY token_timestamp_idx ON token ("timestamp");
+
+
+UPDATE metadata SET version = '1.2';
\ No newline at end of file
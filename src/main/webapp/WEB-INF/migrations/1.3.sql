@@ -0,0 +1,62 @@
+/*
+ * Migrates the database schema from version 1.2 to version 1.3.
+ *
+ * Adds full-text search vectors on report titles and post contents, which are
+ * kept up to date by triggers and indexed with GIN indexes. The vectors use the
+ * language-independent 'simple' configuration since reports are written in any
+ * of the supported languages. Title terms carry the highest weight such that a
+ * match in the title ranks above matches in the posts.
+ *
+ * Like the preceding migration, this script builds its indexes concurrently
+ * and is thus applied outside of a transaction. Every statement can be repeated
+ * safely in case the migration is aborted.
+ */
+
+
+/***************************************
+ *  Definition of the search vectors.  *
+ **************************************/
+
+ALTER TABLE report ADD COLUMN IF NOT EXISTS title_vector TSVECTOR;
+ALTER TABLE post ADD COLUMN IF NOT EXISTS content_vector TSVECTOR;
+
+CREATE OR REPLACE FUNCTION maintain_report_search_vector() RETURNS TRIGGER AS $$
+BEGIN
+    NEW.title_vector := setweight(to_tsvector('simple', NEW.title), 'A');
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS report_search_maintenance ON report;
+CREATE TRIGGER report_search_maintenance
+    BEFORE INSERT OR UPDATE OF title ON report
+    FOR EACH ROW EXECUTE PROCEDURE maintain_report_search_vector();
+
+CREATE OR REPLACE FUNCTION maintain_post_search_vector() RETURNS TRIGGER AS $$
+BEGIN
+    NEW.content_vector := setweight(to_tsvector('simple', NEW.content), 'D');
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS post_search_maintenance ON post;
+CREATE TRIGGER post_search_maintenance
+    BEFORE INSERT OR UPDATE OF content ON post
+    FOR EACH ROW EXECUTE PROCEDURE maintain_post_search_vector();
+
+UPDATE report SET title_vector = setweight(to_tsvector('simple', title), 'A') WHERE title_vector IS NULL;
+UPDATE post SET content_vector = setweight(to_tsvector('simple', content), 'D') WHERE content_vector IS NULL;
+
+
+/*************************************
+ *  Indexing of the search vectors.  *
+ ************************************/
+
+DROP INDEX CONCURRENTLY IF EXISTS report_title_vector_idx;
+CREATE INDEX CONCURRENTLY report_title_vector_idx ON report USING GIN (title_vector);
+
+DROP INDEX CONCURRENTLY IF EXISTS post_content_vector_idx;
+CREATE INDEX CONCURRENTLY post_content_vector_idx ON post USING GIN (content_vector);
+
+
+UPDATE metadata SET version = '1.3';
\ No newline at end of file
@@ -0,0 +1,25 @@
+/*
+ * Migrates the database schema from version 1.3 to version 1.4.
+ *
+ * Adds trigram indexes on the lower-case usernames, topic titles and report
+ * titles, which answer the substring searches of the search suggestions and
+ * results without scanning the whole tables. Queries must match the indexed
+ * expression LOWER(...) for the indexes to be used.
+ *
+ * The indexes are built concurrently, so this script is applied outside of a
+ * transaction. Every statement can be repeated safely.
+ */
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+DROP INDEX CONCURRENTLY IF EXISTS user_username_trgm_idx;
+CREATE INDEX CONCURRENTLY user_username_trgm_idx ON "user" USING GIN (LOWER(username) gin_trgm_ops);
+
+DROP INDEX CONCURRENTLY IF EXISTS topic_title_trgm_idx;
+CREATE INDEX CONCURRENTLY topic_title_trgm_idx ON topic USING GIN (LOWER(title) gin_trgm_ops);
+
+DROP INDEX CONCURRENTLY IF EXISTS report_title_trgm_idx;
+CREATE INDEX CONCURRENTLY report_title_trgm_idx ON report USING GIN (LOWER(title) gin_trgm_ops);
+
+
+UPDATE metadata SET version = '1.4';
\ No newline at end of file
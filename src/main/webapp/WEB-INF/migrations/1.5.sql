@@ -0,0 +1,27 @@
+/*
+ * Migrates the database schema from version 1.4 to version 1.5.
+ *
+ * Extends the indexes on the columns the listings of reports in a topic,
+ * posts of a report and notifications of a user filter by with the columns
+ * these listings are sorted by by default, followed by the ID. Pages of these
+ * listings are located by seeking to the position of the neighbouring page,
+ * which the extended indexes answer without reading the preceding items.
+ *
+ * The indexes are built concurrently, so this script is applied outside of a
+ * transaction. Every statement can be repeated safely.
+ */
+
+DROP INDEX CONCURRENTLY IF EXISTS report_topic_id_idx;
+CREATE INDEX CONCURRENTLY report_topic_id_idx ON report (topic, id);
+DROP INDEX CONCURRENTLY IF EXISTS report_topic_idx;
+
+DROP INDEX CONCURRENTLY IF EXISTS post_report_created_at_idx;
+CREATE INDEX CONCURRENTLY post_report_created_at_idx ON post (report, created_at, id);
+DROP INDEX CONCURRENTLY IF EXISTS post_report_idx;
+
+DROP INDEX CONCURRENTLY IF EXISTS notification_recipient_created_at_idx;
+CREATE INDEX CONCURRENTLY notification_recipient_created_at_idx ON notification (recipient, created_at, id);
+DROP INDEX CONCURRENTLY IF EXISTS notification_recipient_idx;
+
+
+UPDATE metadata SET version = '1.5';
\ No newline at end of file
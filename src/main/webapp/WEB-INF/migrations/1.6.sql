@@ -0,0 +1,27 @@
+/*
+ * Migrates the database schema from version 1.5 to version 1.6.
+ *
+ * Adds indexes on the subscribed user, report and topic of the subscription
+ * tables and on the topic of the topic bans. The primary keys of these tables
+ * lead with the subscriber or outcast, so they cannot answer which users are
+ * subscribed to or banned from a given entity, which is exactly what the
+ * recipients of a notification are computed from.
+ *
+ * The indexes are built concurrently, so this script is applied outside of a
+ * transaction. Every statement can be repeated safely.
+ */
+
+DROP INDEX CONCURRENTLY IF EXISTS user_subscription_subscribee_idx;
+CREATE INDEX CONCURRENTLY user_subscription_subscribee_idx ON user_subscription (subscribee);
+
+DROP INDEX CONCURRENTLY IF EXISTS report_subscription_report_idx;
+CREATE INDEX CONCURRENTLY report_subscription_report_idx ON report_subscription (report);
+
+DROP INDEX CONCURRENTLY IF EXISTS topic_subscription_topic_idx;
+CREATE INDEX CONCURRENTLY topic_subscription_topic_idx ON topic_subscription (topic);
+
+DROP INDEX CONCURRENTLY IF EXISTS topic_ban_topic_idx;
+CREATE INDEX CONCURRENTLY topic_ban_topic_idx ON topic_ban (topic);
+
+
+UPDATE metadata SET version = '1.6';
\ No newline at end of file
@@ -0,0 +1,22 @@
+/*
+ * Migrates the database schema from version 1.6 to version 1.7.
+ *
+ * Adds the outbox of notification events. A write that notifies users records
+ * one event in its own transaction, which a background dispatcher later claims
+ * and expands into the notifications of all subscribers. Since an event is
+ * deleted in the same transaction that creates its notifications, every event
+ * is expanded exactly once, even if the application stops in between.
+ */
+
+CREATE TABLE notification_event (
+    id INTEGER PRIMARY KEY GENERATED BY DEFAULT AS IDENTITY,
+    type notification_type NOT NULL,
+    causer INTEGER NOT NULL REFERENCES "user" (id) ON DELETE CASCADE,
+    topic INTEGER NOT NULL REFERENCES topic (id) ON DELETE CASCADE,
+    report INTEGER NOT NULL REFERENCES report (id) ON DELETE CASCADE,
+    post INTEGER REFERENCES post (id) ON DELETE CASCADE,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW()
+);
+
+
+UPDATE metadata SET version = '1.7';
\ No newline at end of file
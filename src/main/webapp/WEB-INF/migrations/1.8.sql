@@ -0,0 +1,34 @@
+/*
+ * Migrates the database schema from version 1.7 to version 1.8.
+ *
+ * Adds the durable queue of outgoing e-mails. Mails are claimed in batches by
+ * the mail scheduler, which leases them for a while by pushing their due date
+ * into the future. Mails that could not be sent are retried with growing
+ * delays and finally kept as dead letters. Sent mails are deleted, marking the
+ * notification they belong to as sent in the same statement.
+ */
+
+CREATE TYPE mail_status AS ENUM ('PENDING', 'DEAD');
+
+CREATE TABLE mail (
+    id INTEGER PRIMARY KEY GENERATED BY DEFAULT AS IDENTITY,
+    recipients VARCHAR[] NOT NULL,
+    cc VARCHAR[] NOT NULL,
+    bcc VARCHAR[] NOT NULL,
+    reply_to VARCHAR[] NOT NULL,
+    subject VARCHAR NOT NULL,
+    content VARCHAR NOT NULL,
+    priority INTEGER NOT NULL,
+    status mail_status NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    due_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    notification INTEGER REFERENCES notification (id) ON DELETE SET NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX mail_pending_due_idx ON mail (priority, due_at) WHERE status = 'PENDING';
+
+CREATE INDEX mail_notification_idx ON mail (notification);
+
+
+UPDATE metadata SET version = '1.8';
\ No newline at end of file
@@ -0,0 +1,22 @@
+/*
+ * Migrates the database schema from version 1.8 to version 1.9.
+ *
+ * Counts the failed attempts to expand notification events. An event failing
+ * repeatedly is kept as dead letter instead of being claimed again, such that
+ * it can no longer hold up the dispatch of all other events.
+ *
+ * Pending events are claimed in the order of their IDs. As dead events are
+ * kept, a partial index on the IDs of the pending events lets claiming skip
+ * them instead of scanning past them.
+ */
+
+CREATE TYPE notification_event_status AS ENUM ('PENDING', 'DEAD');
+
+ALTER TABLE notification_event
+    ADD COLUMN status notification_event_status NOT NULL DEFAULT 'PENDING',
+    ADD COLUMN attempts INTEGER NOT NULL DEFAULT 0;
+
+CREATE INDEX notification_event_pending_idx ON notification_event (id) WHERE status = 'PENDING';
+
+
+UPDATE metadata SET version = '1.9';
\ No newline at end of file
@@ -0,0 +1,103 @@
+package performance;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import java.sql.Connection;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import tech.bugger.persistence.util.ConnectionPool;
+
+/**
+ * Compares the lock-free {@link ConnectionPool} with the former {@link MonitorConnectionPool}.
+ * <p>
+ * Run {@link #main(String[])} from the test classpath. Each thread count is measured in a separate JMH run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConnectionPoolBenchmark {
+
+    private static final String DVR = "org.postgresql.Driver";
+    private static final int MIN_CONNS = 10;
+    private static final int MAX_CONNS = 50;
+    private static final int MIN_IDLE_CONNS = 5;
+    private static final int TIMEOUT = 60000; // we measure throughput, not timeouts
+    private static final int WORK_TOKENS = 200; // simulated work while holding a connection
+    private static final int[] THREADS = {8, 64, 512};
+
+    @Param({"monitor", "lockfree"})
+    public String pool;
+
+    private EmbeddedPostgres pg;
+    private Supplier<Connection> acquire;
+    private Consumer<Connection> release;
+    private Runnable shutdown;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        pg = EmbeddedPostgres.builder().start();
+        String url = pg.getJdbcUrl("postgres", "postgres");
+        Properties props = new Properties();
+        props.load(ClassLoader.getSystemResourceAsStream("jdbc.properties"));
+
+        if (pool.equals("monitor")) {
+            MonitorConnectionPool monitorPool = new MonitorConnectionPool(DVR, url, props, MIN_CONNS, MAX_CONNS,
+                    TIMEOUT);
+            acquire = monitorPool::getConnection;
+            release = monitorPool::releaseConnection;
+            shutdown = monitorPool::shutdown;
+        } else {
+            ConnectionPool lockFreePool = new ConnectionPool(DVR, url, props, MIN_CONNS, MAX_CONNS, MIN_IDLE_CONNS,
+                    TIMEOUT, 0, -1, 0, 0);
+            acquire = lockFreePool::getConnection;
+            release = lockFreePool::releaseConnection;
+            shutdown = lockFreePool::shutdown;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        shutdown.run();
+        pg.close();
+    }
+
+    @Benchmark
+    public void acquireAndRelease(Blackhole blackhole) {
+        Connection connection = acquire.get();
+        blackhole.consume(connection);
+        Blackhole.consumeCPU(WORK_TOKENS);
+        release.accept(connection);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : THREADS) {
+            System.out.println("Benchmarking connection pools with " + threads + " threads.");
+            new Runner(new OptionsBuilder()
+                    .include(ConnectionPoolBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build()).run();
+        }
+    }
+
+}
@@ -0,0 +1,114 @@
+package performance;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import tech.bugger.persistence.util.ConnectionPool;
+
+/**
+ * Replays a bursty acquire/release trace against the former {@link MonitorConnectionPool} and the current
+ * {@link ConnectionPool} and reports how many distinct connections each pool opened.
+ * <p>
+ * The trace alternates short bursts of many concurrent clients with longer quiet phases of few clients, which makes
+ * a pool shrinking on release reopen its connections on every burst. Run {@link #main(String[])} from the test
+ * classpath.
+ */
+public class ConnectionPoolBurstReplay {
+
+    private static final String DVR = "org.postgresql.Driver";
+    private static final int MIN_CONNS = 5;
+    private static final int MAX_CONNS = 40;
+    private static final int MIN_IDLE_CONNS = 2;
+    private static final int TIMEOUT = 10000;
+    private static final int IDLE_TIMEOUT = 30000;
+    private static final int HOLD_MILLIS = 5;
+    private static final int BURSTS = 10;
+
+    /**
+     * The trace as pairs of phase duration in milliseconds and number of concurrent clients.
+     */
+    private static final int[][] PHASES = {{300, 40}, {1500, 3}};
+
+    public static void main(String[] args) throws Exception {
+        try (EmbeddedPostgres pg = EmbeddedPostgres.builder().start()) {
+            String url = pg.getJdbcUrl("postgres", "postgres");
+            Properties props = new Properties();
+            props.load(ClassLoader.getSystemResourceAsStream("jdbc.properties"));
+
+            MonitorConnectionPool monitorPool = new MonitorConnectionPool(DVR, url, props, MIN_CONNS, MAX_CONNS,
+                    TIMEOUT);
+            int monitorOpened = replay(monitorPool::getConnection, monitorPool::releaseConnection);
+            monitorPool.shutdown();
+            System.out.println("Shrink on release:      " + monitorOpened + " connections opened.");
+
+            ConnectionPool lockFreePool = new ConnectionPool(DVR, url, props, MIN_CONNS, MAX_CONNS, MIN_IDLE_CONNS,
+                    TIMEOUT, IDLE_TIMEOUT, -1, 0, 0);
+            int lockFreeOpened = replay(lockFreePool::getConnection, lockFreePool::releaseConnection);
+            StringBuilder metrics = new StringBuilder();
+            lockFreePool.getMetrics().writePrometheus("", metrics);
+            lockFreePool.shutdown();
+            System.out.println("Shrink on idle timeout: " + lockFreeOpened + " connections opened.");
+            System.out.print(metrics);
+        }
+    }
+
+    /**
+     * Replays the trace and counts the distinct connections handed out, which are exactly the connections opened by
+     * the pool during the replay plus those it opened initially.
+     */
+    private static int replay(Supplier<Connection> acquire, Consumer<Connection> release) throws Exception {
+        Set<Connection> seen = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+        AtomicInteger clients = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < MAX_CONNS; i++) {
+            int id = i;
+            Thread thread = new Thread(() -> {
+                while (!Thread.currentThread().isInterrupted()) {
+                    if (id >= clients.get()) {
+                        pause(1);
+                        continue;
+                    }
+                    Connection connection = acquire.get();
+                    seen.add(connection);
+                    pause(HOLD_MILLIS);
+                    release.accept(connection);
+                }
+            });
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+
+        for (int burst = 0; burst < BURSTS; burst++) {
+            for (int[] phase : PHASES) {
+                clients.set(phase[1]);
+                Thread.sleep(phase[0]);
+            }
+        }
+
+        for (Thread thread : threads) {
+            thread.interrupt();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return seen.size();
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
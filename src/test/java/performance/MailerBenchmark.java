@@ -0,0 +1,92 @@
+package performance;
+
+import com.dumbster.smtp.SimpleSmtpServer;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import tech.bugger.persistence.util.Mail;
+import tech.bugger.persistence.util.Mailer;
+
+/**
+ * Measures how many messages per second the {@link Mailer} hands over to a local dumbster SMTP server.
+ * <p>
+ * With one message per connection, every message pays for connecting and greeting the server as {@code
+ * Transport.send} did before connections were pooled. Run {@link #main(String[])} from the test classpath; the
+ * results are reported in messages per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8) // as many as the mail executor typically runs
+@Fork(1)
+public class MailerBenchmark {
+
+    private static final int SMTP_PORT = 42425;
+    private static final String CONFIG = "mail.from = bugger@localhost\n"
+            + "mail.smtp.host = localhost\n"
+            + "mail.smtp.port = " + SMTP_PORT + "\n";
+
+    @Param({"1", "4"})
+    public int connections;
+
+    @Param({"1", "100"})
+    public int messagesPerConnection;
+
+    private SimpleSmtpServer smtpServer;
+    private Mailer mailer;
+    private Mail mail;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        smtpServer = SimpleSmtpServer.start(SMTP_PORT);
+        mailer = new Mailer(new ByteArrayInputStream(CONFIG.getBytes(StandardCharsets.UTF_8)), null, null,
+                connections, messagesPerConnection);
+        mail = new Mail.Builder()
+                .to("subscriber@bugger.tech")
+                .subject("New post")
+                .content("There is a new post in a report you are subscribed to.")
+                .envelop();
+    }
+
+    @TearDown(Level.Iteration)
+    public void discardReceived() {
+        smtpServer.reset(); // the server keeps every message in memory
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        mailer.close();
+        smtpServer.stop();
+    }
+
+    @Benchmark
+    public boolean send() {
+        return mailer.send(mail);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MailerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+}
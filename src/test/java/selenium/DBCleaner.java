@@ -33,7 +33,7 @@ public class DBCleaner {
 
             connectionPool = new ConnectionPool(config.getString("DB_DRIVER"),
                     config.getString("DB_URL"),
-                    props, 1, 1, 2000);
+                    props, 1, 1, 0, 2000, 0, -1, 0, 0);
         } catch (IOException e) {
             throw new AssertionError("Error when reading JDBC properties from disk.", e);
         }
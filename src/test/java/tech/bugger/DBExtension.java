@@ -8,16 +8,22 @@ import org.junit.jupiter.api.extension.BeforeEachCallback;
 import org.junit.jupiter.api.extension.ExtensionContext;
 
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class DBExtension implements BeforeAllCallback, BeforeEachCallback, AfterEachCallback, AfterAllCallback {
 
     private static EmbeddedPostgres pg;
     private static String setupSQL;
+    private static List<String> migrationSQL;
     private static String eraseSQL;
     private static String minimalSQL;
 
@@ -26,6 +32,12 @@ public class DBExtension implements BeforeAllCallback, BeforeEachCallback, After
         try {
             pg = EmbeddedPostgres.builder().start();
             setupSQL = Files.readString(Paths.get("src/main/webapp/WEB-INF/setup.sql"));
+            migrationSQL = new ArrayList<>();
+            try (Stream<Path> scripts = Files.list(Paths.get("src/main/webapp/WEB-INF/migrations"))) {
+                for (Path script : scripts.sorted(DBExtension::compareVersions).collect(Collectors.toList())) {
+                    migrationSQL.add(Files.readString(script));
+                }
+            }
             eraseSQL = Files.readString(Paths.get("src/main/webapp/WEB-INF/erase.sql"));
             minimalSQL = Files.readString(Paths.get("testdata/minimal.sql"));
         } catch (Exception e) {
@@ -35,7 +47,7 @@ public class DBExtension implements BeforeAllCallback, BeforeEachCallback, After
 
     @Override
     public void beforeEach(ExtensionContext extensionContext) {
-        applyScript(setupSQL);
+        setUpDatabase();
     }
 
     @Override
@@ -62,7 +74,14 @@ public class DBExtension implements BeforeAllCallback, BeforeEachCallback, After
 
     public static void resetDatabase() {
         applyScript(eraseSQL);
+        setUpDatabase();
+    }
+
+    private static void setUpDatabase() {
         applyScript(setupSQL);
+        for (String sql : migrationSQL) {
+            applyScriptStatementwise(sql);
+        }
     }
 
     private static void applyScript(String sql) {
@@ -80,4 +99,33 @@ public class DBExtension implements BeforeAllCallback, BeforeEachCallback, After
         }
     }
 
+    private static void applyScriptStatementwise(String sql) {
+        try (Connection conn = pg.getPostgresDatabase().getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            Scanner scanner = new Scanner(sql);
+            scanner.useDelimiter(";(?=(?:[^$]*\\$\\$[^$]*\\$\\$)*[^$]*\\Z)");
+            while (scanner.hasNext()) {
+                String statement = scanner.next();
+                if (!statement.isBlank()) {
+                    stmt.execute(statement);
+                }
+            }
+        } catch (SQLException e) {
+            throw new InternalError("Applying SQL script failed.", e);
+        }
+    }
+
+    private static int compareVersions(Path a, Path b) {
+        String[] as = a.getFileName().toString().replace(".sql", "").split("\\.");
+        String[] bs = b.getFileName().toString().replace(".sql", "").split("\\.");
+        for (int i = 0; i < Math.min(as.length, bs.length); i++) {
+            int cmp = Integer.compare(Integer.parseInt(as[i]), Integer.parseInt(bs[i]));
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(as.length, bs.length);
+    }
+
 }
@@ -0,0 +1,242 @@
+package tech.bugger.business.internal;
+
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tech.bugger.LogExtension;
+import tech.bugger.business.util.PriorityExecutor;
+import tech.bugger.business.util.PriorityTask;
+import tech.bugger.persistence.exception.NotFoundException;
+import tech.bugger.persistence.exception.StoreException;
+import tech.bugger.persistence.exception.TransactionException;
+import tech.bugger.persistence.gateway.MailGateway;
+import tech.bugger.persistence.util.Mail;
+import tech.bugger.persistence.util.Mailer;
+import tech.bugger.persistence.util.QueuedMail;
+import tech.bugger.persistence.util.Transaction;
+import tech.bugger.persistence.util.TransactionManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(LogExtension.class)
+@ExtendWith(MockitoExtension.class)
+public class MailSchedulerTest {
+
+    private MailScheduler scheduler;
+
+    @Mock
+    private TransactionManager transactionManager;
+
+    @Mock
+    private Transaction tx;
+
+    @Mock
+    private MailGateway mailGateway;
+
+    @Mock
+    private Mailer mailer;
+
+    @Mock
+    private PriorityExecutor priorityExecutor;
+
+    private Mail mail;
+
+    private QueuedMail queuedMail;
+
+    @BeforeEach
+    public void setUp() {
+        lenient().doReturn(tx).when(transactionManager).begin();
+        lenient().doReturn(mailGateway).when(tx).newMailGateway();
+        lenient().doReturn(Duration.ofSeconds(30)).when(priorityExecutor).getAgingInterval();
+        lenient().doReturn(Integer.MAX_VALUE).when(priorityExecutor).getPermits(any());
+
+        scheduler = new MailScheduler(transactionManager, mailer, priorityExecutor, 2, 3, Duration.ofMinutes(1),
+                Duration.ofMinutes(1));
+
+        mail = new Mail.Builder().to("user@example.org").subject("Subject").content("Content").envelop();
+        queuedMail = new QueuedMail(mail, PriorityTask.Priority.LOW.ordinal(), null);
+        queuedMail.setId(1);
+        queuedMail.setAttempts(1);
+    }
+
+    @Test
+    public void testConstructorWhenBufferSizeNotPositive() {
+        assertThrows(IllegalArgumentException.class, () -> new MailScheduler(transactionManager, mailer,
+                priorityExecutor, 0, 3, Duration.ofMinutes(1), Duration.ofMinutes(1)));
+    }
+
+    @Test
+    public void testConstructorWhenMaxTriesNotPositive() {
+        assertThrows(IllegalArgumentException.class, () -> new MailScheduler(transactionManager, mailer,
+                priorityExecutor, 2, 0, Duration.ofMinutes(1), Duration.ofMinutes(1)));
+    }
+
+    @Test
+    public void testEnqueue() throws Exception {
+        assertTrue(scheduler.enqueue(mail, PriorityTask.Priority.HIGH));
+        ArgumentCaptor<QueuedMail> captor = ArgumentCaptor.forClass(QueuedMail.class);
+        verify(mailGateway).create(captor.capture());
+        assertAll(
+                () -> assertSame(mail, captor.getValue().getMail()),
+                () -> assertEquals(PriorityTask.Priority.HIGH.ordinal(), captor.getValue().getPriority()),
+                () -> assertNull(captor.getValue().getNotificationID())
+        );
+        verify(tx).commit();
+    }
+
+    @Test
+    public void testEnqueueWhenCommitFails() throws Exception {
+        doThrow(TransactionException.class).when(tx).commit();
+        assertFalse(scheduler.enqueue(mail, PriorityTask.Priority.HIGH));
+    }
+
+    @Test
+    public void testEnqueueInTransaction() {
+        scheduler.enqueue(queuedMail, tx);
+        verify(mailGateway).create(queuedMail);
+    }
+
+    @Test
+    public void testClaim() {
+        doReturn(List.of(queuedMail)).when(mailGateway).claim(eq(2), any(), any(), eq(Duration.ofSeconds(30)));
+        assertEquals(1, scheduler.claim(2));
+        ArgumentCaptor<PriorityTask> captor = ArgumentCaptor.forClass(PriorityTask.class);
+        verify(priorityExecutor).enqueue(captor.capture());
+        assertEquals(PriorityTask.Priority.LOW, captor.getValue().getPriority());
+    }
+
+    @Test
+    public void testClaimWhenRateLimitedWithFullBuffer() {
+        QueuedMail urgentMail = new QueuedMail(mail, PriorityTask.Priority.HIGH.ordinal(), null);
+        urgentMail.setId(2);
+        doReturn(0).when(priorityExecutor).getPermits(PriorityTask.Priority.LOW);
+        doReturn(List.of(urgentMail)).when(mailGateway).claim(eq(2), aryEq(new int[]{2, 0}), any(),
+                eq(Duration.ofSeconds(30)));
+        assertEquals(1, scheduler.claim(2));
+        ArgumentCaptor<PriorityTask> captor = ArgumentCaptor.forClass(PriorityTask.class);
+        verify(priorityExecutor).enqueue(captor.capture());
+        assertEquals(PriorityTask.Priority.HIGH, captor.getValue().getPriority());
+    }
+
+    @Test
+    public void testClaimLimitsRateLimitedPriority() {
+        doReturn(1).when(priorityExecutor).getPermits(PriorityTask.Priority.LOW);
+        doReturn(List.of(queuedMail)).when(mailGateway).claim(eq(2), aryEq(new int[]{2, 1}), any(),
+                eq(Duration.ofSeconds(30)));
+        assertEquals(1, scheduler.claim(2));
+    }
+
+    @Test
+    public void testGetWaitMillis() {
+        assertEquals(Duration.ofMinutes(1).toMillis(), scheduler.getWaitMillis());
+        doReturn(0).when(priorityExecutor).getPermits(PriorityTask.Priority.LOW);
+        doReturn(Duration.ofSeconds(2)).when(priorityExecutor).getTimeUntilPermit(PriorityTask.Priority.LOW);
+        assertEquals(2000, scheduler.getWaitMillis());
+    }
+
+    @Test
+    public void testClaimDeliversWhenRun() throws Exception {
+        doReturn(List.of(queuedMail)).when(mailGateway).claim(eq(2), any(), any(), eq(Duration.ofSeconds(30)));
+        doReturn(true).when(mailer).send(mail);
+        scheduler.claim(2);
+        ArgumentCaptor<PriorityTask> captor = ArgumentCaptor.forClass(PriorityTask.class);
+        verify(priorityExecutor).enqueue(captor.capture());
+        captor.getValue().run();
+        verify(mailGateway).markSent(queuedMail);
+    }
+
+    @Test
+    public void testClaimWhenStoreException() {
+        doThrow(StoreException.class).when(mailGateway).claim(anyInt(), any(), any(), any());
+        assertEquals(0, scheduler.claim(2));
+        verify(priorityExecutor, never()).enqueue(any());
+    }
+
+    @Test
+    public void testClaimWhenExecutorShutDown() {
+        doReturn(List.of(queuedMail)).when(mailGateway).claim(eq(2), any(), any(), eq(Duration.ofSeconds(30)));
+        doThrow(IllegalStateException.class).when(priorityExecutor).enqueue(any());
+        assertEquals(1, scheduler.claim(2));
+        verifyNoInteractions(mailer);
+    }
+
+    @Test
+    public void testDeliverWhenSent() throws Exception {
+        doReturn(true).when(mailer).send(mail);
+        scheduler.deliver(queuedMail);
+        verify(mailGateway).markSent(queuedMail);
+        verify(tx).commit();
+    }
+
+    @Test
+    public void testDeliverWhenFailed() throws Exception {
+        doReturn(false).when(mailer).send(mail);
+        scheduler.deliver(queuedMail);
+        verify(mailGateway).reschedule(queuedMail, Duration.ofMinutes(1));
+    }
+
+    @Test
+    public void testDeliverWhenOutOfTries() throws Exception {
+        queuedMail.setAttempts(3);
+        doReturn(false).when(mailer).send(mail);
+        scheduler.deliver(queuedMail);
+        verify(mailGateway).markDead(queuedMail);
+        verify(mailGateway, never()).reschedule(any(), any());
+    }
+
+    @Test
+    public void testDeliverWhenNotFound() throws Exception {
+        doReturn(true).when(mailer).send(mail);
+        doThrow(NotFoundException.class).when(mailGateway).markSent(queuedMail);
+        assertDoesNotThrow(() -> scheduler.deliver(queuedMail));
+    }
+
+    @Test
+    public void testDeliverWhenCommitFails() throws Exception {
+        doReturn(true).when(mailer).send(mail);
+        doThrow(TransactionException.class).when(tx).commit();
+        assertDoesNotThrow(() -> scheduler.deliver(queuedMail));
+    }
+
+    @Test
+    public void testGetRetryDelay() {
+        assertAll(
+                () -> assertEquals(Duration.ofMinutes(1), scheduler.getRetryDelay(1)),
+                () -> assertEquals(Duration.ofMinutes(2), scheduler.getRetryDelay(2)),
+                () -> assertEquals(Duration.ofMinutes(4), scheduler.getRetryDelay(3)),
+                () -> assertEquals(Duration.ofHours(6), scheduler.getRetryDelay(20)),
+                () -> assertEquals(Duration.ofHours(6), scheduler.getRetryDelay(Integer.MAX_VALUE))
+        );
+    }
+
+    @Test
+    public void testStartClaimsDueMails() throws Exception {
+        doReturn(List.of()).when(mailGateway).claim(anyInt(), any(), any(), any());
+        scheduler.start();
+        verify(mailGateway, timeout(1000)).claim(eq(2), any(), any(), eq(Duration.ofSeconds(30)));
+        scheduler.signal();
+        verify(mailGateway, timeout(1000).times(2)).claim(eq(2), any(), any(), eq(Duration.ofSeconds(30)));
+        assertTrue(scheduler.shutdown(1000));
+    }
+
+    @Test
+    public void testStartTwice() throws Exception {
+        lenient().doReturn(List.of()).when(mailGateway).claim(anyInt(), any(), any(), any());
+        scheduler.start();
+        assertThrows(IllegalStateException.class, () -> scheduler.start());
+        assertTrue(scheduler.shutdown(1000));
+    }
+
+    @Test
+    public void testShutdownWhenNotStarted() throws Exception {
+        assertTrue(scheduler.shutdown(0));
+    }
+
+}
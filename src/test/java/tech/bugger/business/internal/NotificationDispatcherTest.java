@@ -0,0 +1,240 @@
+package tech.bugger.business.internal;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tech.bugger.LogExtension;
+import tech.bugger.ResourceBundleMocker;
+import tech.bugger.business.util.PriorityTask;
+import tech.bugger.business.util.Registry;
+import tech.bugger.global.transfer.Notification;
+import tech.bugger.persistence.exception.NotFoundException;
+import tech.bugger.persistence.exception.StoreException;
+import tech.bugger.persistence.exception.TransactionException;
+import tech.bugger.persistence.gateway.NotificationGateway;
+import tech.bugger.persistence.util.PropertiesReader;
+import tech.bugger.persistence.util.QueuedMail;
+import tech.bugger.persistence.util.Transaction;
+import tech.bugger.persistence.util.TransactionManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(LogExtension.class)
+@ExtendWith(MockitoExtension.class)
+public class NotificationDispatcherTest {
+
+    private NotificationDispatcher dispatcher;
+
+    @Mock
+    private TransactionManager transactionManager;
+
+    @Mock
+    private Transaction tx;
+
+    @Mock
+    private NotificationGateway notificationGateway;
+
+    @Mock
+    private Registry registry;
+
+    @Mock
+    private MailScheduler mailScheduler;
+
+    @Mock
+    private PropertiesReader configReader;
+
+    private Notification event;
+
+    @BeforeEach
+    public void setUp() {
+        doReturn(mailScheduler).when(registry).getMailScheduler("main");
+        doReturn(configReader).when(registry).getPropertiesReader("config");
+        lenient().doReturn(ResourceBundleMocker.mock("")).when(registry).getBundle(eq("interactions"), any());
+        lenient().doReturn("https://bugger.tech").when(configReader).getString("SERVER_URL");
+        lenient().doReturn(tx).when(transactionManager).begin();
+        lenient().doReturn(notificationGateway).when(tx).newNotificationGateway();
+
+        dispatcher = new NotificationDispatcher(transactionManager, registry, 2, 3, Duration.ofMinutes(1));
+
+        event = new Notification();
+        event.setId(7);
+        event.setType(Notification.Type.NEW_POST);
+        event.setActuatorID(1);
+        event.setTopicID(2);
+        event.setReportID(100);
+        event.setPostID(200);
+        event.setReportTitle("Crash");
+    }
+
+    private Notification notificationFor(final int recipient, final String mail) {
+        Notification notification = new Notification(event);
+        notification.setId(recipient + 1000);
+        notification.setRecipientID(recipient);
+        notification.setRecipientMail(mail);
+        notification.setEmailLanguage("en");
+        return notification;
+    }
+
+    @Test
+    public void testConstructorWhenBatchSizeNotPositive() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new NotificationDispatcher(transactionManager, registry, 0, 3, Duration.ofMinutes(1)));
+    }
+
+    @Test
+    public void testConstructorWhenMaxAttemptsNotPositive() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new NotificationDispatcher(transactionManager, registry, 2, 0, Duration.ofMinutes(1)));
+    }
+
+    @Test
+    public void testDispatchBatch() {
+        Notification withMail = notificationFor(3, "user@example.org");
+        Notification withoutMail = notificationFor(4, "");
+        doReturn(List.of(event)).when(notificationGateway).claimNotificationEvents(2);
+        doReturn(new ArrayList<>(List.of(withMail, withoutMail))).when(notificationGateway)
+                .createNotificationForSubscribers(event);
+        assertEquals(1, dispatcher.dispatchBatch());
+        ArgumentCaptor<QueuedMail> captor = ArgumentCaptor.forClass(QueuedMail.class);
+        verify(mailScheduler).enqueue(captor.capture(), eq(tx));
+        assertAll(
+                () -> assertIterableEquals(List.of("user@example.org"), captor.getValue().getMail().getTo()),
+                () -> assertEquals(withMail.getId(), captor.getValue().getNotificationID()),
+                () -> assertEquals(PriorityTask.Priority.LOW.ordinal(), captor.getValue().getPriority())
+        );
+        verify(tx).commit();
+        verify(mailScheduler).signal();
+    }
+
+    @Test
+    public void testDispatchBatchWhenNoEvents() {
+        doReturn(List.of()).when(notificationGateway).claimNotificationEvents(2);
+        assertEquals(0, dispatcher.dispatchBatch());
+        verify(notificationGateway, never()).createNotificationForSubscribers(any());
+        verify(mailScheduler, never()).signal();
+    }
+
+    @Test
+    public void testDispatchBatchWhenCommitFails() throws Exception {
+        doReturn(List.of(event)).when(notificationGateway).claimNotificationEvents(2);
+        doReturn(List.of(notificationFor(3, "user@example.org"))).when(notificationGateway)
+                .createNotificationForSubscribers(event);
+        doThrow(TransactionException.class).when(tx).commit();
+        assertEquals(0, dispatcher.dispatchBatch());
+        verify(mailScheduler, never()).signal();
+    }
+
+    @Test
+    public void testDispatchBatchIsolatesFailingEvent() throws Exception {
+        Notification poison = new Notification(event);
+        poison.setId(8);
+        doReturn(List.of(event, poison)).when(notificationGateway).claimNotificationEvents(2);
+        doReturn(event).when(notificationGateway).claimNotificationEvent(7);
+        doReturn(poison).when(notificationGateway).claimNotificationEvent(8);
+        doReturn(List.of()).when(notificationGateway).createNotificationForSubscribers(event);
+        doThrow(IllegalStateException.class).when(notificationGateway).createNotificationForSubscribers(poison);
+        assertEquals(2, dispatcher.dispatchBatch());
+        verify(notificationGateway).recordFailedNotificationEvent(8, 3);
+        verify(notificationGateway, never()).recordFailedNotificationEvent(eq(7), anyInt());
+        verify(tx, times(2)).commit();
+        verify(mailScheduler).signal();
+    }
+
+    @Test
+    public void testDispatchBatchWhenClaimFails() {
+        doThrow(StoreException.class).when(notificationGateway).claimNotificationEvents(2);
+        assertThrows(StoreException.class, () -> dispatcher.dispatchBatch());
+        verify(notificationGateway, never()).claimNotificationEvent(anyInt());
+    }
+
+    @Test
+    public void testDispatchEventWhenClaimedByAnotherWorker() throws Exception {
+        doThrow(NotFoundException.class).when(notificationGateway).claimNotificationEvent(7);
+        assertFalse(dispatcher.dispatchEvent(7));
+        verify(notificationGateway, never()).recordFailedNotificationEvent(anyInt(), anyInt());
+    }
+
+    @Test
+    public void testDispatchEventWhenRecordingFailureFails() throws Exception {
+        doReturn(event).when(notificationGateway).claimNotificationEvent(7);
+        doThrow(IllegalStateException.class).when(notificationGateway).createNotificationForSubscribers(event);
+        doThrow(StoreException.class).when(notificationGateway).recordFailedNotificationEvent(7, 3);
+        assertFalse(dispatcher.dispatchEvent(7));
+    }
+
+    @Test
+    public void testStartQueuesUnsentNotifications() throws Exception {
+        Notification unsent = notificationFor(3, "user@example.org");
+        doReturn(List.of(unsent)).when(notificationGateway).getUnsentNotifications();
+        lenient().doReturn(List.of()).when(notificationGateway).claimNotificationEvents(2);
+        dispatcher.start(1);
+        verify(mailScheduler).enqueue(any(QueuedMail.class), eq(tx));
+        verify(mailScheduler).signal();
+        assertTrue(dispatcher.shutdown(1000));
+    }
+
+    @Test
+    public void testStartDispatchesWhenSignalled() throws Exception {
+        doReturn(List.of()).when(notificationGateway).getUnsentNotifications();
+        doReturn(List.of()).doReturn(List.of(event)).doReturn(List.of()).when(notificationGateway)
+                .claimNotificationEvents(2);
+        doReturn(List.of()).when(notificationGateway).createNotificationForSubscribers(event);
+        dispatcher.start(1);
+        verify(notificationGateway, timeout(1000)).claimNotificationEvents(2);
+        dispatcher.signal();
+        verify(notificationGateway, timeout(1000)).createNotificationForSubscribers(event);
+        assertTrue(dispatcher.shutdown(1000));
+    }
+
+    @Test
+    public void testWorkersSurviveStoreException() throws Exception {
+        doReturn(List.of()).when(notificationGateway).getUnsentNotifications();
+        doThrow(StoreException.class).doReturn(List.of()).when(notificationGateway).claimNotificationEvents(2);
+        dispatcher.start(1);
+        verify(notificationGateway, timeout(1000)).claimNotificationEvents(2);
+        dispatcher.signal();
+        verify(notificationGateway, timeout(1000).times(2)).claimNotificationEvents(2);
+        assertTrue(dispatcher.shutdown(1000));
+    }
+
+    @Test
+    public void testWorkersSurviveRuntimeException() throws Exception {
+        doReturn(List.of()).when(notificationGateway).getUnsentNotifications();
+        doThrow(IllegalStateException.class).doReturn(List.of()).when(notificationGateway)
+                .claimNotificationEvents(2);
+        dispatcher.start(1);
+        verify(notificationGateway, timeout(1000)).claimNotificationEvents(2);
+        dispatcher.signal();
+        verify(notificationGateway, timeout(1000).times(2)).claimNotificationEvents(2);
+        assertTrue(dispatcher.shutdown(1000));
+    }
+
+    @Test
+    public void testStartWhenWorkerCountNotPositive() {
+        assertThrows(IllegalArgumentException.class, () -> dispatcher.start(0));
+    }
+
+    @Test
+    public void testStartTwice() throws Exception {
+        doReturn(List.of()).when(notificationGateway).getUnsentNotifications();
+        lenient().doReturn(List.of()).when(notificationGateway).claimNotificationEvents(2);
+        dispatcher.start(1);
+        assertThrows(IllegalStateException.class, () -> dispatcher.start(1));
+        assertTrue(dispatcher.shutdown(1000));
+    }
+
+    @Test
+    public void testShutdownWhenNotStarted() throws Exception {
+        assertTrue(dispatcher.shutdown(0));
+    }
+
+}
@@ -1,12 +1,15 @@
 package tech.bugger.business.internal;
 
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import tech.bugger.LogExtension;
+import tech.bugger.business.util.NameIndex;
 import tech.bugger.persistence.exception.TransactionException;
 import tech.bugger.persistence.gateway.TokenGateway;
 import tech.bugger.persistence.gateway.UserGateway;
@@ -36,6 +39,9 @@ public class PeriodicCleanerTest {
     @Mock
     private UserGateway userGateway;
 
+    @Mock
+    private NameIndex nameIndex;
+
     @BeforeEach
     public void setUp() {
         doReturn(tokenGateway).when(tx).newTokenGateway();
@@ -50,10 +56,22 @@ public class PeriodicCleanerTest {
         verify(userGateway).cleanExpiredRegistrations();
     }
 
+    @Test
+    public void testRunRemovesDeletedUsersFromNameIndex() throws Exception {
+        doReturn(List.of(3, 4)).when(userGateway).cleanExpiredRegistrations();
+        periodicCleaner.run();
+        InOrder inOrder = inOrder(tx, nameIndex);
+        inOrder.verify(tx).commit();
+        inOrder.verify(nameIndex).removeUser(3);
+        inOrder.verify(nameIndex).removeUser(4);
+    }
+
     @Test
     public void testRunWhenError() throws Exception {
+        doReturn(List.of(3)).when(userGateway).cleanExpiredRegistrations();
         doThrow(TransactionException.class).when(tx).commit();
         assertDoesNotThrow(() -> periodicCleaner.run());
+        verifyNoInteractions(nameIndex);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,153 @@
+package tech.bugger.business.internal;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tech.bugger.global.transfer.Report;
+import tech.bugger.global.transfer.ResultPage;
+import tech.bugger.global.transfer.Selection;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchResultCacheTest {
+
+    private AtomicLong now;
+    private SearchResultCache cache;
+    private Selection selection;
+    private ResultPage<Report> page;
+
+    @BeforeEach
+    public void setUp() {
+        now = new AtomicLong();
+        cache = new SearchResultCache(now::get);
+        selection = new Selection(1, 0, Selection.PageSize.NORMAL, "id", true);
+        page = new ResultPage<>(List.of(new Report(100, "Some Report", null, null, null, null, null, null, null,
+                false, 1, "Topic")), 1);
+    }
+
+    @Test
+    public void testGetWhenAbsent() {
+        assertNull(cache.get(List.of("a"), selection));
+    }
+
+    @Test
+    public void testPutAndGet() {
+        cache.put(List.of("a"), cache.getGeneration(), null, selection, page);
+        assertEquals(page, cache.get(List.of("a"), selection));
+    }
+
+    @Test
+    public void testGetReturnsCopies() {
+        cache.put(List.of("a"), cache.getGeneration(), null, selection, page);
+        cache.get(List.of("a"), selection).getItems().get(0).setTitle("Changed");
+        assertEquals("Some Report", cache.get(List.of("a"), selection).getItems().get(0).getTitle());
+    }
+
+    @Test
+    public void testGetRestoresCursors() {
+        selection.setFirstCursor(new Selection.Cursor("1", "int4", 1));
+        selection.setLastCursor(new Selection.Cursor("2", "int4", 2));
+        cache.put(List.of("a"), cache.getGeneration(), null, selection, page);
+        Selection other = new Selection(1, 0, Selection.PageSize.NORMAL, "id", true);
+        cache.get(List.of("a"), other);
+        assertAll(
+                () -> assertEquals(selection.getFirstCursor(), other.getFirstCursor()),
+                () -> assertEquals(selection.getLastCursor(), other.getLastCursor())
+        );
+    }
+
+    @Test
+    public void testGetWhenExpired() {
+        cache.put(List.of("a"), cache.getGeneration(), null, selection, page);
+        now.addAndGet(SearchResultCache.TIME_TO_LIVE_NANOS);
+        assertNull(cache.get(List.of("a"), selection));
+    }
+
+    @Test
+    public void testPutIDsAndGetIDs() {
+        cache.putIDs(List.of("a"), cache.getGeneration(), null, List.of(3, 1, 2));
+        assertAll(
+                () -> assertEquals(List.of(3, 1, 2), cache.getIDs(List.of("a"))),
+                () -> assertNull(cache.get(List.of("a"), selection))
+        );
+    }
+
+    @Test
+    public void testGetIDsWhenPageCached() {
+        cache.put(List.of("a"), cache.getGeneration(), null, selection, page);
+        assertNull(cache.getIDs(List.of("a")));
+    }
+
+    @Test
+    public void testGetIDsWhenInvalidated() {
+        cache.putIDs(List.of("a"), cache.getGeneration(), 1, List.of(3, 1, 2));
+        cache.invalidate(1);
+        assertNull(cache.getIDs(List.of("a")));
+    }
+
+    @Test
+    public void testInvalidateDiscardsPagesOfAllTopics() {
+        cache.put(List.of("a"), cache.getGeneration(), null, selection, page);
+        cache.invalidate(2);
+        assertNull(cache.get(List.of("a"), selection));
+    }
+
+    @Test
+    public void testInvalidateDiscardsPagesOfSameTopic() {
+        cache.put(List.of("a"), cache.getGeneration(), 1, selection, page);
+        cache.invalidate(1);
+        assertNull(cache.get(List.of("a"), selection));
+    }
+
+    @Test
+    public void testInvalidateKeepsPagesOfOtherTopics() {
+        cache.put(List.of("a"), cache.getGeneration(), 1, selection, page);
+        cache.invalidate(2);
+        assertEquals(page, cache.get(List.of("a"), selection));
+    }
+
+    @Test
+    public void testInvalidateAll() {
+        cache.put(List.of("a"), cache.getGeneration(), 1, selection, page);
+        cache.invalidateAll();
+        assertNull(cache.get(List.of("a"), selection));
+    }
+
+    @Test
+    public void testPutIgnoresPagesLoadedBeforeWrite() {
+        long generation = cache.getGeneration();
+        cache.invalidate(1);
+        cache.put(List.of("a"), generation, 1, selection, page);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testPutWhenFullEvictsLeastRecentlyUsedEntry() {
+        for (int i = 0; i < SearchResultCache.MAX_ENTRIES; i++) {
+            cache.put(List.of(i), cache.getGeneration(), null, selection, page);
+        }
+        cache.get(List.of(0), selection);
+        cache.put(List.of("a"), cache.getGeneration(), null, selection, page);
+        assertAll(
+                () -> assertEquals(SearchResultCache.MAX_ENTRIES, cache.size()),
+                () -> assertEquals(page, cache.get(List.of(0), selection)),
+                () -> assertNull(cache.get(List.of(1), selection))
+        );
+    }
+
+    @Test
+    public void testMetrics() throws IOException {
+        cache.get(List.of("a"), selection);
+        cache.put(List.of("a"), cache.getGeneration(), null, selection, page);
+        cache.get(List.of("a"), selection);
+        now.addAndGet(SearchResultCache.TIME_TO_LIVE_NANOS);
+        cache.get(List.of("a"), selection);
+        StringWriter out = new StringWriter();
+        cache.getMetrics().writeJsonMembers("", out);
+        assertEquals("\"hits_total\":1,\"misses_total\":2,\"evictions_total\":1,\"entries\":0", out.toString());
+    }
+
+}
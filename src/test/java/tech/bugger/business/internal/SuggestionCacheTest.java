@@ -0,0 +1,88 @@
+package tech.bugger.business.internal;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tech.bugger.global.transfer.SearchSuggestions;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SuggestionCacheTest {
+
+    private AtomicLong now;
+    private SuggestionCache cache;
+    private SearchSuggestions suggestions;
+
+    @BeforeEach
+    public void setUp() {
+        now = new AtomicLong();
+        cache = new SuggestionCache(now::get);
+        suggestions = new SearchSuggestions(List.of("user"), List.of("topic"), List.of("report"));
+    }
+
+    @Test
+    public void testGetWhenAbsent() {
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    public void testPutAndGet() {
+        cache.put("ab", suggestions);
+        assertEquals(suggestions, cache.get("ab"));
+    }
+
+    @Test
+    public void testPutIgnoresLongQueries() {
+        cache.put("abc", suggestions);
+        assertNull(cache.get("abc"));
+    }
+
+    @Test
+    public void testGetWhenExpired() {
+        cache.put("a", suggestions);
+        now.addAndGet(SuggestionCache.TIME_TO_LIVE_NANOS);
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    public void testClear() {
+        cache.put("a", suggestions);
+        cache.clear();
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    public void testPutWhenFullEvictsExpiredEntries() {
+        for (int i = 0; i < SuggestionCache.MAX_ENTRIES; i++) {
+            cache.put(key(i), suggestions);
+        }
+        now.addAndGet(SuggestionCache.TIME_TO_LIVE_NANOS);
+        cache.put("!", suggestions);
+        assertAll(
+                () -> assertEquals(suggestions, cache.get("!")),
+                () -> assertNull(cache.get(key(1)))
+        );
+    }
+
+    @Test
+    public void testPutWhenFullEvictsLeastRequestedEntry() {
+        for (int i = 0; i < SuggestionCache.MAX_ENTRIES; i++) {
+            cache.put(key(i), suggestions);
+        }
+        for (int i = 1; i < SuggestionCache.MAX_ENTRIES; i++) {
+            cache.get(key(i));
+        }
+        cache.put("!", suggestions);
+        assertAll(
+                () -> assertEquals(suggestions, cache.get("!")),
+                () -> assertNull(cache.get(key(0))),
+                () -> assertEquals(suggestions, cache.get(key(1)))
+        );
+    }
+
+    private static String key(final int i) {
+        return new String(new char[]{(char) ('a' + i / 64), (char) ('a' + i % 64)});
+    }
+
+}
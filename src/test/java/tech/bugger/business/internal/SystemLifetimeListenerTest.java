@@ -6,6 +6,10 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
 import javax.servlet.ServletContext;
 import javax.servlet.ServletContextEvent;
 import org.junit.jupiter.api.AfterAll;
@@ -14,15 +18,25 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
 import org.mockito.MockedStatic;
 import tech.bugger.LogExtension;
+import tech.bugger.business.util.InvertedIndex;
+import tech.bugger.business.util.NameIndex;
 import tech.bugger.business.util.PriorityExecutor;
 import tech.bugger.business.util.Registry;
 import tech.bugger.global.transfer.Metadata;
+import tech.bugger.global.transfer.Post;
+import tech.bugger.global.transfer.Report;
+import tech.bugger.global.transfer.Topic;
+import tech.bugger.global.transfer.User;
 import tech.bugger.global.util.Log;
 import tech.bugger.persistence.exception.TransactionException;
+import tech.bugger.persistence.gateway.MailGateway;
 import tech.bugger.persistence.gateway.MetadataGateway;
 import tech.bugger.persistence.gateway.NotificationGateway;
+import tech.bugger.persistence.gateway.SearchGateway;
 import tech.bugger.persistence.util.ConnectionPool;
 import tech.bugger.persistence.util.PropertiesReader;
 import tech.bugger.persistence.util.Transaction;
@@ -32,6 +46,8 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.notNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(LogExtension.class)
@@ -58,6 +74,11 @@ public class SystemLifetimeListenerTest {
 
     private NotificationGateway notificationGatewayMock;
 
+    private PropertiesReader propertiesReader;
+
+    @TempDir
+    public Path tempDir;
+
     @BeforeAll
     public static void setUpAll() throws Exception {
         while (isPortBlocked()) ;
@@ -98,7 +119,7 @@ public class SystemLifetimeListenerTest {
         systemLifetimeListenerMock.setRegistry(registry);
         systemLifetimeListenerMock.setTransactionManager(transactionManagerMock);
 
-        PropertiesReader propertiesReader = mock(PropertiesReader.class);
+        propertiesReader = mock(PropertiesReader.class);
         when(propertiesReader.getString(any())).thenReturn("");
         when(propertiesReader.getString("DB_DRIVER")).thenReturn("org.postgresql.Driver");
         when(propertiesReader.getString("DB_URL")).thenReturn("jdbc:postgresql://localhost:" + PORT + "/postgres");
@@ -120,6 +141,7 @@ public class SystemLifetimeListenerTest {
         when(metadataGatewayMock.retrieveMetadata()).thenReturn(null);
         when(transactionMock.newMetadataGateway()).thenReturn(metadataGatewayMock);
         when(transactionMock.newNotificationGateway()).thenReturn(notificationGatewayMock);
+        when(transactionMock.newMailGateway()).thenReturn(mock(MailGateway.class));
         // doReturn(notificationGateway).when(transactionMock).newNotificationGateway();
         when(transactionManagerMock.begin()).thenReturn(transactionMock);
 
@@ -184,7 +206,56 @@ public class SystemLifetimeListenerTest {
     @Test
     public void testContextInitializedInitializesDatabaseSchema() {
         systemLifetimeListenerMock.contextInitialized(sceMock);
-        verify(metadataGatewayMock).initializeSchema(any());
+        verify(metadataGatewayMock, times(5)).initializeSchema(any());
+        verify(metadataGatewayMock, times(5)).applyScriptOutsideTransaction(any());
+    }
+
+    @Test
+    public void testContextInitializedMigratesOutdatedSchema() {
+        when(metadataGatewayMock.retrieveMetadata()).thenReturn(new Metadata("1.0"));
+        systemLifetimeListenerMock.contextInitialized(sceMock);
+        verify(sctxMock).getResourceAsStream("/WEB-INF/migrations/1.1.sql");
+        verify(sctxMock).getResourceAsStream("/WEB-INF/migrations/1.2.sql");
+        verify(sctxMock).getResourceAsStream("/WEB-INF/migrations/1.3.sql");
+        verify(sctxMock).getResourceAsStream("/WEB-INF/migrations/1.4.sql");
+        verify(sctxMock).getResourceAsStream("/WEB-INF/migrations/1.5.sql");
+        verify(sctxMock).getResourceAsStream("/WEB-INF/migrations/1.6.sql");
+        verify(sctxMock).getResourceAsStream("/WEB-INF/migrations/1.7.sql");
+        verify(sctxMock).getResourceAsStream("/WEB-INF/migrations/1.8.sql");
+        verify(sctxMock).getResourceAsStream("/WEB-INF/migrations/1.9.sql");
+        verify(metadataGatewayMock, times(4)).initializeSchema(any());
+        verify(metadataGatewayMock, times(5)).applyScriptOutsideTransaction(any());
+    }
+
+    @Test
+    public void testContextInitializedAppliesPendingMigrationsOnly() {
+        when(metadataGatewayMock.retrieveMetadata()).thenReturn(new Metadata("1.3"));
+        systemLifetimeListenerMock.contextInitialized(sceMock);
+        verify(sctxMock, never()).getResourceAsStream("/WEB-INF/migrations/1.3.sql");
+        verify(metadataGatewayMock, times(3)).initializeSchema(any());
+        verify(metadataGatewayMock, times(3)).applyScriptOutsideTransaction(any());
+    }
+
+    @Test
+    public void testContextInitializedWhenSchemaUpToDate() {
+        when(metadataGatewayMock.retrieveMetadata()).thenReturn(new Metadata("1.9"));
+        systemLifetimeListenerMock.contextInitialized(sceMock);
+        verify(metadataGatewayMock, never()).initializeSchema(any());
+        verify(metadataGatewayMock, never()).applyScriptOutsideTransaction(any());
+    }
+
+    @Test
+    public void testContextInitializedWhenMigrationLoadingFails() {
+        when(metadataGatewayMock.retrieveMetadata()).thenReturn(new Metadata("1.0"));
+        when(sctxMock.getResourceAsStream("/WEB-INF/migrations/1.1.sql")).thenReturn(null);
+        assertThrows(InternalError.class, () -> systemLifetimeListenerMock.contextInitialized(sceMock));
+    }
+
+    @Test
+    public void testContextInitializedWhenMigrationTransactionError() throws Exception {
+        when(metadataGatewayMock.retrieveMetadata()).thenReturn(new Metadata("1.1"));
+        doNothing().doThrow(TransactionException.class).when(transactionMock).commit();
+        assertThrows(InternalError.class, () -> systemLifetimeListenerMock.contextInitialized(sceMock));
     }
 
     @Test
@@ -227,6 +298,25 @@ public class SystemLifetimeListenerTest {
         verify(registry).registerPriorityExecutor(any(), any());
     }
 
+    @Test
+    public void testContextInitializedInitializesQueryExecutor() {
+        systemLifetimeListenerMock.contextInitialized(sceMock);
+        verify(registry).registerQueryExecutor(eq("search"), any());
+    }
+
+    @Test
+    public void testContextInitializedStartsMailScheduling() {
+        systemLifetimeListenerMock.contextInitialized(sceMock);
+        verify(registry).registerMailScheduler(eq("main"), any());
+    }
+
+    @Test
+    public void testContextInitializedStartsNotificationDispatch() {
+        systemLifetimeListenerMock.contextInitialized(sceMock);
+        verify(registry).registerNotificationDispatcher(eq("notifications"), any());
+        verify(notificationGatewayMock).getUnsentNotifications();
+    }
+
     @Test
     public void testContextInitializedAddsShutdownHooks() {
         systemLifetimeListenerMock.contextInitialized(sceMock);
@@ -254,4 +344,102 @@ public class SystemLifetimeListenerTest {
         verify(runtimeMock, times(3)).removeShutdownHook(any());
     }
 
+    @Test
+    public void testContextInitializedDisablesSearchIndex() {
+        systemLifetimeListenerMock.contextInitialized(sceMock);
+        ArgumentCaptor<InvertedIndex> captor = ArgumentCaptor.forClass(InvertedIndex.class);
+        verify(registry).registerInvertedIndex(eq("reports"), captor.capture());
+        assertFalse(captor.getValue().isEnabled());
+    }
+
+    @Test
+    public void testContextInitializedBuildsSearchIndex() {
+        SearchGateway searchGatewayMock = mockSearchIndexEngine();
+        Report report = new Report();
+        report.setId(100);
+        report.setTitle("Crash on startup");
+        when(searchGatewayMock.getIndexableReports(any())).thenReturn(List.of(report));
+        when(searchGatewayMock.getIndexablePosts(any()))
+                .thenReturn(List.of(new Post(100, "Stack trace attached", 100, null, null)));
+        systemLifetimeListenerMock.contextInitialized(sceMock);
+        ArgumentCaptor<InvertedIndex> captor = ArgumentCaptor.forClass(InvertedIndex.class);
+        verify(registry).registerInvertedIndex(eq("reports"), captor.capture());
+        verify(searchGatewayMock).getIndexableReports(isNull());
+        assertEquals(List.of(100), captor.getValue().search("trace", true));
+    }
+
+    @Test
+    public void testContextInitializedLoadsSearchIndexSnapshot() throws Exception {
+        SearchGateway searchGatewayMock = mockSearchIndexEngine();
+        InvertedIndex index = new InvertedIndex();
+        index.putReport(100, "Crash on startup");
+        index.writeSnapshot(tempDir.resolve("search.idx"));
+        systemLifetimeListenerMock.contextInitialized(sceMock);
+        ArgumentCaptor<InvertedIndex> captor = ArgumentCaptor.forClass(InvertedIndex.class);
+        verify(registry).registerInvertedIndex(eq("reports"), captor.capture());
+        verify(searchGatewayMock).getIndexableReports(notNull());
+        assertEquals(List.of(100), captor.getValue().search("crash", false));
+    }
+
+    @Test
+    public void testContextInitializedRebuildsCorruptSearchIndexSnapshot() throws Exception {
+        SearchGateway searchGatewayMock = mockSearchIndexEngine();
+        Files.write(tempDir.resolve("search.idx"), new byte[]{1, 2, 3});
+        systemLifetimeListenerMock.contextInitialized(sceMock);
+        verify(searchGatewayMock).getIndexableReports(isNull());
+    }
+
+    @Test
+    public void testContextInitializedWhenSearchIndexTransactionError() throws Exception {
+        when(metadataGatewayMock.retrieveMetadata()).thenReturn(new Metadata("1.9"));
+        mockSearchIndexEngine();
+        doNothing().doThrow(TransactionException.class).when(transactionMock).commit();
+        assertThrows(InternalError.class, () -> systemLifetimeListenerMock.contextInitialized(sceMock));
+    }
+
+    @Test
+    public void testContextDestroyedSnapshotsSearchIndex() {
+        mockSearchIndexEngine();
+        when(registry.getInvertedIndex("reports")).thenReturn(new InvertedIndex());
+        systemLifetimeListenerMock.contextInitialized(sceMock);
+        systemLifetimeListenerMock.contextDestroyed(sceMock);
+        assertTrue(Files.exists(tempDir.resolve("search.idx")));
+    }
+
+    @Test
+    public void testContextInitializedDisablesNameIndex() {
+        systemLifetimeListenerMock.contextInitialized(sceMock);
+        ArgumentCaptor<NameIndex> captor = ArgumentCaptor.forClass(NameIndex.class);
+        verify(registry).registerNameIndex(eq("names"), captor.capture());
+        assertFalse(captor.getValue().isEnabled());
+    }
+
+    @Test
+    public void testContextInitializedBuildsNameIndex() {
+        when(propertiesReader.getString("SUGGESTION_ENGINE")).thenReturn("index");
+        SearchGateway searchGatewayMock = mock(SearchGateway.class);
+        when(transactionMock.newSearchGateway()).thenReturn(searchGatewayMock);
+        User user = new User();
+        user.setId(1);
+        user.setUsername("Helgo");
+        when(searchGatewayMock.getIndexableUsers()).thenReturn(List.of(user));
+        when(searchGatewayMock.getIndexableTopics()).thenReturn(List.of(new Topic(2, "Bugs", null)));
+        when(searchGatewayMock.getBannedUserIDs()).thenReturn(Map.of(2, List.of(1)));
+        systemLifetimeListenerMock.contextInitialized(sceMock);
+        ArgumentCaptor<NameIndex> captor = ArgumentCaptor.forClass(NameIndex.class);
+        verify(registry).registerNameIndex(eq("names"), captor.capture());
+        assertAll(
+                () -> assertEquals(List.of("Helgo"), captor.getValue().getUserUnbanSuggestions("hel", 5, 2)),
+                () -> assertEquals(List.of("Bugs"), captor.getValue().getTopicSuggestions("bug", 5))
+        );
+    }
+
+    private SearchGateway mockSearchIndexEngine() {
+        when(propertiesReader.getString("SEARCH_ENGINE")).thenReturn("index");
+        when(propertiesReader.getString("SEARCH_INDEX_PATH")).thenReturn(tempDir.resolve("search.idx").toString());
+        SearchGateway searchGatewayMock = mock(SearchGateway.class);
+        when(transactionMock.newSearchGateway()).thenReturn(searchGatewayMock);
+        return searchGatewayMock;
+    }
+
 }
@@ -1,6 +1,5 @@
 package tech.bugger.business.service;
 
-import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -9,18 +8,18 @@ import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
 import tech.bugger.LogExtension;
 import tech.bugger.ResourceBundleMocker;
+import tech.bugger.business.internal.MailScheduler;
+import tech.bugger.business.internal.NotificationDispatcher;
 import tech.bugger.business.util.Feedback;
 import tech.bugger.business.util.Hasher;
-import tech.bugger.business.util.PriorityExecutor;
 import tech.bugger.business.util.PriorityTask;
-import tech.bugger.business.util.Registry;
 import tech.bugger.global.transfer.Token;
 import tech.bugger.global.transfer.User;
 import tech.bugger.persistence.exception.NotFoundException;
 import tech.bugger.persistence.exception.TransactionException;
 import tech.bugger.persistence.gateway.TokenDBGateway;
 import tech.bugger.persistence.gateway.UserDBGateway;
-import tech.bugger.persistence.util.Mailer;
+import tech.bugger.persistence.util.Mail;
 import tech.bugger.persistence.util.PropertiesReader;
 import tech.bugger.persistence.util.Transaction;
 import tech.bugger.persistence.util.TransactionManager;
@@ -38,6 +37,7 @@ import static org.mockito.Mockito.doCallRealMethod;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
@@ -78,27 +78,18 @@ public class AuthenticationServiceTest {
     private Event<Feedback> feedbackEvent;
 
     @Mock
-    private Mailer mailer;
+    private MailScheduler mailScheduler;
 
     @Mock
-    private PriorityExecutor priorityExecutor;
+    private NotificationDispatcher notificationDispatcher;
 
     @Mock
     private PropertiesReader configReader;
 
-    @Mock
-    private Registry registry;
-
     @BeforeEach
     public void setUp() throws Exception {
-        // Instantly run tasks.
-        lenient().doAnswer(invocation -> {
-            invocation.getArgument(0, PriorityTask.class).run();
-            return null;
-        }).when(priorityExecutor).enqueue(any());
-
         NotificationService notificationService = new NotificationService(transactionManager, feedbackEvent,
-                configReader, priorityExecutor, mailer, ResourceBundleMocker.mock(""), registry);
+                mailScheduler, ResourceBundleMocker.mock(""), notificationDispatcher);
 
         service = new AuthenticationService(transactionManager, feedbackEvent, notificationService,
                 ResourceBundleMocker.mock(""), ResourceBundleMocker.mock(""), configReader);
@@ -107,17 +98,7 @@ public class AuthenticationServiceTest {
         lenient().doReturn(tokenGateway).when(tx).newTokenGateway();
         lenient().doReturn(userGateway).when(tx).newUserGateway();
         lenient().doReturn("SHA3-512").when(configReader).getString("HASH_ALGO");
-        lenient().doReturn(3).when(configReader).getInt("MAX_EMAIL_TRIES");
         lenient().doReturn(16).when(configReader).getInt("SALT_LENGTH");
-        Field field = notificationService.getClass().getDeclaredField("configReader");
-        field.setAccessible(true);
-        field.set(notificationService, configReader);
-        field = notificationService.getClass().getDeclaredField("priorityExecutor");
-        field.setAccessible(true);
-        field.set(notificationService, priorityExecutor);
-        field = notificationService.getClass().getDeclaredField("mailer");
-        field.setAccessible(true);
-        field.set(notificationService, mailer);
 
         String passwordHash = Hasher.hash(password, salt, hashingAlgo);
         testUser = new User(1, "testuser", passwordHash, salt, hashingAlgo, "test@test.de", "Test", "User",
@@ -126,11 +107,6 @@ public class AuthenticationServiceTest {
         testToken = new Token(tokenValue, Token.Type.REGISTER, null, "", testUser);
     }
 
-    @AfterEach
-    public void tearDown() throws Exception {
-        priorityExecutor.shutdown(5000);
-    }
-
     @Test
     public void testGenerateTokenFirstTry() throws Exception {
         try (MockedStatic<Hasher> hasherMock = mockStatic(Hasher.class)) {
@@ -156,28 +132,9 @@ public class AuthenticationServiceTest {
     @Test
     public void testRegister() throws Exception {
         doReturn(testToken).when(tokenGateway).createToken(any());
-        doReturn(true).when(mailer).send(any());
         service.register(testUser, "http://test.de");
         verify(tokenGateway).createToken(any());
-        verify(mailer).send(any());
-    }
-
-    @Test
-    public void testRegisterMailNotOnFirstTry() throws Exception {
-        doReturn(testToken).when(tokenGateway).createToken(any());
-        doReturn(false).doReturn(true).when(mailer).send(any());
-        service.register(testUser, "http://test.de");
-        verify(tokenGateway).createToken(any());
-        verify(mailer, times(2)).send(any());
-    }
-
-    @Test
-    public void testRegisterMailOnTooManyTries() throws Exception {
-        doReturn(testToken).when(tokenGateway).createToken(any());
-        doReturn(false).when(mailer).send(any());
-        service.register(testUser, "http://test.de");
-        verify(tokenGateway).createToken(any());
-        verify(mailer, times(3)).send(any());
+        verify(mailScheduler).enqueue(any(Mail.class), eq(PriorityTask.Priority.HIGH));
     }
 
     @Test
@@ -310,10 +267,9 @@ public class AuthenticationServiceTest {
     @Test
     public void testUpdateEmail() throws NotFoundException {
         doReturn(testToken).when(tokenGateway).createToken(any());
-        doReturn(true).when(mailer).send(any());
         assertTrue(service.updateEmail(testUser, "http://test.de", email));
         verify(tokenGateway).createToken(any());
-        verify(mailer).send(any());
+        verify(mailScheduler).enqueue(any(Mail.class), eq(PriorityTask.Priority.HIGH));
         verify(feedbackEvent, times(1)).fire(any());
     }
 
@@ -395,28 +351,9 @@ public class AuthenticationServiceTest {
     @Test
     public void testForgotPassword() throws Exception {
         doReturn(testToken).when(tokenGateway).createToken(any());
-        doReturn(true).when(mailer).send(any());
-        service.forgotPassword(testUser, "http://test.de");
-        verify(tokenGateway).createToken(any());
-        verify(mailer).send(any());
-    }
-
-    @Test
-    public void testForgotPasswordMailNotOnFirstTry() throws Exception {
-        doReturn(testToken).when(tokenGateway).createToken(any());
-        doReturn(false).doReturn(true).when(mailer).send(any());
-        service.forgotPassword(testUser, "http://test.de");
-        verify(tokenGateway).createToken(any());
-        verify(mailer, times(2)).send(any());
-    }
-
-    @Test
-    public void testForgotPasswordMailOnTooManyTries() throws Exception {
-        doReturn(testToken).when(tokenGateway).createToken(any());
-        doReturn(false).when(mailer).send(any());
         service.forgotPassword(testUser, "http://test.de");
         verify(tokenGateway).createToken(any());
-        verify(mailer, times(3)).send(any());
+        verify(mailScheduler).enqueue(any(Mail.class), eq(PriorityTask.Priority.HIGH));
     }
 
     @Test
@@ -5,36 +5,28 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
-import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
 import tech.bugger.LogExtension;
 import tech.bugger.ResourceBundleMocker;
 import tech.bugger.business.exception.DataAccessException;
+import tech.bugger.business.internal.MailScheduler;
+import tech.bugger.business.internal.NotificationDispatcher;
 import tech.bugger.business.util.Feedback;
-import tech.bugger.business.util.PriorityExecutor;
 import tech.bugger.business.util.PriorityTask;
-import tech.bugger.business.util.Registry;
-import tech.bugger.control.util.JFConfig;
 import tech.bugger.global.transfer.Notification;
-import tech.bugger.global.transfer.Report;
 import tech.bugger.global.transfer.Selection;
-import tech.bugger.global.transfer.Topic;
 import tech.bugger.global.transfer.User;
 import tech.bugger.persistence.exception.NotFoundException;
 import tech.bugger.persistence.exception.TransactionException;
 import tech.bugger.persistence.gateway.NotificationGateway;
-import tech.bugger.persistence.gateway.UserGateway;
-import tech.bugger.persistence.util.Mailer;
-import tech.bugger.persistence.util.PropertiesReader;
+import tech.bugger.persistence.util.Mail;
 import tech.bugger.persistence.util.Transaction;
 import tech.bugger.persistence.util.TransactionManager;
 
 import javax.enterprise.event.Event;
-import javax.faces.context.FacesContext;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Locale;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -53,13 +45,7 @@ public class NotificationServiceTest {
     private Transaction tx;
 
     @Mock
-    private Mailer mailer;
-
-    @Mock
-    private PriorityExecutor priorityExecutor;
-
-    @Mock
-    private PropertiesReader configReader;
+    private MailScheduler mailScheduler;
 
     @Mock
     private NotificationGateway notificationGateway;
@@ -68,10 +54,7 @@ public class NotificationServiceTest {
     private Event<Feedback> feedbackEvent;
 
     @Mock
-    private UserGateway userGateway;
-
-    @Mock
-    private Registry registry;
+    private NotificationDispatcher notificationDispatcher;
 
     private Notification notification;
 
@@ -81,22 +64,11 @@ public class NotificationServiceTest {
 
     @BeforeEach
     public void setUp() {
-        // Instantly run tasks.
-        lenient().doAnswer(invocation -> {
-            invocation.getArgument(0, PriorityTask.class).run();
-            return null;
-        }).when(priorityExecutor).enqueue(any());
-
-        lenient().doReturn(priorityExecutor).when(registry).getPriorityExecutor("mails");
-        lenient().doReturn(mailer).when(registry).getMailer("main");
-        lenient().doReturn(configReader).when(registry).getPropertiesReader("config");
-
-        service = new NotificationService(transactionManager, feedbackEvent, configReader, priorityExecutor, mailer,
-                ResourceBundleMocker.mock(""), registry);
+        service = new NotificationService(transactionManager, feedbackEvent, mailScheduler,
+                ResourceBundleMocker.mock(""), notificationDispatcher);
 
         lenient().doReturn(tx).when(transactionManager).begin();
         lenient().doReturn(notificationGateway).when(tx).newNotificationGateway();
-        lenient().doReturn(userGateway).when(tx).newUserGateway();
 
         notification = new Notification();
         notification.setId(42);
@@ -225,88 +197,34 @@ public class NotificationServiceTest {
 
     @Test
     public void testCreateNotificationWhenNotificationIsNull() {
-        assertThrows(IllegalArgumentException.class, () -> service.createNotification(null));
+        assertThrows(IllegalArgumentException.class, () -> service.createNotification(null, tx));
     }
 
     @Test
     public void testCreateNotificationWhenReportIDIsNull() {
-        assertThrows(IllegalArgumentException.class, () -> service.createNotification(new Notification()));
+        assertThrows(IllegalArgumentException.class, () -> service.createNotification(new Notification(), tx));
     }
 
     @Test
     public void testCreateNotificationWhenTopicIDIsNull() {
         notification.setReportID(420);
-        assertThrows(IllegalArgumentException.class, () -> service.createNotification(notification));
+        assertThrows(IllegalArgumentException.class, () -> service.createNotification(notification, tx));
     }
 
     @Test
-    public void testCreateNotificationWhenDatabaseError() throws Exception {
+    public void testCreateNotificationRecordsEvent() {
         notification.setReportID(420);
         notification.setTopicID(69);
-        doThrow(TransactionException.class).when(tx).commit();
-        assertDoesNotThrow(() -> service.createNotification(notification));
+        service.createNotification(notification, tx);
+        verify(notificationGateway).createNotificationEvent(notification);
+        verify(tx, never()).commit();
+        verify(notificationDispatcher, never()).signal();
     }
 
     @Test
-    public void testCreateNotificationSuccess() {
-        notification.setReportID(420);
-        notification.setTopicID(69);
-        try (MockedStatic<JFConfig> jfConfigMock = mockStatic(JFConfig.class);
-             MockedStatic<FacesContext> fctxMock = mockStatic(FacesContext.class)) {
-            jfConfigMock.when(() -> JFConfig.getApplicationPath(any())).thenReturn("Hi");
-            FacesContext fctx = mock(FacesContext.class);
-            fctxMock.when(FacesContext::getCurrentInstance).thenReturn(fctx);
-            assertDoesNotThrow(() -> service.createNotification(notification));
-        }
-    }
-
-    @Test
-    public void testCreateNotification() throws Exception {
-        notification.setReportID(420);
-        notification.setTopicID(69);
-        notification.setActuatorID(user.getId());
-        Notification notification1 = new Notification(notification);
-        notification1.setPostID(66);
-        User userSub = new User(user);
-        userSub.setId(667);
-        userSub.setEmailAddress("mail667");
-        userSub.setPreferredLanguage(Locale.ENGLISH);
-        User reportSub = new User(user);
-        reportSub.setId(668);
-        reportSub.setEmailAddress("");
-        reportSub.setPreferredLanguage(Locale.ENGLISH);
-        User topicSub = new User(user);
-        topicSub.setId(669);
-        topicSub.setEmailAddress("mail669");
-        topicSub.setPreferredLanguage(Locale.GERMAN);
-        ArrayList<User> userSubs = new ArrayList<>();
-        userSubs.add(userSub);
-        ArrayList<User> reportSubs = new ArrayList<>();
-        reportSubs.add(reportSub);
-        ArrayList<User> topicSubs = new ArrayList<>();
-        topicSubs.add(topicSub);
-        doReturn(userSubs).when(userGateway).getSubscribersOf(eq(user));
-        Report report = new Report();
-        report.setId(notification.getReportID());
-        doReturn(reportSubs).when(userGateway).getSubscribersOf(eq(report));
-        Topic topic = new Topic();
-        topic.setId(notification.getTopicID());
-        doReturn(topicSubs).when(userGateway).getSubscribersOf(eq(topic));
-        doReturn(ResourceBundleMocker.mock("")).when(registry).getBundle(eq("interactions"), any());
-        try (MockedStatic<JFConfig> jfConfigMock = mockStatic(JFConfig.class);
-             MockedStatic<FacesContext> fctxMock = mockStatic(FacesContext.class)) {
-            jfConfigMock.when(() -> JFConfig.getApplicationPath(any())).thenReturn("Hi");
-            FacesContext fctx = mock(FacesContext.class);
-            fctxMock.when(FacesContext::getCurrentInstance).thenReturn(fctx);
-            doReturn(3).when(configReader).getInt("MAX_EMAIL_TRIES");
-            assertDoesNotThrow(() -> service.createNotification(notification));
-            doReturn(true).when(mailer).send(any());
-            assertDoesNotThrow(() -> service.createNotification(notification1));
-            doThrow(NotFoundException.class).doNothing().when(notificationGateway).update(any());
-            assertDoesNotThrow(() -> service.createNotification(notification1));
-            doNothing().doThrow(TransactionException.class).when(tx).commit();
-            assertDoesNotThrow(() -> service.createNotification(notification1));
-        }
+    public void testDispatchNotifications() {
+        service.dispatchNotifications();
+        verify(notificationDispatcher).signal();
     }
 
     @Test
@@ -332,4 +250,11 @@ public class NotificationServiceTest {
         verify(feedbackEvent).fire(any());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testSendMail() {
+        Mail mail = new Mail.Builder().to("user@example.org").envelop();
+        service.sendMail(mail, PriorityTask.Priority.HIGH);
+        verify(mailScheduler).enqueue(mail, PriorityTask.Priority.HIGH);
+    }
+
+}
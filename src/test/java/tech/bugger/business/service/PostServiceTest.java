@@ -15,7 +15,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import tech.bugger.LogExtension;
 import tech.bugger.ResourceBundleMocker;
 import tech.bugger.business.internal.ApplicationSettings;
+import tech.bugger.business.internal.SearchResultCache;
 import tech.bugger.business.util.Feedback;
+import tech.bugger.business.util.InvertedIndex;
 import tech.bugger.global.transfer.Attachment;
 import tech.bugger.global.transfer.Authorship;
 import tech.bugger.global.transfer.Configuration;
@@ -46,6 +48,12 @@ public class PostServiceTest {
     @Mock
     private NotificationService notificationService;
 
+    @Mock
+    private InvertedIndex searchIndex;
+
+    @Mock
+    private SearchResultCache resultCache;
+
     @Mock
     private ApplicationSettings applicationSettings;
 
@@ -84,7 +92,7 @@ public class PostServiceTest {
     @BeforeEach
     public void setUp() {
         service = new PostService(notificationService, applicationSettings, transactionManager,
-                feedbackEvent, ResourceBundleMocker.mock(""));
+                feedbackEvent, ResourceBundleMocker.mock(""), searchIndex, resultCache);
         List<Attachment> attachments = List.of(
                 new Attachment(1, "test1.txt", new byte[0], "", testPost.getId()),
                 new Attachment(2, "test2.txt", new byte[0], "", testPost.getId()),
@@ -115,6 +123,7 @@ public class PostServiceTest {
         assertTrue(service.updatePost(testPost, testReport));
         verify(attachmentGateway).delete(attachmentToDelete);
         verify(attachmentGateway).create(attachmentToAdd);
+        verify(searchIndex).putPost(testPost.getId(), testPost.getReport(), testPost.getContent());
     }
 
     @Test
@@ -188,6 +197,7 @@ public class PostServiceTest {
         lenient().doReturn(true).when(serviceSpy).createPostWithTransaction(any(), any());
         assertTrue(serviceSpy.createPost(testPost, testReport));
         verify(tx).commit();
+        verify(searchIndex).putPost(testPost.getId(), testPost.getReport(), testPost.getContent());
     }
 
     @Test
@@ -204,6 +214,7 @@ public class PostServiceTest {
         doThrow(TransactionException.class).when(tx).commit();
         assertFalse(serviceSpy.createPost(testPost, testReport));
         verify(feedbackEvent).fire(any());
+        verify(searchIndex, never()).putPost(anyInt(), anyInt(), any());
     }
 
     @Test
@@ -264,6 +275,7 @@ public class PostServiceTest {
         doReturn(testPost).when(postGateway).getFirstPost(any());
         assertDoesNotThrow(() -> service.deletePost(testPost, testReport));
         verify(reportGateway).delete(any());
+        verify(searchIndex).removeReport(testReport.getId());
     }
 
     @Test
@@ -271,6 +283,7 @@ public class PostServiceTest {
         doReturn(null).when(postGateway).getFirstPost(any());
         assertDoesNotThrow(() -> service.deletePost(testPost, testReport));
         verify(postGateway).delete(any());
+        verify(searchIndex).removePost(testPost.getId());
     }
 
     @Test
@@ -7,7 +7,12 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import tech.bugger.LogExtension;
 import tech.bugger.business.internal.ApplicationSettings;
+import tech.bugger.business.internal.SearchResultCache;
+import tech.bugger.business.internal.SuggestionCache;
 import tech.bugger.business.util.Feedback;
+import tech.bugger.business.util.InvertedIndex;
+import tech.bugger.business.util.NameIndex;
+import tech.bugger.business.util.QueryExecutor;
 import tech.bugger.business.util.Hasher;
 import tech.bugger.global.transfer.Authorship;
 import tech.bugger.global.transfer.Configuration;
@@ -22,6 +27,7 @@ import tech.bugger.persistence.exception.TransactionException;
 import tech.bugger.persistence.gateway.ReportGateway;
 import tech.bugger.persistence.gateway.SubscriptionGateway;
 import tech.bugger.persistence.gateway.UserGateway;
+import tech.bugger.persistence.util.PropertiesReader;
 import tech.bugger.persistence.util.Transaction;
 import tech.bugger.persistence.util.TransactionManager;
 
@@ -65,6 +71,7 @@ public class ProfileServiceTest {
     private Topic testTopic;
     private Report testReport;
     private Selection selection;
+    private NameIndex nameIndex;
 
     @Mock
     private TransactionManager transactionManager;
@@ -100,8 +107,11 @@ public class ProfileServiceTest {
 
     @BeforeEach
     public void setUp() {
-        SearchService searchService = new SearchService(feedbackEvent, messages, transactionManager, applicationSettings);
-        service = new ProfileService(feedbackEvent, transactionManager, searchService, messages);
+        SearchService searchService = new SearchService(feedbackEvent, messages, transactionManager, applicationSettings,
+                mock(PropertiesReader.class), new SuggestionCache(), new SearchResultCache(),
+                InvertedIndex.disabled(), NameIndex.disabled(), mock(QueryExecutor.class));
+        nameIndex = new NameIndex();
+        service = new ProfileService(feedbackEvent, transactionManager, searchService, messages, nameIndex);
         lenient().doReturn(tx).when(transactionManager).begin();
         lenient().doReturn(userGateway).when(tx).newUserGateway();
         lenient().doReturn(subscriptionGateway).when(tx).newSubscriptionGateway();
@@ -133,6 +143,19 @@ public class ProfileServiceTest {
                 () -> verify(userGateway).createUser(any()));
     }
 
+    @Test
+    public void testCreateUserUpdatesNameIndex() {
+        service.createUser(testUser);
+        assertEquals(List.of(testUser.getUsername()), nameIndex.getUserSuggestions("tesst", 5));
+    }
+
+    @Test
+    public void testDeleteUserUpdatesNameIndex() {
+        nameIndex.putUser(testUser.getId(), testUser.getUsername(), false);
+        service.deleteUser(testUser);
+        assertEquals(List.of(), nameIndex.getUserSuggestions("test", 5));
+    }
+
     @Test
     public void testCreateUserWhenCommitFails() throws Exception {
         doThrow(TransactionException.class).when(tx).commit();
@@ -983,4 +1006,17 @@ public class ProfileServiceTest {
         verify(feedbackEvent).fire(any());
     }
 
+    @Test
+    public void testGetAvatarThumbnailForUser() throws NotFoundException {
+        byte[] thumbnail = new byte[]{1, 2, 3};
+        doReturn(thumbnail).when(userGateway).getAvatarThumbnailForUser(testUser.getId());
+        assertEquals(thumbnail, service.getAvatarThumbnailForUser(testUser.getId()));
+    }
+
+    @Test
+    public void testGetAvatarThumbnailForUserNotFound() throws NotFoundException {
+        doThrow(NotFoundException.class).when(userGateway).getAvatarThumbnailForUser(testUser.getId());
+        assertNull(service.getAvatarThumbnailForUser(testUser.getId()));
+    }
+
 }
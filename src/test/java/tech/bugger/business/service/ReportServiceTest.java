@@ -13,6 +13,8 @@ import tech.bugger.LogExtension;
 import tech.bugger.ResourceBundleMocker;
 import tech.bugger.business.exception.DataAccessException;
 import tech.bugger.business.util.Feedback;
+import tech.bugger.business.internal.SearchResultCache;
+import tech.bugger.business.util.InvertedIndex;
 import tech.bugger.global.transfer.Attachment;
 import tech.bugger.global.transfer.Authorship;
 import tech.bugger.global.transfer.Post;
@@ -44,6 +46,12 @@ public class ReportServiceTest {
     @Mock
     private TopicService topicService;
 
+    @Mock
+    private InvertedIndex searchIndex;
+
+    @Mock
+    private SearchResultCache resultCache;
+
     @Mock
     private ProfileService profileService;
 
@@ -86,7 +94,7 @@ public class ReportServiceTest {
     @BeforeEach
     public void setUp() {
         service = new ReportService(notificationService, topicService, postService, profileService, transactionManager,
-                feedbackEvent, ResourceBundleMocker.mock(""));
+                feedbackEvent, ResourceBundleMocker.mock(""), searchIndex, resultCache);
         List<Attachment> attachments = List.of(new Attachment(), new Attachment(), new Attachment());
         testFirstPost = new Post(100, "Some content", 42, mock(Authorship.class), attachments);
         testUser = new User();
@@ -495,6 +503,7 @@ public class ReportServiceTest {
     public void testUpdateReportWhenFine() throws Exception {
         assertTrue(service.updateReport(testReport));
         verify(reportGateway).update(testReport);
+        verify(searchIndex).putReport(testReport.getId(), testReport.getTitle());
     }
 
     @Test
@@ -508,6 +517,7 @@ public class ReportServiceTest {
     public void testUpdateReportWhenCommitFails() throws Exception {
         doThrow(TransactionException.class).when(tx).commit();
         assertFalse(service.updateReport(testReport));
+        verify(searchIndex, never()).putReport(anyInt(), any());
     }
 
     @Test
@@ -516,6 +526,8 @@ public class ReportServiceTest {
         assertTrue(service.createReport(testReport, testFirstPost));
         verify(reportGateway).create(any());
         verify(tx, times(2)).commit();
+        verify(searchIndex).putReport(testReport.getId(), testReport.getTitle());
+        verify(searchIndex).putPost(testFirstPost.getId(), testReport.getId(), testFirstPost.getContent());
     }
 
     @Test
@@ -536,6 +548,7 @@ public class ReportServiceTest {
     public void testDeleteReport() throws Exception {
         assertTrue(service.deleteReport(testReport));
         verify(reportGateway).delete(testReport);
+        verify(searchIndex).removeReport(testReport.getId());
     }
 
     @Test
@@ -5,6 +5,9 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 import javax.enterprise.event.Event;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,14 +16,24 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import tech.bugger.LogExtension;
 import tech.bugger.business.internal.ApplicationSettings;
+import tech.bugger.business.internal.SearchResultCache;
+import tech.bugger.business.internal.SuggestionCache;
 import tech.bugger.business.util.Feedback;
+import tech.bugger.business.util.InvertedIndex;
+import tech.bugger.business.util.NameIndex;
+import tech.bugger.business.util.QueryExecutor;
 import tech.bugger.global.transfer.Configuration;
 import tech.bugger.global.transfer.Report;
+import tech.bugger.global.transfer.ResultPage;
+import tech.bugger.global.transfer.SearchSuggestions;
+import tech.bugger.global.transfer.Selection;
 import tech.bugger.global.transfer.Topic;
 import tech.bugger.global.transfer.User;
 import tech.bugger.persistence.exception.NotFoundException;
 import tech.bugger.persistence.exception.TransactionException;
 import tech.bugger.persistence.gateway.SearchGateway;
+import tech.bugger.persistence.gateway.TopicGateway;
+import tech.bugger.persistence.util.PropertiesReader;
 import tech.bugger.persistence.util.Transaction;
 import tech.bugger.persistence.util.TransactionManager;
 
@@ -56,6 +69,18 @@ public class SearchServiceTest {
     @Mock
     private ResourceBundle messages;
 
+    @Mock
+    private PropertiesReader configReader;
+
+    @Mock
+    private SuggestionCache suggestionCache;
+
+    private SearchResultCache resultCache;
+
+    private QueryExecutor queryExecutor;
+
+    private NameIndex nameIndex;
+
     private User user;
     private Topic topic;
     private Report report;
@@ -63,7 +88,11 @@ public class SearchServiceTest {
 
     @BeforeEach
     public void setUp() {
-        service = new SearchService(feedbackEvent, messages, transactionManager, applicationSettings);
+        resultCache = new SearchResultCache();
+        queryExecutor = new QueryExecutor(1, 1);
+        nameIndex = NameIndex.disabled();
+        service = new SearchService(feedbackEvent, messages, transactionManager, applicationSettings,
+                configReader, suggestionCache, resultCache, InvertedIndex.disabled(), nameIndex, queryExecutor);
         lenient().doReturn(config).when(applicationSettings).getConfiguration();
         lenient().when(transactionManager.begin()).thenReturn(tx);
         lenient().when(tx.newSearchGateway()).thenReturn(searchGateway);
@@ -263,6 +292,89 @@ public class SearchServiceTest {
         verify(feedbackEvent).fire(any());
     }
 
+    @Test
+    public void testGetUserResultPage() {
+        ResultPage<User> page = new ResultPage<>(List.of(user), 12);
+        when(searchGateway.getUserResultPage(any(), any(), anyBoolean(), anyBoolean())).thenReturn(page);
+        assertEquals(page, service.getUserResultPage(query, null, true, true));
+        verify(searchGateway, never()).getNumberOfUserResults(any(), anyBoolean(), anyBoolean());
+    }
+
+    @Test
+    public void testGetUserResultPageTransactionException() throws TransactionException {
+        doThrow(TransactionException.class).when(tx).commit();
+        assertEquals(ResultPage.empty(), service.getUserResultPage(query, null, true, true));
+        verify(feedbackEvent).fire(any());
+    }
+
+    @Test
+    public void testGetTopicResultPage() {
+        ResultPage<Topic> page = new ResultPage<>(List.of(topic), 3);
+        when(searchGateway.getTopicResultPage(any(), any())).thenReturn(page);
+        assertEquals(page, service.getTopicResultPage(query, null));
+        verify(searchGateway, never()).getNumberOfTopicResults(any());
+    }
+
+    @Test
+    public void testGetTopicResultPageTransactionException() throws TransactionException {
+        doThrow(TransactionException.class).when(tx).commit();
+        assertEquals(ResultPage.empty(), service.getTopicResultPage(query, null));
+        verify(feedbackEvent).fire(any());
+    }
+
+    @Test
+    public void testGetUserBanSuggestionsFromNameIndex() {
+        nameIndex = new NameIndex();
+        nameIndex.putUser(1, "testuser", false);
+        nameIndex.putUser(2, "testadmin", true);
+        nameIndex.putUser(3, "testmod", false);
+        nameIndex.promoteModerator(topic.getId(), 3);
+        service = new SearchService(feedbackEvent, messages, transactionManager, applicationSettings, configReader,
+                suggestionCache, resultCache, InvertedIndex.disabled(), nameIndex, queryExecutor);
+        assertEquals(List.of("testuser"), service.getUserBanSuggestions("tesr", topic));
+        verify(transactionManager, never()).begin();
+    }
+
+    @Test
+    public void testGetTopicSuggestionsFromNameIndex() {
+        nameIndex = new NameIndex();
+        nameIndex.putTopic(topic.getId(), "Performance");
+        service = new SearchService(feedbackEvent, messages, transactionManager, applicationSettings, configReader,
+                suggestionCache, resultCache, InvertedIndex.disabled(), nameIndex, queryExecutor);
+        assertEquals(List.of("Performance"), service.getTopicSuggestions("perfromance"));
+    }
+
+    @Test
+    public void testGetSuggestions() {
+        SearchSuggestions suggestions = new SearchSuggestions(List.of("user"), List.of("topic"), List.of("report"));
+        when(searchGateway.getSuggestions(query, 5)).thenReturn(suggestions);
+        assertEquals(suggestions, service.getSuggestions(" TEST "));
+        verify(suggestionCache).put(query, suggestions);
+    }
+
+    @Test
+    public void testGetSuggestionsFromCache() {
+        SearchSuggestions suggestions = new SearchSuggestions(List.of("user"), List.of(), List.of());
+        when(suggestionCache.get(query)).thenReturn(suggestions);
+        assertEquals(suggestions, service.getSuggestions(query));
+        verify(transactionManager, never()).begin();
+    }
+
+    @Test
+    public void testGetSuggestionsTransactionException() throws Exception {
+        when(searchGateway.getSuggestions(query, 5)).thenReturn(new SearchSuggestions(List.of("user"), List.of(),
+                List.of()));
+        doThrow(TransactionException.class).when(tx).commit();
+        SearchSuggestions suggestions = service.getSuggestions(query);
+        assertAll(
+                () -> assertTrue(suggestions.getUsers().isEmpty()),
+                () -> assertTrue(suggestions.getTopics().isEmpty()),
+                () -> assertTrue(suggestions.getReports().isEmpty())
+        );
+        verify(suggestionCache, never()).put(any(), any());
+        verify(feedbackEvent).fire(any());
+    }
+
     @Test
     public void testGetReportResults() throws Exception {
         List<Report> reports = new ArrayList<>();
@@ -273,6 +385,230 @@ public class SearchServiceTest {
                 null, Map.of(), Map.of()));
     }
 
+    @Test
+    public void testGetReportResultPage() throws Exception {
+        ResultPage<Report> page = new ResultPage<>(List.of(report), 26);
+        when(searchGateway.getReportResultPage(any(), any(), any(), any(), anyBoolean(), anyBoolean(), anyBoolean(),
+                anyBoolean(), any(), any(), any())).thenReturn(page);
+        assertEquals(page, service.getReportResultPage(query, null, null, null, true, false, false, false,
+                null, Map.of(), Map.of()));
+    }
+
+    @Test
+    public void testGetReportResultPageFromCache() throws Exception {
+        Selection selection = new Selection(1, 0, Selection.PageSize.NORMAL, "id", true);
+        ResultPage<Report> page = new ResultPage<>(List.of(report), 1);
+        when(searchGateway.getReportResultPage(any(), any(), any(), any(), anyBoolean(), anyBoolean(), anyBoolean(),
+                anyBoolean(), any(), any(), any())).thenReturn(page);
+        service.getReportResultPage(query, selection, null, null, true, false, false, false, "title",
+                Map.of(), Map.of());
+        assertEquals(page, service.getReportResultPage(" TEST ", selection, null, null, true, false, false, false,
+                "title", Map.of(), Map.of()));
+        verify(tx, times(1)).commit();
+    }
+
+    @Test
+    public void testGetReportResultPageAfterInvalidation() throws Exception {
+        Selection selection = new Selection(1, 0, Selection.PageSize.NORMAL, "id", true);
+        ResultPage<Report> page = new ResultPage<>(List.of(report), 1);
+        when(searchGateway.getReportResultPage(any(), any(), any(), any(), anyBoolean(), anyBoolean(), anyBoolean(),
+                anyBoolean(), any(), any(), any())).thenReturn(page);
+        service.getReportResultPage(query, selection, null, null, true, false, false, false, "title",
+                Map.of(), Map.of());
+        resultCache.invalidate(topic.getId());
+        service.getReportResultPage(query, selection, null, null, true, false, false, false, "title",
+                Map.of(), Map.of());
+        verify(tx, times(2)).commit();
+    }
+
+    @Test
+    public void testAwaitTopicTitles() {
+        TopicGateway topicGateway = mock(TopicGateway.class);
+        when(tx.newTopicGateway()).thenReturn(topicGateway);
+        when(topicGateway.discoverTopics()).thenReturn(List.of(topic));
+        assertEquals(List.of(topic.getTitle()), service.awaitTopicTitles(service.prefetchTopicTitles()));
+    }
+
+    @Test
+    public void testAwaitTopicTitlesWhenFailing() throws Exception {
+        when(tx.newTopicGateway()).thenReturn(mock(TopicGateway.class));
+        doThrow(TransactionException.class).when(tx).commit();
+        assertEquals(List.of(), service.awaitTopicTitles(service.prefetchTopicTitles()));
+        verify(feedbackEvent).fire(any());
+    }
+
+    @Test
+    public void testAwaitTopicTitlesAfterDeadline() {
+        when(configReader.getInt("SEARCH_TIMEOUT")).thenReturn(1);
+        QueryExecutor stalledExecutor = mock(QueryExecutor.class);
+        Future<Object> stalled = new CompletableFuture<>();
+        doReturn(stalled).when(stalledExecutor).submit(any());
+        service = new SearchService(feedbackEvent, messages, transactionManager, applicationSettings, configReader,
+                suggestionCache, resultCache, InvertedIndex.disabled(), nameIndex, stalledExecutor);
+        assertEquals(List.of(), service.awaitTopicTitles(service.prefetchTopicTitles()));
+        assertAll(
+                () -> assertTrue(stalled.isCancelled()),
+                () -> verify(feedbackEvent).fire(any())
+        );
+    }
+
+    @Test
+    public void testGetReportResultPageNotFound() throws Exception {
+        when(searchGateway.getReportResultPage(any(), any(), any(), any(), anyBoolean(), anyBoolean(), anyBoolean(),
+                anyBoolean(), any(), any(), any())).thenThrow(NotFoundException.class);
+        assertEquals(ResultPage.empty(), service.getReportResultPage(query, null, null, null, true, false, false,
+                false, "topic", Map.of(), Map.of()));
+        verify(feedbackEvent).fire(any());
+    }
+
+    @Test
+    public void testGetReportResultPageWithSearchIndex() {
+        InvertedIndex searchIndex = new InvertedIndex();
+        searchIndex.putReport(100, "Some Report");
+        service = new SearchService(feedbackEvent, messages, transactionManager, applicationSettings, configReader,
+                suggestionCache, resultCache, searchIndex, nameIndex, queryExecutor);
+        Selection selection = new Selection(1, 0, Selection.PageSize.NORMAL, "id", true);
+        selection.setFirstCursor(new Selection.Cursor("1", "int4", 1));
+        when(searchGateway.getReportResultIDs(eq(List.of(100)), any(), any(), any(), anyBoolean(), anyBoolean(),
+                anyBoolean(), any(), any(), any())).thenReturn(List.of(100));
+        when(searchGateway.getReportsByIDs(List.of(100))).thenReturn(List.of(report));
+        assertAll(
+                () -> assertEquals(new ResultPage<>(List.of(report), 1), service.getReportResultPage("some",
+                        selection, null, null, true, false, false, true, null, Map.of(), Map.of())),
+                () -> assertNull(selection.getFirstCursor())
+        );
+    }
+
+    @Test
+    public void testGetReportResultPageWithSearchIndexLoadsOnlyPage() {
+        InvertedIndex searchIndex = new InvertedIndex();
+        searchIndex.putReport(100, "Some Report");
+        service = new SearchService(feedbackEvent, messages, transactionManager, applicationSettings, configReader,
+                suggestionCache, resultCache, searchIndex, nameIndex, queryExecutor);
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < Selection.PageSize.NORMAL.getSize() + 1; i++) {
+            ids.add(1000 + i);
+        }
+        when(searchGateway.getReportResultIDs(eq(List.of(100)), any(), any(), any(), anyBoolean(), anyBoolean(),
+                anyBoolean(), any(), any(), any())).thenReturn(ids);
+        when(searchGateway.getReportsByIDs(any())).thenReturn(List.of(report));
+        Selection selection = new Selection(ids.size(), 0, Selection.PageSize.NORMAL, "id", true);
+        service.getReportResultPage("some", selection, null, null, true, false, false, true, null, Map.of(),
+                Map.of());
+        selection.setCurrentPage(1);
+        ResultPage<Report> page = service.getReportResultPage("some", selection, null, null, true, false, false,
+                true, null, Map.of(), Map.of());
+        assertEquals(ids.size(), page.getTotalSize());
+        verify(searchGateway).getReportResultIDs(any(), any(), any(), any(), anyBoolean(), anyBoolean(),
+                anyBoolean(), any(), any(), any());
+        verify(searchGateway).getReportsByIDs(List.of(ids.get(ids.size() - 1)));
+    }
+
+    @Test
+    public void testGetReportResultsWithFullTextSearch() throws Exception {
+        when(configReader.getString("SEARCH_ENGINE")).thenReturn("fulltext");
+        service = new SearchService(feedbackEvent, messages, transactionManager, applicationSettings, configReader,
+                suggestionCache, resultCache, InvertedIndex.disabled(), nameIndex, queryExecutor);
+        SearchGateway fullTextSearchGateway = mock(SearchGateway.class);
+        when(tx.newFullTextSearchGateway()).thenReturn(fullTextSearchGateway);
+        List<Report> reports = List.of(report);
+        when(fullTextSearchGateway.getReportResults(any(), any(), any(), any(), anyBoolean(), anyBoolean(),
+                anyBoolean(), anyBoolean(), any(), any(), any())).thenReturn(reports);
+        assertEquals(reports, service.getReportResults(query, null, null, null, true, false, false, true,
+                null, Map.of(), Map.of()));
+        verify(tx, never()).newSearchGateway();
+    }
+
+    @Test
+    public void testGetNumberOfReportResultsWithFullTextSearch() throws Exception {
+        when(configReader.getString("SEARCH_ENGINE")).thenReturn("fulltext");
+        service = new SearchService(feedbackEvent, messages, transactionManager, applicationSettings, configReader,
+                suggestionCache, resultCache, InvertedIndex.disabled(), nameIndex, queryExecutor);
+        SearchGateway fullTextSearchGateway = mock(SearchGateway.class);
+        when(tx.newFullTextSearchGateway()).thenReturn(fullTextSearchGateway);
+        when(fullTextSearchGateway.getNumberOfReportResults(any(), any(), any(), anyBoolean(), anyBoolean(),
+                anyBoolean(), anyBoolean(), any(), any(), any())).thenReturn(3);
+        assertEquals(3, service.getNumberOfReportResults(query, null, null, true, false, false, true,
+                null, Map.of(), Map.of()));
+        verify(tx, never()).newSearchGateway();
+    }
+
+    @Test
+    public void testGetReportResultsWithSearchIndex() throws Exception {
+        InvertedIndex searchIndex = new InvertedIndex();
+        searchIndex.putReport(100, "Some Report");
+        searchIndex.putReport(101, "Some other Report");
+        service = new SearchService(feedbackEvent, messages, transactionManager, applicationSettings, configReader,
+                suggestionCache, resultCache, searchIndex, nameIndex, queryExecutor);
+        List<Report> reports = List.of(report);
+        when(searchGateway.getReportResultIDs(any(), any(), any(), any(), anyBoolean(), anyBoolean(), anyBoolean(),
+                any(), any(), any())).thenReturn(List.of(101));
+        when(searchGateway.getReportsByIDs(List.of(101))).thenReturn(reports);
+        Selection selection = new Selection(1, 0, Selection.PageSize.NORMAL, "id", true);
+        assertEquals(reports, service.getReportResults("other", selection, null, null, true, false, false, true,
+                null, Map.of(), Map.of()));
+        verify(searchGateway).getReportResultIDs(eq(List.of(101)), any(), any(), any(), anyBoolean(), anyBoolean(),
+                anyBoolean(), any(), any(), any());
+    }
+
+    @Test
+    public void testGetReportResultsWithSearchIndexWithoutTerms() throws Exception {
+        service = new SearchService(feedbackEvent, messages, transactionManager, applicationSettings, configReader,
+                suggestionCache, resultCache, new InvertedIndex(), nameIndex, queryExecutor);
+        List<Report> reports = List.of(report);
+        when(searchGateway.getReportResults(any(), any(), any(), any(), anyBoolean(), anyBoolean(), anyBoolean(),
+                anyBoolean(), any(), any(), any())).thenReturn(reports);
+        assertEquals(reports, service.getReportResults("  ", null, null, null, true, false, false, true,
+                null, Map.of(), Map.of()));
+    }
+
+    @Test
+    public void testGetNumberOfReportResultsWithSearchIndex() throws Exception {
+        InvertedIndex searchIndex = new InvertedIndex();
+        searchIndex.putReport(100, "Some Report");
+        service = new SearchService(feedbackEvent, messages, transactionManager, applicationSettings, configReader,
+                suggestionCache, resultCache, searchIndex, nameIndex, queryExecutor);
+        when(searchGateway.getNumberOfReportResultsByIDs(eq(List.of(100)), any(), any(), anyBoolean(),
+                anyBoolean(), anyBoolean(), any(), any(), any())).thenReturn(1);
+        assertEquals(1, service.getNumberOfReportResults("some", null, null, true, false, false, true,
+                null, Map.of(), Map.of()));
+    }
+
+    @Test
+    public void testExportReportResults() {
+        when(searchGateway.exportReportResults(eq(query), any(), any(), anyBoolean(), anyBoolean(), anyBoolean(),
+                anyBoolean(), any(), any(), any(), any())).thenAnswer(invocation -> {
+                    invocation.<Consumer<Report>>getArgument(10).accept(report);
+                    return 1;
+                });
+        List<Report> exported = new ArrayList<>();
+        assertAll(
+                () -> assertTrue(service.exportReportResults(" Test ", null, null, true, false, false, false, null,
+                        Map.of(), Map.of(), exported::add)),
+                () -> assertEquals(List.of(report), exported)
+        );
+    }
+
+    @Test
+    public void testExportReportResultsWithSearchIndex() {
+        InvertedIndex searchIndex = new InvertedIndex();
+        searchIndex.putReport(100, "Some Report");
+        service = new SearchService(feedbackEvent, messages, transactionManager, applicationSettings, configReader,
+                suggestionCache, resultCache, searchIndex, nameIndex, queryExecutor);
+        assertTrue(service.exportReportResults("some", null, null, true, false, false, true, null, Map.of(),
+                Map.of(), r -> { }));
+        verify(searchGateway).exportReportResultsByIDs(eq(List.of(100)), any(), any(), anyBoolean(), anyBoolean(),
+                anyBoolean(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void testExportReportResultsTransactionException() throws Exception {
+        doThrow(TransactionException.class).when(tx).commit();
+        assertFalse(service.exportReportResults(query, null, null, true, false, false, false, null, Map.of(),
+                Map.of(), r -> { }));
+        verify(feedbackEvent, never()).fire(any());
+    }
+
     @Test
     public void testGetReportResultsNoReports() throws Exception {
         when(searchGateway.getReportResults(any(), any(), any(), any(), anyBoolean(), anyBoolean(), anyBoolean(), anyBoolean(),
@@ -7,7 +7,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import tech.bugger.LogExtension;
 import tech.bugger.ResourceBundleMocker;
+import tech.bugger.business.internal.SearchResultCache;
 import tech.bugger.business.util.Feedback;
+import tech.bugger.business.util.NameIndex;
 import tech.bugger.global.transfer.Report;
 import tech.bugger.global.transfer.Selection;
 import tech.bugger.global.transfer.Topic;
@@ -72,6 +74,11 @@ public class TopicServiceTest {
     @Mock
     private Event<Feedback> feedbackEvent;
 
+    @Mock
+    private SearchResultCache resultCache;
+
+    private NameIndex nameIndex;
+
     private List<Topic> testSelectedTopics;
 
     private int testNumberOfTopics;
@@ -90,7 +97,9 @@ public class TopicServiceTest {
 
     @BeforeEach
     public void setUp() {
-        topicService = new TopicService(transactionManager, feedbackEvent, ResourceBundleMocker.mock(""));
+        nameIndex = new NameIndex();
+        topicService = new TopicService(transactionManager, feedbackEvent, ResourceBundleMocker.mock(""),
+                resultCache, nameIndex);
         testSelectedTopics = new ArrayList<>();
         testSelectedTopics.add(testTopic1);
         testSelectedTopics.add(testTopic2);
@@ -200,6 +209,19 @@ public class TopicServiceTest {
         verify(topicGateway).unbanUser(testTopic1, user);
     }
 
+    @Test
+    public void testMakeModeratorUpdatesNameIndex() throws NotFoundException {
+        nameIndex.putUser(user.getId(), user.getUsername(), false);
+        nameIndex.ban(testTopic1.getId(), user.getId());
+        when(userGateway.getUserByUsername(user.getUsername())).thenReturn(user);
+        topicService.makeModerator(user.getUsername(), testTopic1);
+        assertAll(
+                () -> assertEquals(List.of(), nameIndex.getUserUnbanSuggestions("test", 5, testTopic1.getId())),
+                () -> assertEquals(List.of(user.getUsername()),
+                        nameIndex.getUserUnmodSuggestions("test", 5, testTopic1.getId()))
+        );
+    }
+
     @Test
     public void testMakeModeratorIsModerator() throws NotFoundException {
         when(userGateway.getUserByUsername(user.getUsername())).thenReturn(user);
@@ -664,6 +686,12 @@ public class TopicServiceTest {
         verify(feedbackEvent).fire(any());
     }
 
+    @Test
+    public void testCreateTopicUpdatesNameIndex() {
+        topicService.createTopic(testTopic1, user);
+        assertEquals(List.of(testTopic1.getTitle()), nameIndex.getTopicSuggestions("hi", 5));
+    }
+
     @Test
     public void testCreateTopicNotFound() throws NotFoundException, DuplicateException {
         doThrow(NotFoundException.class).when(topicGateway).createTopic(testTopic1);
@@ -708,6 +736,7 @@ public class TopicServiceTest {
     public void testDeleteTopic() throws NotFoundException {
         topicService.deleteTopic(testTopic1);
         verify(topicGateway).deleteTopic(testTopic1);
+        verify(resultCache).invalidate(testTopic1.getId());
         verify(feedbackEvent, never()).fire(any());
     }
 
@@ -0,0 +1,151 @@
+package tech.bugger.business.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import tech.bugger.LogExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(LogExtension.class)
+public class InvertedIndexTest {
+
+    private InvertedIndex index;
+
+    @TempDir
+    public Path tempDir;
+
+    @BeforeEach
+    public void setUp() {
+        index = new InvertedIndex();
+        index.putReport(100, "Login fails on Firefox");
+        index.putPost(100, 100, "The login button does nothing.");
+        index.putReport(101, "Crash when uploading attachments");
+        index.putPost(101, 101, "Firefox crashes with a large attachment.");
+        index.putPost(102, 101, "Same here on Chrome.");
+    }
+
+    @Test
+    public void testSearchTitles() {
+        assertEquals(List.of(100), index.search("login", false));
+    }
+
+    @Test
+    public void testSearchPrefixes() {
+        assertEquals(List.of(101), index.search("CRASH attach", false));
+    }
+
+    @Test
+    public void testSearchRanksTitlesFirst() {
+        assertEquals(List.of(100, 101), index.search("firefox", true));
+    }
+
+    @Test
+    public void testSearchRequiresAllTerms() {
+        assertEquals(List.of(101), index.search("firefox chrome", true));
+    }
+
+    @Test
+    public void testSearchExcludesPosts() {
+        assertEquals(List.of(), index.search("chrome", false));
+    }
+
+    @Test
+    public void testSearchWithoutTerms() {
+        assertNull(index.search(" ?! ", true));
+    }
+
+    @Test
+    public void testPutReportReplacesTitle() {
+        index.putReport(100, "Logout fails");
+        assertAll(
+                () -> assertEquals(List.of(), index.search("firefox", false)),
+                () -> assertEquals(List.of(100), index.search("logout", false))
+        );
+    }
+
+    @Test
+    public void testPutPostReplacesContent() {
+        index.putPost(102, 101, "Works on Safari.");
+        assertAll(
+                () -> assertEquals(List.of(), index.search("chrome", true)),
+                () -> assertEquals(List.of(101), index.search("safari", true))
+        );
+    }
+
+    @Test
+    public void testRemovePost() {
+        index.removePost(102);
+        assertAll(
+                () -> assertEquals(List.of(), index.search("chrome", true)),
+                () -> assertEquals(2, index.getNumberOfPosts())
+        );
+    }
+
+    @Test
+    public void testRemoveReportRemovesPosts() {
+        index.removeReport(101);
+        assertAll(
+                () -> assertEquals(List.of(100), index.search("firefox", true)),
+                () -> assertEquals(1, index.getNumberOfReports()),
+                () -> assertEquals(1, index.getNumberOfPosts())
+        );
+    }
+
+    @Test
+    public void testSnapshotRoundTrip() throws IOException {
+        Path file = tempDir.resolve("index.bin");
+        index.writeSnapshot(file);
+        InvertedIndex restored = InvertedIndex.readSnapshot(file);
+        assertAll(
+                () -> assertNotNull(restored.getSnapshotTime()),
+                () -> assertEquals(2, restored.getNumberOfReports()),
+                () -> assertEquals(3, restored.getNumberOfPosts()),
+                () -> assertEquals(List.of(100, 101), restored.search("firefox", true)),
+                () -> assertEquals(List.of(101), restored.search("chrome", true))
+        );
+    }
+
+    @Test
+    public void testSnapshotOverwritesPreviousSnapshot() throws IOException {
+        Path file = tempDir.resolve("index.bin");
+        index.writeSnapshot(file);
+        index.removeReport(100);
+        index.writeSnapshot(file);
+        assertEquals(List.of(101), InvertedIndex.readSnapshot(file).search("firefox", true));
+    }
+
+    @Test
+    public void testReadSnapshotWhenCorrupt() throws IOException {
+        Path file = tempDir.resolve("index.bin");
+        Files.write(file, new byte[]{0, 1, 2, 3, 4, 5, 6, 7});
+        assertThrows(IOException.class, () -> InvertedIndex.readSnapshot(file));
+    }
+
+    @Test
+    public void testReadSnapshotWhenTruncated() throws IOException {
+        Path file = tempDir.resolve("index.bin");
+        index.writeSnapshot(file);
+        byte[] content = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(content, content.length - 8));
+        assertThrows(IOException.class, () -> InvertedIndex.readSnapshot(file));
+    }
+
+    @Test
+    public void testDisabledIgnoresUpdates() {
+        InvertedIndex disabled = InvertedIndex.disabled();
+        disabled.putReport(100, "Login fails");
+        assertAll(
+                () -> assertFalse(disabled.isEnabled()),
+                () -> assertEquals(0, disabled.getNumberOfReports()),
+                () -> assertThrows(IllegalStateException.class, () -> disabled.search("login", false))
+        );
+    }
+
+}
@@ -0,0 +1,157 @@
+package tech.bugger.business.util;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import tech.bugger.LogExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(LogExtension.class)
+public class NameIndexTest {
+
+    private NameIndex index;
+
+    private static final int TOPIC = 10;
+
+    private static final int LIMIT = 5;
+
+    @BeforeEach
+    public void setUp() {
+        index = new NameIndex();
+        index.putUser(1, "Helgo", true);
+        index.putUser(2, "alexander", false);
+        index.putUser(3, "alexandra", false);
+        index.putUser(4, "alex", false);
+        index.putUser(5, "sandra", false);
+        index.putTopic(TOPIC, "Performance");
+        index.ban(TOPIC, 2);
+        index.promoteModerator(TOPIC, 3);
+    }
+
+    @Test
+    public void testGetUserSuggestionsBySubstring() {
+        assertEquals(List.of("alex", "alexander", "alexandra"), index.getUserSuggestions("lex", LIMIT));
+    }
+
+    @Test
+    public void testGetUserSuggestionsRanksExactMatchesFirst() {
+        assertEquals(List.of("sandra", "alexander", "alexandra"), index.getUserSuggestions("sand", LIMIT));
+    }
+
+    @Test
+    public void testGetUserSuggestionsToleratesTypos() {
+        assertEquals(List.of("alexander", "alexandra"), index.getUserSuggestions("alexnder", LIMIT));
+    }
+
+    @Test
+    public void testGetUserSuggestionsIgnoresCase() {
+        assertEquals(List.of("Helgo"), index.getUserSuggestions(" HELGO ", LIMIT));
+    }
+
+    @Test
+    public void testGetUserSuggestionsWhenNoneMatch() {
+        assertEquals(List.of(), index.getUserSuggestions("zzz", LIMIT));
+    }
+
+    @Test
+    public void testGetUserSuggestionsLimit() {
+        assertEquals(List.of("alex"), index.getUserSuggestions("alex", 1));
+    }
+
+    @Test
+    public void testGetUserBanSuggestions() {
+        assertEquals(List.of("alex"), index.getUserBanSuggestions("alex", LIMIT, TOPIC));
+    }
+
+    @Test
+    public void testGetUserUnbanSuggestions() {
+        assertEquals(List.of("alexander"), index.getUserUnbanSuggestions("alex", LIMIT, TOPIC));
+    }
+
+    @Test
+    public void testGetUserModSuggestions() {
+        assertEquals(List.of("alex", "alexander"), index.getUserModSuggestions("alex", LIMIT, TOPIC));
+    }
+
+    @Test
+    public void testGetUserUnmodSuggestions() {
+        assertEquals(List.of("alexandra"), index.getUserUnmodSuggestions("alex", LIMIT, TOPIC));
+    }
+
+    @Test
+    public void testGetSuggestionsOfOtherTopic() {
+        assertAll(
+                () -> assertEquals(List.of(), index.getUserUnbanSuggestions("alex", LIMIT, TOPIC + 1)),
+                () -> assertEquals(List.of("alex", "alexander", "alexandra"),
+                        index.getUserBanSuggestions("alex", LIMIT, TOPIC + 1))
+        );
+    }
+
+    @Test
+    public void testUnbanAndDemote() {
+        index.unban(TOPIC, 2);
+        index.demoteModerator(TOPIC, 3);
+        assertEquals(List.of("alex", "alexander", "alexandra"), index.getUserBanSuggestions("alex", LIMIT, TOPIC));
+    }
+
+    @Test
+    public void testPutUserReplacesUsername() {
+        index.putUser(4, "bob", false);
+        assertAll(
+                () -> assertEquals(List.of("bob"), index.getUserSuggestions("bob", LIMIT)),
+                () -> assertFalse(index.getUserSuggestions("alex", LIMIT).contains("alex"))
+        );
+    }
+
+    @Test
+    public void testRemoveUserRemovesBans() {
+        index.removeUser(2);
+        index.putUser(2, "alexander", false);
+        assertEquals(List.of(), index.getUserUnbanSuggestions("alex", LIMIT, TOPIC));
+    }
+
+    @Test
+    public void testGetTopicSuggestionsToleratesTypos() {
+        assertEquals(List.of("Performance"), index.getTopicSuggestions("perfromance", LIMIT));
+    }
+
+    @Test
+    public void testRemoveTopic() {
+        index.removeTopic(TOPIC);
+        assertAll(
+                () -> assertEquals(List.of(), index.getTopicSuggestions("perf", LIMIT)),
+                () -> assertEquals(List.of(), index.getUserUnmodSuggestions("alex", LIMIT, TOPIC))
+        );
+    }
+
+    @Test
+    public void testSubstringDistance() {
+        assertAll(
+                () -> assertEquals(0, NameIndex.substringDistance("test", "testuser")),
+                () -> assertEquals(1, NameIndex.substringDistance("tesr", "testuser")),
+                () -> assertEquals(3, NameIndex.substringDistance("abc", "xyz"))
+        );
+    }
+
+    @Test
+    public void testNumberOfUsersAndTopics() {
+        assertAll(
+                () -> assertEquals(5, index.getNumberOfUsers()),
+                () -> assertEquals(1, index.getNumberOfTopics())
+        );
+    }
+
+    @Test
+    public void testDisabledIndex() {
+        NameIndex disabled = NameIndex.disabled();
+        disabled.putUser(1, "Helgo", true);
+        assertAll(
+                () -> assertFalse(disabled.isEnabled()),
+                () -> assertEquals(0, disabled.getNumberOfUsers()),
+                () -> assertThrows(IllegalStateException.class, () -> disabled.getUserSuggestions("helgo", LIMIT))
+        );
+    }
+
+}
@@ -4,12 +4,14 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import tech.bugger.LogExtension;
+import tech.bugger.global.transfer.ResultPage;
 import tech.bugger.global.transfer.Selection;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -213,6 +215,90 @@ public class PaginatorTest {
         assertTrue(paginator.isLastPage());
     }
 
+    @Test
+    public void testFetchPage() {
+        int[] calls = {0};
+        Paginator<Integer> pagePaginator = new ResultPagePaginator<>("id", Selection.PageSize.SMALL) {
+            @Override
+            protected ResultPage<Integer> fetchPage() {
+                calls[0]++;
+                int offset = getSelection().getCurrentPage() * getSelection().getPageSize().getSize();
+                return new ResultPage<>(testData.subList(offset, offset + getSelection().getPageSize().getSize()),
+                        testData.size());
+            }
+        };
+        pagePaginator.nextPage();
+        assertAll(
+                () -> assertEquals(2, calls[0]),
+                () -> assertEquals(testData.size(), pagePaginator.getSelection().getTotalSize()),
+                () -> assertEquals(testData.get(pagePaginator.getSelection().getPageSize().getSize()),
+                        pagePaginator.iterator().next()),
+                () -> assertFalse(pagePaginator.isLastPage())
+        );
+    }
+
+    @Test
+    public void testNavigationSeeksWithCursors() {
+        List<Selection.Seek> seeks = new ArrayList<>();
+        Paginator<Integer> seekPaginator = new ResultPagePaginator<>("id", Selection.PageSize.SMALL) {
+            @Override
+            protected ResultPage<Integer> fetchPage() {
+                seeks.add(getSelection().getSeek());
+                getSelection().setFirstCursor(new Selection.Cursor("1", "int4", 1));
+                getSelection().setLastCursor(new Selection.Cursor("10", "int4", 10));
+                return new ResultPage<>(List.of(1), testData.size());
+            }
+        };
+        seekPaginator.nextPage();
+        seekPaginator.nextPage();
+        seekPaginator.prevPage();
+        seekPaginator.lastPage();
+        seekPaginator.firstPage();
+        assertAll(
+                () -> assertEquals(List.of(Selection.Seek.NONE, Selection.Seek.AFTER, Selection.Seek.AFTER,
+                        Selection.Seek.BEFORE, Selection.Seek.LAST, Selection.Seek.NONE), seeks),
+                () -> assertEquals(Selection.Seek.NONE, seekPaginator.getSelection().getSeek())
+        );
+    }
+
+    @Test
+    public void testNavigationWithoutCursorsUsesOffsets() {
+        paginator.nextPage();
+        paginator.lastPage();
+        assertEquals(Selection.Seek.NONE, paginator.getSelection().getSeek());
+        assertEquals(41, paginator.iterator().next());
+    }
+
+    @Test
+    public void testResultPagePaginatorFetchAndTotalSize() {
+        ResultPagePaginator<Integer> pagePaginator = new ResultPagePaginator<>("id", Selection.PageSize.SMALL) {
+            @Override
+            protected ResultPage<Integer> fetchPage() {
+                return new ResultPage<>(List.of(1, 2), 42);
+            }
+        };
+        assertAll(
+                () -> assertEquals(List.of(1, 2), pagePaginator.fetch()),
+                () -> assertEquals(42, pagePaginator.totalSize())
+        );
+    }
+
+    @Test
+    public void testFetchPageCopiesItems() {
+        Paginator<Integer> setPaginator = new Paginator<>("id", Selection.PageSize.SMALL) {
+            @Override
+            protected Iterable<Integer> fetch() {
+                return new TreeSet<>(List.of(3, 1, 2));
+            }
+
+            @Override
+            protected int totalSize() {
+                return 3;
+            }
+        };
+        assertEquals(new ResultPage<>(List.of(1, 2, 3), 3), setPaginator.fetchPage());
+    }
+
     @Test
     public void testInvalidPage1() {
         assertThrows(IllegalArgumentException.class, () -> paginator.setCurrentPage(0));
@@ -1,12 +1,10 @@
 package tech.bugger.business.util;
 
-import java.lang.reflect.Field;
-import java.util.Comparator;
+import java.time.Duration;
+import java.util.Map;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.PriorityBlockingQueue;
-import java.util.concurrent.ThreadPoolExecutor;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -118,19 +116,95 @@ public class PriorityExecutorTest {
     }
 
     @Test
-    @SuppressWarnings("unchecked")
-    public void testForeignTaskComparison() throws Exception {
-        Field field = priorityExecutor.getClass().getDeclaredField("executorService");
-        field.setAccessible(true);
-        var executor = (ThreadPoolExecutor) field.get(priorityExecutor);
-        var queue = (PriorityBlockingQueue<Runnable>) executor.getQueue();
-        field = queue.getClass().getDeclaredField("comparator");
-        field.setAccessible(true);
-        var comparator = (Comparator<Runnable>) field.get(queue);
-        var valid = new PriorityFuture<>(null, null);
+    public void testMetricsRecordQueueAndCompletion() throws Exception {
+        priorityExecutor.enqueue(lowPriorityTask);
+        priorityExecutor.enqueue(lowPriorityTask);
+        StringBuilder out = new StringBuilder();
+        priorityExecutor.getMetrics().writePrometheus("", out);
+        assertTrue(out.toString().contains("\nqueue_depth 1\n"));
+
+        latch.countDown();
+        priorityExecutor.shutdown(TERMINATION_TIMEOUT_MILLIS);
+        out = new StringBuilder();
+        priorityExecutor.getMetrics().writePrometheus("", out);
+        String text = out.toString();
+        assertAll(
+                () -> assertTrue(text.contains("\nqueue_depth 0\n")),
+                () -> assertTrue(text.contains("\ntasks_submitted_total 2\n")),
+                () -> assertTrue(text.contains("\ntasks_completed_total 2\n")),
+                () -> assertTrue(text.contains("\nqueue_wait_seconds_count 2\n")),
+                () -> assertTrue(text.contains("\ntask_latency_seconds_count 2\n"))
+        );
+    }
+
+    @Test
+    public void testEnqueueKeepsOrderWithinPriority() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            String name = "low" + i;
+            priorityExecutor.enqueue(new PriorityTask(PriorityTask.Priority.LOW, () -> {
+                awaitStart();
+                finishedTasks.add(name);
+            }));
+        }
+        latch.countDown();
+        priorityExecutor.shutdown(TERMINATION_TIMEOUT_MILLIS);
+        assertArrayEquals(new String[]{"low0", "low1", "low2", "low3", "low4"}, finishedTasks.toArray());
+    }
+
+    @Test
+    public void testEnqueueAgesWaitingTasks() throws Exception {
+        priorityExecutor = new PriorityExecutor(10, 1, 1, 60, Duration.ofMillis(TASK_SLEEP_DURATION_MILLIS / 2),
+                Map.of());
+        priorityExecutor.enqueue(lowPriorityTask);
+        priorityExecutor.enqueue(lowPriorityTask);
+        Thread.sleep(TASK_SLEEP_DURATION_MILLIS);
+        priorityExecutor.enqueue(highPriorityTask);
+        latch.countDown();
+        priorityExecutor.shutdown(TERMINATION_TIMEOUT_MILLIS);
+        assertArrayEquals(new String[]{"low", "low", "high"}, finishedTasks.toArray(),
+                "The low priority task should be executed first since it has been waiting for too long.");
+    }
+
+    @Test
+    public void testEnqueueLimitsRate() throws Exception {
+        priorityExecutor = new PriorityExecutor(10, 1, 1, 60, Duration.ofHours(1),
+                Map.of(PriorityTask.Priority.HIGH, 1.0));
+        priorityExecutor.enqueue(lowPriorityTask);
+        priorityExecutor.enqueue(highPriorityTask);
+        priorityExecutor.enqueue(highPriorityTask);
+        priorityExecutor.enqueue(lowPriorityTask);
+        latch.countDown();
+        priorityExecutor.shutdown(TERMINATION_TIMEOUT_MILLIS);
+        assertArrayEquals(new String[]{"low", "high", "low", "high"}, finishedTasks.toArray(),
+                "The second high priority task should wait for the rate limit while the low priority one runs.");
+    }
+
+    @Test
+    public void testMetricsRecordQueueWaitPerPriority() throws Exception {
+        priorityExecutor.enqueue(lowPriorityTask);
+        priorityExecutor.enqueue(highPriorityTask);
+        priorityExecutor.enqueue(lowPriorityTask);
+        StringBuilder out = new StringBuilder();
+        priorityExecutor.getMetrics().writePrometheus("", out);
         assertAll(
-                () -> assertThrows(InternalError.class, () -> comparator.compare(null, null)),
-                () -> assertThrows(InternalError.class, () -> comparator.compare(valid, null))
+                () -> assertTrue(out.toString().contains("\nqueue_depth_high 1\n")),
+                () -> assertTrue(out.toString().contains("\nqueue_depth_low 1\n"))
         );
+
+        latch.countDown();
+        priorityExecutor.shutdown(TERMINATION_TIMEOUT_MILLIS);
+        StringBuilder after = new StringBuilder();
+        priorityExecutor.getMetrics().writePrometheus("", after);
+        String text = after.toString();
+        assertAll(
+                () -> assertTrue(text.contains("\nqueue_wait_seconds_count 3\n")),
+                () -> assertTrue(text.contains("\nqueue_wait_high_seconds_count 1\n")),
+                () -> assertTrue(text.contains("\nqueue_wait_low_seconds_count 2\n"))
+        );
+    }
+
+    @Test
+    public void testGetAgingInterval() {
+        assertEquals(PriorityExecutor.DEFAULT_AGING_INTERVAL, priorityExecutor.getAgingInterval());
     }
-}
\ No newline at end of file
+}
@@ -24,7 +24,7 @@ public class PriorityFutureTest {
     public void setUp() {
         taskMock = mock(PriorityTask.class);
         futureMock = (RunnableFuture<Runnable>) mock(RunnableFuture.class);
-        priorityFuture = new PriorityFuture<>(futureMock, taskMock);
+        priorityFuture = new PriorityFuture<>(futureMock, taskMock, 42);
     }
 
     @Test
@@ -68,4 +68,9 @@ public class PriorityFutureTest {
         PriorityTask task = priorityFuture.getTask();
         assertSame(taskMock, task);
     }
+
+    @Test
+    public void testGetSequence() {
+        assertEquals(42, priorityFuture.getSequence());
+    }
 }
\ No newline at end of file
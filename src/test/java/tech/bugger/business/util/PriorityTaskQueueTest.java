@@ -0,0 +1,221 @@
+package tech.bugger.business.util;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import tech.bugger.LogExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(LogExtension.class)
+public class PriorityTaskQueueTest {
+
+    private PriorityTaskQueue queue;
+
+    private AtomicLong clock;
+
+    private long sequence;
+
+    @BeforeEach
+    public void setUp() {
+        clock = new AtomicLong();
+        queue = new PriorityTaskQueue(10, Duration.ofHours(1), Map.of(), clock::get);
+    }
+
+    private PriorityFuture<?> task(final PriorityTask.Priority priority) {
+        return new PriorityFuture<>(null, new PriorityTask(priority, () -> { }), sequence++);
+    }
+
+    @Test
+    public void testConstructorWhenAgingIntervalNegative() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new PriorityTaskQueue(10, Duration.ofSeconds(-1), Map.of(), clock::get));
+    }
+
+    @Test
+    public void testConstructorWhenRateNotPositive() {
+        assertThrows(IllegalArgumentException.class, () -> new PriorityTaskQueue(10, Duration.ZERO,
+                Map.of(PriorityTask.Priority.LOW, 0.0), clock::get));
+    }
+
+    @Test
+    public void testOfferForeignTask() {
+        assertThrows(InternalError.class, () -> queue.offer(() -> { }));
+    }
+
+    @Test
+    public void testPollPrioritizes() {
+        PriorityFuture<?> low = task(PriorityTask.Priority.LOW);
+        PriorityFuture<?> high = task(PriorityTask.Priority.HIGH);
+        queue.offer(low);
+        queue.offer(high);
+        assertAll(
+                () -> assertSame(high, queue.poll()),
+                () -> assertSame(low, queue.poll()),
+                () -> assertNull(queue.poll())
+        );
+    }
+
+    @Test
+    public void testPollKeepsSequenceWithinPriority() {
+        List<PriorityFuture<?>> tasks = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            tasks.add(task(PriorityTask.Priority.LOW));
+        }
+        for (int i = tasks.size() - 1; i >= 0; i--) {
+            queue.offer(tasks.get(i));
+        }
+        for (PriorityFuture<?> task : tasks) {
+            assertSame(task, queue.poll());
+        }
+    }
+
+    @Test
+    public void testPollAgesWaitingTasks() throws Exception {
+        queue = new PriorityTaskQueue(10, Duration.ZERO, Map.of(), clock::get);
+        PriorityFuture<?> low = task(PriorityTask.Priority.LOW);
+        Thread.sleep(1);
+        PriorityFuture<?> high = task(PriorityTask.Priority.HIGH);
+        queue.offer(high);
+        queue.offer(low);
+        assertSame(low, queue.poll(), "Without aging interval, tasks should be taken in the order of submission.");
+    }
+
+    @Test
+    public void testPollLimitsRate() {
+        queue = new PriorityTaskQueue(10, Duration.ofHours(1), Map.of(PriorityTask.Priority.HIGH, 2.0), clock::get);
+        PriorityFuture<?> high1 = task(PriorityTask.Priority.HIGH);
+        PriorityFuture<?> high2 = task(PriorityTask.Priority.HIGH);
+        PriorityFuture<?> high3 = task(PriorityTask.Priority.HIGH);
+        PriorityFuture<?> low = task(PriorityTask.Priority.LOW);
+        List.of(high1, high2, high3, low).forEach(queue::offer);
+        assertAll(
+                () -> assertSame(high1, queue.poll()),
+                () -> assertSame(high2, queue.poll()),
+                () -> assertSame(low, queue.peek()),
+                () -> assertSame(low, queue.poll()),
+                () -> assertNull(queue.poll()),
+                () -> assertEquals(1, queue.size())
+        );
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        assertSame(high3, queue.poll());
+    }
+
+    @Test
+    public void testPollWithTimeoutWaitsForRate() throws Exception {
+        queue = new PriorityTaskQueue(10, Duration.ofHours(1), Map.of(PriorityTask.Priority.HIGH, 1.0),
+                System::nanoTime);
+        PriorityFuture<?> high1 = task(PriorityTask.Priority.HIGH);
+        PriorityFuture<?> high2 = task(PriorityTask.Priority.HIGH);
+        queue.offer(high1);
+        queue.offer(high2);
+        assertSame(high1, queue.poll(0, TimeUnit.SECONDS));
+        assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+        assertSame(high2, queue.poll(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testGetPermitsWhenNotLimited() {
+        queue.offer(task(PriorityTask.Priority.LOW));
+        assertAll(
+                () -> assertEquals(Integer.MAX_VALUE, queue.getPermits(PriorityTask.Priority.LOW)),
+                () -> assertEquals(0, queue.getNanosUntilPermit(PriorityTask.Priority.LOW))
+        );
+    }
+
+    @Test
+    public void testGetPermitsCountsWaitingTasks() {
+        queue = new PriorityTaskQueue(10, Duration.ofHours(1), Map.of(PriorityTask.Priority.LOW, 2.0), clock::get);
+        assertEquals(2, queue.getPermits(PriorityTask.Priority.LOW));
+        queue.offer(task(PriorityTask.Priority.LOW));
+        queue.offer(task(PriorityTask.Priority.LOW));
+        assertAll(
+                () -> assertEquals(0, queue.getPermits(PriorityTask.Priority.LOW)),
+                () -> assertEquals(TimeUnit.MILLISECONDS.toNanos(500),
+                        queue.getNanosUntilPermit(PriorityTask.Priority.LOW))
+        );
+        queue.poll();
+        queue.poll();
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        assertAll(
+                () -> assertEquals(1, queue.getPermits(PriorityTask.Priority.LOW)),
+                () -> assertEquals(0, queue.getNanosUntilPermit(PriorityTask.Priority.LOW))
+        );
+    }
+
+    @Test
+    public void testTakeWaitsForTask() throws Exception {
+        PriorityFuture<?> task = task(PriorityTask.Priority.LOW);
+        Thread producer = new Thread(() -> queue.offer(task));
+        producer.start();
+        assertSame(task, queue.take());
+        producer.join();
+    }
+
+    @Test
+    public void testSize() {
+        queue.offer(task(PriorityTask.Priority.LOW));
+        queue.offer(task(PriorityTask.Priority.HIGH));
+        queue.offer(task(PriorityTask.Priority.LOW));
+        assertAll(
+                () -> assertEquals(3, queue.size()),
+                () -> assertEquals(1, queue.size(PriorityTask.Priority.HIGH)),
+                () -> assertEquals(2, queue.size(PriorityTask.Priority.LOW))
+        );
+    }
+
+    @Test
+    public void testDrainToIgnoresRate() {
+        queue = new PriorityTaskQueue(10, Duration.ofHours(1), Map.of(PriorityTask.Priority.HIGH, 1.0), clock::get);
+        PriorityFuture<?> high1 = task(PriorityTask.Priority.HIGH);
+        PriorityFuture<?> high2 = task(PriorityTask.Priority.HIGH);
+        PriorityFuture<?> low = task(PriorityTask.Priority.LOW);
+        List.of(low, high1, high2).forEach(queue::offer);
+        List<Runnable> drained = new ArrayList<>();
+        assertEquals(3, queue.drainTo(drained));
+        assertEquals(List.of(high1, high2, low), drained);
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testDrainToWithLimit() {
+        queue.offer(task(PriorityTask.Priority.LOW));
+        queue.offer(task(PriorityTask.Priority.LOW));
+        List<Runnable> drained = new ArrayList<>();
+        assertEquals(1, queue.drainTo(drained, 1));
+        assertEquals(1, queue.size());
+    }
+
+    @Test
+    public void testRemove() {
+        PriorityFuture<?> task = task(PriorityTask.Priority.LOW);
+        queue.offer(task);
+        assertAll(
+                () -> assertTrue(queue.remove(task)),
+                () -> assertFalse(queue.remove(task)),
+                () -> assertTrue(queue.isEmpty())
+        );
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        PriorityFuture<?> task = task(PriorityTask.Priority.HIGH);
+        queue.offer(task);
+        Iterator<Runnable> iterator = queue.iterator();
+        assertThrows(IllegalStateException.class, iterator::remove);
+        assertSame(task, iterator.next());
+        iterator.remove();
+        assertAll(
+                () -> assertTrue(queue.isEmpty()),
+                () -> assertFalse(iterator.hasNext())
+        );
+    }
+
+}
@@ -0,0 +1,89 @@
+package tech.bugger.business.util;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import tech.bugger.LogExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(LogExtension.class)
+public class QueryExecutorTest {
+
+    private QueryExecutor queryExecutor;
+
+    private CountDownLatch latch;
+
+    private static final int TERMINATION_TIMEOUT_MILLIS = 5000;
+
+    @BeforeEach
+    public void setUp() {
+        queryExecutor = new QueryExecutor(1, 60);
+        latch = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        latch.countDown();
+        queryExecutor.shutdown(TERMINATION_TIMEOUT_MILLIS);
+    }
+
+    private String awaitLatch() throws InterruptedException {
+        latch.await();
+        return Thread.currentThread().getName();
+    }
+
+    @Test
+    public void testSubmitRunsConcurrently() throws Exception {
+        Future<String> result = queryExecutor.submit(this::awaitLatch);
+        assertFalse(result.isDone());
+        latch.countDown();
+        assertTrue(result.get(TERMINATION_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS).startsWith("search-query-"));
+    }
+
+    @Test
+    public void testSubmitWhenBusyRunsOnCaller() throws Exception {
+        Future<String> busy = queryExecutor.submit(this::awaitLatch);
+        Future<String> result = queryExecutor.submit(() -> Thread.currentThread().getName());
+        assertAll(
+                () -> assertTrue(result.isDone()),
+                () -> assertEquals(Thread.currentThread().getName(), result.get()),
+                () -> assertFalse(busy.isDone())
+        );
+    }
+
+    @Test
+    public void testSubmitReleasesThreadAfterFailure() throws Exception {
+        Future<Object> failed = queryExecutor.submit(() -> {
+            throw new IOException();
+        });
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> failed.get(TERMINATION_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        assertTrue(e.getCause() instanceof IOException);
+        Future<String> result = queryExecutor.submit(this::awaitLatch);
+        assertFalse(result.isDone());
+    }
+
+    @Test
+    public void testSubmitAfterShutdown() throws InterruptedException {
+        queryExecutor.shutdown(TERMINATION_TIMEOUT_MILLIS);
+        assertThrows(IllegalStateException.class, () -> queryExecutor.submit(() -> null));
+    }
+
+    @Test
+    public void testMetrics() throws Exception {
+        queryExecutor.submit(this::awaitLatch);
+        queryExecutor.submit(() -> null);
+        StringWriter out = new StringWriter();
+        queryExecutor.getMetrics().writeJsonMembers("", out);
+        assertTrue(out.toString().contains("\"queries_submitted_total\":2,\"queries_caller_runs_total\":1"));
+    }
+
+}
@@ -8,10 +8,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import tech.bugger.LogExtension;
+import tech.bugger.business.internal.MailScheduler;
+import tech.bugger.business.internal.NotificationDispatcher;
 import tech.bugger.business.internal.UserSession;
 import tech.bugger.persistence.util.ConnectionPool;
 import tech.bugger.persistence.util.Mailer;
 import tech.bugger.persistence.util.PropertiesReader;
+import tech.bugger.persistence.util.StatementProfiler;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -68,6 +71,19 @@ public class RegistryTest {
         assertThrows(InternalError.class, () -> registry.getConnectionPool("invalid"));
     }
 
+    @Test
+    public void testGetInvertedIndexWhenPresent() {
+        InvertedIndex invertedIndex = new InvertedIndex();
+        registry.registerInvertedIndex("key", invertedIndex);
+        when(registryKey.value()).thenReturn("key");
+        assertSame(invertedIndex, registry.getInvertedIndex(injectionPoint));
+    }
+
+    @Test
+    public void testGetInvertedIndexWhenNotPresent() {
+        assertThrows(InternalError.class, () -> registry.getInvertedIndex("invalid"));
+    }
+
     @Test
     public void testGetMailerWhenPresent() {
         Mailer mailer = mock(Mailer.class);
@@ -81,6 +97,19 @@ public class RegistryTest {
         assertThrows(InternalError.class, () -> registry.getMailer("invalid"));
     }
 
+    @Test
+    public void testGetNameIndexWhenPresent() {
+        NameIndex nameIndex = new NameIndex();
+        registry.registerNameIndex("key", nameIndex);
+        when(registryKey.value()).thenReturn("key");
+        assertSame(nameIndex, registry.getNameIndex(injectionPoint));
+    }
+
+    @Test
+    public void testGetNameIndexWhenNotPresent() {
+        assertThrows(InternalError.class, () -> registry.getNameIndex("invalid"));
+    }
+
     @Test
     public void testGetPriorityExecutorWhenPresent() {
         PriorityExecutor priorityExecutor = mock(PriorityExecutor.class);
@@ -107,4 +136,56 @@ public class RegistryTest {
         assertThrows(InternalError.class, () -> registry.getPropertiesReader("invalid"));
     }
 
+    @Test
+    public void testGetMailSchedulerWhenPresent() {
+        MailScheduler mailScheduler = mock(MailScheduler.class);
+        registry.registerMailScheduler("key", mailScheduler);
+        when(registryKey.value()).thenReturn("key");
+        assertSame(mailScheduler, registry.getMailScheduler(injectionPoint));
+    }
+
+    @Test
+    public void testGetMailSchedulerWhenNotPresent() {
+        assertThrows(InternalError.class, () -> registry.getMailScheduler("invalid"));
+    }
+
+    @Test
+    public void testGetNotificationDispatcherWhenPresent() {
+        NotificationDispatcher notificationDispatcher = mock(NotificationDispatcher.class);
+        registry.registerNotificationDispatcher("key", notificationDispatcher);
+        when(registryKey.value()).thenReturn("key");
+        assertSame(notificationDispatcher, registry.getNotificationDispatcher(injectionPoint));
+    }
+
+    @Test
+    public void testGetNotificationDispatcherWhenNotPresent() {
+        assertThrows(InternalError.class, () -> registry.getNotificationDispatcher("invalid"));
+    }
+
+    @Test
+    public void testGetQueryExecutorWhenPresent() {
+        QueryExecutor queryExecutor = mock(QueryExecutor.class);
+        registry.registerQueryExecutor("key", queryExecutor);
+        when(registryKey.value()).thenReturn("key");
+        assertSame(queryExecutor, registry.getQueryExecutor(injectionPoint));
+    }
+
+    @Test
+    public void testGetQueryExecutorWhenNotPresent() {
+        assertThrows(InternalError.class, () -> registry.getQueryExecutor("invalid"));
+    }
+
+    @Test
+    public void testGetStatementProfilerWhenPresent() {
+        StatementProfiler statementProfiler = StatementProfiler.disabled();
+        registry.registerStatementProfiler("key", statementProfiler);
+        when(registryKey.value()).thenReturn("key");
+        assertSame(statementProfiler, registry.getStatementProfiler(injectionPoint));
+    }
+
+    @Test
+    public void testGetStatementProfilerWhenNotPresent() {
+        assertThrows(InternalError.class, () -> registry.getStatementProfiler("invalid"));
+    }
+
 }
@@ -12,6 +12,7 @@ import tech.bugger.business.service.SettingsService;
 import tech.bugger.business.util.Feedback;
 import tech.bugger.global.transfer.Configuration;
 import tech.bugger.global.transfer.Organization;
+import tech.bugger.persistence.util.StatementProfiler;
 
 import javax.enterprise.event.Event;
 import javax.faces.context.ExternalContext;
@@ -52,10 +53,13 @@ public class AdminBackerTest {
     @Mock
     private Event<Feedback> feedbackEvent;
 
+    @Mock
+    private StatementProfiler statementProfiler;
+
     @BeforeEach
     public void setUp() {
         this.adminBacker = new AdminBacker(applicationSettings, settingsService, ectx, feedbackEvent,
-                                           ResourceBundleMocker.mock(""));
+                                           ResourceBundleMocker.mock(""), statementProfiler);
         adminBacker.setOrganization(new Organization("", new byte[1], "theme.css", "", "", ""));
         adminBacker.setConfiguration(new Configuration(true, false, "abc", ".x,.y,.z", 42, "0,1,2"));
     }
@@ -170,4 +174,11 @@ public class AdminBackerTest {
         verify(applicationSettings, never()).setConfiguration(any());
         verify(feedbackEvent).fire(new Feedback(any(), Feedback.Type.ERROR));
     }
-}
\ No newline at end of file
+    @Test
+    public void testGetTopStatements() {
+        List<StatementProfiler.Statistics> statistics = List.of();
+        doReturn(statistics).when(statementProfiler).getTopStatements(AdminBacker.TOP_STATEMENTS);
+        assertSame(statistics, adminBacker.getTopStatements());
+    }
+
+}
@@ -25,6 +25,7 @@ import tech.bugger.LogExtension;
 import tech.bugger.business.internal.UserSession;
 import tech.bugger.business.service.SearchService;
 import tech.bugger.business.util.Feedback;
+import tech.bugger.global.transfer.SearchSuggestions;
 import tech.bugger.global.transfer.User;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -161,28 +162,30 @@ public class HeaderBackerTest {
 
     @Test
     public void testUpdateSuggestions() {
+        doReturn(new SearchSuggestions(List.of("user"), List.of("topic"), List.of("report")))
+                .when(searchService).getSuggestions(KEY);
         headerBacker.setSearch(KEY);
         headerBacker.updateSuggestions();
         assertAll(
                 () -> assertEquals(LocalDate.now().getYear(), headerBacker.getCurrentYear()),
                 () -> assertEquals(KEY, headerBacker.getSearch()),
-                () -> assertNotNull(headerBacker.getReportSearchSuggestion()),
-                () -> assertNotNull(headerBacker.getTopicSearchSuggestion()),
-                () -> assertNotNull(headerBacker.getUserSearchSuggestion())
+                () -> assertEquals(List.of("report"), headerBacker.getReportSearchSuggestion()),
+                () -> assertEquals(List.of("topic"), headerBacker.getTopicSearchSuggestion()),
+                () -> assertEquals(List.of("user"), headerBacker.getUserSearchSuggestion())
         );
     }
 
     @Test
     public void testUpdateSuggestionsSearchNull() {
         headerBacker.updateSuggestions();
-        verify(searchService, never()).getUserSuggestions(anyString());
+        verify(searchService, never()).getSuggestions(anyString());
     }
 
     @Test
     public void testUpdateSuggestionsSearchBlank() {
         headerBacker.setSearch("");
         headerBacker.updateSuggestions();
-        verify(searchService, never()).getUserSuggestions(anyString());
+        verify(searchService, never()).getSuggestions(anyString());
     }
 
     @Test
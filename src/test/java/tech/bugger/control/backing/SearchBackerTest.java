@@ -10,7 +10,6 @@ import tech.bugger.LogExtension;
 import tech.bugger.business.internal.ApplicationSettings;
 import tech.bugger.business.internal.UserSession;
 import tech.bugger.business.service.SearchService;
-import tech.bugger.business.service.TopicService;
 import tech.bugger.business.util.Paginator;
 import tech.bugger.control.exception.Error404Exception;
 import tech.bugger.global.transfer.*;
@@ -20,13 +19,17 @@ import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -36,9 +39,6 @@ public class SearchBackerTest {
 
     private SearchBacker searchBacker;
 
-    @Mock
-    private TopicService topicService;
-
     @Mock
     private SearchService searchService;
 
@@ -88,9 +88,32 @@ public class SearchBackerTest {
                 new Authorship(null, null, null, null), null,
                 null, null, false, 0,
                 null);
-        searchBacker = new SearchBacker(searchService, topicService, ectx);
+        searchBacker = new SearchBacker(searchService, ectx);
         lenient().doReturn(map).when(ectx).getRequestParameterMap();
         lenient().doReturn(configuration).when(applicationSettings).getConfiguration();
+        lenient().doReturn(ResultPage.empty()).when(searchService).getReportResultPage(any(), any(), any(), any(),
+                anyBoolean(), anyBoolean(), anyBoolean(), anyBoolean(), any(), any(), any());
+        lenient().doReturn(ResultPage.empty()).when(searchService).getTopicResultPage(any(), any());
+        lenient().doReturn(ResultPage.empty()).when(searchService).getUserResultPage(any(), any(), anyBoolean(),
+                anyBoolean());
+    }
+
+    @Test
+    public void testInitLoadsTopicTitlesConcurrently() {
+        Future<List<String>> pending = CompletableFuture.completedFuture(List.of(TOPICTITLE1));
+        doReturn(pending).when(searchService).prefetchTopicTitles();
+        doReturn(List.of(TOPICTITLE1)).when(searchService).awaitTopicTitles(pending);
+        searchBacker.init();
+        assertEquals(List.of(TOPICTITLE1), searchBacker.getTopicTitles());
+    }
+
+    @Test
+    public void testInitTabUserLoadsNoTopicTitles() {
+        doReturn(false).when(map).containsKey(KEY1);
+        doReturn(true).when(map).containsKey(KEY2);
+        doReturn(SearchBacker.Tab.USER.toString()).when(map).get(KEY2);
+        searchBacker.init();
+        verify(searchService, never()).prefetchTopicTitles();
     }
 
     @Test
@@ -111,6 +111,7 @@ public class AvatarServletTest {
         user.setId(1234);
         user.setAvatarThumbnail(thumbnail);
         lenient().doReturn(user).when(profileService).getUserByUsername("admin");
+        doReturn(thumbnail).when(profileService).getAvatarThumbnailForUser(1234);
 
         ServletOutputStream os = mock(ServletOutputStream.class);
         doReturn(os).when(response).getOutputStream();
@@ -128,6 +129,7 @@ public class AvatarServletTest {
 
         User user = new User();
         user.setId(1234);
+        user.setExistsAvatar(true);
         lenient().doReturn(user).when(profileService).getUserByUsername("admin");
 
         ServletContext sctx = mock(ServletContext.class);
@@ -153,6 +155,7 @@ public class AvatarServletTest {
 
         User user = new User();
         user.setId(1234);
+        user.setExistsAvatar(true);
         lenient().doReturn(user).when(profileService).getUserByUsername("admin");
 
         ServletContext sctx = mock(ServletContext.class);
@@ -170,4 +173,28 @@ public class AvatarServletTest {
         assertDoesNotThrow(() -> servlet.handleRequest(request, response));
     }
 
+    @Test
+    public void testHandleRequestWithoutAvatarServesDefault() throws Exception {
+        doReturn(true).when(configuration).isGuestReading();
+        doReturn("1234").when(request).getParameter("id");
+        doReturn("thumbnail").when(request).getParameter("type");
+
+        User user = new User();
+        user.setId(1234);
+        doReturn(user).when(profileService).getUser(1234);
+
+        ServletContext sctx = mock(ServletContext.class);
+        doReturn(sctx).when(servlet).getServletContext();
+        InputStream is = mock(InputStream.class);
+        doReturn(is).when(sctx).getResourceAsStream(any());
+        byte[] defaultThumbnail = new byte[]{1, 2, 3, 4};
+        doReturn(defaultThumbnail).when(is).readAllBytes();
+        ServletOutputStream os = mock(ServletOutputStream.class);
+        doReturn(os).when(response).getOutputStream();
+
+        servlet.handleRequest(request, response);
+        verify(os).write(defaultThumbnail);
+        verify(profileService, never()).getAvatarThumbnailForUser(anyInt());
+    }
+
 }
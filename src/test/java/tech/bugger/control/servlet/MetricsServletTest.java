@@ -0,0 +1,193 @@
+package tech.bugger.control.servlet;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tech.bugger.LogExtension;
+import tech.bugger.business.internal.MailScheduler;
+import tech.bugger.business.internal.NotificationDispatcher;
+import tech.bugger.business.internal.SearchResultCache;
+import tech.bugger.business.internal.UserSession;
+import tech.bugger.business.util.PriorityExecutor;
+import tech.bugger.business.util.QueryExecutor;
+import tech.bugger.global.transfer.User;
+import tech.bugger.global.util.Metrics;
+import tech.bugger.persistence.exception.ConfigException;
+import tech.bugger.persistence.util.ConnectionPool;
+import tech.bugger.persistence.util.Mailer;
+import tech.bugger.persistence.util.PropertiesReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(LogExtension.class)
+@ExtendWith(MockitoExtension.class)
+public class MetricsServletTest {
+
+    @InjectMocks
+    private MetricsServlet servlet;
+
+    @Mock
+    private UserSession session;
+
+    @Mock
+    private PropertiesReader configReader;
+
+    @Mock
+    private ConnectionPool connectionPool;
+
+    @Mock
+    private PriorityExecutor mailExecutor;
+
+    @Mock
+    private MailScheduler mailScheduler;
+
+    @Mock
+    private Mailer mailer;
+
+    @Mock
+    private NotificationDispatcher notificationDispatcher;
+
+    @Mock
+    private SearchResultCache searchResultCache;
+
+    @Mock
+    private QueryExecutor searchQueryExecutor;
+
+    @Mock
+    private HttpServletRequest request;
+
+    @Mock
+    private HttpServletResponse response;
+
+    private StringWriter body;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        body = new StringWriter();
+        lenient().doReturn(new PrintWriter(body)).when(response).getWriter();
+        Metrics poolMetrics = new Metrics();
+        poolMetrics.gauge("connections_idle", "Idle.", () -> 3);
+        lenient().doReturn(poolMetrics).when(connectionPool).getMetrics();
+        Metrics mailMetrics = new Metrics();
+        mailMetrics.gauge("queue_depth", "Depth.", () -> 7);
+        lenient().doReturn(mailMetrics).when(mailExecutor).getMetrics();
+        Metrics deliveryMetrics = new Metrics();
+        deliveryMetrics.gauge("buffered", "Buffered.", () -> 6);
+        lenient().doReturn(deliveryMetrics).when(mailScheduler).getMetrics();
+        Metrics smtpMetrics = new Metrics();
+        smtpMetrics.gauge("connections_open", "Open.", () -> 1);
+        lenient().doReturn(smtpMetrics).when(mailer).getMetrics();
+        Metrics notificationMetrics = new Metrics();
+        notificationMetrics.gauge("workers", "Workers.", () -> 4);
+        lenient().doReturn(notificationMetrics).when(notificationDispatcher).getMetrics();
+        Metrics cacheMetrics = new Metrics();
+        cacheMetrics.gauge("entries", "Entries.", () -> 5);
+        lenient().doReturn(cacheMetrics).when(searchResultCache).getMetrics();
+        Metrics queryMetrics = new Metrics();
+        queryMetrics.gauge("active_threads", "Active.", () -> 2);
+        lenient().doReturn(queryMetrics).when(searchQueryExecutor).getMetrics();
+    }
+
+    private User userWithAdminStatus(final boolean administrator) {
+        User user = new User();
+        user.setAdministrator(administrator);
+        return user;
+    }
+
+    @Test
+    public void testDoGetAnonymous() throws Exception {
+        servlet.doGet(request, response);
+        verify(response).sendError(HttpServletResponse.SC_NOT_FOUND);
+        verify(response, never()).getWriter();
+    }
+
+    @Test
+    public void testDoGetNoAdministrator() throws Exception {
+        doReturn(userWithAdminStatus(false)).when(session).getUser();
+        servlet.doGet(request, response);
+        verify(response).sendError(HttpServletResponse.SC_NOT_FOUND);
+    }
+
+    @Test
+    public void testDoGetSendErrorFails() throws Exception {
+        doThrow(IOException.class).when(response).sendError(anyInt());
+        assertDoesNotThrow(() -> servlet.doGet(request, response));
+    }
+
+    @Test
+    public void testDoGetAdministratorPrometheus() {
+        doReturn(userWithAdminStatus(true)).when(session).getUser();
+        servlet.doGet(request, response);
+        verify(response).setContentType("text/plain; version=0.0.4");
+        assertAll(
+                () -> assertTrue(body.toString().contains("\nbugger_db_pool_connections_idle 3\n")),
+                () -> assertTrue(body.toString().contains("\nbugger_mail_queue_queue_depth 7\n")),
+                () -> assertTrue(body.toString().contains("\nbugger_mail_delivery_buffered 6\n")),
+                () -> assertTrue(body.toString().contains("\nbugger_smtp_connections_open 1\n")),
+                () -> assertTrue(body.toString().contains("\nbugger_notifications_workers 4\n")),
+                () -> assertTrue(body.toString().contains("\nbugger_search_cache_entries 5\n")),
+                () -> assertTrue(body.toString().contains("\nbugger_search_queries_active_threads 2\n"))
+        );
+    }
+
+    @Test
+    public void testDoGetAdministratorJson() {
+        doReturn(userWithAdminStatus(true)).when(session).getUser();
+        doReturn("json").when(request).getParameter("format");
+        servlet.doGet(request, response);
+        verify(response).setContentType("application/json");
+        assertEquals("{\"bugger_db_pool_connections_idle\":3,\"bugger_mail_queue_queue_depth\":7,"
+                + "\"bugger_mail_delivery_buffered\":6,\"bugger_smtp_connections_open\":1,"
+                + "\"bugger_notifications_workers\":4,\"bugger_search_cache_entries\":5,"
+                + "\"bugger_search_queries_active_threads\":2}", body.toString());
+    }
+
+    @Test
+    public void testDoGetValidToken() {
+        doReturn("Bearer secret").when(request).getHeader("Authorization");
+        doReturn("secret").when(configReader).getString("METRICS_TOKEN");
+        servlet.doGet(request, response);
+        assertTrue(body.toString().contains("bugger_db_pool_connections_idle 3"));
+    }
+
+    @Test
+    public void testDoGetWrongToken() throws Exception {
+        doReturn("Bearer guess").when(request).getHeader("Authorization");
+        doReturn("secret").when(configReader).getString("METRICS_TOKEN");
+        servlet.doGet(request, response);
+        verify(response).sendError(HttpServletResponse.SC_NOT_FOUND);
+    }
+
+    @Test
+    public void testDoGetTokenNotConfigured() throws Exception {
+        doReturn("Bearer ").when(request).getHeader("Authorization");
+        doReturn("").when(configReader).getString("METRICS_TOKEN");
+        servlet.doGet(request, response);
+        verify(response).sendError(HttpServletResponse.SC_NOT_FOUND);
+    }
+
+    @Test
+    public void testDoGetTokenKeyMissing() throws Exception {
+        doReturn("Bearer secret").when(request).getHeader("Authorization");
+        doThrow(ConfigException.class).when(configReader).getString("METRICS_TOKEN");
+        servlet.doGet(request, response);
+        verify(response).sendError(HttpServletResponse.SC_NOT_FOUND);
+    }
+
+    @Test
+    public void testDoGetWriteFails() throws Exception {
+        doReturn(userWithAdminStatus(true)).when(session).getUser();
+        doThrow(IOException.class).when(response).getWriter();
+        assertDoesNotThrow(() -> servlet.doGet(request, response));
+    }
+
+}
@@ -0,0 +1,187 @@
+package tech.bugger.control.servlet;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.function.Consumer;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tech.bugger.LogExtension;
+import tech.bugger.business.internal.UserSession;
+import tech.bugger.business.service.SearchService;
+import tech.bugger.global.transfer.Report;
+import tech.bugger.global.transfer.User;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(LogExtension.class)
+@ExtendWith(MockitoExtension.class)
+public class ReportExportServletTest {
+
+    @InjectMocks
+    private ReportExportServlet servlet;
+
+    @Mock
+    private UserSession session;
+
+    @Mock
+    private SearchService searchService;
+
+    @Mock
+    private HttpServletRequest request;
+
+    @Mock
+    private HttpServletResponse response;
+
+    private ByteArrayOutputStream body;
+
+    private Report report;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        body = new ByteArrayOutputStream();
+        lenient().doReturn(new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(final WriteListener writeListener) {
+            }
+
+            @Override
+            public void write(final int b) {
+                body.write(b);
+            }
+        }).when(response).getOutputStream();
+        report = new Report(100, "Crash, \"again\"", Report.Type.BUG, Report.Severity.SEVERE, "1.0", null,
+                OffsetDateTime.of(2021, 1, 2, 3, 4, 5, 0, ZoneOffset.UTC), 42, 7, false, 1, "Topic");
+    }
+
+    private User userWithAdminStatus(final boolean administrator) {
+        User user = new User();
+        user.setAdministrator(administrator);
+        return user;
+    }
+
+    private void setParameters(final Map<String, String> parameters) {
+        doAnswer(invocation -> parameters.get(invocation.<String>getArgument(0))).when(request)
+                .getParameter(anyString());
+    }
+
+    private void exportReport() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<Report>>getArgument(10).accept(report);
+            return true;
+        }).when(searchService).exportReportResults(any(), any(), any(), anyBoolean(), anyBoolean(), anyBoolean(),
+                anyBoolean(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void testDoGetAnonymous() throws Exception {
+        servlet.doGet(request, response);
+        verify(response).sendError(HttpServletResponse.SC_NOT_FOUND);
+        verify(searchService, never()).exportReportResults(any(), any(), any(), anyBoolean(), anyBoolean(),
+                anyBoolean(), anyBoolean(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void testDoGetNoAdministrator() throws Exception {
+        doReturn(userWithAdminStatus(false)).when(session).getUser();
+        servlet.doGet(request, response);
+        verify(response).sendError(HttpServletResponse.SC_NOT_FOUND);
+    }
+
+    @Test
+    public void testDoGetSendErrorFails() throws Exception {
+        doThrow(IOException.class).when(response).sendError(anyInt());
+        assertDoesNotThrow(() -> servlet.doGet(request, response));
+    }
+
+    @Test
+    public void testDoGetCsv() {
+        doReturn(userWithAdminStatus(true)).when(session).getUser();
+        exportReport();
+        servlet.doGet(request, response);
+        verify(response).setContentType("text/csv");
+        assertEquals("id,title,type,severity,version,topic,duplicate_of,closed_at,last_activity,relevance\r\n"
+                + "100,\"Crash, \"\"again\"\"\",bug,severe,1.0,Topic,42,2021-01-02T03:04:05Z,,7\r\n",
+                body.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testDoGetNdjson() {
+        doReturn(userWithAdminStatus(true)).when(session).getUser();
+        setParameters(Map.of("format", "ndjson"));
+        exportReport();
+        servlet.doGet(request, response);
+        verify(response).setContentType("application/x-ndjson");
+        assertEquals("{\"id\":100,\"title\":\"Crash, \\\"again\\\"\",\"type\":\"bug\",\"severity\":\"severe\","
+                + "\"version\":\"1.0\",\"topic\":\"Topic\",\"duplicate_of\":42,"
+                + "\"closed_at\":\"2021-01-02T03:04:05Z\",\"last_activity\":null,\"relevance\":7}\n",
+                body.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testDoGetPassesFilters() {
+        doReturn(userWithAdminStatus(true)).when(session).getUser();
+        setParameters(Map.of("q", " crash ", "closed", "false", "fulltext", "true", "topic", "Topic"));
+        doReturn(new String[]{"bug", "HINT"}).when(request).getParameterValues("type");
+        servlet.doGet(request, response);
+        verify(searchService).exportReportResults(eq(" crash "), isNull(), isNull(), eq(true), eq(false), eq(false),
+                eq(true), eq("Topic"), eq(Map.of(Report.Type.BUG, true, Report.Type.FEATURE, false,
+                        Report.Type.HINT, true)), eq(Map.of(Report.Severity.MINOR, true,
+                        Report.Severity.RELEVANT, true, Report.Severity.SEVERE, true)), any());
+    }
+
+    @Test
+    public void testDoGetWriteFails() throws Exception {
+        doReturn(userWithAdminStatus(true)).when(session).getUser();
+        doThrow(IOException.class).when(response).getOutputStream();
+        assertDoesNotThrow(() -> servlet.doGet(request, response));
+    }
+
+    @Test
+    public void testDoGetClientDisconnects() {
+        doReturn(userWithAdminStatus(true)).when(session).getUser();
+        doThrow(new UncheckedIOException(new IOException())).when(searchService).exportReportResults(any(), any(),
+                any(), anyBoolean(), anyBoolean(), anyBoolean(), anyBoolean(), any(), any(), any(), any());
+        assertDoesNotThrow(() -> servlet.doGet(request, response));
+    }
+
+    @Test
+    public void testQuoteCsvNeutralizesFormulas() {
+        assertAll(
+                () -> assertEquals("'=1+1", ReportExportServlet.quoteCsv("=1+1")),
+                () -> assertEquals("'+1", ReportExportServlet.quoteCsv("+1")),
+                () -> assertEquals("'-1", ReportExportServlet.quoteCsv("-1")),
+                () -> assertEquals("'@SUM(A1)", ReportExportServlet.quoteCsv("@SUM(A1)")),
+                () -> assertEquals("'\tx", ReportExportServlet.quoteCsv("\tx")),
+                () -> assertEquals("\"'\rx\"", ReportExportServlet.quoteCsv("\rx")),
+                () -> assertEquals("\"'=HYPERLINK(\"\"x\"\", \"\"y\"\")\"",
+                        ReportExportServlet.quoteCsv("=HYPERLINK(\"x\", \"y\")")),
+                () -> assertEquals("a=b", ReportExportServlet.quoteCsv("a=b")),
+                () -> assertEquals("", ReportExportServlet.quoteCsv(""))
+        );
+    }
+
+    @Test
+    public void testQuoteJsonEscapesControlCharacters() {
+        assertEquals("\"a\\\\b\\n\\u0001\"", ReportExportServlet.quoteJson("a\\b\n\u0001"));
+    }
+
+}
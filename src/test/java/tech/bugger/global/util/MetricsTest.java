@@ -0,0 +1,103 @@
+package tech.bugger.global.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import tech.bugger.LogExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(LogExtension.class)
+public class MetricsTest {
+
+    private Metrics metrics;
+
+    @BeforeEach
+    public void setUp() {
+        metrics = new Metrics();
+    }
+
+    @Test
+    public void testWritePrometheusCounterAndGauge() throws Exception {
+        LongAdder counter = metrics.counter("events_total", "Events.");
+        metrics.gauge("ratio", "Ratio.", () -> 0.5);
+        counter.add(3);
+        StringBuilder out = new StringBuilder();
+        metrics.writePrometheus("test_", out);
+        assertEquals("# HELP test_events_total Events.\n"
+                + "# TYPE test_events_total counter\n"
+                + "test_events_total 3\n"
+                + "# HELP test_ratio Ratio.\n"
+                + "# TYPE test_ratio gauge\n"
+                + "test_ratio 0.5\n", out.toString());
+    }
+
+    @Test
+    public void testWritePrometheusHistogram() throws Exception {
+        Metrics.Histogram histogram = metrics.histogram("wait_seconds", "Wait.");
+        histogram.record(TimeUnit.MICROSECONDS.toNanos(500));
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(3));
+        histogram.record(TimeUnit.MINUTES.toNanos(1));
+        StringBuilder out = new StringBuilder();
+        metrics.writePrometheus("test_", out);
+        String text = out.toString();
+        assertAll(
+                () -> assertTrue(text.contains("# TYPE test_wait_seconds histogram\n")),
+                () -> assertTrue(text.contains("test_wait_seconds_bucket{le=\"0.001\"} 1\n")),
+                () -> assertTrue(text.contains("test_wait_seconds_bucket{le=\"0.0025\"} 1\n")),
+                () -> assertTrue(text.contains("test_wait_seconds_bucket{le=\"0.005\"} 2\n")),
+                () -> assertTrue(text.contains("test_wait_seconds_bucket{le=\"30\"} 2\n")),
+                () -> assertTrue(text.contains("test_wait_seconds_bucket{le=\"+Inf\"} 3\n")),
+                () -> assertTrue(text.contains("test_wait_seconds_sum 60.0035\n")),
+                () -> assertTrue(text.contains("test_wait_seconds_count 3\n"))
+        );
+    }
+
+    @Test
+    public void testHistogramBoundIsInclusive() {
+        Metrics.Histogram histogram = metrics.histogram("wait_seconds", "Wait.");
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(1));
+        assertEquals(1, histogram.getCumulativeCounts()[0]);
+    }
+
+    @Test
+    public void testWriteJsonMembers() throws Exception {
+        metrics.gauge("idle", "Idle.", () -> 2);
+        metrics.histogram("wait_seconds", "Wait.").record(TimeUnit.SECONDS.toNanos(2));
+        StringBuilder out = new StringBuilder();
+        metrics.writeJsonMembers("test_", out);
+        assertEquals("\"test_idle\":2,\"test_wait_seconds\":{\"count\":1,\"sum\":2,\"buckets\":{"
+                + "\"0.001\":0,\"0.0025\":0,\"0.005\":0,\"0.01\":0,\"0.025\":0,\"0.05\":0,\"0.1\":0,\"0.25\":0,"
+                + "\"0.5\":0,\"1\":0,\"2.5\":1,\"5\":1,\"10\":1,\"30\":1,\"+Inf\":1}}", out.toString());
+    }
+
+    @Test
+    public void testWriteJsonMembersWhenNotFinite() throws Exception {
+        metrics.gauge("ratio", "Ratio.", () -> Double.NaN);
+        metrics.gauge("limit", "Limit.", () -> Double.POSITIVE_INFINITY);
+        StringBuilder out = new StringBuilder();
+        metrics.writeJsonMembers("test_", out);
+        assertEquals("\"test_ratio\":null,\"test_limit\":null", out.toString());
+    }
+
+    @Test
+    public void testWritePrometheusWhenNotFinite() throws Exception {
+        metrics.gauge("ratio", "Ratio.", () -> Double.NaN);
+        metrics.gauge("limit", "Limit.", () -> Double.NEGATIVE_INFINITY);
+        StringBuilder out = new StringBuilder();
+        metrics.writePrometheus("test_", out);
+        assertEquals("# HELP test_ratio Ratio.\n# TYPE test_ratio gauge\ntest_ratio NaN\n"
+                + "# HELP test_limit Limit.\n# TYPE test_limit gauge\ntest_limit -Inf\n", out.toString());
+    }
+
+    @Test
+    public void testWriteEmpty() throws Exception {
+        StringBuilder out = new StringBuilder();
+        metrics.writePrometheus("test_", out);
+        metrics.writeJsonMembers("test_", out);
+        assertEquals("", out.toString());
+    }
+
+}
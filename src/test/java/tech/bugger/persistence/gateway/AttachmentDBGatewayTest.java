@@ -5,7 +5,9 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -198,4 +200,30 @@ public class AttachmentDBGatewayTest {
         assertThrows(StoreException.class, () -> new AttachmentDBGateway(connectionSpy).getAttachmentsForPost(post));
     }
 
+    @Test
+    public void testGetAttachmentsForPosts() {
+        Map<Integer, List<Attachment>> attachments = gateway.getAttachmentsForPosts(List.of(100, 101, 4242));
+        assertAll(() -> assertEquals(Set.of(100), attachments.keySet()),
+                () -> assertEquals(2, attachments.get(100).size()),
+                () -> assertEquals(1, attachments.get(100).get(0).getId()),
+                () -> assertEquals("another-attachment.png", attachments.get(100).get(1).getName()),
+                () -> assertEquals(0, attachments.get(100).get(1).getContent().length)
+        );
+    }
+
+    @Test
+    public void testGetAttachmentsForPostsWhenEmpty() throws Exception {
+        Connection connectionSpy = spy(connection);
+        assertTrue(new AttachmentDBGateway(connectionSpy).getAttachmentsForPosts(List.of()).isEmpty());
+        verify(connectionSpy, never()).prepareStatement(any());
+    }
+
+    @Test
+    public void testGetAttachmentsForPostsWhenDatabaseError() throws Exception {
+        Connection connectionSpy = spy(connection);
+        doThrow(SQLException.class).when(connectionSpy).prepareStatement(any());
+        assertThrows(StoreException.class,
+                () -> new AttachmentDBGateway(connectionSpy).getAttachmentsForPosts(List.of(100)));
+    }
+
 }
@@ -0,0 +1,196 @@
+package tech.bugger.persistence.gateway;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import tech.bugger.DBExtension;
+import tech.bugger.LogExtension;
+import tech.bugger.global.transfer.Authorship;
+import tech.bugger.global.transfer.Post;
+import tech.bugger.global.transfer.Report;
+import tech.bugger.global.transfer.ResultPage;
+import tech.bugger.global.transfer.Selection;
+import tech.bugger.global.transfer.Topic;
+import tech.bugger.persistence.exception.StoreException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
+
+@ExtendWith(DBExtension.class)
+@ExtendWith(LogExtension.class)
+public class FullTextSearchDBGatewayTest {
+
+    private FullTextSearchDBGateway gateway;
+    private Connection connection;
+    private Selection selection;
+    private Map<Report.Type, Boolean> typeFilter;
+    private Map<Report.Severity, Boolean> severityFilter;
+    private Report titleMatch;
+    private Report postMatch;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        connection = DBExtension.getConnection();
+        gateway = new FullTextSearchDBGateway(connection);
+        selection = new Selection(0, 0, Selection.PageSize.SMALL, "id", true);
+
+        typeFilter = new HashMap<>();
+        typeFilter.put(Report.Type.BUG, true);
+        typeFilter.put(Report.Type.FEATURE, true);
+        typeFilter.put(Report.Type.HINT, true);
+        severityFilter = new HashMap<>();
+        severityFilter.put(Report.Severity.MINOR, true);
+        severityFilter.put(Report.Severity.RELEVANT, true);
+        severityFilter.put(Report.Severity.SEVERE, true);
+
+        Topic topic = new Topic(null, "topic", "description");
+        new TopicDBGateway(connection).createTopic(topic);
+        ReportGateway reportGateway = new ReportDBGateway(connection, new UserDBGateway(connection));
+        Authorship authorship = new Authorship(null, null, null, null);
+        postMatch = new Report(0, "Slow login", Report.Type.BUG, Report.Severity.MINOR, "", authorship, null, null,
+                null, false, topic.getId(), null);
+        reportGateway.create(postMatch);
+        titleMatch = new Report(0, "Crash on startup", Report.Type.BUG, Report.Severity.MINOR, "", authorship, null,
+                null, null, false, topic.getId(), null);
+        reportGateway.create(titleMatch);
+        new PostDBGateway(connection, new UserDBGateway(connection), new AttachmentDBGateway(connection))
+                .create(new Post(0, "The login crashes sometimes.", postMatch.getId(), authorship, new ArrayList<>()));
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        connection.close();
+    }
+
+    @Test
+    public void testToTextSearchQuery() {
+        assertEquals("Crash:* & on:* & 42:*", FullTextSearchDBGateway.toTextSearchQuery(" Crash, on 42!"));
+    }
+
+    @Test
+    public void testToTextSearchQueryWithoutTerms() {
+        assertNull(FullTextSearchDBGateway.toTextSearchQuery(" &|:* "));
+    }
+
+    @Test
+    public void testGetReportResultsMatchesTitlePrefixes() {
+        List<Report> results = gateway.getReportResults("cras", selection, null, null, true, true, true, false, null,
+                typeFilter, severityFilter);
+        assertEquals(1, results.size());
+        assertEquals(titleMatch.getId(), results.get(0).getId());
+    }
+
+    @Test
+    public void testGetReportResultsRanksTitleAbovePostMatches() {
+        selection.setSortedBy(FullTextSearchDBGateway.SEARCH_RANK);
+        selection.setAscending(false);
+        List<Report> results = gateway.getReportResults("crash", selection, null, null, true, true, true, true, null,
+                typeFilter, severityFilter);
+        assertEquals(2, results.size());
+        assertEquals(titleMatch.getId(), results.get(0).getId());
+        assertEquals(postMatch.getId(), results.get(1).getId());
+    }
+
+    @Test
+    public void testGetReportResultsRequiresAllTerms() {
+        List<Report> results = gateway.getReportResults("login crash", selection, null, null, true, true, true, true,
+                null, typeFilter, severityFilter);
+        assertEquals(1, results.size());
+        assertEquals(postMatch.getId(), results.get(0).getId());
+    }
+
+    @Test
+    public void testGetReportResultsWithoutTermsFindsAll() {
+        List<Report> results = gateway.getReportResults("", selection, null, null, true, true, true, true, null,
+                typeFilter, severityFilter);
+        assertEquals(2, results.size());
+    }
+
+    @Test
+    public void testGetReportResultsAppliesTopicFilter() {
+        List<Report> results = gateway.getReportResults("crash", selection, null, null, true, true, true, true,
+                "other topic", typeFilter, severityFilter);
+        assertTrue(results.isEmpty());
+    }
+
+    @Test
+    public void testGetReportResultPageCountsAllMatches() {
+        ResultPage<Report> page = gateway.getReportResultPage("crash", selection, null, null, true, true, true, true,
+                null, typeFilter, severityFilter);
+        assertEquals(2, page.getItems().size());
+        assertEquals(2, page.getTotalSize());
+    }
+
+    @Test
+    public void testGetReportResultPageBeyondLastPage() {
+        selection.setCurrentPage(3);
+        ResultPage<Report> page = gateway.getReportResultPage("crash", selection, null, null, true, true, true, true,
+                null, typeFilter, severityFilter);
+        assertTrue(page.getItems().isEmpty());
+        assertEquals(2, page.getTotalSize());
+    }
+
+    @Test
+    public void testGetReportResultsSortByIsNull() {
+        selection.setSortedBy(null);
+        assertThrows(IllegalArgumentException.class, () -> gateway.getReportResults("crash", selection, null, null,
+                true, true, true, true, null, typeFilter, severityFilter));
+    }
+
+    @Test
+    public void testGetReportResultsWhenDatabaseError() throws Exception {
+        Connection connectionSpy = spy(connection);
+        doThrow(SQLException.class).when(connectionSpy).prepareStatement(any());
+        assertThrows(StoreException.class, () -> new FullTextSearchDBGateway(connectionSpy).getReportResults("crash",
+                selection, null, null, true, true, true, true, null, typeFilter, severityFilter));
+    }
+
+    @Test
+    public void testGetNumberOfReportResults() {
+        assertAll(
+                () -> assertEquals(1, gateway.getNumberOfReportResults("crash", null, null, true, true, true, false,
+                        null, typeFilter, severityFilter)),
+                () -> assertEquals(2, gateway.getNumberOfReportResults("crash", null, null, true, true, true, true,
+                        null, typeFilter, severityFilter))
+        );
+    }
+
+    @Test
+    public void testGetNumberOfReportResultsWhenDatabaseError() throws Exception {
+        Connection connectionSpy = spy(connection);
+        doThrow(SQLException.class).when(connectionSpy).prepareStatement(any());
+        assertThrows(StoreException.class, () -> new FullTextSearchDBGateway(connectionSpy)
+                .getNumberOfReportResults("crash", null, null, true, true, true, true, null, typeFilter,
+                        severityFilter));
+    }
+
+    @Test
+    public void testExportReportResults() {
+        List<Report> exported = new ArrayList<>();
+        assertAll(
+                () -> assertEquals(2, gateway.exportReportResults("crash", null, null, true, true, true, true, null,
+                        typeFilter, severityFilter, exported::add)),
+                () -> assertEquals(postMatch.getId(), exported.get(0).getId()),
+                () -> assertEquals(titleMatch.getId(), exported.get(1).getId())
+        );
+    }
+
+    @Test
+    public void testExportReportResultsWhenDatabaseError() throws Exception {
+        Connection connectionSpy = spy(connection);
+        doThrow(SQLException.class).when(connectionSpy).prepareStatement(any());
+        assertThrows(StoreException.class, () -> new FullTextSearchDBGateway(connectionSpy)
+                .exportReportResults("crash", null, null, true, true, true, true, null, typeFilter, severityFilter,
+                        report -> { }));
+    }
+
+}
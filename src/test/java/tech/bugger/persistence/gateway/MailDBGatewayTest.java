@@ -0,0 +1,294 @@
+package tech.bugger.persistence.gateway;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import tech.bugger.DBExtension;
+import tech.bugger.LogExtension;
+import tech.bugger.global.transfer.Notification;
+import tech.bugger.persistence.exception.NotFoundException;
+import tech.bugger.persistence.exception.StoreException;
+import tech.bugger.persistence.util.Mail;
+import tech.bugger.persistence.util.QueuedMail;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(DBExtension.class)
+@ExtendWith(LogExtension.class)
+public class MailDBGatewayTest {
+
+    private MailGateway gateway;
+
+    private Connection connection;
+
+    private Mail mail;
+
+    private final Duration lease = Duration.ofMinutes(15);
+
+    private final Duration aging = Duration.ofMinutes(1);
+
+    private final int[] quotas = {10, 10, 10};
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        connection = DBExtension.getConnection();
+        gateway = new MailDBGateway(connection);
+        mail = new Mail.Builder()
+                .to("admin@bugger.tech")
+                .cc("cc@bugger.tech")
+                .subject("New post")
+                .content("There is a new post.")
+                .envelop();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        connection.close();
+    }
+
+    private QueuedMail queue(final int priority) {
+        QueuedMail queuedMail = new QueuedMail(mail, priority, null);
+        gateway.create(queuedMail);
+        return queuedMail;
+    }
+
+    private int count(final String sql) throws SQLException {
+        ResultSet rs = connection.createStatement().executeQuery(sql);
+        rs.next();
+        return rs.getInt(1);
+    }
+
+    @Test
+    public void testCreateAndClaim() {
+        QueuedMail queuedMail = queue(1);
+        List<QueuedMail> claimed = gateway.claim(10, quotas, lease, aging);
+        assertEquals(1, claimed.size());
+        QueuedMail claimedMail = claimed.get(0);
+        assertAll(
+                () -> assertEquals(queuedMail.getId(), claimedMail.getId()),
+                () -> assertEquals(1, claimedMail.getPriority()),
+                () -> assertEquals(1, claimedMail.getAttempts()),
+                () -> assertNull(claimedMail.getNotificationID()),
+                () -> assertIterableEquals(List.of("admin@bugger.tech"), claimedMail.getMail().getTo()),
+                () -> assertIterableEquals(List.of("cc@bugger.tech"), claimedMail.getMail().getCc()),
+                () -> assertTrue(claimedMail.getMail().getBcc().isEmpty()),
+                () -> assertEquals("New post", claimedMail.getMail().getSubject()),
+                () -> assertEquals("There is a new post.", claimedMail.getMail().getContent())
+        );
+    }
+
+    @Test
+    public void testClaimByPriority() {
+        queue(2);
+        QueuedMail urgent = queue(0);
+        List<QueuedMail> claimed = gateway.claim(1, quotas, lease, aging);
+        assertEquals(1, claimed.size());
+        assertEquals(urgent.getId(), claimed.get(0).getId());
+    }
+
+    @Test
+    public void testClaimWhenAged() throws Exception {
+        QueuedMail waiting = queue(1);
+        queue(0);
+        connection.createStatement().executeUpdate("UPDATE mail SET due_at = NOW() - INTERVAL '2 minutes' WHERE id = "
+                + waiting.getId());
+        List<QueuedMail> claimed = gateway.claim(1, quotas, lease, aging);
+        assertEquals(1, claimed.size());
+        assertEquals(waiting.getId(), claimed.get(0).getId());
+    }
+
+    @Test
+    public void testClaimMergesPriorities() throws Exception {
+        QueuedMail urgentNew = queue(0);
+        QueuedMail urgentOld = queue(0);
+        QueuedMail waiting = queue(1);
+        connection.createStatement().executeUpdate("UPDATE mail SET due_at = NOW() - INTERVAL '3 minutes' WHERE id = "
+                + urgentOld.getId());
+        connection.createStatement().executeUpdate("UPDATE mail SET due_at = NOW() - INTERVAL '2 minutes' WHERE id = "
+                + waiting.getId());
+        List<QueuedMail> claimed = gateway.claim(10, quotas, lease, aging);
+        assertAll(
+                () -> assertEquals(3, claimed.size()),
+                () -> assertEquals(urgentOld.getId(), claimed.get(0).getId()),
+                () -> assertEquals(waiting.getId(), claimed.get(1).getId()),
+                () -> assertEquals(urgentNew.getId(), claimed.get(2).getId())
+        );
+    }
+
+    @Test
+    public void testClaimIgnoresOtherPriorities() {
+        queue(quotas.length);
+        assertTrue(gateway.claim(10, quotas, lease, aging).isEmpty());
+    }
+
+    @Test
+    public void testClaimRespectsQuotas() {
+        QueuedMail waiting = queue(1);
+        queue(1);
+        QueuedMail urgent = queue(0);
+        List<QueuedMail> claimed = gateway.claim(10, new int[]{10, 0, 10}, lease, aging);
+        assertAll(
+                () -> assertEquals(1, claimed.size()),
+                () -> assertEquals(urgent.getId(), claimed.get(0).getId())
+        );
+        List<QueuedMail> limited = gateway.claim(10, new int[]{10, 1, 10}, lease, aging);
+        assertEquals(1, limited.size());
+        assertEquals(waiting.getId(), limited.get(0).getId());
+    }
+
+    @Test
+    public void testClaimWhenLeased() {
+        queue(1);
+        assertEquals(1, gateway.claim(10, quotas, lease, aging).size());
+        assertTrue(gateway.claim(10, quotas, lease, aging).isEmpty());
+    }
+
+    @Test
+    public void testClaimWhenLeaseExpired() {
+        queue(1);
+        assertEquals(1, gateway.claim(10, quotas, Duration.ZERO, aging).size());
+        List<QueuedMail> claimed = gateway.claim(10, quotas, lease, aging);
+        assertEquals(1, claimed.size());
+        assertEquals(2, claimed.get(0).getAttempts());
+    }
+
+    @Test
+    public void testCreateNull() {
+        assertThrows(IllegalArgumentException.class, () -> gateway.create(null));
+    }
+
+    @Test
+    public void testCreateSQLException() throws SQLException {
+        Connection connectionSpy = spy(connection);
+        doThrow(SQLException.class).when(connectionSpy).prepareStatement(any());
+        assertThrows(StoreException.class,
+                () -> new MailDBGateway(connectionSpy).create(new QueuedMail(mail, 0, null)));
+    }
+
+    @Test
+    public void testCreateNoResult() throws SQLException {
+        PreparedStatement stmt = mock(PreparedStatement.class);
+        ResultSet rs = mock(ResultSet.class);
+        Connection connectionSpy = spy(connection);
+        doReturn(stmt).when(connectionSpy).prepareStatement(any());
+        doReturn(rs).when(stmt).executeQuery();
+        assertThrows(StoreException.class,
+                () -> new MailDBGateway(connectionSpy).create(new QueuedMail(mail, 0, null)));
+    }
+
+    @Test
+    public void testClaimSQLException() throws SQLException {
+        Connection connectionSpy = spy(connection);
+        doThrow(SQLException.class).when(connectionSpy).prepareStatement(any());
+        assertThrows(StoreException.class, () -> new MailDBGateway(connectionSpy).claim(10, quotas, lease, aging));
+    }
+
+    @Test
+    public void testMarkSent() throws Exception {
+        DBExtension.insertMinimalTestData();
+        NotificationGateway notificationGateway = new NotificationDBGateway(connection);
+        Notification notification = new Notification(null, 2, 1, Notification.Type.NEW_POST, null, false, false, 1,
+                100, 100, null, null, null);
+        notificationGateway.create(notification);
+        QueuedMail queuedMail = new QueuedMail(mail, 0, notification.getId());
+        gateway.create(queuedMail);
+
+        gateway.markSent(queuedMail);
+        assertAll(
+                () -> assertEquals(0, count("SELECT COUNT(*) FROM mail")),
+                () -> assertTrue(notificationGateway.find(notification.getId()).isSent())
+        );
+    }
+
+    @Test
+    public void testMarkSentNotFound() {
+        QueuedMail queuedMail = new QueuedMail(mail, 0, null);
+        queuedMail.setId(42);
+        assertThrows(NotFoundException.class, () -> gateway.markSent(queuedMail));
+    }
+
+    @Test
+    public void testMarkSentNull() {
+        assertThrows(IllegalArgumentException.class, () -> gateway.markSent(null));
+    }
+
+    @Test
+    public void testMarkSentIdNull() {
+        assertThrows(IllegalArgumentException.class, () -> gateway.markSent(new QueuedMail(mail, 0, null)));
+    }
+
+    @Test
+    public void testMarkSentSQLException() throws SQLException {
+        QueuedMail queuedMail = queue(0);
+        Connection connectionSpy = spy(connection);
+        doThrow(SQLException.class).when(connectionSpy).prepareStatement(any());
+        assertThrows(StoreException.class, () -> new MailDBGateway(connectionSpy).markSent(queuedMail));
+    }
+
+    @Test
+    public void testReschedule() throws Exception {
+        QueuedMail queuedMail = queue(0);
+        gateway.claim(10, quotas, lease, aging);
+        gateway.reschedule(queuedMail, Duration.ZERO);
+        assertEquals(1, gateway.claim(10, quotas, lease, aging).size());
+    }
+
+    @Test
+    public void testRescheduleDelayed() throws Exception {
+        QueuedMail queuedMail = queue(0);
+        gateway.claim(10, quotas, Duration.ZERO, aging);
+        gateway.reschedule(queuedMail, Duration.ofHours(1));
+        assertTrue(gateway.claim(10, quotas, lease, aging).isEmpty());
+    }
+
+    @Test
+    public void testRescheduleNotFound() {
+        QueuedMail queuedMail = new QueuedMail(mail, 0, null);
+        queuedMail.setId(42);
+        assertThrows(NotFoundException.class, () -> gateway.reschedule(queuedMail, Duration.ZERO));
+    }
+
+    @Test
+    public void testRescheduleSQLException() throws SQLException {
+        QueuedMail queuedMail = queue(0);
+        Connection connectionSpy = spy(connection);
+        doThrow(SQLException.class).when(connectionSpy).prepareStatement(any());
+        assertThrows(StoreException.class,
+                () -> new MailDBGateway(connectionSpy).reschedule(queuedMail, Duration.ZERO));
+    }
+
+    @Test
+    public void testMarkDead() throws Exception {
+        QueuedMail queuedMail = queue(0);
+        gateway.claim(10, quotas, Duration.ZERO, aging);
+        gateway.markDead(queuedMail);
+        assertAll(
+                () -> assertTrue(gateway.claim(10, quotas, lease, aging).isEmpty()),
+                () -> assertEquals(1, count("SELECT COUNT(*) FROM mail WHERE status = 'DEAD'"))
+        );
+    }
+
+    @Test
+    public void testMarkDeadNotFound() {
+        QueuedMail queuedMail = new QueuedMail(mail, 0, null);
+        queuedMail.setId(42);
+        assertThrows(NotFoundException.class, () -> gateway.markDead(queuedMail));
+    }
+
+    @Test
+    public void testMarkDeadSQLException() throws SQLException {
+        QueuedMail queuedMail = queue(0);
+        Connection connectionSpy = spy(connection);
+        doThrow(SQLException.class).when(connectionSpy).prepareStatement(any());
+        assertThrows(StoreException.class, () -> new MailDBGateway(connectionSpy).markDead(queuedMail));
+    }
+
+}
@@ -109,4 +109,26 @@ public class MetadataDBGatewayTest {
         InputStream is = new ByteArrayInputStream(new byte[0]);
         assertThrows(StoreException.class, () -> new MetadataDBGateway(connectionSpy).initializeSchema(is));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testApplyScriptOutsideTransactionCreatesIndexConcurrently() throws Exception {
+        connection.setAutoCommit(false);
+        String script = "DROP INDEX CONCURRENTLY IF EXISTS post_report_idx;\n"
+                + "CREATE INDEX CONCURRENTLY post_report_idx ON post (report);\n";
+        gateway.applyScriptOutsideTransaction(new ByteArrayInputStream(script.getBytes(StandardCharsets.UTF_8)));
+        assertFalse(connection.getAutoCommit());
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "SELECT * FROM pg_indexes WHERE indexname = 'post_report_idx';")) {
+            assertTrue(stmt.executeQuery().next());
+        }
+    }
+
+    @Test
+    public void testApplyScriptOutsideTransactionWhenError() throws Exception {
+        connection.setAutoCommit(false);
+        InputStream is = new ByteArrayInputStream("SELECT * FROM nonexistent;".getBytes(StandardCharsets.UTF_8));
+        assertThrows(StoreException.class, () -> gateway.applyScriptOutsideTransaction(is));
+        assertFalse(connection.getAutoCommit());
+    }
+
+}
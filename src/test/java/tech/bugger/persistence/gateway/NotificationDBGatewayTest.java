@@ -6,6 +6,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,6 +19,8 @@ import tech.bugger.global.transfer.Selection;
 import tech.bugger.global.transfer.User;
 import tech.bugger.persistence.exception.NotFoundException;
 import tech.bugger.persistence.exception.StoreException;
+import tech.bugger.persistence.util.Mail;
+import tech.bugger.persistence.util.QueuedMail;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -191,6 +194,21 @@ public class NotificationDBGatewayTest {
         );
     }
 
+    @Test
+    public void testSelectNotificationsSeeksNextPage() {
+        selection.setPageSize(Selection.PageSize.TINY);
+        List<Notification> created = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            Notification notification = new Notification(notification1);
+            notificationGateway.create(notification);
+            created.add(notification);
+        }
+        notificationGateway.selectNotifications(admin, selection);
+        selection.setCurrentPage(1);
+        selection.setSeek(Selection.Seek.AFTER);
+        assertEquals(created.subList(5, 7), notificationGateway.selectNotifications(admin, selection));
+    }
+
     @Test
     public void testSelectNotificationsNone() {
         assertTrue(notificationGateway.selectNotifications(admin, selection).isEmpty());
@@ -364,6 +382,164 @@ public class NotificationDBGatewayTest {
         );
     }
 
+    @Test
+    public void testCreateNotificationForSubscribers() throws Exception {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("INSERT INTO user_subscription (subscriber, subscribee) VALUES (1, 2), (3, 2);"
+                    + "INSERT INTO report_subscription (subscriber, report) VALUES (2, 100), (3, 100), (4, 100);"
+                    + "INSERT INTO topic_subscription (subscriber, topic) VALUES (4, 1);"
+                    + "INSERT INTO topic_ban (outcast, topic) VALUES (4, 1);");
+        }
+        List<Notification> notifications = notificationGateway.createNotificationForSubscribers(notification1);
+        notifications.sort(Comparator.comparingInt(Notification::getRecipientID));
+        assertAll(
+                () -> assertEquals(2, notifications.size()),
+                () -> assertEquals(1, notifications.get(0).getRecipientID()),
+                () -> assertEquals(admin.getEmailAddress(), notifications.get(0).getRecipientMail()),
+                () -> assertEquals(admin.getPreferredLanguage().getLanguage(),
+                        notifications.get(0).getEmailLanguage()),
+                () -> assertEquals(3, notifications.get(1).getRecipientID()),
+                () -> assertEquals("pending@example.org", notifications.get(1).getRecipientMail()),
+                () -> assertEquals(notification1.getPostID(), notifications.get(1).getPostID()),
+                () -> assertEquals(notifications.get(0).getId(),
+                        notificationGateway.find(notifications.get(0).getId()).getId()),
+                () -> assertEquals(1, notificationGateway.countNotifications(admin))
+        );
+    }
+
+    @Test
+    public void testCreateNotificationForSubscribersNone() {
+        assertTrue(notificationGateway.createNotificationForSubscribers(notification1).isEmpty());
+        assertEquals(0, notificationGateway.countNotifications(admin));
+    }
+
+    @Test
+    public void testCreateNotificationForSubscribersNull() {
+        assertThrows(IllegalArgumentException.class,
+                () -> notificationGateway.createNotificationForSubscribers(null)
+        );
+    }
+
+    @Test
+    public void testCreateNotificationForSubscribersReportNull() {
+        notification1.setReportID(null);
+        assertThrows(IllegalArgumentException.class,
+                () -> notificationGateway.createNotificationForSubscribers(notification1)
+        );
+    }
+
+    @Test
+    public void testCreateNotificationForSubscribersSQLException() throws SQLException {
+        Connection connectionSpy = spy(connection);
+        doThrow(SQLException.class).when(connectionSpy).prepareStatement(any());
+        assertThrows(StoreException.class,
+                () -> new NotificationDBGateway(connectionSpy).createNotificationForSubscribers(notification1)
+        );
+    }
+
+    @Test
+    public void testCreateAndClaimNotificationEvents() {
+        notificationGateway.createNotificationEvent(notification1);
+        notificationGateway.createNotificationEvent(notification2);
+        List<Notification> claimed = notificationGateway.claimNotificationEvents(1);
+        assertAll(
+                () -> assertEquals(1, claimed.size()),
+                () -> assertEquals(notification1.getType(), claimed.get(0).getType()),
+                () -> assertEquals(notification1.getActuatorID(), claimed.get(0).getActuatorID()),
+                () -> assertEquals(notification1.getTopicID(), claimed.get(0).getTopicID()),
+                () -> assertEquals(notification1.getReportID(), claimed.get(0).getReportID()),
+                () -> assertEquals(notification1.getPostID(), claimed.get(0).getPostID()),
+                () -> assertNotNull(claimed.get(0).getReportTitle()),
+                () -> assertNotNull(claimed.get(0).getId()),
+                () -> assertEquals(1, notificationGateway.claimNotificationEvents(5).size()),
+                () -> assertTrue(notificationGateway.claimNotificationEvents(5).isEmpty())
+        );
+    }
+
+    @Test
+    public void testCreateNotificationEventNull() {
+        assertThrows(IllegalArgumentException.class, () -> notificationGateway.createNotificationEvent(null));
+    }
+
+    @Test
+    public void testCreateNotificationEventTopicNull() {
+        notification1.setTopicID(null);
+        assertThrows(IllegalArgumentException.class, () -> notificationGateway.createNotificationEvent(notification1));
+    }
+
+    @Test
+    public void testCreateNotificationEventSQLException() throws SQLException {
+        Connection connectionSpy = spy(connection);
+        doThrow(SQLException.class).when(connectionSpy).prepareStatement(any());
+        assertThrows(StoreException.class,
+                () -> new NotificationDBGateway(connectionSpy).createNotificationEvent(notification1)
+        );
+    }
+
+    @Test
+    public void testClaimNotificationEventsSQLException() throws SQLException {
+        Connection connectionSpy = spy(connection);
+        doThrow(SQLException.class).when(connectionSpy).prepareStatement(any());
+        assertThrows(StoreException.class,
+                () -> new NotificationDBGateway(connectionSpy).claimNotificationEvents(1)
+        );
+    }
+
+    @Test
+    public void testClaimNotificationEvent() throws Exception {
+        notificationGateway.createNotificationEvent(notification1);
+        notificationGateway.createNotificationEvent(notification2);
+        int id = getOldestEventID();
+        Notification claimed = notificationGateway.claimNotificationEvent(id);
+        assertAll(
+                () -> assertEquals(id, claimed.getId()),
+                () -> assertEquals(notification1.getReportID(), claimed.getReportID()),
+                () -> assertThrows(NotFoundException.class, () -> notificationGateway.claimNotificationEvent(id)),
+                () -> assertEquals(1, notificationGateway.claimNotificationEvents(5).size())
+        );
+    }
+
+    @Test
+    public void testClaimNotificationEventSQLException() throws SQLException {
+        Connection connectionSpy = spy(connection);
+        doThrow(SQLException.class).when(connectionSpy).prepareStatement(any());
+        assertThrows(StoreException.class,
+                () -> new NotificationDBGateway(connectionSpy).claimNotificationEvent(1)
+        );
+    }
+
+    @Test
+    public void testRecordFailedNotificationEvent() throws Exception {
+        notificationGateway.createNotificationEvent(notification1);
+        int id = getOldestEventID();
+        assertAll(
+                () -> assertFalse(notificationGateway.recordFailedNotificationEvent(id, 2)),
+                () -> assertTrue(notificationGateway.recordFailedNotificationEvent(id, 2)),
+                () -> assertTrue(notificationGateway.claimNotificationEvents(5).isEmpty()),
+                () -> assertThrows(NotFoundException.class, () -> notificationGateway.claimNotificationEvent(id))
+        );
+    }
+
+    @Test
+    public void testRecordFailedNotificationEventNotFound() {
+        assertThrows(NotFoundException.class, () -> notificationGateway.recordFailedNotificationEvent(42, 2));
+    }
+
+    @Test
+    public void testRecordFailedNotificationEventSQLException() throws SQLException {
+        Connection connectionSpy = spy(connection);
+        doThrow(SQLException.class).when(connectionSpy).prepareStatement(any());
+        assertThrows(StoreException.class,
+                () -> new NotificationDBGateway(connectionSpy).recordFailedNotificationEvent(1, 2)
+        );
+    }
+
+    private int getOldestEventID() throws SQLException {
+        ResultSet rs = connection.createStatement().executeQuery("SELECT MIN(id) FROM notification_event");
+        rs.next();
+        return rs.getInt(1);
+    }
+
     @Test
     public void testGetUnsentNotifications() {
         notificationGateway.create(notification1);
@@ -385,6 +561,15 @@ public class NotificationDBGatewayTest {
         assertTrue(notificationGateway.getUnsentNotifications().isEmpty());
     }
 
+    @Test
+    public void testGetUnsentNotificationsWhenMailQueued() {
+        notificationGateway.create(notification1);
+        notificationGateway.create(notification2);
+        Mail mail = new Mail.Builder().to("admin@bugger.tech").subject("New post").content("Content").envelop();
+        new MailDBGateway(connection).create(new QueuedMail(mail, 0, notification1.getId()));
+        assertEquals(List.of(notification2), notificationGateway.getUnsentNotifications());
+    }
+
     @Test
     public void testGetUnsentNotificationsSQLException() throws SQLException {
         Connection connectionSpy = spy(connection);
@@ -30,10 +30,13 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(LogExtension.class)
@@ -287,6 +290,29 @@ public class PostDBGatewayTest {
         assertEquals(expected, gateway.selectPostsOfReport(testReport, testSelection));
     }
 
+    @Test
+    public void testSelectPostsOfReportSeeksNeighbouringPages() throws Exception {
+        validSelection();
+        testReport.setId(100);
+        insertReport();
+        numberOfPosts = 50;
+        insertPosts(100);
+        gateway.selectPostsOfReport(testReport, testSelection);
+        testSelection.setCurrentPage(1);
+        testSelection.setSeek(Selection.Seek.AFTER);
+        gateway.selectPostsOfReport(testReport, testSelection);
+        testSelection.setCurrentPage(2);
+        testSelection.setSeek(Selection.Seek.AFTER);
+        gateway.selectPostsOfReport(testReport, testSelection);
+        testSelection.setCurrentPage(1);
+        testSelection.setSeek(Selection.Seek.BEFORE);
+        List<Post> expected = new ArrayList<>(20);
+        for (int i = 121; i <= 140; i++) {
+            expected.add(makeTestPost(i));
+        }
+        assertEquals(expected, gateway.selectPostsOfReport(testReport, testSelection));
+    }
+
     @Test
     public void testSelectPostsOfReportWhenSortedByCreatedAtDescending() throws Exception {
         DBExtension.resetDatabase();
@@ -313,6 +339,23 @@ public class PostDBGatewayTest {
         assertEquals(2, posts.size());
     }
 
+    @Test
+    public void testSelectPostsOfReportLoadsAttachmentsAtOnce() throws Exception {
+        validSelection();
+        testReport.setId(100);
+        numberOfPosts = 30;
+        insertPosts(100);
+        Connection connectionSpy = spy(connection);
+        List<Post> posts = new PostDBGateway(connectionSpy, userGateway, new AttachmentDBGateway(connectionSpy))
+                .selectPostsOfReport(testReport, testSelection);
+        assertAll(
+                () -> assertEquals(Selection.PageSize.NORMAL.getSize(), posts.size()),
+                () -> assertEquals(2, posts.get(0).getAttachments().size()),
+                () -> assertTrue(posts.get(1).getAttachments().isEmpty()),
+                () -> verify(connectionSpy, times(2)).prepareStatement(anyString())
+        );
+    }
+
     @Test
     public void testSelectPostsStoreException() throws SQLException {
         Selection selection = new Selection(1, 0, Selection.PageSize.SMALL, "id", true);
@@ -381,6 +424,21 @@ public class PostDBGatewayTest {
         assertEquals("testpost", gateway.getFirstPost(report).getContent());
     }
 
+    @Test
+    public void testGetFirstPostStatementCount() throws Exception {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("UPDATE post SET created_by = 1, last_modified_by = 2 WHERE report = 100;");
+        }
+        Connection connectionSpy = spy(connection);
+        Post firstPost = new PostDBGateway(connectionSpy, new UserDBGateway(connectionSpy), attachmentGateway)
+                .getFirstPost(report);
+        assertAll(
+                () -> assertEquals("testuser", firstPost.getAuthorship().getCreator().getUsername()),
+                () -> assertEquals(2, firstPost.getAuthorship().getModifier().getId()),
+                () -> verify(connectionSpy, times(2)).prepareStatement(anyString())
+        );
+    }
+
     @Test
     public void testGetFirstPostNotFound() {
         report.setId(1000);
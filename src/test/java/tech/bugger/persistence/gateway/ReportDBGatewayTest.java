@@ -5,7 +5,6 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
-import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
 import tech.bugger.DBExtension;
 import tech.bugger.LogExtension;
@@ -26,17 +25,23 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(DBExtension.class)
@@ -285,6 +290,42 @@ public class ReportDBGatewayTest {
         assertEquals(34, gateway.countPosts(report));
     }
 
+    @Test
+    public void testCountPostsAfterPostDeletion() throws Exception {
+        insertPosts(100, 3);
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("DELETE FROM post WHERE id = (SELECT MAX(id) FROM post WHERE report = 100);");
+        }
+        report.setId(100);
+        assertEquals(3, gateway.countPosts(report));
+    }
+
+    @Test
+    public void testLastActivityFallsBackAfterLatestPostDeletion() throws Exception {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("UPDATE post SET created_at = '2021-01-01 12:00:00+00' WHERE report = 101;");
+            stmt.execute("INSERT INTO post (content, report) VALUES ('latest', 101);");
+            stmt.execute("DELETE FROM post WHERE content = 'latest';");
+        }
+        selection.setSortedBy("id");
+        List<Report> reports = gateway.getSelectedReports(topic, selection, true, true);
+        assertEquals(OffsetDateTime.parse("2021-01-01T12:00:00Z").toInstant(),
+                reports.get(1).getLastActivity().toInstant());
+    }
+
+    @Test
+    public void testRelevanceFollowsVoteChanges() throws Exception {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("UPDATE relevance_vote SET weight = 7 WHERE report = 100;");
+            stmt.execute("INSERT INTO relevance_vote (voter, report, weight) VALUES (2, 100, 3);");
+        }
+        assertEquals(10, gateway.find(100).getRelevance());
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("DELETE FROM relevance_vote WHERE report = 100;");
+        }
+        assertEquals(0, gateway.find(100).getRelevance());
+    }
+
     @Test
     public void testCountPostsNoResult() throws SQLException {
         PreparedStatement stmt = mock(PreparedStatement.class);
@@ -416,24 +457,29 @@ public class ReportDBGatewayTest {
     }
 
     @Test
-    public void testSelectDuplicatesWhenCountNotFound() throws Exception {
-        try (MockedStatic<ReportDBGateway> gatewayMock = mockStatic(ReportDBGateway.class)) {
-            gatewayMock.when(() -> ReportDBGateway.getReportFromResultSet(any(), any()))
-                    .thenThrow(NotFoundException.class);
-
-            ResultSet resultSetMock = mock(ResultSet.class);
-            PreparedStatement stmtMock = mock(PreparedStatement.class);
-            Connection connectionSpy = spy(connection);
-            doReturn(true).when(resultSetMock).next();
-            doReturn(resultSetMock).when(stmtMock).executeQuery();
-            doReturn(stmtMock).when(connectionSpy).prepareStatement(any());
-
-            report.setId(93);
+    public void testSelectDuplicatesWhenUserLookupFails() throws Exception {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("UPDATE report SET duplicate_of = 100 WHERE id = 101;");
+        }
+        doThrow(StoreException.class).when(userGateway).getUsersByIDs(any());
+        report.setId(100);
+        assertThrows(StoreException.class, () -> gateway.selectDuplicates(report, selection));
+    }
 
-            assertThrows(StoreException.class,
-                    () -> new ReportDBGateway(connectionSpy, userGateway).selectDuplicates(report, selection));
-            reset(connectionSpy, stmtMock);
+    @Test
+    public void testSelectDuplicatesStatementCount() throws Exception {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("UPDATE report SET duplicate_of = 100 WHERE id IN (101, 102);");
         }
+        Connection connectionSpy = spy(connection);
+        report.setId(100);
+        List<Report> duplicates = new ReportDBGateway(connectionSpy, new UserDBGateway(connectionSpy))
+                .selectDuplicates(report, selection);
+        assertAll(
+                () -> assertEquals(2, duplicates.size()),
+                () -> assertNotNull(duplicates.get(0).getAuthorship().getCreator().getUsername()),
+                () -> verify(connectionSpy, times(2)).prepareStatement(anyString())
+        );
     }
 
     @Test
@@ -565,6 +611,76 @@ public class ReportDBGatewayTest {
         );
     }
 
+    @Test
+    public void testGetSelectedReportsSeeksNeighbouringPages() throws Exception {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("INSERT INTO report (topic, title, type, severity, version, created_by) "
+                    + "SELECT 1, 'report ' || i, 'HINT', 'SEVERE', NULL, 1 FROM generate_series(1, 9) AS i;");
+        }
+        selection.setSortedBy("version");
+        selection.setPageSize(Selection.PageSize.TINY);
+        List<Integer> all = new ArrayList<>();
+        for (int page = 0; page < 3; page++) {
+            selection.setCurrentPage(page);
+            gateway.getSelectedReports(topic, selection, true, true).forEach(r -> all.add(r.getId()));
+        }
+        selection.setCurrentPage(0);
+        List<Report> first = gateway.getSelectedReports(topic, selection, true, true);
+        selection.setSeek(Selection.Seek.AFTER);
+        List<Report> second = gateway.getSelectedReports(topic, selection, true, true);
+        selection.setSeek(Selection.Seek.AFTER);
+        List<Report> third = gateway.getSelectedReports(topic, selection, true, true);
+        selection.setSeek(Selection.Seek.BEFORE);
+        List<Report> secondAgain = gateway.getSelectedReports(topic, selection, true, true);
+        List<Integer> seeked = new ArrayList<>();
+        first.forEach(r -> seeked.add(r.getId()));
+        second.forEach(r -> seeked.add(r.getId()));
+        third.forEach(r -> seeked.add(r.getId()));
+        assertAll(
+                () -> assertEquals(12, all.size()),
+                () -> assertEquals(all, seeked),
+                () -> assertEquals(second, secondAgain)
+        );
+    }
+
+    @Test
+    public void testGetSelectedReportsSeeksLastPage() throws Exception {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("INSERT INTO report (topic, title, type, severity, version, created_by) "
+                    + "SELECT 1, 'report ' || i, 'HINT', 'SEVERE', '1.0', 1 FROM generate_series(1, 9) AS i;");
+        }
+        selection.setPageSize(Selection.PageSize.TINY);
+        selection.setTotalSize(12);
+        selection.setCurrentPage(2);
+        List<Report> expected = gateway.getSelectedReports(topic, selection, true, true);
+        selection.setSeek(Selection.Seek.LAST);
+        assertEquals(expected, gateway.getSelectedReports(topic, selection, true, true));
+    }
+
+    @Test
+    public void testGetSelectedReportsResolvesAuthorsAtOnce() {
+        doReturn(Map.of(1, creator)).when(userGateway).getUsersByIDs(Set.of(1, 2));
+        List<Report> reports = gateway.getSelectedReports(topic, selection, true, true);
+        assertAll(
+                () -> assertEquals(3, reports.size()),
+                () -> assertSame(creator, reports.get(0).getAuthorship().getCreator()),
+                () -> assertNull(reports.get(1).getAuthorship().getCreator()),
+                () -> verify(userGateway, never()).getUserByID(anyInt())
+        );
+    }
+
+    @Test
+    public void testGetSelectedReportsStatementCount() throws Exception {
+        Connection connectionSpy = spy(connection);
+        List<Report> reports = new ReportDBGateway(connectionSpy, new UserDBGateway(connectionSpy))
+                .getSelectedReports(topic, selection, true, true);
+        assertAll(
+                () -> assertEquals(3, reports.size()),
+                () -> assertEquals("testuser", reports.get(0).getAuthorship().getCreator().getUsername()),
+                () -> verify(connectionSpy, times(2)).prepareStatement(anyString())
+        );
+    }
+
     @Test
     public void testGetSelectedReportsNoReports() {
         topic.setId(100);
@@ -769,13 +885,28 @@ public class ReportDBGatewayTest {
     }
 
     @Test
-    public void testSelectSubscribedReportsInternalError() throws NotFoundException, DuplicateException {
+    public void testSelectSubscribedReportsWhenAuthorMissing() throws NotFoundException, DuplicateException {
         creator.setId(1);
         Report firstReport = gateway.find(100);
         subscriptionGateway.subscribe(firstReport, creator);
-        doThrow(NotFoundException.class).when(userGateway).getUserByID(anyInt());
-        assertThrows(InternalError.class,
-                () -> gateway.selectSubscribedReports(creator, selection)
+        List<Report> reports = gateway.selectSubscribedReports(creator, selection);
+        assertAll(
+                () -> assertEquals(1, reports.size()),
+                () -> assertNull(reports.get(0).getAuthorship().getCreator())
+        );
+    }
+
+    @Test
+    public void testSelectSubscribedReportsStatementCount() throws Exception {
+        creator.setId(1);
+        subscriptionGateway.subscribe(gateway.find(100), creator);
+        subscriptionGateway.subscribe(gateway.find(101), creator);
+        Connection connectionSpy = spy(connection);
+        List<Report> reports = new ReportDBGateway(connectionSpy, new UserDBGateway(connectionSpy))
+                .selectSubscribedReports(creator, selection);
+        assertAll(
+                () -> assertEquals(2, reports.size()),
+                () -> verify(connectionSpy, times(2)).prepareStatement(anyString())
         );
     }
 
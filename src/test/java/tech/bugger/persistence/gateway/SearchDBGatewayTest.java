@@ -3,6 +3,7 @@ package tech.bugger.persistence.gateway;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
@@ -14,6 +15,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import tech.bugger.DBExtension;
 import tech.bugger.LogExtension;
 import tech.bugger.global.transfer.Report;
+import tech.bugger.global.transfer.ResultPage;
+import tech.bugger.global.transfer.SearchSuggestions;
 import tech.bugger.global.transfer.Selection;
 import tech.bugger.global.transfer.Authorship;
 import tech.bugger.global.transfer.Topic;
@@ -269,6 +272,47 @@ public class SearchDBGatewayTest {
         );
     }
 
+    @Test
+    public void testGetSuggestions() throws NotFoundException, DuplicateException {
+        userGateway.createUser(user1);
+        userGateway.createUser(user2);
+        topicGateway.createTopic(topic1);
+        topicGateway.createTopic(topic2);
+        reportGateway.create(report1);
+        reportGateway.create(report2);
+        SearchSuggestions suggestions = searchGateway.getSuggestions(QUERY2, LIMIT);
+        assertAll(
+                () -> assertEquals(List.of(user2.getUsername()), suggestions.getUsers()),
+                () -> assertEquals(List.of(topic2.getTitle()), suggestions.getTopics()),
+                () -> assertEquals(List.of(report2.getTitle()), suggestions.getReports())
+        );
+    }
+
+    @Test
+    public void testGetSuggestionsRespectsLimit() {
+        userGateway.createUser(user1);
+        userGateway.createUser(user2);
+        SearchSuggestions suggestions = searchGateway.getSuggestions(QUERY, 1);
+        assertAll(
+                () -> assertEquals(1, suggestions.getUsers().size()),
+                () -> assertTrue(suggestions.getTopics().isEmpty()),
+                () -> assertTrue(suggestions.getReports().isEmpty())
+        );
+    }
+
+    @Test
+    public void testGetSuggestionsQueryBlank() {
+        assertThrows(IllegalArgumentException.class, () -> searchGateway.getSuggestions(" ", LIMIT));
+    }
+
+    @Test
+    public void testGetSuggestionsSQLException() throws SQLException {
+        Connection connectionSpy = spy(connection);
+        doThrow(SQLException.class).when(connectionSpy).prepareStatement(any());
+        SearchGateway spyedSearchGateway = new SearchDBGateway(connectionSpy);
+        assertThrows(StoreException.class, () -> spyedSearchGateway.getSuggestions(QUERY2, LIMIT));
+    }
+
     @Test
     public void testGetUserSuggestionSQLException() throws SQLException {
         Connection connectionSpy = spy(connection);
@@ -500,6 +544,57 @@ public class SearchDBGatewayTest {
         assertThrows(IllegalArgumentException.class, () -> searchGateway.getTopicResults(QUERY2, selection));
     }
 
+    @Test
+    public void testGetUserResultPage() {
+        userGateway.createUser(user1);
+        userGateway.createUser(user2);
+        selection.setSortedBy("username");
+        ResultPage<User> page = searchGateway.getUserResultPage(QUERY2, selection, true, true);
+        assertAll(
+                () -> assertEquals(1, page.getItems().size()),
+                () -> assertEquals(1, page.getTotalSize())
+        );
+    }
+
+    @Test
+    public void testGetUserResultPageBeyondLastPage() {
+        userGateway.createUser(user1);
+        userGateway.createUser(user2);
+        selection.setSortedBy("username");
+        selection.setCurrentPage(2);
+        ResultPage<User> page = searchGateway.getUserResultPage(QUERY2, selection, true, true);
+        assertAll(
+                () -> assertTrue(page.getItems().isEmpty()),
+                () -> assertEquals(1, page.getTotalSize())
+        );
+    }
+
+    @Test
+    public void testGetTopicResultPage() throws NotFoundException, DuplicateException {
+        topicGateway.createTopic(topic1);
+        topicGateway.createTopic(topic2);
+        selection.setSortedBy("title");
+        ResultPage<Topic> page = searchGateway.getTopicResultPage(QUERY2, selection);
+        assertAll(
+                () -> assertEquals(1, page.getItems().size()),
+                () -> assertEquals(1, page.getTotalSize())
+        );
+    }
+
+    @Test
+    public void testGetReportResultPage() throws NotFoundException {
+        topicGateway.createTopic(topic1);
+        topicGateway.createTopic(topic2);
+        reportGateway.create(report1);
+        reportGateway.create(report2);
+        ResultPage<Report> page = searchGateway.getReportResultPage(QUERY2, selection, null, null, true, true, true,
+                true, null, allTypes(), allSeverities());
+        assertAll(
+                () -> assertEquals(1, page.getItems().size()),
+                () -> assertEquals(1, page.getTotalSize())
+        );
+    }
+
     @Test
     public void getNumberOfUserResults() {
         userGateway.createUser(user1);
@@ -533,4 +628,228 @@ public class SearchDBGatewayTest {
         assertEquals(1, searchGateway.getNumberOfTopicResults(QUERY2));
     }
 
+    @Test
+    public void testGetReportResultIDsInRankOrder() throws NotFoundException {
+        topicGateway.createTopic(topic1);
+        topicGateway.createTopic(topic2);
+        reportGateway.create(report1);
+        reportGateway.create(report2);
+        selection.setSortedBy(FullTextSearchDBGateway.SEARCH_RANK);
+        selection.setAscending(false);
+        assertEquals(List.of(report2.getId(), report1.getId()), searchGateway.getReportResultIDs(
+                List.of(report2.getId(), 424242, report1.getId()), selection, null, null, true, true, true, null,
+                allTypes(), allSeverities()));
+    }
+
+    @Test
+    public void testGetReportResultIDsSortedByTitle() throws NotFoundException {
+        topicGateway.createTopic(topic1);
+        topicGateway.createTopic(topic2);
+        reportGateway.create(report1);
+        reportGateway.create(report2);
+        selection.setSortedBy("title");
+        selection.setAscending(false);
+        assertEquals(List.of(report2.getId(), report1.getId()), searchGateway.getReportResultIDs(
+                List.of(report1.getId(), report2.getId()), selection, null, null, true, true, true, null,
+                allTypes(), allSeverities()));
+    }
+
+    @Test
+    public void testGetReportResultIDsFiltersTopic() throws NotFoundException {
+        topicGateway.createTopic(topic1);
+        topicGateway.createTopic(topic2);
+        reportGateway.create(report1);
+        reportGateway.create(report2);
+        selection.setSortedBy("title");
+        assertEquals(List.of(report2.getId()), searchGateway.getReportResultIDs(
+                List.of(report1.getId(), report2.getId()), selection, null, null, true, true, true,
+                topic2.getTitle(), allTypes(), allSeverities()));
+    }
+
+    @Test
+    public void testGetReportResultIDsWhenEmpty() {
+        assertTrue(searchGateway.getReportResultIDs(List.of(), selection, null, null, true, true, true, null,
+                allTypes(), allSeverities()).isEmpty());
+    }
+
+    @Test
+    public void testGetReportResultIDsSortByIsNull() {
+        selection.setSortedBy(null);
+        assertThrows(IllegalArgumentException.class, () -> searchGateway.getReportResultIDs(List.of(1),
+                selection, null, null, true, true, true, null, allTypes(), allSeverities()));
+    }
+
+    @Test
+    public void testGetReportResultIDsSQLException() throws SQLException {
+        Connection connectionSpy = spy(connection);
+        doThrow(SQLException.class).when(connectionSpy).prepareStatement(any());
+        selection.setSortedBy("title");
+        assertThrows(StoreException.class, () -> new SearchDBGateway(connectionSpy).getReportResultIDs(List.of(1),
+                selection, null, null, true, true, true, null, allTypes(), allSeverities()));
+    }
+
+    @Test
+    public void testGetReportsByIDs() throws NotFoundException {
+        topicGateway.createTopic(topic1);
+        topicGateway.createTopic(topic2);
+        reportGateway.create(report1);
+        reportGateway.create(report2);
+        List<Report> result = searchGateway.getReportsByIDs(List.of(report2.getId(), 424242, report1.getId()));
+        assertAll(
+                () -> assertEquals(2, result.size()),
+                () -> assertEquals(report2.getId(), result.get(0).getId()),
+                () -> assertEquals(topic2.getTitle(), result.get(0).getTopic()),
+                () -> assertEquals(report1.getId(), result.get(1).getId())
+        );
+    }
+
+    @Test
+    public void testGetReportsByIDsWhenEmpty() {
+        assertTrue(searchGateway.getReportsByIDs(List.of()).isEmpty());
+    }
+
+    @Test
+    public void testGetReportsByIDsIsNull() {
+        assertThrows(IllegalArgumentException.class, () -> searchGateway.getReportsByIDs(null));
+    }
+
+    @Test
+    public void testExportReportResults() throws NotFoundException {
+        topicGateway.createTopic(topic1);
+        topicGateway.createTopic(topic2);
+        reportGateway.create(report1);
+        reportGateway.create(report2);
+        List<Report> exported = new ArrayList<>();
+        int count = searchGateway.exportReportResults("report", null, null, true, true, true, false, null,
+                allTypes(), allSeverities(), exported::add);
+        assertAll(
+                () -> assertEquals(2, count),
+                () -> assertEquals(report1.getId(), exported.get(0).getId()),
+                () -> assertEquals(report2.getId(), exported.get(1).getId()),
+                () -> assertEquals(topic2.getTitle(), exported.get(1).getTopic())
+        );
+    }
+
+    @Test
+    public void testExportReportResultsWhenFilterExcludesAll() {
+        List<Report> exported = new ArrayList<>();
+        assertEquals(0, searchGateway.exportReportResults("report", null, null, false, false, true, false, null,
+                allTypes(), allSeverities(), exported::add));
+    }
+
+    @Test
+    public void testExportReportResultsConsumerIsNull() {
+        assertThrows(IllegalArgumentException.class, () -> searchGateway.exportReportResults("report", null, null,
+                true, true, true, false, null, allTypes(), allSeverities(), null));
+    }
+
+    @Test
+    public void testExportReportResultsWhenDatabaseError() throws Exception {
+        Connection connectionSpy = spy(connection);
+        doThrow(SQLException.class).when(connectionSpy).prepareStatement(any());
+        assertThrows(StoreException.class, () -> new SearchDBGateway(connectionSpy).exportReportResults("report",
+                null, null, true, true, true, false, null, allTypes(), allSeverities(), report -> { }));
+    }
+
+    @Test
+    public void testExportReportResultsByIDsFiltersTopic() throws NotFoundException {
+        topicGateway.createTopic(topic1);
+        topicGateway.createTopic(topic2);
+        reportGateway.create(report1);
+        reportGateway.create(report2);
+        List<Report> exported = new ArrayList<>();
+        int count = searchGateway.exportReportResultsByIDs(List.of(report2.getId(), report1.getId()), null, null,
+                true, true, true, topic1.getTitle(), allTypes(), allSeverities(), exported::add);
+        assertAll(
+                () -> assertEquals(1, count),
+                () -> assertEquals(report1.getId(), exported.get(0).getId())
+        );
+    }
+
+    @Test
+    public void testExportReportResultsByIDsWhenEmpty() {
+        assertEquals(0, searchGateway.exportReportResultsByIDs(List.of(), null, null, true, true, true, null,
+                allTypes(), allSeverities(), report -> { }));
+    }
+
+    @Test
+    public void testGetNumberOfReportResultsByIDs() throws NotFoundException {
+        topicGateway.createTopic(topic1);
+        topicGateway.createTopic(topic2);
+        reportGateway.create(report1);
+        reportGateway.create(report2);
+        assertEquals(2, searchGateway.getNumberOfReportResultsByIDs(List.of(report1.getId(), report2.getId(),
+                424242), null, null, true, true, true, null, allTypes(), allSeverities()));
+    }
+
+    @Test
+    public void testGetNumberOfReportResultsByIDsIsNull() {
+        assertThrows(IllegalArgumentException.class, () -> searchGateway.getNumberOfReportResultsByIDs(null, null,
+                null, true, true, true, null, allTypes(), allSeverities()));
+    }
+
+    @Test
+    public void testGetIndexableReports() throws NotFoundException {
+        topicGateway.createTopic(topic1);
+        topicGateway.createTopic(topic2);
+        reportGateway.create(report1);
+        reportGateway.create(report2);
+        List<Report> all = searchGateway.getIndexableReports(null);
+        assertAll(
+                () -> assertEquals(2, all.size()),
+                () -> assertTrue(all.stream().anyMatch(r -> r.getTitle().equals(report1.getTitle()))),
+                () -> assertTrue(searchGateway.getIndexableReports(OffsetDateTime.now().plusDays(1)).isEmpty())
+        );
+    }
+
+    @Test
+    public void testGetIndexablePostsWhenNone() {
+        assertTrue(searchGateway.getIndexablePosts(null).isEmpty());
+    }
+
+    @Test
+    public void testGetIndexableUsers() {
+        userGateway.createUser(user1);
+        userGateway.createUser(admin);
+        List<User> users = searchGateway.getIndexableUsers();
+        assertAll(
+                () -> assertEquals(2, users.size()),
+                () -> assertTrue(users.stream().anyMatch(u -> u.getId().equals(user1.getId())
+                        && u.getUsername().equals(user1.getUsername()) && !u.isAdministrator())),
+                () -> assertTrue(users.stream().anyMatch(u -> u.getId().equals(admin.getId())
+                        && u.isAdministrator()))
+        );
+    }
+
+    @Test
+    public void testGetIndexableTopics() throws NotFoundException, DuplicateException {
+        topicGateway.createTopic(topic1);
+        List<Topic> topics = searchGateway.getIndexableTopics();
+        assertAll(
+                () -> assertEquals(1, topics.size()),
+                () -> assertEquals(topic1.getTitle(), topics.get(0).getTitle())
+        );
+    }
+
+    @Test
+    public void testGetBannedUserIDsAndModeratorIDs() throws NotFoundException, DuplicateException {
+        userGateway.createUser(user1);
+        userGateway.createUser(user2);
+        topicGateway.createTopic(topic1);
+        topicGateway.banUser(topic1, user1);
+        topicGateway.promoteModerator(topic1, user2);
+        assertAll(
+                () -> assertEquals(Map.of(topic1.getId(), List.of(user1.getId())), searchGateway.getBannedUserIDs()),
+                () -> assertEquals(Map.of(topic1.getId(), List.of(user2.getId())), searchGateway.getModeratorIDs())
+        );
+    }
+
+    private static Map<Report.Type, Boolean> allTypes() {
+        return Map.of(Report.Type.BUG, true, Report.Type.FEATURE, true, Report.Type.HINT, true);
+    }
+
+    private static Map<Report.Severity, Boolean> allSeverities() {
+        return Map.of(Report.Severity.MINOR, true, Report.Severity.RELEVANT, true, Report.Severity.SEVERE, true);
+    }
+
 }
@@ -316,6 +316,18 @@ public class TopicDBGatewayTest {
         assertNotNull(topicGateway.determineLastActivity(topic));
     }
 
+    @Test
+    public void testDetermineLastActivityAfterReportDeletion() throws Exception {
+        numberOfTopics = 1;
+        addTopics();
+        Topic topic = makeTestTopic(1);
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("INSERT INTO report (title, type, severity, topic) VALUES ('Hello', 'BUG', 'MINOR', 1)");
+            stmt.execute("DELETE FROM report WHERE topic = 1");
+        }
+        assertNull(topicGateway.determineLastActivity(topic));
+    }
+
     @Test
     public void testDetermineLastActivityWhenTopicNotFound() {
         Topic topic = makeTestTopic(42);
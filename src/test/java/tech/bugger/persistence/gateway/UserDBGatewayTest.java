@@ -24,6 +24,7 @@ import java.sql.Statement;
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
@@ -31,6 +32,7 @@ import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyInt;
@@ -38,8 +40,10 @@ import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(DBExtension.class)
 @ExtendWith(LogExtension.class)
@@ -103,7 +107,7 @@ public class UserDBGatewayTest {
                 () -> assertEquals(user.getEmailAddress(), copyFromDatabase.getEmailAddress()),
                 () -> assertEquals(user.getFirstName(), copyFromDatabase.getFirstName()),
                 () -> assertEquals(user.getLastName(), copyFromDatabase.getLastName()),
-                () -> assertArrayEquals(user.getAvatarThumbnail(), copyFromDatabase.getAvatarThumbnail()),
+                () -> assertTrue(copyFromDatabase.isExistsAvatar()),
                 () -> assertEquals(user.getBiography(), copyFromDatabase.getBiography()),
                 () -> assertEquals(user.getPreferredLanguage(), copyFromDatabase.getPreferredLanguage()),
                 () -> assertEquals(user.getProfileVisibility(), copyFromDatabase.getProfileVisibility()),
@@ -142,6 +146,30 @@ public class UserDBGatewayTest {
         assertThrows(StoreException.class, () -> new UserDBGateway(connectionSpy).getUserByID(1));
     }
 
+    @Test
+    public void testGetUsersByIDs() throws Exception {
+        userGateway.createUser(user);
+        userGateway.createUser(admin);
+        Map<Integer, User> users = userGateway.getUsersByIDs(List.of(user.getId(), admin.getId(), 4242));
+        assertAll(() -> assertEquals(2, users.size()),
+                () -> assertEquals(user.getUsername(), users.get(user.getId()).getUsername()),
+                () -> assertEquals(admin.getUsername(), users.get(admin.getId()).getUsername()));
+    }
+
+    @Test
+    public void testGetUsersByIDsWhenEmpty() throws Exception {
+        Connection connectionSpy = spy(connection);
+        assertTrue(new UserDBGateway(connectionSpy).getUsersByIDs(List.of()).isEmpty());
+        verify(connectionSpy, never()).prepareStatement(any());
+    }
+
+    @Test
+    public void testGetUsersByIDsWhenDatabaseError() throws Exception {
+        Connection connectionSpy = spy(connection);
+        doThrow(SQLException.class).when(connectionSpy).prepareStatement(any());
+        assertThrows(StoreException.class, () -> new UserDBGateway(connectionSpy).getUsersByIDs(List.of(1)));
+    }
+
     @Test
     public void testUpdateUser() throws Exception {
         userGateway.createUser(user);
@@ -157,7 +185,7 @@ public class UserDBGatewayTest {
                 () -> assertEquals(user.getEmailAddress(), copyFromDatabase.getEmailAddress()),
                 () -> assertEquals(user.getFirstName(), copyFromDatabase.getFirstName()),
                 () -> assertEquals(user.getLastName(), copyFromDatabase.getLastName()),
-                () -> assertArrayEquals(user.getAvatarThumbnail(), copyFromDatabase.getAvatarThumbnail()),
+                () -> assertTrue(copyFromDatabase.isExistsAvatar()),
                 () -> assertEquals(user.getBiography(), copyFromDatabase.getBiography()),
                 () -> assertEquals(user.getRegistrationDate(), copyFromDatabase.getRegistrationDate()),
                 () -> assertEquals(user.getPreferredLanguage(), copyFromDatabase.getPreferredLanguage()),
@@ -233,6 +261,37 @@ public class UserDBGatewayTest {
         assertArrayEquals("testavatar".getBytes(), userGateway.getAvatarForUser(2));
     }
 
+    @Test
+    public void testGetUserDoesNotLoadAvatar() throws Exception {
+        userGateway.createUser(user);
+        User copyFromDatabase = userGateway.getUserByID(user.getId());
+        assertAll(() -> assertNull(copyFromDatabase.getAvatar()),
+                () -> assertNull(copyFromDatabase.getAvatarThumbnail()),
+                () -> assertTrue(copyFromDatabase.isExistsAvatar()));
+    }
+
+    @Test
+    public void testUpdateUserKeepsUnloadedAvatar() throws Exception {
+        userGateway.createUser(user);
+        User copyFromDatabase = userGateway.getUserByID(user.getId());
+        copyFromDatabase.setLastName("Heinrich");
+        userGateway.updateUser(copyFromDatabase);
+        assertAll(() -> assertArrayEquals(user.getAvatar(), userGateway.getAvatarForUser(user.getId())),
+                () -> assertArrayEquals(user.getAvatarThumbnail(),
+                        userGateway.getAvatarThumbnailForUser(user.getId())));
+    }
+
+    @Test
+    public void testGetAvatarThumbnailForUserFound() throws Exception {
+        userGateway.createUser(user);
+        assertArrayEquals(user.getAvatarThumbnail(), userGateway.getAvatarThumbnailForUser(user.getId()));
+    }
+
+    @Test
+    public void testGetAvatarThumbnailForUserNotFound() {
+        assertThrows(NotFoundException.class, () -> userGateway.getAvatarThumbnailForUser(42));
+    }
+
     @Test
     public void testGetAvatarForUserWhenDatabaseError() throws Exception {
         Connection connectionSpy = spy(connection);
@@ -563,11 +622,11 @@ public class UserDBGatewayTest {
     }
 
     @Test
-    public void testCleanExpiredRegistrationsWhenSuccess() {
+    public void testCleanExpiredRegistrationsWhenSuccess() throws Exception {
         DBExtension.insertMinimalTestData();
         assertDoesNotThrow(() -> userGateway.getUserByUsername("pending"));
-        assertDoesNotThrow(() -> userGateway.getUserByUsername("corpse"));
-        userGateway.cleanExpiredRegistrations();
+        int corpseID = userGateway.getUserByUsername("corpse").getId();
+        assertEquals(List.of(corpseID), userGateway.cleanExpiredRegistrations());
         assertDoesNotThrow(() -> userGateway.getUserByUsername("pending"));
         assertThrows(NotFoundException.class, () -> userGateway.getUserByUsername("corpse"));
     }
@@ -7,11 +7,19 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.Socket;
 import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
@@ -34,7 +42,10 @@ public class ConnectionPoolTest {
     private static final Properties PROPS = new Properties();
     private static final int MIN_CONNS = 2;
     private static final int MAX_CONNS = 5;
+    private static final int MIN_IDLE_CONNS = 1;
     private static final int TIMEOUT = 1000; // should not cause trouble with in-memory DB ;-)
+    private static final int NO_VALIDATION = -1;
+    private static final int HOUSEKEEPING_PERIOD = 1000;
     private static EmbeddedPostgres pg;
 
     @BeforeAll
@@ -49,6 +60,14 @@ public class ConnectionPoolTest {
         pg.close();
     }
 
+    private static void awaitConnections(Collection<Connection> available, Collection<Connection> used, int total)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (available.size() + used.size() < total && System.currentTimeMillis() < deadline) {
+            Thread.sleep(TIMEOUT / 100);
+        }
+    }
+
     private static boolean isPortBlocked() {
         try (Socket ignored = new Socket("localhost", PORT)) {
             return true;
@@ -63,58 +82,103 @@ public class ConnectionPoolTest {
         @Test
         public void testConstructorWhenDvrNull() {
             assertThrows(IllegalArgumentException.class,
-                    () -> new ConnectionPool(null, URL, PROPS, MIN_CONNS, MAX_CONNS, TIMEOUT));
+                    () -> new ConnectionPool(null, URL, PROPS, MIN_CONNS, MAX_CONNS, MIN_IDLE_CONNS, TIMEOUT, 0,
+                            NO_VALIDATION, 0, 0));
         }
 
         @Test
         public void testConstructorWhenUrlNull() {
             assertThrows(IllegalArgumentException.class,
-                    () -> new ConnectionPool(DVR, null, PROPS, MIN_CONNS, MAX_CONNS, TIMEOUT));
+                    () -> new ConnectionPool(DVR, null, PROPS, MIN_CONNS, MAX_CONNS, MIN_IDLE_CONNS, TIMEOUT, 0,
+                            NO_VALIDATION, 0, 0));
         }
 
         @Test
         public void testConstructorWhenUrlInvalid() {
             assertThrows(InternalError.class,
-                    () -> new ConnectionPool(DVR, "invalid", PROPS, MIN_CONNS, MAX_CONNS, TIMEOUT));
+                    () -> new ConnectionPool(DVR, "invalid", PROPS, MIN_CONNS, MAX_CONNS, MIN_IDLE_CONNS, TIMEOUT, 0,
+                            NO_VALIDATION, 0, 0));
         }
 
         @Test
         public void testConstructorWhenPropsNull() {
             assertThrows(IllegalArgumentException.class,
-                    () -> new ConnectionPool(DVR, URL, null, MIN_CONNS, MAX_CONNS, TIMEOUT));
+                    () -> new ConnectionPool(DVR, URL, null, MIN_CONNS, MAX_CONNS, MIN_IDLE_CONNS, TIMEOUT, 0,
+                            NO_VALIDATION, 0, 0));
         }
 
         @Test
         public void testConstructorWhenMinConnsNotPositive() {
             assertThrows(IllegalArgumentException.class,
-                    () -> new ConnectionPool(DVR, URL, PROPS, 0, MAX_CONNS, TIMEOUT));
+                    () -> new ConnectionPool(DVR, URL, PROPS, 0, MAX_CONNS, MIN_IDLE_CONNS, TIMEOUT, 0, NO_VALIDATION,
+                            0, 0));
         }
 
         @Test
         public void testConstructorWhenMaxConnsNotPositive() {
             assertThrows(IllegalArgumentException.class,
-                    () -> new ConnectionPool(DVR, URL, PROPS, MIN_CONNS, 0, TIMEOUT));
+                    () -> new ConnectionPool(DVR, URL, PROPS, MIN_CONNS, 0, MIN_IDLE_CONNS, TIMEOUT, 0, NO_VALIDATION,
+                            0, 0));
+        }
+
+        @Test
+        public void testConstructorWhenMinIdleConnsNegative() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> new ConnectionPool(DVR, URL, PROPS, MIN_CONNS, MAX_CONNS, -1, TIMEOUT, 0, NO_VALIDATION, 0,
+                            0));
+        }
+
+        @Test
+        public void testConstructorWhenMinIdleConnsGreaterThanMaxConns() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> new ConnectionPool(DVR, URL, PROPS, MIN_CONNS, MAX_CONNS, MAX_CONNS + 1, TIMEOUT, 0,
+                            NO_VALIDATION, 0, 0));
         }
 
         @Test
         public void testConstructorWhenTimeoutNegative() {
             assertThrows(IllegalArgumentException.class,
-                    () -> new ConnectionPool(DVR, URL, PROPS, MIN_CONNS, MAX_CONNS, -42));
+                    () -> new ConnectionPool(DVR, URL, PROPS, MIN_CONNS, MAX_CONNS, MIN_IDLE_CONNS, -42, 0,
+                            NO_VALIDATION, 0, 0));
+        }
+
+        @Test
+        public void testConstructorWhenIdleTimeoutNegative() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> new ConnectionPool(DVR, URL, PROPS, MIN_CONNS, MAX_CONNS, MIN_IDLE_CONNS, TIMEOUT, -1,
+                            NO_VALIDATION, 0, 0));
+        }
+
+        @Test
+        public void testConstructorWhenMaxLifetimeNegative() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> new ConnectionPool(DVR, URL, PROPS, MIN_CONNS, MAX_CONNS, MIN_IDLE_CONNS, TIMEOUT, 0,
+                            NO_VALIDATION, -1, 0));
+        }
+
+        @Test
+        public void testConstructorWhenLeakThresholdNegative() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> new ConnectionPool(DVR, URL, PROPS, MIN_CONNS, MAX_CONNS, MIN_IDLE_CONNS, TIMEOUT, 0,
+                            NO_VALIDATION, 0, -1));
         }
 
         @Test
         public void testConstructorWhenDriverNotExisting() {
             assertThrows(InternalError.class,
-                    () -> new ConnectionPool("nodriver", URL, PROPS, MIN_CONNS, MAX_CONNS, TIMEOUT));
+                    () -> new ConnectionPool("nodriver", URL, PROPS, MIN_CONNS, MAX_CONNS, MIN_IDLE_CONNS, TIMEOUT, 0,
+                            NO_VALIDATION, 0, 0));
         }
 
         @Test
         @SuppressWarnings("unchecked")
-        public void testConstructorSetsUpConnections() throws IllegalAccessException, NoSuchFieldException {
-            ConnectionPool connectionPool = new ConnectionPool(DVR, URL, PROPS, MIN_CONNS, MAX_CONNS, TIMEOUT);
+        public void testConstructorSetsUpConnections() throws Exception {
+            ConnectionPool connectionPool = new ConnectionPool(DVR, URL, PROPS, MIN_CONNS, MAX_CONNS, MIN_IDLE_CONNS,
+                    TIMEOUT, 0, NO_VALIDATION, 0, 0);
             Field field = ConnectionPool.class.getDeclaredField("availableConnections");
             field.setAccessible(true);
             Collection<Connection> availableConnections = (Collection<Connection>) field.get(connectionPool);
+            awaitConnections(availableConnections, List.of(), MIN_CONNS);
             assertEquals(2, availableConnections.size());
             connectionPool.shutdown();
         }
@@ -129,7 +193,8 @@ public class ConnectionPoolTest {
         @BeforeEach
         @SuppressWarnings("unchecked")
         public void setUp() throws Exception {
-            connectionPool = new ConnectionPool(DVR, URL, PROPS, MIN_CONNS, MAX_CONNS, TIMEOUT);
+            connectionPool = new ConnectionPool(DVR, URL, PROPS, MIN_CONNS, MAX_CONNS, MIN_IDLE_CONNS, TIMEOUT, 0,
+                    NO_VALIDATION, 0, 0);
 
             Field field = ConnectionPool.class.getDeclaredField("availableConnections");
             field.setAccessible(true);
@@ -184,7 +249,8 @@ public class ConnectionPoolTest {
         @BeforeEach
         @SuppressWarnings("unchecked")
         public void setUp() throws Exception {
-            connectionPool = new ConnectionPool(DVR, URL, PROPS, MIN_CONNS, MAX_CONNS, TIMEOUT);
+            connectionPool = new ConnectionPool(DVR, URL, PROPS, MIN_CONNS, MAX_CONNS, MIN_IDLE_CONNS, TIMEOUT, 0,
+                    NO_VALIDATION, 0, 0);
 
             Field field = ConnectionPool.class.getDeclaredField("availableConnections");
             field.setAccessible(true);
@@ -193,6 +259,8 @@ public class ConnectionPoolTest {
             field = ConnectionPool.class.getDeclaredField("usedConnections");
             field.setAccessible(true);
             usedConnections = (Collection<Connection>) field.get(connectionPool);
+
+            awaitConnections(availableConnections, usedConnections, MIN_CONNS);
         }
 
         @AfterEach
@@ -210,10 +278,11 @@ public class ConnectionPoolTest {
         }
 
         @Test
-        public void testGetConnectionWhenNotAvailableButIncreasable() {
+        public void testGetConnectionWhenNotAvailableButIncreasable() throws Exception {
             for (int i = 0; i < 3; i++) {
                 connectionPool.getConnection();
             }
+            awaitConnections(availableConnections, usedConnections, 4);
             assertAll(
                     () -> assertEquals(3, usedConnections.size()),
                     () -> assertEquals(1, availableConnections.size())
@@ -239,6 +308,37 @@ public class ConnectionPoolTest {
             assertThrows(OutOfConnectionsException.class, () -> connectionPool.getConnection());
         }
 
+        @Test
+        public void testMetricsRecordBorrowAndRelease() throws Exception {
+            Connection connection = connectionPool.getConnection();
+            connectionPool.releaseConnection(connection);
+            StringBuilder out = new StringBuilder();
+            connectionPool.getMetrics().writePrometheus("", out);
+            String text = out.toString();
+            assertAll(
+                    () -> assertTrue(text.contains("\nacquire_wait_seconds_count 1\n")),
+                    () -> assertTrue(text.contains("\nborrow_duration_seconds_count 1\n")),
+                    () -> assertTrue(text.contains("\nconnections_in_use 0\n")),
+                    () -> assertTrue(text.contains("\nconnections_opened_total " + MIN_CONNS + "\n"))
+            );
+        }
+
+        @Test
+        public void testMetricsCountTimeouts() throws Exception {
+            for (int i = 0; i < MAX_CONNS; i++) {
+                connectionPool.getConnection();
+            }
+            assertThrows(OutOfConnectionsException.class, () -> connectionPool.getConnection());
+            StringBuilder out = new StringBuilder();
+            connectionPool.getMetrics().writePrometheus("", out);
+            String text = out.toString();
+            assertAll(
+                    () -> assertTrue(text.contains("\nacquire_timeouts_total 1\n")),
+                    () -> assertTrue(text.contains("\nconnections_in_use " + MAX_CONNS + "\n")),
+                    () -> assertTrue(text.contains("\nutilization 1\n"))
+            );
+        }
+
         @Test
         public void testReleaseConnectionWhenConnectionIsNull() {
             assertThrows(IllegalArgumentException.class, () -> connectionPool.releaseConnection(null));
@@ -293,15 +393,16 @@ public class ConnectionPoolTest {
         }
 
         @Test
-        public void testReleaseConnectionWhenBalancing() {
+        public void testReleaseConnectionWhenLowLoadDoesNotShrink() throws Exception {
             for (int i = 0; i < 2; i++) {
                 connectionPool.getConnection();
             }
             Connection connection = connectionPool.getConnection();
+            awaitConnections(availableConnections, usedConnections, 4);
             connectionPool.releaseConnection(connection);
             assertAll(
                     () -> assertEquals(2, usedConnections.size()),
-                    () -> assertEquals(1, availableConnections.size()),
+                    () -> assertEquals(2, availableConnections.size()),
                     () -> assertTrue(availableConnections.contains(connection))
             );
         }
@@ -348,6 +449,77 @@ public class ConnectionPoolTest {
             assertEquals(0, usedConnections.size());
         }
 
+        @Test
+        public void testGetConnectionOpensConnectionsInBackgroundBelowLowWaterMark() throws Exception {
+            connectionPool.getConnection();
+            connectionPool.getConnection();
+            awaitConnections(availableConnections, usedConnections, MIN_CONNS + MIN_IDLE_CONNS);
+            assertAll(
+                    () -> assertEquals(MIN_CONNS, usedConnections.size()),
+                    () -> assertEquals(MIN_IDLE_CONNS, availableConnections.size())
+            );
+        }
+
+        @Test
+        public void testGetConnectionPrefersLastReleasedConnection() throws Exception {
+            Connection own = connectionPool.getConnection();
+            Connection foreign = connectionPool.getConnection();
+            awaitConnections(availableConnections, usedConnections, MIN_CONNS + MIN_IDLE_CONNS);
+            connectionPool.releaseConnection(own);
+            Thread other = new Thread(() -> connectionPool.releaseConnection(foreign));
+            other.start();
+            other.join();
+            assertSame(own, connectionPool.getConnection());
+        }
+
+        @Test
+        public void testGetConnectionWhenWaitingIsFirstComeFirstServed() throws Exception {
+            List<Connection> connections = new ArrayList<>();
+            for (int i = 0; i < MAX_CONNS; i++) {
+                connections.add(connectionPool.getConnection());
+            }
+
+            List<String> order = Collections.synchronizedList(new ArrayList<>());
+            List<Thread> waiters = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                String name = "waiter-" + i;
+                Thread waiter = new Thread(() -> {
+                    Connection connection = connectionPool.getConnection();
+                    order.add(name);
+                    connectionPool.releaseConnection(connection);
+                }, name);
+                waiters.add(waiter);
+                waiter.start();
+                Thread.sleep(TIMEOUT / 20); // make sure the waiters queue up in order
+            }
+
+            connectionPool.releaseConnection(connections.get(0));
+            for (Thread waiter : waiters) {
+                waiter.join();
+            }
+            assertEquals(List.of("waiter-0", "waiter-1", "waiter-2"), order);
+        }
+
+        @Test
+        public void testGetConnectionWhenShutDownWhileWaiting() throws Exception {
+            for (int i = 0; i < MAX_CONNS; i++) {
+                connectionPool.getConnection();
+            }
+            AtomicReference<Throwable> thrown = new AtomicReference<>();
+            Thread waiter = new Thread(() -> {
+                try {
+                    connectionPool.getConnection();
+                } catch (Throwable t) {
+                    thrown.set(t);
+                }
+            });
+            waiter.start();
+            Thread.sleep(TIMEOUT / 10);
+            connectionPool.shutdown();
+            waiter.join();
+            assertEquals(IllegalStateException.class, thrown.get().getClass());
+        }
+
         @Test
         public void testDecreaseConnectionsJustForBranchCoverage() throws Exception {
             Method method = connectionPool.getClass().getDeclaredMethod("decreaseConnections", int.class);
@@ -357,4 +529,171 @@ public class ConnectionPoolTest {
         }
     }
 
-}
\ No newline at end of file
+    @Nested
+    public class ConnectionPoolHealthTest {
+        private ConnectionPool connectionPool;
+
+        @AfterEach
+        public void tearDown() {
+            connectionPool.shutdown();
+        }
+
+        @SuppressWarnings("unchecked")
+        private Collection<Connection> getCollection(String name) throws Exception {
+            Field field = ConnectionPool.class.getDeclaredField(name);
+            field.setAccessible(true);
+            return (Collection<Connection>) field.get(connectionPool);
+        }
+
+        @Test
+        public void testGetConnectionWhenIdleConnectionDied() throws Exception {
+            connectionPool = new ConnectionPool(DVR, URL, PROPS, 1, MAX_CONNS, 0, TIMEOUT, 0, 0, 0, 0);
+            Connection dead = connectionPool.getConnection();
+            connectionPool.releaseConnection(dead);
+            dead.close(); // simulates the server terminating the connection
+            Connection connection = connectionPool.getConnection();
+            assertAll(
+                    () -> assertNotSame(dead, connection),
+                    () -> assertTrue(connection.isValid(1))
+            );
+        }
+
+        @Test
+        public void testReleaseConnectionDoesNotHandStaleConnectionToWaiter() throws Exception {
+            connectionPool = new ConnectionPool(DVR, URL, PROPS, 1, 1, 0, TIMEOUT, 0, 0, 0, 0);
+            Connection stale = connectionPool.getConnection();
+            AtomicReference<Connection> received = new AtomicReference<>();
+            Thread waiter = new Thread(() -> received.set(connectionPool.getConnection()));
+            waiter.start();
+            Thread.sleep(TIMEOUT / 10);
+
+            ResultSet rs = stale.createStatement().executeQuery("SELECT pg_backend_pid()");
+            rs.next();
+            int pid = rs.getInt(1);
+            try (Connection admin = DriverManager.getConnection(URL, PROPS)) {
+                admin.createStatement().executeQuery("SELECT pg_terminate_backend(" + pid + ")");
+            }
+            connectionPool.releaseConnection(stale);
+            waiter.join();
+            assertAll(
+                    () -> assertNotSame(stale, received.get()),
+                    () -> assertTrue(received.get().isValid(1))
+            );
+        }
+
+        @Test
+        public void testGetConnectionWhenValidatedRecently() throws Exception {
+            connectionPool = new ConnectionPool(DVR, URL, PROPS, 1, MAX_CONNS, 0, TIMEOUT, 0, TIMEOUT * 60, 0, 0);
+            Connection connection = connectionPool.getConnection();
+            connectionPool.releaseConnection(connection);
+            connection.close();
+            assertSame(connection, connectionPool.getConnection());
+        }
+
+        @Test
+        public void testHousekeepingRetiresExpiredConnections() throws Exception {
+            connectionPool = new ConnectionPool(DVR, URL, PROPS, 1, MAX_CONNS, 0, TIMEOUT, 0, NO_VALIDATION,
+                    HOUSEKEEPING_PERIOD / 2, 0);
+            Connection connection = connectionPool.getConnection();
+            connectionPool.releaseConnection(connection);
+            Thread.sleep(HOUSEKEEPING_PERIOD * 2);
+            Collection<Connection> availableConnections = getCollection("availableConnections");
+            awaitConnections(availableConnections, List.of(), 1);
+            assertAll(
+                    () -> assertTrue(connection.isClosed()),
+                    () -> assertFalse(availableConnections.contains(connection)),
+                    () -> assertEquals(1, availableConnections.size())
+            );
+        }
+
+        @Test
+        public void testReleaseConnectionWhenExpired() throws Exception {
+            connectionPool = new ConnectionPool(DVR, URL, PROPS, 1, MAX_CONNS, 0, TIMEOUT, 0, NO_VALIDATION,
+                    HOUSEKEEPING_PERIOD / 10, 0);
+            Connection connection = connectionPool.getConnection();
+            Thread.sleep(HOUSEKEEPING_PERIOD / 5);
+            connectionPool.releaseConnection(connection);
+            assertAll(
+                    () -> assertTrue(connection.isClosed()),
+                    () -> assertFalse(getCollection("availableConnections").contains(connection)),
+                    () -> assertFalse(getCollection("usedConnections").contains(connection))
+            );
+        }
+
+        @Test
+        public void testHousekeepingKeepsIdleConnectionsAfterBurst() throws Exception {
+            connectionPool = new ConnectionPool(DVR, URL, PROPS, 1, MAX_CONNS, 0, TIMEOUT, HOUSEKEEPING_PERIOD / 2,
+                    NO_VALIDATION, 0, 0);
+            Collection<Connection> availableConnections = getCollection("availableConnections");
+            List<Connection> burst = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                burst.add(connectionPool.getConnection());
+            }
+            for (Connection connection : burst) {
+                connectionPool.releaseConnection(connection);
+            }
+            Thread.sleep(HOUSEKEEPING_PERIOD * 2);
+            assertEquals(4, availableConnections.size());
+        }
+
+        @Test
+        public void testHousekeepingClosesIdleConnectionsWhenDemandDecayed() throws Exception {
+            connectionPool = new ConnectionPool(DVR, URL, PROPS, 1, MAX_CONNS, 0, TIMEOUT, HOUSEKEEPING_PERIOD / 2,
+                    NO_VALIDATION, 0, 0);
+            Collection<Connection> availableConnections = getCollection("availableConnections");
+            List<Connection> burst = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                burst.add(connectionPool.getConnection());
+            }
+            for (Connection connection : burst) {
+                connectionPool.releaseConnection(connection);
+            }
+            Thread.sleep(HOUSEKEEPING_PERIOD * 2);
+            Field field = ConnectionPool.class.getDeclaredField("smoothedDemand");
+            field.setAccessible(true);
+            field.setDouble(connectionPool, 0); // as if the burst was long ago
+            Thread.sleep(HOUSEKEEPING_PERIOD * 2);
+            int open = 0;
+            for (Connection connection : burst) {
+                open += connection.isClosed() ? 0 : 1;
+            }
+            assertEquals(1, availableConnections.size());
+            assertEquals(1, open);
+        }
+
+        @Test
+        public void testHousekeepingReportsLeaks() throws Exception {
+            List<LogRecord> records = Collections.synchronizedList(new ArrayList<>());
+            Handler handler = new Handler() {
+                @Override
+                public void publish(LogRecord record) {
+                    records.add(record);
+                }
+
+                @Override
+                public void flush() {
+                }
+
+                @Override
+                public void close() {
+                }
+            };
+            Logger logger = Logger.getLogger(ConnectionPool.class.getName());
+            logger.addHandler(handler);
+            try {
+                connectionPool = new ConnectionPool(DVR, URL, PROPS, 1, MAX_CONNS, 0, TIMEOUT, 0, NO_VALIDATION, 0,
+                        HOUSEKEEPING_PERIOD / 10);
+                connectionPool.getConnection();
+                Thread.sleep(HOUSEKEEPING_PERIOD * 2);
+            } finally {
+                logger.removeHandler(handler);
+            }
+            LogRecord leak = records.stream().filter(r -> r.getLevel() == Level.WARNING).findFirst().orElseThrow();
+            assertAll(
+                    () -> assertTrue(leak.getMessage().contains("leaked")),
+                    () -> assertNotNull(leak.getThrown())
+            );
+        }
+    }
+
+}
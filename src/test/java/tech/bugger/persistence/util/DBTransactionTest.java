@@ -1,13 +1,17 @@
 package tech.bugger.persistence.util;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.time.Duration;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import tech.bugger.LogExtension;
 import tech.bugger.persistence.exception.TransactionException;
 import tech.bugger.persistence.gateway.AttachmentDBGateway;
+import tech.bugger.persistence.gateway.FullTextSearchDBGateway;
+import tech.bugger.persistence.gateway.MailDBGateway;
 import tech.bugger.persistence.gateway.MetadataDBGateway;
 import tech.bugger.persistence.gateway.NotificationDBGateway;
 import tech.bugger.persistence.gateway.PostDBGateway;
@@ -38,13 +42,13 @@ public class DBTransactionTest {
         doNothing().when(connectionMock).rollback();
         connectionPoolMock = mock(ConnectionPool.class);
         when(connectionPoolMock.getConnection()).thenReturn(connectionMock);
-        tx = new DBTransaction(connectionPoolMock);
+        tx = new DBTransaction(connectionPoolMock, StatementProfiler.disabled());
     }
 
     @Test
     public void testConstructorAutoCommitFails() throws Exception {
         doThrow(SQLException.class).when(connectionMock).setAutoCommit(anyBoolean());
-        assertThrows(InternalError.class, () -> new DBTransaction(connectionPoolMock));
+        assertThrows(InternalError.class, () -> new DBTransaction(connectionPoolMock, StatementProfiler.disabled()));
     }
 
     @Test
@@ -91,11 +95,25 @@ public class DBTransactionTest {
         assertThrows(IllegalStateException.class, () -> tx.commit());
     }
 
+    @Test
+    public void testGatewaysUseProfiledConnection() throws Exception {
+        StatementProfiler profiler = new StatementProfiler(0, false, false);
+        PreparedStatement stmt = mock(PreparedStatement.class);
+        when(connectionMock.prepareStatement(any())).thenReturn(stmt);
+        new DBTransaction(connectionPoolMock, profiler).newTokenGateway().cleanExpiredTokens(Duration.ZERO);
+        assertFalse(profiler.getTopStatements(1).isEmpty());
+    }
+
     @Test
     public void testNewAttachmentGateway() {
         assertTrue(tx.newAttachmentGateway() instanceof AttachmentDBGateway);
     }
 
+    @Test
+    public void testNewMailGateway() {
+        assertTrue(tx.newMailGateway() instanceof MailDBGateway);
+    }
+
     @Test
     public void testNewMetadataGateway() {
         assertTrue(tx.newMetadataGateway() instanceof MetadataDBGateway);
@@ -121,6 +139,11 @@ public class DBTransactionTest {
         assertTrue(tx.newSearchGateway() instanceof SearchDBGateway);
     }
 
+    @Test
+    public void testNewFullTextSearchGateway() {
+        assertTrue(tx.newFullTextSearchGateway() instanceof FullTextSearchDBGateway);
+    }
+
     @Test
     public void testNewSettingsGateway() {
         assertTrue(tx.newSettingsGateway() instanceof SettingsDBGateway);
@@ -0,0 +1,153 @@
+package tech.bugger.persistence.util;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tech.bugger.LogExtension;
+import tech.bugger.global.transfer.Selection;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(LogExtension.class)
+@ExtendWith(MockitoExtension.class)
+public class KeysetTest {
+
+    private Selection selection;
+
+    @Mock
+    private PreparedStatement stmt;
+
+    @Mock
+    private ResultSet rs;
+
+    @Mock
+    private ResultSetMetaData metaData;
+
+    @BeforeEach
+    public void setUp() {
+        selection = new Selection(42, 2, Selection.PageSize.TINY, "title", true);
+    }
+
+    @Test
+    public void testPaginateByOffset() throws Exception {
+        Keyset keyset = new Keyset(selection, "title", "id");
+        assertEquals("SELECT keyset.*, title AS seek_key FROM (SELECT * FROM report) AS keyset"
+                + " ORDER BY title ASC, id ASC LIMIT ? OFFSET ?", keyset.paginate("SELECT * FROM report"));
+        keyset.bind(new StatementParametrizer(stmt));
+        verify(stmt).setInt(1, 5);
+        verify(stmt).setInt(2, 10);
+    }
+
+    @Test
+    public void testPaginateAfter() throws Exception {
+        selection.setLastCursor(new Selection.Cursor("abc", "varchar", 7));
+        selection.setSeek(Selection.Seek.AFTER);
+        Keyset keyset = new Keyset(selection, "title", "id");
+        assertEquals("SELECT keyset.*, title AS seek_key FROM (SELECT * FROM report) AS keyset"
+                + " WHERE ((title, id) > (CAST(? AS \"varchar\"), ?) OR title IS NULL)"
+                + " ORDER BY title ASC, id ASC LIMIT ? OFFSET ?", keyset.paginate("SELECT * FROM report"));
+        keyset.bind(new StatementParametrizer(stmt));
+        InOrder inOrder = inOrder(stmt);
+        inOrder.verify(stmt).setString(1, "abc");
+        inOrder.verify(stmt).setInt(2, 7);
+        inOrder.verify(stmt).setInt(3, 5);
+        inOrder.verify(stmt).setInt(4, 0);
+    }
+
+    @Test
+    public void testPaginateBeforeReversesOrder() {
+        selection.setFirstCursor(new Selection.Cursor("abc", "varchar", 7));
+        selection.setSeek(Selection.Seek.BEFORE);
+        Keyset keyset = new Keyset(selection, "title", "id");
+        assertEquals("SELECT keyset.*, title AS seek_key FROM (SELECT * FROM report) AS keyset"
+                + " WHERE (title, id) < (CAST(? AS \"varchar\"), ?)"
+                + " ORDER BY title DESC, id DESC LIMIT ? OFFSET ?", keyset.paginate("SELECT * FROM report"));
+    }
+
+    @Test
+    public void testPaginateAfterNull() {
+        selection.setLastCursor(new Selection.Cursor(null, "varchar", 7));
+        selection.setSeek(Selection.Seek.AFTER);
+        assertTrue(new Keyset(selection, "title", "id").paginate("SELECT * FROM report")
+                .contains(" WHERE title IS NULL AND id > ?"));
+    }
+
+    @Test
+    public void testPaginateBeforeNull() {
+        selection.setFirstCursor(new Selection.Cursor(null, "varchar", 7));
+        selection.setSeek(Selection.Seek.BEFORE);
+        assertTrue(new Keyset(selection, "title", "id").paginate("SELECT * FROM report")
+                .contains(" WHERE (title IS NOT NULL OR id < ?)"));
+    }
+
+    @Test
+    public void testPaginateAfterWithoutCursor() {
+        selection.setSeek(Selection.Seek.AFTER);
+        assertFalse(new Keyset(selection, "title", "id").paginate("SELECT * FROM report").contains("WHERE"));
+    }
+
+    @Test
+    public void testPaginateAfterWithInvalidKeyType() {
+        selection.setLastCursor(new Selection.Cursor("abc", "varchar\"; DROP TABLE report; --", 7));
+        selection.setSeek(Selection.Seek.AFTER);
+        assertFalse(new Keyset(selection, "title", "id").paginate("SELECT * FROM report").contains("WHERE"));
+    }
+
+    @Test
+    public void testPaginateLastLimitsToRemainder() throws Exception {
+        selection.setSeek(Selection.Seek.LAST);
+        Keyset keyset = new Keyset(selection, "title", "id");
+        assertTrue(keyset.paginate("SELECT * FROM report")
+                .endsWith(" ORDER BY title DESC, id DESC LIMIT ? OFFSET ?"));
+        keyset.bind(new StatementParametrizer(stmt));
+        verify(stmt).setInt(1, 2);
+        verify(stmt).setInt(2, 0);
+    }
+
+    @Test
+    public void testFinishRemembersCursors() throws Exception {
+        when(rs.getMetaData()).thenReturn(metaData);
+        when(rs.findColumn("seek_key")).thenReturn(3);
+        when(metaData.getColumnTypeName(3)).thenReturn("varchar");
+        when(rs.getString("seek_key")).thenReturn("a", "b");
+        when(rs.getInt("id")).thenReturn(1, 2);
+        Keyset keyset = new Keyset(selection, "title", "id");
+        keyset.track(rs);
+        keyset.track(rs);
+        keyset.finish(new ArrayList<>(List.of(1, 2)));
+        assertAll(
+                () -> assertEquals(new Selection.Cursor("a", "varchar", 1), selection.getFirstCursor()),
+                () -> assertEquals(new Selection.Cursor("b", "varchar", 2), selection.getLastCursor())
+        );
+    }
+
+    @Test
+    public void testFinishReversesItemsReadBackwards() throws Exception {
+        when(rs.getMetaData()).thenReturn(metaData);
+        when(rs.findColumn("seek_key")).thenReturn(3);
+        when(metaData.getColumnTypeName(3)).thenReturn("varchar");
+        when(rs.getString("seek_key")).thenReturn("b", "a");
+        when(rs.getInt("id")).thenReturn(2, 1);
+        selection.setSeek(Selection.Seek.LAST);
+        Keyset keyset = new Keyset(selection, "title", "id");
+        keyset.track(rs);
+        keyset.track(rs);
+        List<Integer> items = new ArrayList<>(List.of(2, 1));
+        keyset.finish(items);
+        assertAll(
+                () -> assertEquals(List.of(1, 2), items),
+                () -> assertEquals(new Selection.Cursor("a", "varchar", 1), selection.getFirstCursor()),
+                () -> assertEquals(new Selection.Cursor("b", "varchar", 2), selection.getLastCursor())
+        );
+    }
+
+}
@@ -97,6 +97,91 @@ public class MailerTest {
         );
     }
 
+    @Test
+    public void testSendReusesConnection() throws Exception {
+        Mailer pooledMailer = pooledMailer(1, 10);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(pooledMailer.send(new Mail.Builder().to(RECIPIENT).subject(SUBJECT + i).envelop()));
+        }
+        String metrics = render(pooledMailer);
+        assertAll(
+                () -> assertEquals(3, smtpServer.getReceivedEmails().size()),
+                () -> assertTrue(metrics.contains("test_connections_opened_total 1\n")),
+                () -> assertTrue(metrics.contains("test_connections_open 1\n")),
+                () -> assertTrue(metrics.contains("test_messages_sent_total 3\n"))
+        );
+        pooledMailer.close();
+    }
+
+    @Test
+    public void testSendRecyclesConnection() throws Exception {
+        Mailer pooledMailer = pooledMailer(1, 2);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(pooledMailer.send(new Mail.Builder().to(RECIPIENT).subject(SUBJECT + i).envelop()));
+        }
+        assertAll(
+                () -> assertEquals(3, smtpServer.getReceivedEmails().size()),
+                () -> assertTrue(render(pooledMailer).contains("test_connections_opened_total 2\n"))
+        );
+        pooledMailer.close();
+    }
+
+    @Test
+    public void testSendReconnectsAfterConnectionLoss() throws Exception {
+        Mailer pooledMailer = pooledMailer(1, 10);
+        assertTrue(pooledMailer.send(new Mail.Builder().to(RECIPIENT).envelop()));
+        smtpServer.stop();
+        while (isPortBlocked()) ;
+        smtpServer = SimpleSmtpServer.start(SMTP_PORT);
+        assertAll(
+                () -> assertTrue(pooledMailer.send(new Mail.Builder().to(RECIPIENT).envelop())),
+                () -> assertEquals(1, smtpServer.getReceivedEmails().size())
+        );
+        pooledMailer.close();
+    }
+
+    @Test
+    public void testSendWhenServerUnavailable() throws Exception {
+        Mailer pooledMailer = pooledMailer(1, 10);
+        smtpServer.stop();
+        while (isPortBlocked()) ;
+        assertAll(
+                () -> assertFalse(pooledMailer.send(new Mail.Builder().to(RECIPIENT).envelop())),
+                () -> assertTrue(render(pooledMailer).contains("test_messages_failed_total 1\n")),
+                () -> assertTrue(render(pooledMailer).contains("test_connections_open 0\n"))
+        );
+        smtpServer = SimpleSmtpServer.start(SMTP_PORT);
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        Mailer pooledMailer = pooledMailer(2, 10);
+        pooledMailer.send(new Mail.Builder().to(RECIPIENT).envelop());
+        pooledMailer.close();
+        assertTrue(render(pooledMailer).contains("test_connections_open 0\n"));
+    }
+
+    @Test
+    public void testConstructorWhenConnectionsNotPositive() {
+        assertThrows(IllegalArgumentException.class, () -> pooledMailer(0, 10));
+    }
+
+    @Test
+    public void testConstructorWhenMessagesPerConnectionNotPositive() {
+        assertThrows(IllegalArgumentException.class, () -> pooledMailer(1, 0));
+    }
+
+    private Mailer pooledMailer(final int connections, final int messagesPerConnection) throws IOException {
+        return new Mailer(ClassLoader.getSystemResourceAsStream("mailing.properties"), null, null, connections,
+                messagesPerConnection);
+    }
+
+    private String render(final Mailer mailer) throws IOException {
+        StringBuilder out = new StringBuilder();
+        mailer.getMetrics().writePrometheus("test_", out);
+        return out.toString();
+    }
+
     @Test
     public void testSimpleConstructorWhenConfigurationInvalid() throws Exception {
         InputStream is = new BufferedInputStream(new ByteArrayInputStream(new byte[0]));
@@ -0,0 +1,285 @@
+package tech.bugger.persistence.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tech.bugger.LogExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(LogExtension.class)
+@ExtendWith(MockitoExtension.class)
+public class StatementProfilerTest {
+
+    private static final String QUERY = "SELECT * FROM report WHERE id = ?";
+
+    private static final String EXPLAIN = "EXPLAIN (ANALYZE, BUFFERS) " + QUERY;
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private AtomicLong now;
+
+    private StatementProfiler profiler;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement stmt;
+
+    @Mock
+    private ResultSet rs;
+
+    @Mock
+    private PreparedStatement explainStmt;
+
+    @Mock
+    private ResultSet explainRs;
+
+    @Mock
+    private Savepoint savepoint;
+
+    @BeforeEach
+    public void setUp() {
+        now = new AtomicLong();
+        profiler = new StatementProfiler(true, 0, false, false, now::get);
+    }
+
+    private void stubQuery(final long nanos, final Boolean... next) throws SQLException {
+        when(connection.prepareStatement(QUERY)).thenReturn(stmt);
+        when(stmt.executeQuery()).thenAnswer(invocation -> {
+            now.addAndGet(nanos);
+            return rs;
+        });
+        when(rs.next()).thenReturn(next[0], Arrays.copyOfRange(next, 1, next.length));
+    }
+
+    private void runQuery() throws SQLException {
+        try (PreparedStatement profiled = profiler.wrap(connection).prepareStatement(QUERY)) {
+            profiled.setInt(1, 5);
+            ResultSet result = profiled.executeQuery();
+            while (result.next()) {
+                result.getInt("id");
+            }
+        }
+    }
+
+    private void stubExplain() throws SQLException {
+        when(connection.getAutoCommit()).thenReturn(false);
+        when(connection.setSavepoint()).thenReturn(savepoint);
+        when(connection.prepareStatement(EXPLAIN)).thenReturn(explainStmt);
+        when(explainStmt.executeQuery()).thenReturn(explainRs);
+        when(explainRs.next()).thenReturn(true, true, false);
+        when(explainRs.getString(1)).thenReturn("Index Scan", "Buffers: shared hit=4");
+    }
+
+    @Test
+    public void testGetShape() {
+        assertEquals("SELECT * FROM t WHERE a = ? AND b IN (?, ?) AND c = ?",
+                StatementProfiler.getShape(" SELECT *\n  FROM t WHERE a = 'it''s' AND b IN (1, 2.5) AND c = ? "));
+    }
+
+    @Test
+    public void testWrapWhenDisabled() {
+        assertSame(connection, StatementProfiler.disabled().wrap(connection));
+    }
+
+    @Test
+    public void testRecordsQuery() throws Exception {
+        stubQuery(2 * MILLIS, true, true, false);
+        runQuery();
+        StatementProfiler.Statistics statistics = profiler.getTopStatements(1).get(0);
+        assertAll(
+                () -> assertEquals(QUERY, statistics.getSql()),
+                () -> assertEquals(1, statistics.getCalls()),
+                () -> assertEquals(2, statistics.getRows()),
+                () -> assertEquals(2.0, statistics.getTotalMillis()),
+                () -> assertEquals(0, statistics.getSlowCalls()),
+                () -> assertNull(statistics.getPlan())
+        );
+    }
+
+    @Test
+    public void testRecordsQueryWhenResultClosed() throws Exception {
+        stubQuery(MILLIS, true, false);
+        PreparedStatement profiled = profiler.wrap(connection).prepareStatement(QUERY);
+        ResultSet result = profiled.executeQuery();
+        result.next();
+        assertTrue(profiler.getTopStatements(1).isEmpty());
+        result.close();
+        assertEquals(1, profiler.getTopStatements(1).get(0).getRows());
+    }
+
+    @Test
+    public void testRecordsUpdate() throws Exception {
+        when(connection.prepareStatement("DELETE FROM token")).thenReturn(stmt);
+        when(stmt.executeUpdate()).thenReturn(3);
+        profiler.wrap(connection).prepareStatement("DELETE FROM token").executeUpdate();
+        assertEquals(3, profiler.getTopStatements(1).get(0).getRows());
+    }
+
+    @Test
+    public void testAggregatesByShape() throws Exception {
+        when(connection.prepareStatement(anyString())).thenReturn(stmt);
+        when(stmt.executeUpdate()).thenReturn(1);
+        profiler.wrap(connection).prepareStatement("DELETE FROM token WHERE id = 1").executeUpdate();
+        profiler.wrap(connection).prepareStatement("DELETE FROM token  WHERE id = 2").executeUpdate();
+        List<StatementProfiler.Statistics> statistics = profiler.getTopStatements(10);
+        assertAll(
+                () -> assertEquals(1, statistics.size()),
+                () -> assertEquals(2, statistics.get(0).getCalls()),
+                () -> assertEquals(2, statistics.get(0).getRows())
+        );
+    }
+
+    @Test
+    public void testGetTopStatementsOrdersByTotalTime() throws Exception {
+        when(connection.prepareStatement(anyString())).thenReturn(stmt);
+        when(stmt.executeUpdate()).thenAnswer(invocation -> {
+            now.addAndGet(MILLIS);
+            return 0;
+        });
+        Connection profiled = profiler.wrap(connection);
+        profiled.prepareStatement("DELETE FROM a").executeUpdate();
+        profiled.prepareStatement("DELETE FROM b").executeUpdate();
+        profiled.prepareStatement("DELETE FROM b").executeUpdate();
+        List<StatementProfiler.Statistics> statistics = profiler.getTopStatements(1);
+        assertAll(
+                () -> assertEquals(1, statistics.size()),
+                () -> assertEquals("DELETE FROM b", statistics.get(0).getSql()),
+                () -> assertEquals(1.0, statistics.get(0).getMeanMillis()),
+                () -> assertEquals(1.0, statistics.get(0).getMaxMillis())
+        );
+    }
+
+    @Test
+    public void testReset() throws Exception {
+        stubQuery(MILLIS, false);
+        runQuery();
+        profiler.reset();
+        assertTrue(profiler.getTopStatements(1).isEmpty());
+    }
+
+    @Test
+    public void testSlowStatementIsExplained() throws Exception {
+        profiler = new StatementProfiler(true, 1, true, false, now::get);
+        stubQuery(2 * MILLIS, false);
+        stubExplain();
+        runQuery();
+        StatementProfiler.Statistics statistics = profiler.getTopStatements(1).get(0);
+        assertAll(
+                () -> assertEquals(1, statistics.getSlowCalls()),
+                () -> assertEquals("Index Scan\nBuffers: shared hit=4", statistics.getPlan())
+        );
+        verify(explainStmt).setInt(1, 5);
+        verify(connection).releaseSavepoint(savepoint);
+    }
+
+    @Test
+    public void testSlowStatementIsExplainedOncePerInterval() throws Exception {
+        profiler = new StatementProfiler(true, 1, true, false, now::get);
+        stubQuery(2 * MILLIS, false);
+        stubExplain();
+        runQuery();
+        runQuery();
+        now.addAndGet(StatementProfiler.PLAN_CAPTURE_INTERVAL_NANOS);
+        runQuery();
+        verify(explainStmt, times(2)).executeQuery();
+    }
+
+    @Test
+    public void testFastStatementIsNotExplained() throws Exception {
+        profiler = new StatementProfiler(true, 1, true, false, now::get);
+        stubQuery(0, false);
+        runQuery();
+        verify(connection, never()).prepareStatement(EXPLAIN);
+    }
+
+    @Test
+    public void testSlowModifyingStatementIsNotExplained() throws Exception {
+        profiler = new StatementProfiler(true, 1, true, false, now::get);
+        when(connection.prepareStatement("UPDATE report SET title = ?")).thenReturn(stmt);
+        when(stmt.executeUpdate()).thenAnswer(invocation -> {
+            now.addAndGet(2 * MILLIS);
+            return 1;
+        });
+        profiler.wrap(connection).prepareStatement("UPDATE report SET title = ?").executeUpdate();
+        assertEquals(1, profiler.getTopStatements(1).get(0).getSlowCalls());
+        verify(connection, never()).setSavepoint();
+    }
+
+    @Test
+    public void testExplainFailureRollsBackToSavepoint() throws Exception {
+        profiler = new StatementProfiler(true, 1, true, false, now::get);
+        stubQuery(2 * MILLIS, false);
+        when(connection.getAutoCommit()).thenReturn(false);
+        when(connection.setSavepoint()).thenReturn(savepoint);
+        when(connection.prepareStatement(EXPLAIN)).thenThrow(SQLException.class);
+        assertDoesNotThrow(this::runQuery);
+        verify(connection).rollback(savepoint);
+        assertNull(profiler.getTopStatements(1).get(0).getPlan());
+    }
+
+    @Test
+    public void testExecutionFailureIsRethrown() throws Exception {
+        when(connection.prepareStatement(QUERY)).thenReturn(stmt);
+        when(stmt.executeQuery()).thenThrow(SQLException.class);
+        assertThrows(SQLException.class, this::runQuery);
+        assertTrue(profiler.getTopStatements(1).isEmpty());
+    }
+
+    private Map<Integer, StatementProfiler.Binding> bindings() throws Exception {
+        Map<Integer, StatementProfiler.Binding> bindings = new TreeMap<>();
+        bindings.put(1, new StatementProfiler.Binding(PreparedStatement.class.getMethod("setBytes", int.class,
+                byte[].class), new Object[]{1, new byte[3]}));
+        bindings.put(2, new StatementProfiler.Binding(PreparedStatement.class.getMethod("setString", int.class,
+                String.class), new Object[]{2, "x".repeat(101)}));
+        bindings.put(3, new StatementProfiler.Binding(PreparedStatement.class.getMethod("setNull", int.class,
+                int.class), new Object[]{3, Types.INTEGER}));
+        bindings.put(4, new StatementProfiler.Binding(PreparedStatement.class.getMethod("setInt", int.class,
+                int.class), new Object[]{4, 42}));
+        return bindings;
+    }
+
+    @Test
+    public void testFormatParametersWithValues() throws Exception {
+        assertEquals("[1=<3 bytes>, 2='" + "x".repeat(100) + "...', 3=null, 4=42]",
+                StatementProfiler.formatParameters(bindings(), true));
+    }
+
+    @Test
+    public void testFormatParametersWithoutValues() throws Exception {
+        assertEquals("[1=VARBINARY(3 bytes), 2=VARCHAR(101 chars), 3=NULL INTEGER, 4=INTEGER]",
+                StatementProfiler.formatParameters(bindings(), false));
+    }
+
+    @Test
+    public void testFormatParametersHidesStrings() throws Exception {
+        Map<Integer, StatementProfiler.Binding> bindings = new TreeMap<>();
+        bindings.put(1, new StatementProfiler.Binding(PreparedStatement.class.getMethod("setString", int.class,
+                String.class), new Object[]{1, "secret-token"}));
+        bindings.put(2, new StatementProfiler.Binding(PreparedStatement.class.getMethod("setObject", int.class,
+                Object.class), new Object[]{2, "secret-hash"}));
+        String formatted = StatementProfiler.formatParameters(bindings, false);
+        assertAll(
+                () -> assertFalse(formatted.contains("secret")),
+                () -> assertEquals("[1=VARCHAR(12 chars), 2=String(11 chars)]", formatted)
+        );
+    }
+
+}
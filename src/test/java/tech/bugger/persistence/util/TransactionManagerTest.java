@@ -29,6 +29,7 @@ public class TransactionManagerTest {
     public void setup() {
         doReturn(conn).when(pool).getConnection();
         doReturn(pool).when(registry).getConnectionPool("db");
+        doReturn(StatementProfiler.disabled()).when(registry).getStatementProfiler("db");
         manager = new TransactionManager(registry);
     }
 